@@ -1,21 +1,76 @@
 package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
+import com.digitalisyours.domain.model.ProgressionEnvoiCertificats;
 import com.digitalisyours.domain.port.in.AdminCertificatUseCase;
 import com.digitalisyours.domain.port.out.AdminCertificatRepositoryPort;
+import com.digitalisyours.domain.port.out.CertificatPdfStorePort;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AdminCertificatService implements AdminCertificatUseCase {
 
+    private static final int TAILLE_PAGE = 100;
+    private static final DateTimeFormatter DATE_CSV = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private final AdminCertificatRepositoryPort adminCertificatRepository;
+    private final CertificatPdfStorePort        pdfStore;
+    private final CertificatEmailService        certificatEmailService;
+    private final EmailOutboxPort               outbox;
+
+    // Rendu PDF = CPU : pool borné au nombre de cœurs, partagé par l'archive et l'envoi groupé
+    private final ExecutorService pool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            Thread.ofPlatform().name("certificat-lot-", 0).daemon(true).factory());
+
+    // ── Envoi groupé (un seul à la fois) ──
+    private final AtomicBoolean envoiEnCours = new AtomicBoolean(false);
+    private final AtomicInteger envoiTraites = new AtomicInteger();
+    private final AtomicInteger envoiErreurs = new AtomicInteger();
+    private volatile int           envoiTotal;
+    private volatile LocalDateTime envoiDebut;
+    private volatile LocalDateTime envoiFin;
+
+    @FunctionalInterface
+    private interface TraitementLot {
+        void traiter(List<Certificat> lot) throws IOException;
+    }
 
     @Override
     public Page<Certificat> getAllCertificats(
@@ -48,4 +103,230 @@ public class AdminCertificatService implements AdminCertificatUseCase {
                 "total",             total
         );
     }
-}
\ No newline at end of file
+
+    // ══════════════════════════════════════════════════════
+    // EXPORT CSV
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public void ecrireExportCsv(String formation, String apprenant, LocalDate dateDebut,
+                                LocalDate dateFin, String search, OutputStream out) throws IOException {
+        String f = (formation != null && !formation.isBlank()) ? formation.trim() : null;
+        String a = (apprenant != null && !apprenant.isBlank()) ? apprenant.trim() : null;
+        String s = (search    != null && !search.isBlank())    ? search.trim()    : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("Apprenant,Formation,Note (%),Date délivrance,N° Certificat,Envoyé\n");
+
+        AtomicInteger lignes = new AtomicInteger();
+        try {
+            adminCertificatRepository.parcourirPourExport(f, a, dateDebut, dateFin, s, c -> {
+                try {
+                    writer.write(csv(c.getApprenantPrenom() + " " + c.getApprenantNom()));
+                    writer.write(',');
+                    writer.write(csv(c.getFormationTitre()));
+                    writer.write(',');
+                    writer.write(c.getNoteFinal() != null ? String.format("%.0f", c.getNoteFinal()) : "");
+                    writer.write(',');
+                    writer.write(c.getDateCreation() != null ? c.getDateCreation().format(DATE_CSV) : "");
+                    writer.write(',');
+                    writer.write(csv(c.getNumeroCertificat()));
+                    writer.write(',');
+                    writer.write(Boolean.TRUE.equals(c.getEstEnvoye()) ? "Oui" : "Non");
+                    writer.write('\n');
+                    lignes.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);   // client déconnecté : on arrête le curseur
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Export CSV certificats : {} ligne(s)", lignes.get());
+    }
+
+    private static String csv(String val) {
+        if (val == null) return "";
+        return "\"" + val.replace("\"", "\"\"") + "\"";
+    }
+
+    // ══════════════════════════════════════════════════════
+    // ARCHIVE ZIP
+    // ══════════════════════════════════════════════════════
+
+    /**
+     * Les PDF d'une page sont obtenus en parallèle (rendus seulement s'ils manquent),
+     * puis copiés dans l'ordre dans le ZIP : l'archive n'est jamais en mémoire.
+     */
+    @Override
+    public void ecrireArchivePdf(String formation, String apprenant, LocalDate dateDebut,
+                                 LocalDate dateFin, String search, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED);   // PDF déjà compressés
+        Set<String> noms = new HashSet<>();
+        Set<Long> vus = new HashSet<>();
+        AtomicInteger ecrits = new AtomicInteger();
+
+        parcourirParLots(formation, apprenant, dateDebut, dateFin, search, lotBrut -> {
+            // Un certificat n'entre qu'une fois dans l'archive, quel que soit le parcours
+            List<Certificat> lot = lotBrut.stream().filter(c -> vus.add(c.getId())).toList();
+            List<Future<FichierStocke>> pdfs = new ArrayList<>(lot.size());
+            for (Certificat c : lot) {
+                pdfs.add(pool.submit(() -> pdfStore.obtenir(c)));
+            }
+            for (int i = 0; i < lot.size(); i++) {
+                Certificat c = lot.get(i);
+                FichierStocke pdf;
+                try {
+                    pdf = pdfs.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Archive interrompue");
+                } catch (ExecutionException e) {
+                    log.warn("Certificat {} absent de l'archive : {}",
+                            c.getNumeroCertificat(), e.getCause().getMessage());
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(nomEntree(c, noms)));
+                Files.copy(pdf.getChemin(), zip);
+                zip.closeEntry();
+                ecrits.incrementAndGet();
+            }
+            zip.flush();
+        });
+
+        zip.finish();
+        log.info("Archive certificats : {} PDF", ecrits.get());
+    }
+
+    private String nomEntree(Certificat c, Set<String> noms) {
+        String base = "certificat_" + (c.getNumeroCertificat() != null
+                ? c.getNumeroCertificat().replace("#", "").replace("-", "_")
+                : String.valueOf(c.getId()));
+        // Numéros identiques (ou nettoyés à l'identique) : suffixe id, puis compteur
+        String nom = base + ".pdf";
+        for (int n = 2; !noms.add(nom); n++) {
+            nom = base + "_" + c.getId() + (n > 2 ? "_" + n : "") + ".pdf";
+        }
+        return nom;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // ENVOI GROUPÉ
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public ProgressionEnvoiCertificats lancerEnvoiGroupe(String formation, String apprenant,
+                                                         LocalDate dateDebut, LocalDate dateFin,
+                                                         String search, boolean nonEnvoyesSeulement) {
+        if (!envoiEnCours.compareAndSet(false, true)) {
+            throw new IllegalStateException("Un envoi groupé est déjà en cours");
+        }
+        envoiTotal = 0;
+        envoiTraites.set(0);
+        envoiErreurs.set(0);
+        envoiDebut = LocalDateTime.now();
+        envoiFin   = null;
+
+        Thread.ofVirtual().name("certificat-envoi-groupe").start(() -> {
+            try {
+                executerEnvoiGroupe(formation, apprenant, dateDebut, dateFin, search, nonEnvoyesSeulement);
+            } catch (Exception e) {
+                log.error("Erreur envoi groupé de certificats : {}", e.getMessage(), e);
+            } finally {
+                envoiFin = LocalDateTime.now();
+                envoiEnCours.set(false);
+            }
+        });
+        return getProgressionEnvoiGroupe();
+    }
+
+    private void executerEnvoiGroupe(String formation, String apprenant, LocalDate dateDebut,
+                                     LocalDate dateFin, String search,
+                                     boolean nonEnvoyesSeulement) throws IOException {
+        List<Certificat> aEnvoyer = new ArrayList<>();
+        AtomicInteger dejaEnFile = new AtomicInteger();
+        parcourirParLots(formation, apprenant, dateDebut, dateFin, search, lot -> {
+            // estEnvoye ne passe à true qu'après l'envoi SMTP : un email encore en file
+            // (outbox) ne doit pas être remis en file avec un second exemplaire du PDF
+            Set<Long> enFile = outbox.findReferencesEnFile(CertificatEmailService.TYPE_REFERENCE,
+                    lot.stream().map(Certificat::getId).toList());
+            lot.stream()
+                    .filter(c -> !nonEnvoyesSeulement || !Boolean.TRUE.equals(c.getEstEnvoye()))
+                    .filter(c -> {
+                        if (!enFile.contains(c.getId())) return true;
+                        dejaEnFile.incrementAndGet();
+                        return false;
+                    })
+                    .forEach(aEnvoyer::add);
+        });
+        envoiTotal = aEnvoyer.size();
+        log.info("═══ Envoi groupé : {} certificat(s), {} déjà en file ignoré(s) ═══",
+                aEnvoyer.size(), dejaEnFile.get());
+
+        // PDF relu (ou rendu) + mise en file outbox ; l'envoi SMTP reste au dispatcher
+        List<Future<?>> envois = new ArrayList<>(aEnvoyer.size());
+        for (Certificat c : aEnvoyer) {
+            envois.add(pool.submit(() -> {
+                try {
+                    certificatEmailService.envoyerCertificat(c);
+                    envoiTraites.incrementAndGet();
+                } catch (Exception e) {
+                    envoiErreurs.incrementAndGet();
+                    log.error("Envoi groupé — certificat {} : {}", c.getNumeroCertificat(), e.getMessage());
+                }
+            }));
+        }
+        for (Future<?> f : envois) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // déjà compté dans la tâche
+            }
+        }
+        log.info("═══ Envoi groupé terminé : {}/{} mis en file, {} erreur(s) ═══",
+                envoiTraites.get(), envoiTotal, envoiErreurs.get());
+    }
+
+    @Override
+    public ProgressionEnvoiCertificats getProgressionEnvoiGroupe() {
+        return ProgressionEnvoiCertificats.builder()
+                .enCours(envoiEnCours.get())
+                .total(envoiTotal)
+                .traites(envoiTraites.get())
+                .erreurs(envoiErreurs.get())
+                .dateDebut(envoiDebut)
+                .dateFin(envoiFin)
+                .build();
+    }
+
+    // ── Parcours par lots des certificats filtrés (keyset : stable si des certificats sont créés entre-temps) ──
+    private void parcourirParLots(String formation, String apprenant, LocalDate dateDebut,
+                                  LocalDate dateFin, String search, TraitementLot traitement) throws IOException {
+        String f = (formation != null && !formation.isBlank()) ? formation.trim() : null;
+        String a = (apprenant != null && !apprenant.isBlank()) ? apprenant.trim() : null;
+        String s = (search    != null && !search.isBlank())    ? search.trim()    : null;
+
+        LocalDateTime apresDate = null;
+        Long          apresId   = null;
+        List<Certificat> lot;
+        do {
+            lot = adminCertificatRepository.findLotApres(f, a, dateDebut, dateFin, s,
+                    apresDate, apresId, TAILLE_PAGE);
+            if (lot.isEmpty()) break;
+            traitement.traiter(lot);
+            Certificat dernier = lot.get(lot.size() - 1);
+            apresDate = dernier.getDateCreation();
+            apresId   = dernier.getId();
+        } while (lot.size() == TAILLE_PAGE);
+    }
+
+    @PreDestroy
+    public void arreter() {
+        pool.shutdown();
+    }
+}
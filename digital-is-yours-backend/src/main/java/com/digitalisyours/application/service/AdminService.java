@@ -3,6 +3,7 @@ package com.digitalisyours.application.service;
 import com.digitalisyours.domain.model.User;
 import com.digitalisyours.domain.port.in.AdminUseCase;
 import com.digitalisyours.domain.port.out.AdminRepositoryPort;
+import com.digitalisyours.domain.port.out.PrincipalCachePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,7 @@ import java.util.Map;
 public class AdminService implements AdminUseCase {
     private final AdminRepositoryPort adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCachePort principalCache;
 
     @Override
     public Map<String, Long> getStats() {
@@ -61,6 +63,7 @@ public class AdminService implements AdminUseCase {
             throw new RuntimeException("Cet email est déjà utilisé");
         }
 
+        String ancienEmail = existing.getEmail();
         existing.setPrenom(user.getPrenom());
         existing.setNom(user.getNom());
         existing.setEmail(user.getEmail());
@@ -71,7 +74,11 @@ public class AdminService implements AdminUseCase {
             existing.setMotDePasse(passwordEncoder.encode(rawPassword));
         }
 
-        return adminRepository.save(existing);
+        User saved = adminRepository.save(existing);
+        // Rôle ou email modifié : les autorités en cache ne sont plus valables
+        principalCache.invalider(ancienEmail);
+        principalCache.invalider(saved.getEmail());
+        return saved;
     }
 
     @Override
@@ -80,11 +87,12 @@ public class AdminService implements AdminUseCase {
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
         user.setActive(!user.isActive());
         adminRepository.save(user);
+        principalCache.invalider(user.getEmail());
     }
 
     @Override
     public void deleteUser(Long id) {
-        adminRepository.deleteById(id);
+        supprimer(id);
     }
 
     @Override
@@ -94,10 +102,17 @@ public class AdminService implements AdminUseCase {
         user.setEmailVerifie(true);
         user.setActive(true);
         adminRepository.save(user);
+        principalCache.invalider(user.getEmail());
     }
 
     @Override
     public void rejectFormateur(Long id) {
+        supprimer(id);
+    }
+
+    private void supprimer(Long id) {
+        String email = adminRepository.findById(id).map(User::getEmail).orElse(null);
         adminRepository.deleteById(id);
+        principalCache.invalider(email);
     }
 }
@@ -2,7 +2,9 @@ package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Categorie;
 import com.digitalisyours.domain.port.in.CategorieUseCase;
+import com.digitalisyours.domain.port.out.CatalogueCachePort;
 import com.digitalisyours.domain.port.out.CategorieRepositoryPort;
+import com.digitalisyours.domain.port.out.MoteurRecommandationPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +15,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CategorieService implements CategorieUseCase {
     private final CategorieRepositoryPort categorieRepository;
+    private final CatalogueCachePort catalogueCache;
+    private final MoteurRecommandationPort moteurRecommandation;
 
     @Override
     public List<Categorie> getAllCategories() {
@@ -29,7 +33,10 @@ public class CategorieService implements CategorieUseCase {
         if (categorieRepository.existsByNom(categorie.getNom())) {
             throw new RuntimeException("Une catégorie avec ce nom existe déjà");
         }
-        return categorieRepository.save(categorie);
+        Categorie saved = categorieRepository.save(categorie);
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -44,7 +51,10 @@ public class CategorieService implements CategorieUseCase {
 
         categorie.setId(id);
         categorie.setDateCreation(existing.getDateCreation());
-        return categorieRepository.save(categorie);
+        Categorie saved = categorieRepository.save(categorie);
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -53,5 +63,7 @@ public class CategorieService implements CategorieUseCase {
             throw new RuntimeException("Catégorie non trouvée");
         }
         categorieRepository.deleteById(id);
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
     }
 }
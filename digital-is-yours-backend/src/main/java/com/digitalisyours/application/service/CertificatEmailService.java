@@ -1,18 +1,18 @@
 package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Certificat;
-import com.digitalisyours.infrastructure.pdf.CertificatPdfGenerator;
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.port.out.CertificatPdfStorePort;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
+import com.digitalisyours.infrastructure.email.EmailEnvoyeEvent;
 import com.digitalisyours.infrastructure.persistence.repository.CertificatJpaRepository;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
@@ -21,12 +21,11 @@ import java.util.Locale;
 @Slf4j
 public class CertificatEmailService {
 
-    private final JavaMailSender          mailSender;
-    private final CertificatPdfGenerator  pdfGenerator;
-    private final CertificatJpaRepository certificatJpaRepository;
+    public static final String TYPE_REFERENCE = "CERTIFICAT";
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxPort         outbox;
+    private final CertificatPdfStorePort  pdfStore;
+    private final CertificatJpaRepository certificatJpaRepository;
 
     // ══════════════════════════════════════════════════════
     // POINT D'ENTRÉE
@@ -35,8 +34,8 @@ public class CertificatEmailService {
     @Transactional
     public void envoyerCertificat(Certificat cert) {
         try {
-            // 1. Générer le PDF
-            byte[] pdfBytes = pdfGenerator.generer(cert);
+            // 1. PDF stocké (rendu seulement s'il n'existe pas encore)
+            byte[] pdfBytes = Files.readAllBytes(pdfStore.obtenir(cert).getChemin());
 
             // 2. Construire l'email HTML
             String dateStr = cert.getDateCreation() != null
@@ -59,24 +58,21 @@ public class CertificatEmailService {
                     .replace("-", "_")
                     + ".pdf";
 
-            // 4. Envoyer avec pièce jointe
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(cert.getApprenantEmail());
-            helper.setSubject("🎓 Votre certificat Digital Is Yours — "
-                    + cert.getFormationTitre());
-            helper.setText(html, true);
-            helper.addAttachment(nomFichier,
-                    new ByteArrayResource(pdfBytes),
-                    "application/pdf");
-
-            mailSender.send(message);
+            // 4. Mettre en file avec pièce jointe
+            //    (estEnvoye passe à true une fois l'email réellement parti, cf. surEmailEnvoye)
+            outbox.enregistrer(EmailSortant.builder()
+                    .destinataire(cert.getApprenantEmail())
+                    .sujet("🎓 Votre certificat Digital Is Yours — "
+                            + cert.getFormationTitre())
+                    .html(html)
+                    .pieceJointeNom(nomFichier)
+                    .pieceJointeType("application/pdf")
+                    .pieceJointe(pdfBytes)
+                    .typeReference(TYPE_REFERENCE)
+                    .referenceId(cert.getId())
+                    .build());
 
-            // 5. Marquer estEnvoye = true en base
-            certificatJpaRepository.updateEstEnvoye(cert.getId(), true);
-
-            log.info("Email certificat envoyé à {} — {}",
+            log.info("Email certificat mis en file pour {} — {}",
                     cert.getApprenantEmail(), cert.getNumeroCertificat());
 
         } catch (Exception e) {
@@ -86,6 +82,17 @@ public class CertificatEmailService {
         }
     }
 
+    // ══════════════════════════════════════════════════════
+    // SUIVI D'ENVOI (dispatcher outbox)
+    // ══════════════════════════════════════════════════════
+
+    @EventListener
+    public void surEmailEnvoye(EmailEnvoyeEvent event) {
+        if (TYPE_REFERENCE.equals(event.typeReference())) {
+            certificatJpaRepository.updateEstEnvoye(event.referenceId(), true);
+        }
+    }
+
     // ══════════════════════════════════════════════════════
     // TEMPLATE HTML — score circle via table (compatible Gmail)
     // ══════════════════════════════════════════════════════
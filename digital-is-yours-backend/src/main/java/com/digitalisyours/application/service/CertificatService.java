@@ -2,10 +2,11 @@ package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Apprenant;
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
 import com.digitalisyours.domain.port.in.CertificatUseCase;
 import com.digitalisyours.domain.port.in.ProfilApprenantUseCase;
+import com.digitalisyours.domain.port.out.CertificatPdfStorePort;
 import com.digitalisyours.domain.port.out.CertificatRepositoryPort;
-import com.digitalisyours.infrastructure.pdf.CertificatPdfGenerator;
 import com.digitalisyours.infrastructure.persistence.entity.FormationEntity;
 import com.digitalisyours.infrastructure.persistence.entity.QuizEntity;
 import com.digitalisyours.infrastructure.persistence.repository.FormationJpaRepository;
@@ -17,9 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,14 +27,11 @@ import java.util.List;
 public class CertificatService implements CertificatUseCase {
 
     private final CertificatRepositoryPort certificatRepository;
-    private final CertificatPdfGenerator   pdfGenerator;
+    private final CertificatPdfStorePort   pdfStore;
     private final ProfilApprenantUseCase   profilUseCase;
     private final FormationJpaRepository   formationJpaRepository;
     private final QuizJpaRepository        quizJpaRepository;
 
-    @Value("${app.certificats.storage-path:./certificats}")
-    private String storagePath;
-
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
@@ -114,11 +109,8 @@ public class CertificatService implements CertificatUseCase {
         Certificat saved = certificatRepository.save(certificat);
 
         try {
-            byte[] pdfBytes = pdfGenerator.generer(saved);
-            Path dir = Paths.get(storagePath);
-            Files.createDirectories(dir);
-            String fileName = "cert_" + saved.getId() + "_" + System.currentTimeMillis() + ".pdf";
-            Files.write(dir.resolve(fileName), pdfBytes);
+            // Rendu unique : email et téléchargements relisent ensuite ce fichier
+            pdfStore.obtenir(saved);
 
             String urlPDF = baseUrl + "/api/apprenant/certificats/" + saved.getId() + "/download";
             certificatRepository.updateUrlPDF(saved.getId(), urlPDF);
@@ -156,10 +148,10 @@ public class CertificatService implements CertificatUseCase {
     // ══════════════════════════════════════════════════════════════════════════
 
     @Override
-    public byte[] downloadCertificatPDF(Long certificatId, Long apprenantId) {
+    public FichierStocke downloadCertificatPDF(Long certificatId, Long apprenantId) {
         Certificat cert = getCertificatById(certificatId, apprenantId);
         try {
-            return pdfGenerator.generer(cert);
+            return pdfStore.obtenir(cert);
         } catch (IOException e) {
             throw new RuntimeException("Erreur generation PDF : " + e.getMessage(), e);
         }
@@ -171,11 +163,11 @@ public class CertificatService implements CertificatUseCase {
     // ══════════════════════════════════════════════════════════════════════════
 
     @Override
-    public byte[] downloadCertificatPDFPublic(Long certificatId) {
+    public FichierStocke downloadCertificatPDFPublic(Long certificatId) {
         Certificat cert = certificatRepository.findById(certificatId)
                 .orElseThrow(() -> new RuntimeException("Certificat introuvable : " + certificatId));
         try {
-            return pdfGenerator.generer(cert);
+            return pdfStore.obtenir(cert);
         } catch (IOException e) {
             throw new RuntimeException("Erreur generation PDF : " + e.getMessage(), e);
         }
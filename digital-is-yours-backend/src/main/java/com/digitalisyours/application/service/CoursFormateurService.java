@@ -1,16 +1,23 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.exception.SessionUploadIntrouvableException;
 import com.digitalisyours.domain.model.Cours;
 import com.digitalisyours.domain.model.Document;
+import com.digitalisyours.domain.model.DocumentRecherche;
+import com.digitalisyours.domain.model.SessionUpload;
 import com.digitalisyours.domain.port.in.CoursFormateurUseCase;
+import com.digitalisyours.domain.port.out.ChunkStorePort;
 import com.digitalisyours.domain.port.out.CoursRepositoryPort;
 import com.digitalisyours.domain.port.out.DocumentRepositoryPort;
+import com.digitalisyours.domain.port.out.FileStoragePort;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -25,6 +32,9 @@ import java.util.regex.Pattern;
 @Slf4j
 public class CoursFormateurService implements CoursFormateurUseCase {
     private final CoursRepositoryPort coursRepository;
+    private final FileStoragePort fileStorage;
+    private final ChunkStorePort chunkStore;
+    private final IndexRecherchePort indexRecherche;
 
     @Value("${app.upload.dir:uploads/videos}")
     private String uploadDir;
@@ -64,7 +74,9 @@ public class CoursFormateurService implements CoursFormateurUseCase {
                 .videoUrl(null)
                 .build();
 
-        return coursRepository.save(cours);
+        Cours saved = coursRepository.save(cours);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        return saved;
     }
 
     @Override
@@ -85,7 +97,9 @@ public class CoursFormateurService implements CoursFormateurUseCase {
         if (payload.get("ordre") != null)         cours.setOrdre(getInt(payload, "ordre", cours.getOrdre()));
         if (payload.get("statut") != null)        cours.setStatut((String) payload.get("statut"));
 
-        return coursRepository.save(cours);
+        Cours saved = coursRepository.save(cours);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        return saved;
     }
 
     @Override
@@ -96,7 +110,9 @@ public class CoursFormateurService implements CoursFormateurUseCase {
                 .orElseThrow(() -> new RuntimeException("Cours non trouvé"));
 
         cours.setStatut("PUBLIE".equals(cours.getStatut()) ? "BROUILLON" : "PUBLIE");
-        return coursRepository.save(cours);
+        Cours saved = coursRepository.save(cours);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        return saved;
     }
 
     @Override
@@ -114,6 +130,7 @@ public class CoursFormateurService implements CoursFormateurUseCase {
         supprimerDossierDocuments(coursId);
 
         coursRepository.deleteById(coursId);
+        indexRecherche.supprimer(DocumentRecherche.COURS, coursId);
     }
 
     @Override
@@ -153,38 +170,109 @@ public class CoursFormateurService implements CoursFormateurUseCase {
     @Override
     public Cours uploadVideoLocale(Long formationId, Long coursId, String email,
                                    String originalFilename, String contentType,
-                                   long fileSize, byte[] fileBytes) {
+                                   long fileSize, InputStream fileContent) {
         checkAcces(formationId, email);
 
         Cours cours = coursRepository.findByIdAndFormationId(coursId, formationId)
                 .orElseThrow(() -> new RuntimeException("Cours non trouvé"));
 
-        if (fileBytes == null || fileBytes.length == 0)
+        if (fileContent == null || fileSize <= 0)
             throw new RuntimeException("Le fichier est vide.");
         if (!ALLOWED_VIDEO_TYPES.contains(contentType))
             throw new RuntimeException("Format non supporté. Formats acceptés : MP4, AVI, MOV, WebM");
         if (fileSize > MAX_FILE_SIZE)
             throw new RuntimeException("Fichier trop volumineux. Maximum : 1 GB");
 
-        if ("LOCAL".equals(cours.getVideoType()) && cours.getVideoUrl() != null) {
-            supprimerFichierPhysique(coursId, cours.getVideoUrl());
-        }
-
         String extension = getExtension(originalFilename);
         String nomFichier = UUID.randomUUID().toString() + extension;
 
         try {
             Path uploadPath = Paths.get(uploadDir, "cours", coursId.toString());
-            Files.createDirectories(uploadPath);
-            Files.write(uploadPath.resolve(nomFichier), fileBytes);
+            fileStorage.enregistrer(fileContent, uploadPath, nomFichier);
         } catch (IOException e) {
             log.error("Erreur upload vidéo cours {}: {}", coursId, e.getMessage());
             throw new RuntimeException("Erreur lors de l'enregistrement du fichier.");
         }
 
-        cours.setVideoType("LOCAL");
-        cours.setVideoUrl(nomFichier);
-        return coursRepository.save(cours);
+        return attacherVideoLocale(cours, nomFichier);
+    }
+
+    // ── Upload reprenable par morceaux ────────────────────────
+
+    @Override
+    public SessionUpload demarrerUploadVideo(Long formationId, Long coursId, String email,
+                                             String originalFilename, String contentType, long fileSize) {
+        checkAcces(formationId, email);
+
+        coursRepository.findByIdAndFormationId(coursId, formationId)
+                .orElseThrow(() -> new RuntimeException("Cours non trouvé"));
+
+        if (fileSize <= 0)
+            throw new RuntimeException("Le fichier est vide.");
+        if (!ALLOWED_VIDEO_TYPES.contains(contentType))
+            throw new RuntimeException("Format non supporté. Formats acceptés : MP4, AVI, MOV, WebM");
+        if (fileSize > MAX_FILE_SIZE)
+            throw new RuntimeException("Fichier trop volumineux. Maximum : 1 GB");
+
+        try {
+            return chunkStore.creer(SessionUpload.builder()
+                    .formationId(formationId)
+                    .coursId(coursId)
+                    .email(email)
+                    .nomFichier(originalFilename)
+                    .contentType(contentType)
+                    .tailleTotale(fileSize)
+                    .build());
+        } catch (IOException e) {
+            log.error("Erreur création session d'upload cours {}: {}", coursId, e.getMessage());
+            throw new RuntimeException("Impossible de démarrer l'upload.");
+        }
+    }
+
+    @Override
+    public SessionUpload ecrireMorceauVideo(Long formationId, Long coursId, String email,
+                                            String uploadId, long offset, InputStream data) {
+        getSessionUpload(formationId, coursId, email, uploadId);
+        try {
+            return chunkStore.ecrireChunk(uploadId, offset, data);
+        } catch (IOException e) {
+            log.warn("Morceau interrompu pour l'upload {} (cours {}): {}", uploadId, coursId, e.getMessage());
+            throw new RuntimeException("Transfert interrompu, reprenez à l'offset validé.");
+        }
+    }
+
+    @Override
+    public SessionUpload getUploadVideo(Long formationId, Long coursId, String email, String uploadId) {
+        return getSessionUpload(formationId, coursId, email, uploadId);
+    }
+
+    @Override
+    public Cours finaliserUploadVideo(Long formationId, Long coursId, String email, String uploadId) {
+        SessionUpload session = getSessionUpload(formationId, coursId, email, uploadId);
+
+        if (!session.isComplete())
+            throw new RuntimeException("Upload incomplet : " + session.getOffset()
+                    + " / " + session.getTailleTotale() + " octets reçus.");
+
+        Cours cours = coursRepository.findByIdAndFormationId(coursId, formationId)
+                .orElseThrow(() -> new RuntimeException("Cours non trouvé"));
+
+        String nomFichier = UUID.randomUUID().toString() + getExtension(session.getNomFichier());
+
+        try {
+            chunkStore.finaliser(uploadId, Paths.get(uploadDir, "cours", coursId.toString()), nomFichier);
+        } catch (IOException e) {
+            log.error("Erreur finalisation upload {} cours {}: {}", uploadId, coursId, e.getMessage());
+            throw new RuntimeException("Erreur lors de l'enregistrement du fichier.");
+        }
+
+        return attacherVideoLocale(cours, nomFichier);
+    }
+
+    @Override
+    public void annulerUploadVideo(Long formationId, Long coursId, String email, String uploadId) {
+        getSessionUpload(formationId, coursId, email, uploadId);
+        chunkStore.supprimer(uploadId);
     }
 
     @Override
@@ -210,6 +298,30 @@ public class CoursFormateurService implements CoursFormateurUseCase {
             throw new SecurityException("Accès interdit à cette formation");
     }
 
+    private SessionUpload getSessionUpload(Long formationId, Long coursId, String email, String uploadId) {
+        checkAcces(formationId, email);
+
+        SessionUpload session = chunkStore.findById(uploadId)
+                .orElseThrow(() -> new SessionUploadIntrouvableException(uploadId));
+
+        if (!coursId.equals(session.getCoursId()) || !formationId.equals(session.getFormationId())
+                || !email.equals(session.getEmail()))
+            throw new SecurityException("Cette session d'upload ne vous appartient pas");
+
+        return session;
+    }
+
+    // Remplace l'éventuelle vidéo locale précédente par le fichier déjà stocké
+    private Cours attacherVideoLocale(Cours cours, String nomFichier) {
+        if ("LOCAL".equals(cours.getVideoType()) && cours.getVideoUrl() != null) {
+            supprimerFichierPhysique(cours.getId(), cours.getVideoUrl());
+        }
+
+        cours.setVideoType("LOCAL");
+        cours.setVideoUrl(nomFichier);
+        return coursRepository.save(cours);
+    }
+
     private String extractYoutubeId(String url) {
         if (url == null || url.isBlank()) return null;
         Pattern pattern = Pattern.compile(
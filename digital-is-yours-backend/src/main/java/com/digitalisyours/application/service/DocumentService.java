@@ -3,12 +3,15 @@ package com.digitalisyours.application.service;
 import com.digitalisyours.domain.model.Document;
 import com.digitalisyours.domain.port.in.DocumentUseCase;
 import com.digitalisyours.domain.port.out.DocumentRepositoryPort;
+import com.digitalisyours.domain.port.out.ExtractionCachePort;
+import com.digitalisyours.domain.port.out.FileStoragePort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -21,6 +24,8 @@ import java.util.UUID;
 @Slf4j
 public class DocumentService implements DocumentUseCase {
     private final DocumentRepositoryPort documentRepository;
+    private final FileStoragePort fileStorage;
+    private final ExtractionCachePort extractionCache;
 
     @Value("${app.upload.dir:uploads/videos}")
     private String uploadDir;
@@ -56,11 +61,11 @@ public class DocumentService implements DocumentUseCase {
     @Override
     public Document uploadDocument(Long formationId, Long coursId, String email,
                                    String originalFilename, String contentType,
-                                   long fileSize, byte[] fileBytes, String titre) {
+                                   long fileSize, InputStream fileContent, String titre) {
         checkAcces(formationId, email);
         checkCoursExists(coursId, formationId);
 
-        if (fileBytes == null || fileBytes.length == 0)
+        if (fileContent == null || fileSize <= 0)
             throw new RuntimeException("Le fichier est vide.");
         if (!ALLOWED_TYPES.contains(contentType))
             throw new RuntimeException("Format non supporté. Formats acceptés : PDF, Word, PowerPoint, Excel, images, texte");
@@ -76,8 +81,7 @@ public class DocumentService implements DocumentUseCase {
 
         try {
             Path uploadPath = Paths.get(uploadDir, "documents", coursId.toString());
-            Files.createDirectories(uploadPath);
-            Files.write(uploadPath.resolve(nomFichier), fileBytes);
+            fileStorage.enregistrer(fileContent, uploadPath, nomFichier);
         } catch (IOException e) {
             log.error("Erreur upload document cours {}: {}", coursId, e.getMessage());
             throw new RuntimeException("Erreur lors de l'enregistrement du fichier.");
@@ -124,6 +128,7 @@ public class DocumentService implements DocumentUseCase {
             log.warn("Impossible de supprimer le fichier document {}: {}", doc.getUrl(), e.getMessage());
         }
 
+        extractionCache.invalider(docId);
         documentRepository.deleteById(docId);
     }
 
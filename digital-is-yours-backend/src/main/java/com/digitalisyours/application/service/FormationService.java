@@ -1,10 +1,14 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.model.DocumentRecherche;
 import com.digitalisyours.domain.model.Formation;
 import com.digitalisyours.domain.model.Role;
 import com.digitalisyours.domain.model.User;
 import com.digitalisyours.domain.port.in.FormationUseCase;
+import com.digitalisyours.domain.port.out.CatalogueCachePort;
 import com.digitalisyours.domain.port.out.FormationRepositoryPort;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
+import com.digitalisyours.domain.port.out.MoteurRecommandationPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,6 +20,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class FormationService implements FormationUseCase {
     private final FormationRepositoryPort formationRepository;
+    private final CatalogueCachePort catalogueCache;
+    private final IndexRecherchePort indexRecherche;
+    private final MoteurRecommandationPort moteurRecommandation;
 
     @Override
     public Map<String, Long> getStats() {
@@ -56,7 +63,11 @@ public class FormationService implements FormationUseCase {
         if ("PUBLIE".equals(formation.getStatut())) {
             formation.setDatePublication(LocalDateTime.now());
         }
-        return formationRepository.save(formation);
+        Formation saved = formationRepository.save(formation);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -90,7 +101,11 @@ public class FormationService implements FormationUseCase {
             existing.setDatePublication(LocalDateTime.now());
         }
 
-        return formationRepository.save(existing);
+        Formation saved = formationRepository.save(existing);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -133,7 +148,11 @@ public class FormationService implements FormationUseCase {
         formation.setFormateurNom(formateur.getNom());
         formation.setFormateurPrenom(formateur.getPrenom());
         formation.setFormateurEmail(formateur.getEmail());
-        return formationRepository.save(formation);
+        Formation saved = formationRepository.save(formation);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -155,7 +174,11 @@ public class FormationService implements FormationUseCase {
         formation.setFormateurNom(null);
         formation.setFormateurPrenom(null);
         formation.setFormateurEmail(null);
-        return formationRepository.save(formation);
+        Formation saved = formationRepository.save(formation);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -170,7 +193,11 @@ public class FormationService implements FormationUseCase {
             formation.setDatePublication(LocalDateTime.now());
         }
 
-        return formationRepository.save(formation);
+        Formation saved = formationRepository.save(formation);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
+        return saved;
     }
 
     @Override
@@ -179,5 +206,8 @@ public class FormationService implements FormationUseCase {
             throw new RuntimeException("Formation non trouvée");
         }
         formationRepository.deleteById(id);
+        indexRecherche.supprimer(DocumentRecherche.FORMATION, id);
+        catalogueCache.invalider();
+        moteurRecommandation.invalider();
     }
 }
@@ -1,8 +1,11 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.model.DocumentRecherche;
 import com.digitalisyours.domain.model.QuestionForum;
+import com.digitalisyours.domain.model.ResultatRecherche;
 import com.digitalisyours.domain.port.in.ForumUseCase;
 import com.digitalisyours.domain.port.out.ForumRepositoryPort;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
 import com.digitalisyours.infrastructure.persistence.entity.NotificationEntity;
 import com.digitalisyours.infrastructure.persistence.entity.UserEntity;
 import com.digitalisyours.infrastructure.persistence.repository.FormationJpaRepository;
@@ -11,22 +14,30 @@ import com.digitalisyours.infrastructure.persistence.repository.UserJpaRepositor
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ForumService implements ForumUseCase {
+    // Au-delà, la pertinence est trop faible pour être utile
+    private static final int MAX_RESULTATS_RECHERCHE = 500;
 
     private final ForumRepositoryPort       forumRepository;
     private final UserJpaRepository         userJpaRepository;
     private final FormationJpaRepository    formationRepo;
     private final NotificationJpaRepository notifRepo;
+    private final IndexRecherchePort        indexRecherche;
 
     // ── LECTURE ──────────────────────────────────────────────────────────
 
@@ -39,6 +50,9 @@ public class ForumService implements ForumUseCase {
         Long fid    = parseId(formationId);
         String s    = parseStatut(statut);
         String q    = (search != null && !search.isBlank()) ? search : null;
+        if (q != null && indexRecherche.estPret()) {
+            return rechercher(q, fid, s, null, pageable, userId);
+        }
         return forumRepository.findAll(q, fid, s, pageable, userId);
     }
 
@@ -87,6 +101,7 @@ public class ForumService implements ForumUseCase {
                 .build();
 
         QuestionForum saved = forumRepository.save(q);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
         log.info("Nouvelle question forum #{} par {}", saved.getId(), email);
 
         // ── Notifier le formateur de la formation ─────────────────────────
@@ -138,7 +153,9 @@ public class ForumService implements ForumUseCase {
         existing.setContenu(contenu != null ? contenu.trim() : existing.getContenu());
         existing.setTags(tags != null ? tags : existing.getTags());
 
-        return forumRepository.save(existing);
+        QuestionForum saved = forumRepository.save(existing);
+        indexRecherche.indexer(DocumentRecherche.de(saved));
+        return saved;
     }
 
     // ── SUPPRIMER ────────────────────────────────────────────────────────
@@ -150,9 +167,20 @@ public class ForumService implements ForumUseCase {
         if (!forumRepository.isAuteur(id, userId))
             throw new SecurityException("Vous ne pouvez supprimer que vos propres questions.");
         forumRepository.deleteById(id);
+        indexRecherche.supprimer(DocumentRecherche.QUESTION, id);
         log.info("Question forum #{} supprimée par {}", id, email);
     }
 
+    @Override
+    @Transactional
+    public void supprimerQuestionAdmin(Long id) {
+        if (!forumRepository.existsById(id))
+            throw new RuntimeException("Question introuvable");
+        forumRepository.deleteById(id);
+        indexRecherche.supprimer(DocumentRecherche.QUESTION, id);
+        log.info("Admin a supprimé la question forum #{}", id);
+    }
+
     // ── LIKE ─────────────────────────────────────────────────────────────
 
     @Override
@@ -198,6 +226,9 @@ public class ForumService implements ForumUseCase {
         Long   fid = parseId(formationId);
         String s   = parseStatut(statut);
         String q   = (search != null && !search.isBlank()) ? search : null;
+        if (q != null && indexRecherche.estPret()) {
+            return rechercher(q, fid, s, formateurId, pageable, null);
+        }
         return forumRepository.findAllByFormateur(q, fid, s, pageable, formateurId);
     }
 
@@ -206,6 +237,42 @@ public class ForumService implements ForumUseCase {
         return forumRepository.countNonReponduesByFormateur(formateurId);
     }
 
+    // ── RECHERCHE ────────────────────────────────────────────────────────
+
+    /**
+     * Recherche plein texte (titres, contenus et réponses) via l'index en mémoire,
+     * à la place des LIKE '%…%'. Formation et formateur filtrent dans l'index, avant
+     * la coupe aux meilleurs résultats ; le statut (modifié sans réindexation) est
+     * vérifié en base sur les ids trouvés, puis la page est découpée dans l'ordre de pertinence.
+     */
+    private Page<QuestionForum> rechercher(String q, Long formationId, String statut,
+                                           Long formateurId, Pageable pageable, Long userId) {
+        Predicate<DocumentRecherche> filtre = d -> formationId == null || formationId.equals(d.getFormationId());
+        if (formateurId != null) {
+            Set<Long> formations = new HashSet<>(formationRepo.findIdsByFormateurId(formateurId));
+            if (formations.isEmpty()) return Page.empty(pageable);
+            filtre = filtre.and(d -> formations.contains(d.getFormationId()));
+        }
+        List<ResultatRecherche> resultats = indexRecherche.rechercher(q,
+                Set.of(DocumentRecherche.QUESTION, DocumentRecherche.REPONSE),
+                filtre, MAX_RESULTATS_RECHERCHE);
+
+        // Une réponse fait remonter sa question, au rang de son meilleur résultat
+        Set<Long> classees = new LinkedHashSet<>();
+        for (ResultatRecherche r : resultats) {
+            classees.add(DocumentRecherche.REPONSE.equals(r.getType()) ? r.getQuestionId() : r.getId());
+        }
+
+        Set<Long> retenues = new HashSet<>(
+                forumRepository.filtrerIds(List.copyOf(classees), formationId, statut, formateurId));
+        List<Long> ids = classees.stream().filter(retenues::contains).toList();
+
+        int debut = (int) Math.min(pageable.getOffset(), ids.size());
+        int fin   = Math.min(debut + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(forumRepository.findByIds(ids.subList(debut, fin), userId),
+                pageable, ids.size());
+    }
+
     // ── HELPERS ──────────────────────────────────────────────────────────
 
     private Long getUserId(String email) {
@@ -0,0 +1,198 @@
+package com.digitalisyours.application.service;
+
+import com.digitalisyours.domain.model.JobGenerationQuiz;
+import com.digitalisyours.domain.model.Quiz;
+import com.digitalisyours.domain.port.in.GenerationQuizJobUseCase;
+import com.digitalisyours.domain.port.in.QuizFinalFormationUseCase;
+import com.digitalisyours.domain.port.in.QuizFormateurUseCase;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Génération IA des quiz en arrière-plan.
+ *
+ * L'appel Groq peut durer jusqu'à 90 s : au lieu de bloquer un worker Tomcat,
+ * la requête crée un job exécuté sur un thread virtuel et renvoie son id.
+ * Le client suit l'avancement par polling ou SSE.
+ *
+ * Les jobs sont gardés en mémoire (instance unique) et purgés après la rétention.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationQuizJobService implements GenerationQuizJobUseCase {
+    private final QuizFormateurUseCase quizFormateurUseCase;
+    private final QuizFinalFormationUseCase quizFinalUseCase;
+
+    @Value("${app.ia.jobs.max-actifs:20}")
+    private int maxActifs;
+
+    @Value("${app.ia.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, JobGenerationQuiz> jobs = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<JobGenerationQuiz>> fins = new ConcurrentHashMap<>();
+
+    // Un seul job actif par cours / formation et par formateur : un double clic renvoie le job
+    // existant, un autre formateur du même cours obtient le sien (getJob est restreint au demandeur)
+    private final Map<String, String> actifsParContexte = new ConcurrentHashMap<>();
+
+    // ══════════════════════════════════════════════════════════
+    // SOUMISSION
+    // ══════════════════════════════════════════════════════════
+
+    @Override
+    public JobGenerationQuiz soumettreMiniQuiz(Long formationId, Long coursId, String email,
+                                               int nombreQuestions, String difficulte,
+                                               boolean inclureDefinitions, boolean inclureCasPratiques,
+                                               float notePassage, int nombreTentatives) {
+        // Contrôle d'accès synchrone : 403 / 400 immédiats plutôt qu'un job en échec
+        quizFormateurUseCase.getContexte(formationId, coursId, email);
+
+        return soumettre("MiniQuiz", formationId, coursId, email, () ->
+                quizFormateurUseCase.genererQuizIA(formationId, coursId, email,
+                        nombreQuestions, difficulte, inclureDefinitions, inclureCasPratiques,
+                        notePassage, nombreTentatives));
+    }
+
+    @Override
+    public JobGenerationQuiz soumettreQuizFinal(Long formationId, String email,
+                                                int nombreQuestions, String difficulte,
+                                                boolean inclureDefinitions, boolean inclureCasPratiques,
+                                                float notePassage, int nombreTentatives,
+                                                int dureeMinutes) {
+        quizFinalUseCase.getContexteFormation(formationId, email);
+
+        return soumettre("QuizFinal", formationId, null, email, () ->
+                quizFinalUseCase.genererQuizFinalIA(formationId, email,
+                        nombreQuestions, difficulte, inclureDefinitions, inclureCasPratiques,
+                        notePassage, nombreTentatives, dureeMinutes));
+    }
+
+    private synchronized JobGenerationQuiz soumettre(String type, Long formationId, Long coursId,
+                                                     String email, Supplier<Quiz> generation) {
+        String contexte = type + ":" + (coursId != null ? coursId : formationId) + ":" + email;
+
+        String existant = actifsParContexte.get(contexte);
+        if (existant != null && jobs.containsKey(existant)) {
+            return jobs.get(existant);
+        }
+
+        if (actifsParContexte.size() >= maxActifs) {
+            throw new IllegalStateException("Trop de générations en cours. Réessayez dans quelques instants.");
+        }
+
+        JobGenerationQuiz job = JobGenerationQuiz.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type)
+                .formationId(formationId)
+                .coursId(coursId)
+                .email(email)
+                .statut("EN_ATTENTE")
+                .dateCreation(LocalDateTime.now())
+                .build();
+
+        jobs.put(job.getId(), job);
+        fins.put(job.getId(), new CompletableFuture<>());
+        actifsParContexte.put(contexte, job.getId());
+
+        executor.submit(() -> executer(job, contexte, generation));
+        log.info("Job génération {} {} soumis par {}", type, job.getId(), email);
+        return job;
+    }
+
+    private void executer(JobGenerationQuiz job, String contexte, Supplier<Quiz> generation) {
+        jobs.put(job.getId(), etat(job, "EN_COURS", null, null));
+
+        // Par défaut ECHEC : une Error (OOM, StackOverflow au parsing) ne laisse ni job
+        // EN_COURS à vie, ni attente SSE bloquée, ni créneau maxActifs occupé
+        JobGenerationQuiz fin = etat(job, "ECHEC", "Erreur interne pendant la génération", null);
+        try {
+            Quiz quiz = generation.get();
+            fin = etat(job, "TERMINE", null, quiz);
+            log.info("Job génération {} terminé : {} questions", job.getId(),
+                    quiz.getQuestions() != null ? quiz.getQuestions().size() : 0);
+        } catch (Exception e) {
+            fin = etat(job, "ECHEC", e.getMessage(), null);
+            log.error("Job génération {} en échec : {}", job.getId(), e.getMessage());
+        } catch (Error e) {
+            log.error("Job génération {} en échec : {}", job.getId(), e.toString(), e);
+            throw e;
+        } finally {
+            jobs.put(job.getId(), fin);
+            actifsParContexte.remove(contexte, job.getId());
+            fins.get(job.getId()).complete(fin);
+        }
+    }
+
+    // Chaque transition publie une nouvelle instance : les lecteurs ne voient jamais un état partiel
+    private JobGenerationQuiz etat(JobGenerationQuiz job, String statut, String message, Quiz quiz) {
+        boolean termine = "TERMINE".equals(statut) || "ECHEC".equals(statut);
+        return JobGenerationQuiz.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .formationId(job.getFormationId())
+                .coursId(job.getCoursId())
+                .email(job.getEmail())
+                .statut(statut)
+                .message(message)
+                .dateCreation(job.getDateCreation())
+                .dateFin(termine ? LocalDateTime.now() : null)
+                .quiz(quiz)
+                .build();
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // SUIVI
+    // ══════════════════════════════════════════════════════════
+
+    @Override
+    public JobGenerationQuiz getJob(String jobId, String email) {
+        JobGenerationQuiz job = jobs.get(jobId);
+        if (job == null)
+            throw new RuntimeException("Génération introuvable ou expirée");
+        if (!job.getEmail().equals(email))
+            throw new SecurityException("Accès interdit à cette génération");
+        return job;
+    }
+
+    @Override
+    public CompletableFuture<JobGenerationQuiz> attendreFin(String jobId, String email) {
+        getJob(jobId, email);
+        return fins.get(jobId);
+    }
+
+    // ══════════════════════════════════════════════════════════
+    // PURGE
+    // ══════════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 600000)
+    public void purgerJobsTermines() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            boolean expire = job.isTermine() && job.getDateFin() != null && job.getDateFin().isBefore(limite);
+            if (expire) fins.remove(job.getId());
+            return expire;
+        });
+    }
+
+    @PreDestroy
+    public void arreter() {
+        executor.shutdownNow();
+    }
+}
@@ -3,6 +3,7 @@ package com.digitalisyours.application.service;
 import com.digitalisyours.domain.model.Formation;
 import com.digitalisyours.domain.model.Inscription;
 import com.digitalisyours.domain.port.in.InscriptionUseCase;
+import com.digitalisyours.domain.port.in.RecommandationUseCase;
 import com.digitalisyours.domain.port.out.FormationRepositoryPort;
 import com.digitalisyours.domain.port.out.InscriptionRepositoryPort;
 import com.digitalisyours.domain.port.out.ProfilApprenantRepositoryPort;
@@ -20,6 +21,7 @@ public class InscriptionService implements InscriptionUseCase {
     private final InscriptionRepositoryPort     inscriptionRepository;
     private final FormationRepositoryPort       formationRepository;
     private final ProfilApprenantRepositoryPort apprenantRepository;
+    private final RecommandationUseCase         recommandationUseCase;
 
     private static final List<String> CARTES_REFUSEES = List.of(
             "4000000000000002",
@@ -132,7 +134,10 @@ public class InscriptionService implements InscriptionUseCase {
                         : "STR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         inscription.setDatePaiement(LocalDateTime.now());
 
-        return inscriptionRepository.save(inscription);
+        Inscription saved = inscriptionRepository.save(inscription);
+        // La formation payée ne doit plus être recommandée
+        recommandationUseCase.invaliderCache(email);
+        return saved;
     }
 
     @Override
@@ -177,7 +182,9 @@ public class InscriptionService implements InscriptionUseCase {
                 "REF-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         inscription.setDatePaiement(LocalDateTime.now());
 
-        return inscriptionRepository.save(inscription);
+        Inscription saved = inscriptionRepository.save(inscription);
+        recommandationUseCase.invaliderCache(email);
+        return saved;
     }
 
     private String nettoyer(String s) {
@@ -1,34 +1,79 @@
 package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Notification;
+import com.digitalisyours.domain.model.PageNotifications;
 import com.digitalisyours.domain.port.in.NotificationUseCase;
 import com.digitalisyours.domain.port.out.NotificationRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService implements NotificationUseCase {
+    private static final int LIMITE_MAX = 100;
+
     private final NotificationRepositoryPort notificationRepository;
 
     @Override
-    public List<Notification> getMesNotifications(String email) {
-        return notificationRepository.findByEmailOrderByDateDesc(email);
+    public List<Notification> getMesNotifications(String email, String role) {
+        return notificationRepository.findByEmail(email, typesExclus(role));
     }
 
+    /**
+     * Page de la boîte de réception, de la plus récente à la plus ancienne.
+     * Keyset sur (dateCreation, id) : le coût d'une page ne dépend pas de la
+     * profondeur de l'historique, contrairement à un OFFSET.
+     */
     @Override
-    public long getNonLuesCount(String email) {
-        return notificationRepository.countNonLuesByEmail(email);
+    public PageNotifications getPage(String email, String role, String curseur, int limite) {
+        int taille = Math.max(1, Math.min(limite, LIMITE_MAX));
+
+        LocalDateTime avantDate = null;
+        Long avantId = null;
+        if (curseur != null && !curseur.isBlank()) {
+            int sep = curseur.lastIndexOf('_');
+            try {
+                avantDate = LocalDateTime.parse(curseur.substring(0, sep));
+                avantId = Long.parseLong(curseur.substring(sep + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+        }
+
+        // Une ligne de plus que demandé : indique s'il reste une page
+        List<Notification> lignes = notificationRepository.findPage(
+                email, typesExclus(role), avantDate, avantId, taille + 1);
+        boolean suivante = lignes.size() > taille;
+        List<Notification> page = suivante ? lignes.subList(0, taille) : lignes;
+
+        String curseurSuivant = null;
+        if (suivante) {
+            Notification derniere = page.get(page.size() - 1);
+            curseurSuivant = derniere.getDateCreation() + "_" + derniere.getId();
+        }
+        return PageNotifications.builder()
+                .notifications(List.copyOf(page))
+                .curseurSuivant(curseurSuivant)
+                .build();
+    }
+
+    @Override
+    public long getNonLuesCount(String email, String role) {
+        return notificationRepository.countNonLuesByEmail(email, typesExclus(role));
     }
 
     @Override
     public void marquerCommentLue(Long notifId, String email) {
+        // Vérifier que la notif appartient bien à cet utilisateur
+        if (!notificationRepository.appartientA(notifId, email)) {
+            throw new RuntimeException("Notification non trouvée");
+        }
         Notification notif = notificationRepository.findById(notifId)
                 .orElseThrow(() -> new RuntimeException("Notification non trouvée"));
-        // Vérifier que la notif appartient bien à cet utilisateur
-        // (géré dans le controller via le check du userId)
         notif.setLu(true);
         notificationRepository.save(notif);
     }
@@ -37,4 +82,9 @@ public class NotificationService implements NotificationUseCase {
     public void marquerToutesLues(String email) {
         notificationRepository.marquerToutesLues(email);
     }
+
+    // Côté apprenant, les notifications réservées aux formateurs sont masquées
+    private List<String> typesExclus(String role) {
+        return "APPRENANT".equals(role) ? Notification.TYPES_FORMATEUR : List.of();
+    }
 }
@@ -2,6 +2,7 @@ package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Apprenant;
 import com.digitalisyours.domain.port.in.ProfilApprenantUseCase;
+import com.digitalisyours.domain.port.in.RecommandationUseCase;
 import com.digitalisyours.domain.port.out.ProfilApprenantRepositoryPort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,6 +16,7 @@ import java.util.Map;
 public class ProfilApprenantService implements ProfilApprenantUseCase {
     private final ProfilApprenantRepositoryPort profilRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RecommandationUseCase recommandationUseCase;
 
     @Override
     public Apprenant getProfil(String email) {
@@ -46,7 +48,10 @@ public class ProfilApprenantService implements ProfilApprenantUseCase {
             apprenant.setDisponibilites(parseList(payload.get("disponibilites")));
         }
 
-        return profilRepository.save(apprenant);
+        Apprenant saved = profilRepository.save(apprenant);
+        // Niveau, intérêts, objectifs ou disponibilités ont pu changer
+        recommandationUseCase.invaliderCache(email);
+        return saved;
     }
 
     @Override
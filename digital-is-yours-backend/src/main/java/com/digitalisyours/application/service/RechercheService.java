@@ -0,0 +1,39 @@
+package com.digitalisyours.application.service;
+
+import com.digitalisyours.domain.model.DocumentRecherche;
+import com.digitalisyours.domain.model.ResultatRecherche;
+import com.digitalisyours.domain.port.in.RechercheUseCase;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class RechercheService implements RechercheUseCase {
+    private static final int LIMITE_MAX = 50;
+
+    private final IndexRecherchePort indexRecherche;
+
+    /**
+     * Recherche publique : formations publiées et cours publiés de formations publiées.
+     */
+    @Override
+    public List<ResultatRecherche> rechercherCatalogue(String requete, int limite) {
+        if (requete == null || requete.isBlank()) return List.of();
+        return indexRecherche.rechercher(requete,
+                Set.of(DocumentRecherche.FORMATION, DocumentRecherche.COURS),
+                this::estPublic,
+                Math.max(1, Math.min(limite, LIMITE_MAX)));
+    }
+
+    private boolean estPublic(DocumentRecherche doc) {
+        if (!"PUBLIE".equals(doc.getStatut())) return false;
+        if (DocumentRecherche.FORMATION.equals(doc.getType())) return true;
+        return indexRecherche.getDocument(DocumentRecherche.FORMATION, doc.getFormationId())
+                .map(f -> "PUBLIE".equals(f.getStatut()))
+                .orElse(false);
+    }
+}
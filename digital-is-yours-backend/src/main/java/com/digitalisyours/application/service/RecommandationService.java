@@ -2,68 +2,159 @@ package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.Apprenant;
 import com.digitalisyours.domain.model.RecommandationIA;
+import com.digitalisyours.domain.model.RequeteIA;
 import com.digitalisyours.domain.port.in.RecommandationUseCase;
+import com.digitalisyours.domain.port.out.CacheReponsesIAPort;
+import com.digitalisyours.domain.port.out.ModeleLangagePort;
+import com.digitalisyours.domain.port.out.MoteurRecommandationPort;
 import com.digitalisyours.domain.port.out.RecommandationRepositoryPort;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+/**
+ * Top 5 des formations pour un apprenant.
+ *
+ * Le classement vient du modèle précalculé (MoteurRecommandationPort : vecteurs
+ * TF-IDF du catalogue, niveau, durée, note). Quand Groq est configuré, il ne
+ * reçoit que la présélection du modèle (CANDIDATS_GROQ) pour affiner scores et
+ * explications ; sans clé ou en cas d'échec, le classement du modèle est renvoyé tel quel.
+ *
+ * Cache LRU borné avec expiration, rempli à l'avance pour les apprenants actifs
+ * par le précalcul périodique (classement du modèle seulement : les appels Groq
+ * restent à la demande pour ne pas consommer le quota). Une entrée périmée est
+ * servie immédiatement pendant son recalcul en arrière-plan ; un seul calcul en
+ * cours par apprenant. Une entrée calculée avant une modification du catalogue
+ * (génération du moteur) n'est plus servie, même périmée. Les réponses Groq sont en plus mises en cache par
+ * empreinte du prompt (CacheReponsesIAPort), partagées entre profils identiques.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RecommandationService implements RecommandationUseCase {
-    @Value("${groq.api.key:}")
-    private String groqApiKey;
-
-    private static final String GROQ_URL      = "https://api.groq.com/openai/v1/chat/completions";
-    private static final String GROQ_MODEL    = "llama-3.3-70b-versatile";
-    private static final int    CACHE_MINUTES = 30;
-    private static final int    TOP_N         = 5;
+    @Value("${app.recommandations.cache.taille-max:5000}")
+    private int tailleMaxCache;
+
+    private static final String GROQ_MODEL     = "llama-3.3-70b-versatile";
+    private static final int    CACHE_MINUTES  = 30;
+    private static final int    TOP_N          = 5;
+    private static final int    CANDIDATS_GROQ = 15;
+    private static final int    PERIME_MAX_HEURES = 24;
+    private static final String GROQ_SYSTEME   = "Tu es un conseiller pédagogique expert. "
+            + "Réponds UNIQUEMENT avec un tableau JSON valide, "
+            + "sans markdown, sans texte avant ou après.";
 
     private final RecommandationRepositoryPort repository;
+    private final MoteurRecommandationPort     moteur;
+    private final CacheReponsesIAPort          reponsesIA;
+    private final ModeleLangagePort            llm;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
-
-    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    // LRU : l'entrée la moins récemment lue part quand la taille max est atteinte
+    private final Map<String, CacheEntry> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    return size() > tailleMaxCache;
+                }
+            });
 
     private static class CacheEntry {
         final List<RecommandationIA> data;
         final LocalDateTime expireAt;
-        CacheEntry(List<RecommandationIA> data) {
-            this.data     = data;
-            this.expireAt = LocalDateTime.now().plusMinutes(CACHE_MINUTES);
+        final long generation;      // génération du catalogue au début du calcul
+        CacheEntry(List<RecommandationIA> data, long generation) {
+            this.data       = data;
+            this.expireAt   = LocalDateTime.now().plusMinutes(CACHE_MINUTES);
+            this.generation = generation;
         }
         boolean isValid() { return LocalDateTime.now().isBefore(expireAt); }
+        // Périmée mais encore présentable pendant le recalcul
+        boolean isServable() { return LocalDateTime.now().isBefore(expireAt.plusHours(PERIME_MAX_HEURES)); }
     }
 
+    private final Map<String, CompletableFuture<List<RecommandationIA>>> enCours = new ConcurrentHashMap<>();
+    private final ExecutorService rafraichisseur = Executors.newVirtualThreadPerTaskExecutor();
+
+    // ── Métriques ──
+    private final LongAdder hits       = new LongAdder();
+    private final LongAdder misses     = new LongAdder();
+    private final LongAdder perimes    = new LongAdder();
+    private final LongAdder precalculs = new LongAdder();
+
     @Override
     public List<RecommandationIA> getRecommandations(String emailApprenant) {
 
         // 1. Cache
         CacheEntry cached = cache.get(emailApprenant);
+        if (cached != null && cached.generation != moteur.generation()) {
+            // Catalogue modifié depuis : formation dépubliée ou supprimée possible
+            cached = null;
+        }
         if (cached != null && cached.isValid()) {
-            log.info("Recommandations depuis le cache pour {}", emailApprenant);
+            hits.increment();
+            log.debug("Recommandations depuis le cache pour {}", emailApprenant);
+            return cached.data;
+        }
+        if (cached != null && cached.isServable()) {
+            // Périmée : servie tout de suite, recalculée en arrière-plan
+            perimes.increment();
+            calculerUneFois(emailApprenant, true);
             return cached.data;
         }
+        misses.increment();
+
+        // Deux requêtes simultanées pour le même apprenant partagent le même calcul
+        return calculerUneFois(emailApprenant, false).join();
+    }
+
+    private CompletableFuture<List<RecommandationIA>> calculerUneFois(String emailApprenant,
+                                                                      boolean arrierePlan) {
+        CompletableFuture<List<RecommandationIA>> nouveau = new CompletableFuture<>();
+        CompletableFuture<List<RecommandationIA>> existant = enCours.putIfAbsent(emailApprenant, nouveau);
+        if (existant != null) return existant;
+
+        Runnable calcul = () -> {
+            try {
+                nouveau.complete(calculer(emailApprenant));
+            } catch (Exception e) {
+                log.error("Calcul des recommandations échoué pour {} : {}", emailApprenant, e.getMessage());
+                nouveau.completeExceptionally(e);
+            } finally {
+                enCours.remove(emailApprenant, nouveau);
+            }
+        };
+        if (arrierePlan) {
+            rafraichisseur.submit(calcul);
+        } else {
+            calcul.run();
+        }
+        return nouveau;
+    }
+
+    private List<RecommandationIA> calculer(String emailApprenant) {
+        long generation = moteur.generation();
 
         // 2. Profil apprenant
         Apprenant apprenant = repository.findApprenantByEmail(emailApprenant).orElse(null);
@@ -73,34 +164,27 @@ public class RecommandationService implements RecommandationUseCase {
         }
 
         // ✅ 3. Vérifier profil suffisamment rempli
-        boolean domainesVides = apprenant.getDomainesInteret() == null
-                || apprenant.getDomainesInteret().isEmpty();
-        boolean objectifsVides = apprenant.getObjectifsApprentissage() == null
-                || apprenant.getObjectifsApprentissage().isBlank();
-
-        if (domainesVides && objectifsVides) {
+        if (profilIncomplet(apprenant)) {
             log.info("Profil incomplet pour {} — recommandations non calculées", emailApprenant);
             return new ArrayList<>(); // Frontend affiche "complétez votre profil"
         }
 
-        // 4. Formations disponibles
-        List<RecommandationIA> formations = repository.findFormationsDisponibles(emailApprenant);
-        if (formations.isEmpty()) {
+        // 4. Présélection par le modèle, hors formations déjà suivies
+        Set<Long> inscrites = repository.findFormationsInscrites(emailApprenant);
+        List<RecommandationIA> candidats = moteur.recommander(apprenant, inscrites,
+                groqActif() ? CANDIDATS_GROQ : TOP_N);
+        if (candidats.isEmpty()) {
             log.info("Aucune formation disponible pour {}", emailApprenant);
             return new ArrayList<>();
         }
 
         // 5. Calcul
-        List<RecommandationIA> recommandations;
-        if (groqApiKey != null && !groqApiKey.isBlank()) {
-            recommandations = calculerAvecGroq(apprenant, formations);
-        } else {
-            log.warn("Clé Groq manquante — algorithme de fallback activé");
-            recommandations = calculerAvecAlgorithme(apprenant, formations);
-        }
+        List<RecommandationIA> recommandations = groqActif()
+                ? calculerAvecGroq(apprenant, candidats)
+                : candidats;
 
         // 6. Cache
-        cache.put(emailApprenant, new CacheEntry(recommandations));
+        cache.put(emailApprenant, new CacheEntry(recommandations, generation));
         log.info("Recommandations calculées et mises en cache pour {} ({} résultats)",
                 emailApprenant, recommandations.size());
 
@@ -113,56 +197,111 @@ public class RecommandationService implements RecommandationUseCase {
         log.info("Cache recommandations invalidé pour {}", emailApprenant);
     }
 
-    private List<RecommandationIA> calculerAvecGroq(Apprenant apprenant,
-                                                    List<RecommandationIA> formations) {
+    private boolean groqActif() {
+        return llm.estConfigure(ModeleLangagePort.GROQ);
+    }
+
+    private boolean profilIncomplet(Apprenant apprenant) {
+        boolean domainesVides = apprenant.getDomainesInteret() == null
+                || apprenant.getDomainesInteret().isEmpty();
+        boolean objectifsVides = apprenant.getObjectifsApprentissage() == null
+                || apprenant.getObjectifsApprentissage().isBlank();
+        return domainesVides && objectifsVides;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // PRÉCALCUL
+    // ══════════════════════════════════════════════════════
+
+    /**
+     * Reconstruit le modèle sur le catalogue courant, puis remplit le cache des
+     * apprenants actifs (les plus récemment connectés, dans la limite du cache).
+     */
+    @Scheduled(fixedRateString = "${app.recommandations.precalcul-ms:1800000}",
+               initialDelayString = "${app.recommandations.precalcul-delai-ms:60000}")
+    public void precalculer() {
+        long debut = System.nanoTime();
         try {
-            String prompt = buildPrompt(apprenant, formations);
-            String requestBody = objectMapper.writeValueAsString(Map.of(
-                    "model", GROQ_MODEL,
-                    "messages", List.of(
-                            Map.of("role", "system", "content",
-                                    "Tu es un conseiller pédagogique expert. "
-                                            + "Réponds UNIQUEMENT avec un tableau JSON valide, "
-                                            + "sans markdown, sans texte avant ou après."),
-                            Map.of("role", "user", "content", prompt)
-                    ),
-                    "temperature", 0.3,
-                    "max_tokens", 2000
-            ));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(GROQ_URL))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + groqApiKey)
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .timeout(Duration.ofSeconds(60))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 429) {
-                log.warn("Quota Groq dépassé (429) — fallback algorithme");
-                return calculerAvecAlgorithme(apprenant, formations);
-            }
-            if (response.statusCode() != 200) {
-                log.error("Erreur Groq {} — fallback algorithme", response.statusCode());
-                return calculerAvecAlgorithme(apprenant, formations);
+            long generation = moteur.generation();
+            moteur.reconstruire();
+            if (groqActif()) return;
+
+            List<Apprenant> apprenants = repository.findApprenantsAvecProfil(tailleMaxCache);
+            Map<Long, Set<Long>> inscrites = repository.findFormationsInscritesParApprenant();
+
+            // Du moins récent au plus récent : en cas de débordement, les plus actifs restent
+            for (int i = apprenants.size() - 1; i >= 0; i--) {
+                Apprenant a = apprenants.get(i);
+                if (profilIncomplet(a)) continue;
+                cache.put(a.getEmail(), new CacheEntry(
+                        moteur.recommander(a, inscrites.getOrDefault(a.getId(), Set.of()), TOP_N), generation));
+                precalculs.increment();
             }
+            log.info("Recommandations précalculées pour {} apprenant(s) en {} ms",
+                    apprenants.size(), (System.nanoTime() - debut) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Précalcul des recommandations échoué : {}", e.getMessage());
+        }
+    }
 
-            List<RecommandationIA> result = parseGroqResponse(response.body(), formations);
-            if (result.isEmpty()) {
-                log.warn("Réponse Groq vide — fallback algorithme");
-                return calculerAvecAlgorithme(apprenant, formations);
-            }
+    @Scheduled(fixedRate = 3600000)
+    public void journaliser() {
+        if (hits.sum() + perimes.sum() + misses.sum() > 0) {
+            log.info("Cache recommandations : {}", getStatistiques());
+        }
+    }
 
-            log.info("Recommandations Groq réussies : {} formations scorées", result.size());
-            return result;
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("taille",     cache.size());
+        stats.put("hits",       hits.sum());
+        stats.put("misses",     misses.sum());
+        stats.put("perimes",    perimes.sum());
+        stats.put("precalculs", precalculs.sum());
+        return stats;
+    }
 
-        } catch (Exception e) {
-            log.error("Erreur Groq recommandations : {} — fallback algorithme", e.getMessage());
-            return calculerAvecAlgorithme(apprenant, formations);
+    @PreDestroy
+    public void arreter() {
+        rafraichisseur.shutdownNow();
+    }
+
+    // ══════════════════════════════════════════════════════
+    // GROQ
+    // ══════════════════════════════════════════════════════
+
+    private List<RecommandationIA> calculerAvecGroq(Apprenant apprenant,
+                                                    List<RecommandationIA> formations) {
+        String prompt = buildPrompt(apprenant, formations);
+
+        // Même profil + même présélection = même prompt : une seule réponse payée.
+        // null = pas de réponse (quota, disjoncteur ouvert…) : rien n'est mis en cache
+        Optional<String> reponse = reponsesIA.getOuAppeler(
+                GROQ_MODEL + "\n" + GROQ_SYSTEME + "\n" + prompt,
+                () -> llm.completer(RequeteIA.builder()
+                        .fournisseur(ModeleLangagePort.GROQ)
+                        .modele(GROQ_MODEL)
+                        .systeme(GROQ_SYSTEME)
+                        .prompt(prompt)
+                        .temperature(0.3)
+                        .maxTokens(2000)
+                        .build()).orElse(null));
+        if (reponse.isEmpty()) {
+            return premiers(formations);
+        }
+
+        List<RecommandationIA> result = parseGroqResponse(reponse.get(), formations);
+        if (result.isEmpty()) {
+            log.warn("Réponse Groq vide — classement du modèle conservé");
+            return premiers(formations);
         }
+
+        log.info("Recommandations Groq réussies : {} formations scorées", result.size());
+        return result;
+    }
+
+    private List<RecommandationIA> premiers(List<RecommandationIA> candidats) {
+        return candidats.stream().limit(TOP_N).collect(Collectors.toList());
     }
 
     private String buildPrompt(Apprenant apprenant, List<RecommandationIA> formations) {
@@ -279,98 +418,4 @@ public class RecommandationService implements RecommandationUseCase {
         }
         return "[]";
     }
-
-    private List<RecommandationIA> calculerAvecAlgorithme(Apprenant apprenant,
-                                                          List<RecommandationIA> formations) {
-        log.info("Calcul recommandations par algorithme pour {}", apprenant.getEmail());
-
-        String niveau    = apprenant.getNiveauActuel() != null
-                ? apprenant.getNiveauActuel().toUpperCase() : "DEBUTANT";
-        List<String> domaines = apprenant.getDomainesInteret() != null
-                ? apprenant.getDomainesInteret() : new ArrayList<>();
-        Integer heures   = apprenant.getDisponibilitesHeuresParSemaine();
-        String objectifs = apprenant.getObjectifsApprentissage() != null
-                ? apprenant.getObjectifsApprentissage().toLowerCase() : "";
-
-        return formations.stream().map(f -> {
-                    int score = 0;
-                    List<String> points = new ArrayList<>();
-
-                    String titre = f.getTitre()       != null ? f.getTitre().toLowerCase()       : "";
-                    String desc  = f.getDescription() != null ? f.getDescription().toLowerCase() : "";
-                    String cat   = f.getCategorie()   != null ? f.getCategorie().toLowerCase()   : "";
-
-                    for (String d : domaines) {
-                        String dl = d.toLowerCase();
-                        if (titre.contains(dl) || desc.contains(dl) || cat.contains(dl)) {
-                            score += 40;
-                            points.add("Correspond à votre intérêt : " + d);
-                            break;
-                        }
-                    }
-
-                    String fNiveau = f.getNiveau() != null ? f.getNiveau().toUpperCase() : "DEBUTANT";
-                    if (fNiveau.equals(niveau)) {
-                        score += 30;
-                        points.add("Niveau adapté : " + niveauLabel(niveau));
-                    } else if (estNiveauCompatible(niveau, fNiveau)) {
-                        score += 15;
-                        points.add("Niveau accessible");
-                    }
-
-                    if (heures != null && f.getDureeEstimee() != null) {
-                        if (f.getDureeEstimee() <= heures * 4) {
-                            score += 15;
-                            points.add("Compatible avec vos " + heures + "h/semaine");
-                        }
-                    } else {
-                        score += 8;
-                    }
-
-                    if (!objectifs.isBlank() && (
-                            titre.contains(objectifs.substring(0, Math.min(8, objectifs.length())))
-                                    || desc.contains(objectifs.substring(0, Math.min(8, objectifs.length()))))) {
-                        score += 15;
-                        points.add("Aligné avec vos objectifs");
-                    }
-
-                    if (f.getNoteMoyenne() != null && f.getNoteMoyenne() >= 4.0f) {
-                        score = Math.min(100, score + 5);
-                        points.add("Très bien noté (" + f.getNoteMoyenne() + "/5)");
-                    }
-
-                    String raisonStr = points.isEmpty()
-                            ? "Formation disponible dans notre catalogue"
-                            : "Cette formation " + (points.size() > 1
-                            ? "correspond à plusieurs de vos critères"
-                            : points.get(0).toLowerCase());
-
-                    return RecommandationIA.builder()
-                            .formationId(f.getFormationId()).titre(f.getTitre())
-                            .niveau(f.getNiveau()).description(f.getDescription())
-                            .imageCouverture(f.getImageCouverture()).categorie(f.getCategorie())
-                            .dureeEstimee(f.getDureeEstimee()).noteMoyenne(f.getNoteMoyenne())
-                            .nombreInscrits(f.getNombreInscrits())
-                            .scoreCompatibilite(Math.min(100, score))
-                            .raison(raisonStr).pointsForts(String.join(", ", points)).build();
-                })
-                .sorted(Comparator.comparingInt(RecommandationIA::getScoreCompatibilite).reversed())
-                .limit(TOP_N).collect(Collectors.toList());
-    }
-
-    private boolean estNiveauCompatible(String niveauApprenant, String niveauFormation) {
-        Map<String, Integer> ordre = Map.of("DEBUTANT", 1, "INTERMEDIAIRE", 2, "AVANCE", 3);
-        int a = ordre.getOrDefault(niveauApprenant, 1);
-        int f = ordre.getOrDefault(niveauFormation, 1);
-        return f <= a + 1;
-    }
-
-    private String niveauLabel(String niveau) {
-        return switch (niveau) {
-            case "DEBUTANT"      -> "Débutant";
-            case "INTERMEDIAIRE" -> "Intermédiaire";
-            case "AVANCE"        -> "Avancé";
-            default -> niveau;
-        };
-    }
 }
@@ -1,8 +1,11 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.model.DocumentRecherche;
 import com.digitalisyours.domain.model.ReponsesForum;
 import com.digitalisyours.domain.model.Role;
 import com.digitalisyours.domain.port.in.ReponseForumUseCase;
+import com.digitalisyours.domain.port.out.FileStoragePort;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
 import com.digitalisyours.domain.port.out.ReponseForumRepositoryPort;
 import com.digitalisyours.infrastructure.persistence.entity.*;
 import com.digitalisyours.infrastructure.persistence.repository.*;
@@ -25,6 +28,8 @@ public class ReponseForumService implements ReponseForumUseCase {
     private final UserJpaRepository          userRepo;
     private final QuestionForumJpaRepository questionRepo;
     private final NotificationJpaRepository  notifRepo;
+    private final FileStoragePort            fileStorage;
+    private final IndexRecherchePort         indexRecherche;
 
     // ─────────────────────────────────────────────────────────────────────
     // Répondre à une question (formateur) — INCHANGÉ
@@ -50,6 +55,9 @@ public class ReponseForumService implements ReponseForumUseCase {
                 .build();
 
         ReponsesForum saved = reponseRepository.save(reponse);
+        indexRecherche.indexer(DocumentRecherche.deReponse(saved.getId(), questionId,
+                question.getFormation() != null ? question.getFormation().getId() : null,
+                saved.getContenu()));
 
         // Mettre à jour le statut : NON_REPONDU → REPONDU
         if (!"RESOLU".equals(question.getStatut())) {
@@ -127,8 +135,7 @@ public class ReponseForumService implements ReponseForumUseCase {
                 String uuid     = UUID.randomUUID().toString();
                 String filename = uuid + ext;
                 Path   dir      = Paths.get(uploadDir, "forum", String.valueOf(saved.getId()));
-                Files.createDirectories(dir);
-                Files.write(dir.resolve(filename), fichier.getBytes());
+                fileStorage.enregistrer(fichier.getInputStream(), dir, filename);
 
                 // Enregistrer en base
                 reponseRepository.saveDocument(
@@ -177,6 +184,24 @@ public class ReponseForumService implements ReponseForumUseCase {
         return updated;
     }
 
+    // ─────────────────────────────────────────────────────────────────────
+    // Admin : supprimer une réponse
+    // ─────────────────────────────────────────────────────────────────────
+    @Override
+    @Transactional
+    public void supprimerReponseAdmin(Long reponseId) {
+        ReponsesForum reponse = reponseRepository.findById(reponseId)
+                .orElseThrow(() -> new RuntimeException("Réponse introuvable"));
+        Long questionId = reponse.getQuestionId();
+        reponseRepository.deleteById(reponseId);
+        indexRecherche.supprimer(DocumentRecherche.REPONSE, reponseId);
+        // Plus de réponse : la question redevient non répondue
+        if (reponseRepository.countByQuestionId(questionId) == 0) {
+            reponseRepository.updateStatutQuestion(questionId, "NON_REPONDU");
+        }
+        log.info("Admin a supprimé la réponse forum #{}", reponseId);
+    }
+
     // ─────────────────────────────────────────────────────────────────────
     // Lister les réponses — INCHANGÉ
     // ─────────────────────────────────────────────────────────────────────
@@ -1,22 +1,28 @@
 package com.digitalisyours.application.service;
 
 import com.digitalisyours.domain.model.AnalyseRisque;
+import com.digitalisyours.domain.model.ProgressionAnalyseRisque;
 import com.digitalisyours.domain.port.in.RisqueAbandonUseCase;
 import com.digitalisyours.domain.port.out.DeepSeekRisqueAnalysePort;
+import com.digitalisyours.infrastructure.email.EmailEnvoyeEvent;
 import com.digitalisyours.infrastructure.persistence.entity.*;
 import com.digitalisyours.infrastructure.persistence.repository.*;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,187 +40,461 @@ public class RisqueAbandonService implements RisqueAbandonUseCase {
     private final UserJpaRepository                    userRepo;
     private final RisqueEmailService                   risqueEmailService;
     private final ConsulterCoursFormationJpaRepository coursRepository;
+    private final PlatformTransactionManager           transactionManager;
+
+    @Value("${app.risque.batch.concurrence:8}")
+    private int concurrence;
+
+    @Value("${app.risque.batch.taille-lot:200}")
+    private int tailleLot;
+
+    // Au-delà, une inscription est ré-analysée même sans changement (rafraîchit le texte IA)
+    @Value("${app.risque.incremental.age-max-jours:7}")
+    private int ageMaxJours;
+
+    private final AtomicBoolean batchEnCours = new AtomicBoolean(false);
+
+    // Le batch dure des heures : jamais sur le thread du scheduler (outbox, heartbeat SSE...)
+    private final ExecutorService lanceur = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("analyse-risque").factory());
+    private volatile ProgressionAnalyseRisque progressionBatch =
+            ProgressionAnalyseRisque.builder().build();
+
+    /** Données d'entrée du score, chargées groupées (lot) ou unitairement */
+    private record Metriques(int videosVues, int documentsOuverts, int quizPasses,
+                             LocalDateTime derniereActivite, Double scoreMoyen,
+                             long totalCours) {}
+
+    private record Resultat(InscriptionEntity inscription, AnalyseRisque contexte,
+                            AnalyseRisque analyse) {}
+
+    /** Dernière analyse connue d'une inscription : sa date et les métriques qu'elle avait vues */
+    private record DerniereAnalyse(LocalDateTime dateAnalyse, Integer joursInactivite, Float progression) {}
 
     // ═══════════════════════════════════════════════════════
     // SCHEDULER — toutes les 6h : 2h, 8h, 14h, 20h
     // ═══════════════════════════════════════════════════════
 
     @Scheduled(cron = "0 0 2,8,14,20 * * *")
-    @Transactional
     public void analyserTousLesApprenants() {
-        log.info("═══ Démarrage analyse risque abandon ═══");
-
-        List<InscriptionEntity> inscriptions =
-                inscriptionRepo.findAllPayeesAvecApprenantEtFormation();
+        try {
+            lancerAnalyseGlobale(false);
+        } catch (IllegalStateException e) {
+            log.warn("Analyse risque déjà en cours — déclenchement ignoré");
+        }
+    }
 
-        log.info("Inscriptions actives à analyser : {}", inscriptions.size());
-
-        int analysees = 0;
-        for (InscriptionEntity inscription : inscriptions) {
-            try {
-                analyserInscriptionInterne(inscription);
-                analysees++;
-            } catch (Exception e) {
-                log.error("Erreur analyse apprenant {} formation {} : {}",
-                        inscription.getApprenant().getEmail(),
-                        inscription.getFormation().getId(),
-                        e.getMessage(), e);
-            }
+    @Override
+    public ProgressionAnalyseRisque lancerAnalyseGlobale(boolean complete) {
+        if (!batchEnCours.compareAndSet(false, true)) {
+            throw new IllegalStateException("Une analyse globale est déjà en cours");
         }
-        log.info("═══ Analyse terminée : {}/{} analysés ═══",
-                analysees, inscriptions.size());
+        progressionBatch = ProgressionAnalyseRisque.builder()
+                .enCours(true).dateDebut(LocalDateTime.now()).build();
+        try {
+            lanceur.execute(() -> {
+                try {
+                    executerBatch(complete);
+                } catch (Exception e) {
+                    log.error("Erreur analyse risque globale : {}", e.getMessage(), e);
+                    progressionBatch.setEnCours(false);
+                    progressionBatch.setDateFin(LocalDateTime.now());
+                } finally {
+                    batchEnCours.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Arrêt de l'application en cours
+            batchEnCours.set(false);
+            throw new IllegalStateException("Analyse globale indisponible : arrêt en cours");
+        }
+        return progressionBatch;
     }
 
     // Lance l'analyse 2 minutes après le démarrage
     @Scheduled(initialDelay = 120_000, fixedDelay = Long.MAX_VALUE)
-    @Transactional
     public void analyserAuDemarrage() {
         log.info("═══ Analyse risque au démarrage ═══");
         analyserTousLesApprenants();
     }
 
+    @Override
+    public ProgressionAnalyseRisque getProgressionAnalyseGlobale() {
+        return progressionBatch;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        lanceur.shutdownNow();
+    }
+
+    // ═══════════════════════════════════════════════════════
+    // BATCH — métriques groupées, appels IA parallèles, commit par lot
+    // ═══════════════════════════════════════════════════════
+
+    private void executerBatch(boolean complete) {
+        log.info("═══ Démarrage analyse risque abandon ({}) ═══",
+                complete ? "complète" : "incrémentale");
+        long debut = System.nanoTime();
+
+        List<InscriptionEntity> inscriptionsActives =
+                inscriptionRepo.findAllPayeesAvecApprenantEtFormation();
+
+        log.info("Inscriptions actives : {}", inscriptionsActives.size());
+
+        // ── 1. Toutes les métriques en requêtes agrégées ─────────
+        Map<String, Object[]> progressions = new HashMap<>();
+        progressionRepo.agregerParApprenantEtFormation()
+                .forEach(row -> progressions.put(cle(row[0], row[1]), row));
+
+        Map<String, Double>        scores      = new HashMap<>();
+        Map<String, LocalDateTime> derniersQuiz = new HashMap<>();
+        miniQuizRepo.findScoresMoyensParEmailEtFormation()
+                .forEach(row -> {
+                    scores.put(cle(row[0], row[1]), (Double) row[2]);
+                    derniersQuiz.put(cle(row[0], row[1]), (LocalDateTime) row[3]);
+                });
+
+        Map<Long, Long> coursParFormation = new HashMap<>();
+        coursRepository.countCoursPubliesParFormation()
+                .forEach(row -> coursParFormation.put((Long) row[0], (Long) row[1]));
+
+        Set<String> dejaNotifies = new HashSet<>();
+        analyseRepo.findApprenantsNotifiesDepuis(LocalDateTime.now().minusHours(24))
+                .forEach(row -> dejaNotifies.add(cle(row[0], row[1])));
+
+        // ── 2. Sélection incrémentale : seules les entrées modifiées ──
+        List<InscriptionEntity> inscriptions = inscriptionsActives;
+        if (!complete) {
+            Map<String, DerniereAnalyse> dernieres = new HashMap<>();
+            // Lignes : [apprenantId, formationId, dateAnalyse, joursInactivite, progression]
+            analyseRepo.findDernieresAnalyses()
+                    .forEach(row -> dernieres.put(cle(row[0], row[1]),
+                            new DerniereAnalyse((LocalDateTime) row[2], (Integer) row[3], (Float) row[4])));
+
+            inscriptions = inscriptionsActives.stream()
+                    .filter(i -> doitEtreReanalysee(i,
+                            metriquesDuLot(i, progressions, scores, coursParFormation),
+                            progressions.get(cle(i.getApprenant().getId(), i.getFormation().getId())),
+                            derniersQuiz.get(cle(i.getApprenant().getEmail(), i.getFormation().getId())),
+                            dernieres.get(cle(i.getApprenant().getId(), i.getFormation().getId()))))
+                    .collect(Collectors.toList());
+        }
+        int total    = inscriptions.size();
+        int ignorees = inscriptionsActives.size() - total;
+
+        log.info("Inscriptions à ré-analyser : {} ({} inchangées ignorées)", total, ignorees);
+
+        // ── 3. Appels IA sur threads virtuels, concurrence bornée ──
+        // Le débit est déjà limité par PasserelleLLM (TokenBucket du canal) : un second
+        // limiteur ici ne ferait que s'ajouter au sien
+        Semaphore slots = new Semaphore(Math.max(1, concurrence));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        int traitees = 0;
+        int erreurs  = 0;
+        progressionBatch = ProgressionAnalyseRisque.builder()
+                .enCours(true).total(total).ignorees(ignorees)
+                .dateDebut(LocalDateTime.now()).build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i += tailleLot) {
+                List<InscriptionEntity> lot = inscriptions.subList(i, Math.min(total, i + tailleLot));
+
+                List<Future<Resultat>> futures = new ArrayList<>(lot.size());
+                for (InscriptionEntity inscription : lot) {
+                    Metriques m = metriquesDuLot(inscription, progressions, scores, coursParFormation);
+                    futures.add(executor.submit(() -> {
+                        AnalyseRisque contexte = construireContexte(inscription, m);
+                        slots.acquire();
+                        try {
+                            return new Resultat(inscription, contexte, deepSeekPort.analyserRisque(contexte));
+                        } finally {
+                            slots.release();
+                        }
+                    }));
+                }
+
+                List<Resultat> resultats = new ArrayList<>(lot.size());
+                for (int j = 0; j < futures.size(); j++) {
+                    try {
+                        resultats.add(futures.get(j).get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Analyse risque interrompue", e);
+                    } catch (ExecutionException e) {
+                        erreurs++;
+                        InscriptionEntity ins = lot.get(j);
+                        log.error("Erreur analyse apprenant {} formation {} : {}",
+                                ins.getApprenant().getEmail(), ins.getFormation().getId(),
+                                e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    }
+                }
+
+                // ── 4. Commit du lot (analyses + notifications + emails en outbox) ──
+                try {
+                    Set<String> notifies = tx.execute(status -> persisterLot(resultats, dejaNotifies));
+                    // Seulement après commit : un lot annulé ne doit pas bloquer ses notifications
+                    if (notifies != null) dejaNotifies.addAll(notifies);
+                } catch (Exception e) {
+                    erreurs += resultats.size();
+                    log.error("Erreur commit lot d'analyses risque : {}", e.getMessage(), e);
+                }
+
+                traitees += lot.size();
+                double secondes = (System.nanoTime() - debut) / 1e9;
+                progressionBatch = ProgressionAnalyseRisque.builder()
+                        .enCours(true).total(total).ignorees(ignorees)
+                        .traitees(traitees).erreurs(erreurs)
+                        .dateDebut(progressionBatch.getDateDebut())
+                        .debitParSeconde(secondes > 0 ? traitees / secondes : 0)
+                        .build();
+                log.info("Analyse risque : {}/{} ({} erreurs, {} inscriptions/s)",
+                        traitees, total, erreurs,
+                        String.format("%.1f", progressionBatch.getDebitParSeconde()));
+            }
+        }
+
+        progressionBatch.setEnCours(false);
+        progressionBatch.setDateFin(LocalDateTime.now());
+        log.info("═══ Analyse terminée : {}/{} ré-analysés, {} ignorés en {}s ═══",
+                traitees - erreurs, total, ignorees,
+                (System.nanoTime() - debut) / 1_000_000_000L);
+    }
+
+    private Metriques metriquesDuLot(InscriptionEntity inscription,
+                                     Map<String, Object[]> progressions,
+                                     Map<String, Double> scores,
+                                     Map<Long, Long> coursParFormation) {
+        Long apprenantId = inscription.getApprenant().getId();
+        Long formationId = inscription.getFormation().getId();
+        Object[] p = progressions.get(cle(apprenantId, formationId));
+
+        return new Metriques(
+                p != null ? ((Number) p[2]).intValue() : 0,
+                p != null ? ((Number) p[3]).intValue() : 0,
+                p != null ? ((Number) p[4]).intValue() : 0,
+                p != null ? (LocalDateTime) p[5] : null,
+                scores.get(cle(inscription.getApprenant().getEmail(), formationId)),
+                coursParFormation.getOrDefault(formationId, 0L));
+    }
+
+    /**
+     * Une inscription est ré-analysée si :
+     *  - elle n'a jamais été analysée, ou sa dernière analyse est trop ancienne
+     *  - une progression ou un mini-quiz a été enregistré depuis
+     *  - l'inactivité a franchi un palier du score (7 / 14 / 21 jours)
+     *  - la progression calculée a changé (cours publiés/retirés)
+     */
+    private boolean doitEtreReanalysee(InscriptionEntity inscription, Metriques m,
+                                       Object[] progression, LocalDateTime dernierQuiz,
+                                       DerniereAnalyse derniere) {
+        if (derniere == null || derniere.dateAnalyse() == null) return true;
+
+        LocalDateTime depuis = derniere.dateAnalyse();
+        if (depuis.isBefore(LocalDateTime.now().minusDays(ageMaxJours))) return true;
+
+        LocalDateTime derniereModif = progression != null ? (LocalDateTime) progression[6] : null;
+        if (derniereModif != null && derniereModif.isAfter(depuis)) return true;
+        if (dernierQuiz   != null && dernierQuiz.isAfter(depuis))   return true;
+
+        int jours = calculerJoursInactivite(inscription, inscription.getApprenant(), m.derniereActivite());
+        int ancien = derniere.joursInactivite() != null ? derniere.joursInactivite() : 0;
+        if (palierInactivite(jours) != palierInactivite(ancien)) return true;
+
+        return derniere.progression() == null
+                || Float.compare(derniere.progression(), calculerProgressionReelle(m)) != 0;
+    }
+
+    // Mêmes seuils que le score local (MistralRisqueAdapter.calculerScoreLocal)
+    private static int palierInactivite(int jours) {
+        if (jours > 21) return 3;
+        if (jours > 14) return 2;
+        if (jours >= 7) return 1;
+        return 0;
+    }
+
+    /** @return les clés apprenant:formation notifiées par ce lot (à retenir une fois commité) */
+    private Set<String> persisterLot(List<Resultat> resultats, Set<String> dejaNotifies) {
+        List<AnalyseRisqueEntity> entities = resultats.stream()
+                .map(r -> toEntity(r.contexte(), r.analyse()))
+                .collect(Collectors.toList());
+        analyseRepo.saveAll(entities);
+
+        // Anti-spam 24h : une seule notification par apprenant/formation
+        Set<String> notifies = new HashSet<>();
+        List<AnalyseRisqueEntity> aNotifier = entities.stream()
+                .filter(a -> {
+                    String cle = cle(a.getApprenantId(), a.getFormationId());
+                    return !dejaNotifies.contains(cle) && notifies.add(cle);
+                })
+                .collect(Collectors.toList());
+
+        Map<Long, UserEntity> users = userRepo.findAllById(
+                        aNotifier.stream().map(AnalyseRisqueEntity::getApprenantId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(UserEntity::getId, u -> u));
+
+        Map<String, ApprenantEntity> apprenants = new HashMap<>();
+        resultats.forEach(r -> apprenants.put(
+                cle(r.inscription().getApprenant().getId(), r.inscription().getFormation().getId()),
+                r.inscription().getApprenant()));
+
+        List<NotificationEntity> notifs = new ArrayList<>();
+        for (AnalyseRisqueEntity analyse : aNotifier) {
+            UserEntity user = users.get(analyse.getApprenantId());
+            if (user == null) {
+                log.warn("UserEntity non trouvé id={}", analyse.getApprenantId());
+                continue;
+            }
+            notifs.add(construireNotification(user, analyse));
+            analyse.setNotificationEnvoyee(true);
+
+            // Email mis en file dans la même transaction : commité avec l'analyse, ou pas du tout
+            ApprenantEntity apprenant = apprenants.get(cle(analyse.getApprenantId(), analyse.getFormationId()));
+            if (apprenant != null) {
+                risqueEmailService.envoyerEmailMotivation(apprenant, analyse);
+            }
+        }
+        notifRepo.saveAll(notifs);
+        return notifies;
+    }
+
+    // emailEnvoye = true seulement quand le dispatcher a réellement envoyé l'email
+    @EventListener
+    public void surEmailEnvoye(EmailEnvoyeEvent event) {
+        if (RisqueEmailService.TYPE_REFERENCE.equals(event.typeReference())) {
+            analyseRepo.marquerEmailsEnvoyes(List.of(event.referenceId()));
+        }
+    }
+
+    private static String cle(Object a, Object b) {
+        return a + ":" + b;
+    }
+
     // ═══════════════════════════════════════════════════════
     // ANALYSE D'UNE INSCRIPTION
     // ═══════════════════════════════════════════════════════
 
     private void analyserInscriptionInterne(InscriptionEntity inscription) {
 
+        ApprenantEntity apprenant   = inscription.getApprenant();
+        Long            formationId = inscription.getFormation().getId();
+        String          email       = apprenant.getEmail();
+
+        Metriques m = new Metriques(
+                progressionRepo.countVideosVues(email, formationId),
+                progressionRepo.countDocumentsOuverts(email, formationId),
+                progressionRepo.countQuizPasses(email, formationId),
+                progressionRepo.findDerniereActiviteParFormation(apprenant.getId(), formationId),
+                miniQuizRepo.findScoreMoyenByEmailAndFormation(email, formationId).orElse(null),
+                coursRepository.findCoursPubiesByFormationId(formationId).size());
+
+        AnalyseRisque contexte = construireContexte(inscription, m);
+
+        // ── Appeler Mistral (ou fallback local) ──────────────────
+        AnalyseRisque resultat = deepSeekPort.analyserRisque(contexte);
+
+        // ── Persister l'analyse ──────────────────────────────────
+        AnalyseRisqueEntity saved = analyseRepo.save(toEntity(contexte, resultat));
+
+        // ── Notifier TOUS les niveaux (anti-spam 24h) ────────────
+        boolean dejaNotifie = analyseRepo.existsNotificationRecentePourApprenant(
+                apprenant.getId(),
+                formationId,
+                LocalDateTime.now().minusHours(24)
+        );
+
+        if (!dejaNotifie) {
+            envoyerNotificationEtEmail(apprenant, saved);
+        } else {
+            log.info("Déjà notifié dans les 24h : {} formation={}",
+                    email, formationId);
+        }
+    }
+
+    private AnalyseRisque construireContexte(InscriptionEntity inscription, Metriques m) {
+
         ApprenantEntity apprenant      = inscription.getApprenant();
         Long            formationId    = inscription.getFormation().getId();
         String          email          = apprenant.getEmail();
-        String          formationTitre = inscription.getFormation().getTitre();
 
         // ── 1. Jours d'inactivité depuis progression_cours ───────
-        int joursInactivite = calculerJoursInactivite(inscription, apprenant);
+        int joursInactivite = calculerJoursInactivite(inscription, apprenant, m.derniereActivite());
 
         // ── 2. Progression RÉELLE depuis progression_cours ───────
-        float progression = calculerProgressionReelle(email, formationId);
-
-        // ── 3. Vidéos + docs + quiz ──────────────────────────────
-        int videosVues       = progressionRepo.countVideosVues(email, formationId);
-        int documentsOuverts = progressionRepo.countDocumentsOuverts(email, formationId);
-        int quizPasses       = progressionRepo.countQuizPasses(email, formationId);
+        float progression = calculerProgressionReelle(m);
 
-        // ── 4. Score moyen mini-quiz ─────────────────────────────
-        // IMPORTANT : isPresent() sans > 0
+        // ── 3. Score moyen mini-quiz ─────────────────────────────
+        // IMPORTANT : présence sans > 0
         // car score=0% est un vrai score valide (pas un fallback)
-        float scoreMoyen;
-        Optional<Double> scoreBD =
-                miniQuizRepo.findScoreMoyenByEmailAndFormation(email, formationId);
-
-        if (scoreBD.isPresent()) {
-            // Score réel depuis resultats_mini_quiz (même si 0%)
-            scoreMoyen = scoreBD.get().floatValue();
-            log.debug("Score quiz depuis BD : {}%", (int) scoreMoyen);
-        } else {
-            // Aucun résultat en BD → pas encore passé → neutre
-            scoreMoyen = 60f;
-            log.debug("Aucun résultat quiz en BD → score neutre 60%");
-        }
+        // Aucun résultat en BD → pas encore passé → neutre 60%
+        float scoreMoyen = m.scoreMoyen() != null ? m.scoreMoyen().floatValue() : 60f;
 
-        log.info("Données [{} / formation={}] : prog={}% | inact={}j | " +
+        log.debug("Données [{} / formation={}] : prog={}% | inact={}j | " +
                         "quiz={}% | quizPassés={} | vidéos={}",
                 email, formationId,
                 (int) progression, joursInactivite,
-                (int) scoreMoyen, quizPasses, videosVues);
+                (int) scoreMoyen, m.quizPasses(), m.videosVues());
 
-        // ── 5. Construire le contexte ────────────────────────────
-        AnalyseRisque contexte = AnalyseRisque.builder()
+        // ── 4. Construire le contexte ────────────────────────────
+        return AnalyseRisque.builder()
                 .apprenantId(apprenant.getId())
                 .apprenantEmail(email)
                 .apprenantPrenom(apprenant.getPrenom())
                 .apprenantNom(apprenant.getNom())
                 .formationId(formationId)
-                .formationTitre(formationTitre)
+                .formationTitre(inscription.getFormation().getTitre())
                 .joursInactivite(joursInactivite)
                 .progression(progression)
                 .scoreMoyenQuiz(scoreMoyen)
-                .nbQuizPasses(quizPasses)
-                .nbVideosVues(videosVues)
-                .nbDocumentsOuverts(documentsOuverts)
+                .nbQuizPasses(m.quizPasses())
+                .nbVideosVues(m.videosVues())
+                .nbDocumentsOuverts(m.documentsOuverts())
                 .build();
+    }
 
-        // ── 6. Appeler Mistral (ou fallback local) ───────────────
-        AnalyseRisque resultat = deepSeekPort.analyserRisque(contexte);
-
-        log.info("Résultat : niveau={} score={} | {}",
+    private AnalyseRisqueEntity toEntity(AnalyseRisque contexte, AnalyseRisque resultat) {
+        log.debug("Résultat {} : niveau={} score={} | {}",
+                contexte.getApprenantEmail(),
                 resultat.getNiveauRisque(),
                 resultat.getScoreRisque() != null
                         ? resultat.getScoreRisque().intValue() : 0,
                 resultat.getExplication());
 
-        // ── 7. Persister l'analyse ───────────────────────────────
-        AnalyseRisqueEntity entity = AnalyseRisqueEntity.builder()
-                .apprenantId(apprenant.getId())
-                .apprenantEmail(email)
-                .formationId(formationId)
-                .formationTitre(formationTitre)
+        return AnalyseRisqueEntity.builder()
+                .apprenantId(contexte.getApprenantId())
+                .apprenantEmail(contexte.getApprenantEmail())
+                .formationId(contexte.getFormationId())
+                .formationTitre(contexte.getFormationTitre())
                 .niveauRisque(resultat.getNiveauRisque())
                 .scoreRisque(resultat.getScoreRisque())
-                .joursInactivite(joursInactivite)
-                .progression(progression)
-                .scoreMoyenQuiz(scoreMoyen)
-                .nbQuizPasses(quizPasses)
-                .nbVideosVues(videosVues)
-                .nbDocumentsOuverts(documentsOuverts)
+                .joursInactivite(contexte.getJoursInactivite())
+                .progression(contexte.getProgression())
+                .scoreMoyenQuiz(contexte.getScoreMoyenQuiz())
+                .nbQuizPasses(contexte.getNbQuizPasses())
+                .nbVideosVues(contexte.getNbVideosVues())
+                .nbDocumentsOuverts(contexte.getNbDocumentsOuverts())
                 .explication(resultat.getExplication())
                 .recommandationIA(resultat.getRecommandationIA())
                 .notificationEnvoyee(false)
                 .emailEnvoye(false)
                 .dateAnalyse(LocalDateTime.now())
                 .build();
-
-        AnalyseRisqueEntity saved = analyseRepo.save(entity);
-
-        // ── 8. Notifier TOUS les niveaux (anti-spam 24h) ─────────
-        boolean dejaNotifie = analyseRepo.existsNotificationRecentePourApprenant(
-                apprenant.getId(),
-                formationId,
-                LocalDateTime.now().minusHours(24)
-        );
-
-        if (!dejaNotifie) {
-            envoyerNotificationEtEmail(apprenant, saved);
-        } else {
-            log.info("Déjà notifié dans les 24h : {} formation={}",
-                    email, formationId);
-        }
     }
 
     // ═══════════════════════════════════════════════════════
     // CALCUL PROGRESSION RÉELLE depuis progression_cours
     // ═══════════════════════════════════════════════════════
 
-    private float calculerProgressionReelle(String email, Long formationId) {
-        try {
-            int totalCours =
-                    coursRepository.findCoursPubiesByFormationId(formationId).size();
-            if (totalCours == 0) return 0f;
-
-            int videosVues       = progressionRepo.countVideosVues(email, formationId);
-            int documentsOuverts = progressionRepo.countDocumentsOuverts(email, formationId);
-            int quizPasses       = progressionRepo.countQuizPasses(email, formationId);
-
-            double prog =
-                    ((double) videosVues       / totalCours * 50)
-                            + ((double) documentsOuverts / totalCours * 20)
-                            + ((double) quizPasses       / totalCours * 30);
-
-            float result = (float) Math.min(
-                    Math.round(prog * 10.0) / 10.0, 100.0);
+    private float calculerProgressionReelle(Metriques m) {
+        if (m.totalCours() == 0) return 0f;
 
-            log.debug("Progression réelle {} formation={} : {}% " +
-                            "(vidéos={} docs={} quiz={} / total={})",
-                    email, formationId, result,
-                    videosVues, documentsOuverts, quizPasses, totalCours);
+        double prog =
+                ((double) m.videosVues()       / m.totalCours() * 50)
+                        + ((double) m.documentsOuverts() / m.totalCours() * 20)
+                        + ((double) m.quizPasses()       / m.totalCours() * 30);
 
-            return result;
-
-        } catch (Exception e) {
-            log.warn("Erreur calcul progression réelle pour {} : {}",
-                    email, e.getMessage());
-            return 0f;
-        }
+        return (float) Math.min(Math.round(prog * 10.0) / 10.0, 100.0);
     }
 
     // ═══════════════════════════════════════════════════════
@@ -222,25 +502,13 @@ public class RisqueAbandonService implements RisqueAbandonUseCase {
     // ═══════════════════════════════════════════════════════
 
     private int calculerJoursInactivite(InscriptionEntity inscription,
-                                        ApprenantEntity apprenant) {
-
-        Long formationId = inscription.getFormation().getId();
-        Long apprenantId = apprenant.getId();
+                                        ApprenantEntity apprenant,
+                                        LocalDateTime derniereProgression) {
 
         // Priorité 1 : progression_cours
-        try {
-            LocalDateTime derniereDate =
-                    progressionRepo.findDerniereActiviteParFormation(
-                            apprenantId, formationId);
-            if (derniereDate != null) {
-                int jours = (int) ChronoUnit.DAYS.between(
-                        derniereDate, LocalDateTime.now());
-                log.debug("Inactivité depuis progression_cours : {}j ({})",
-                        jours, apprenant.getEmail());
-                return Math.max(0, jours);
-            }
-        } catch (Exception e) {
-            log.warn("Erreur calcul inactivité : {}", e.getMessage());
+        if (derniereProgression != null) {
+            return Math.max(0, (int) ChronoUnit.DAYS.between(
+                    derniereProgression, LocalDateTime.now()));
         }
 
         // Priorité 2 : dernier_activite
@@ -277,43 +545,7 @@ public class RisqueAbandonService implements RisqueAbandonUseCase {
                 return;
             }
 
-            String emoji = switch (analyse.getNiveauRisque()) {
-                case "ELEVE"  -> "🚨";
-                case "MOYEN"  -> "⚠️";
-                default       -> "✅";
-            };
-
-            String titre = switch (analyse.getNiveauRisque()) {
-                case "ELEVE"  -> emoji + " Reprenez votre formation !";
-                case "MOYEN"  -> emoji + " Continuez vos efforts !";
-                default       -> emoji + " Excellent travail, continuez !";
-            };
-
-            String message = switch (analyse.getNiveauRisque()) {
-                case "ELEVE"  ->
-                        "Votre formation vous attend. " +
-                                (analyse.getRecommandationIA() != null
-                                        ? analyse.getRecommandationIA() : "Revenez dès maintenant !");
-                case "MOYEN"  ->
-                        "Quelques efforts et vous y êtes. " +
-                                (analyse.getRecommandationIA() != null
-                                        ? analyse.getRecommandationIA() : "Restez régulier !");
-                default       ->
-                        analyse.getRecommandationIA() != null
-                                ? analyse.getRecommandationIA()
-                                : "Continuez sur cette lancée !";
-            };
-
-            // Notification in-app
-            NotificationEntity notif = NotificationEntity.builder()
-                    .user(user)
-                    .type("MOTIVATION")
-                    .titre(titre)
-                    .message(message)
-                    .formationId(analyse.getFormationId())
-                    .build();
-
-            notifRepo.save(notif);
+            notifRepo.save(construireNotification(user, analyse));
             analyse.setNotificationEnvoyee(true);
             analyseRepo.save(analyse);
 
@@ -324,9 +556,7 @@ public class RisqueAbandonService implements RisqueAbandonUseCase {
             if (!analyse.isEmailEnvoye()) {
                 try {
                     risqueEmailService.envoyerEmailMotivation(apprenant, analyse);
-                    analyse.setEmailEnvoye(true);
-                    analyseRepo.save(analyse);
-                    log.info("✓ Email {} → {}", analyse.getNiveauRisque(),
+                    log.info("✓ Email {} → {} (mis en file)", analyse.getNiveauRisque(),
                             apprenant.getEmail());
                 } catch (Exception e) {
                     log.error("Erreur email : {}", e.getMessage());
@@ -339,6 +569,44 @@ public class RisqueAbandonService implements RisqueAbandonUseCase {
         }
     }
 
+    private NotificationEntity construireNotification(UserEntity user, AnalyseRisqueEntity analyse) {
+        String emoji = switch (analyse.getNiveauRisque()) {
+            case "ELEVE"  -> "🚨";
+            case "MOYEN"  -> "⚠️";
+            default       -> "✅";
+        };
+
+        String titre = switch (analyse.getNiveauRisque()) {
+            case "ELEVE"  -> emoji + " Reprenez votre formation !";
+            case "MOYEN"  -> emoji + " Continuez vos efforts !";
+            default       -> emoji + " Excellent travail, continuez !";
+        };
+
+        String message = switch (analyse.getNiveauRisque()) {
+            case "ELEVE"  ->
+                    "Votre formation vous attend. " +
+                            (analyse.getRecommandationIA() != null
+                                    ? analyse.getRecommandationIA() : "Revenez dès maintenant !");
+            case "MOYEN"  ->
+                    "Quelques efforts et vous y êtes. " +
+                            (analyse.getRecommandationIA() != null
+                                    ? analyse.getRecommandationIA() : "Restez régulier !");
+            default       ->
+                    analyse.getRecommandationIA() != null
+                            ? analyse.getRecommandationIA()
+                            : "Continuez sur cette lancée !";
+        };
+
+        // Notification in-app
+        return NotificationEntity.builder()
+                .user(user)
+                .type("MOTIVATION")
+                .titre(titre)
+                .message(message)
+                .formationId(analyse.getFormationId())
+                .build();
+    }
+
     // ═══════════════════════════════════════════════════════
     // USE CASE — MÉTHODES PUBLIQUES
     // ═══════════════════════════════════════════════════════
@@ -1,13 +1,12 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
 import com.digitalisyours.infrastructure.persistence.entity.AnalyseRisqueEntity;
 import com.digitalisyours.infrastructure.persistence.entity.ApprenantEntity;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,10 +14,9 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class RisqueEmailService {
 
-    private final JavaMailSender mailSender;
+    public static final String TYPE_REFERENCE = "ANALYSE_RISQUE";
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxPort outbox;
 
     @Value("${app.base-url:http://localhost:4200}")
     private String baseUrl;
@@ -33,16 +31,16 @@ public class RisqueEmailService {
             String sujet = buildSujet(analyse);
             String html  = buildEmailHtml(apprenant, analyse);
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper =
-                    new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(apprenant.getEmail());
-            helper.setSubject(sujet);
-            helper.setText(html, true);
-            mailSender.send(message);
+            // emailEnvoye passe à true quand le dispatcher a réellement envoyé (EmailEnvoyeEvent)
+            outbox.enregistrer(EmailSortant.builder()
+                    .destinataire(apprenant.getEmail())
+                    .sujet(sujet)
+                    .html(html)
+                    .typeReference(TYPE_REFERENCE)
+                    .referenceId(analyse.getId())
+                    .build());
 
-            log.info("Email {} envoyé à {} ({})",
+            log.info("Email {} mis en file pour {} ({})",
                     analyse.getNiveauRisque(),
                     apprenant.getEmail(),
                     analyse.getNiveauRisque());
@@ -1,15 +1,14 @@
 package com.digitalisyours.application.service;
 
+import com.digitalisyours.domain.model.EmailSortant;
 import com.digitalisyours.domain.model.SeanceEnLigne;
-import jakarta.mail.internet.MimeMessage;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
 
 @Service
@@ -17,33 +16,38 @@ import java.util.Locale;
 @Slf4j
 public class SeanceEmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxPort outbox;
 
     public void envoyerInvitation(String emailApprenant, String prenomApprenant,
                                   SeanceEnLigne seance) {
         try {
-            String dateFormatee = seance.getDateSeance()
-                    .format(DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'à' HH'h'mm", Locale.FRENCH));
-            String duree = formatDuree(seance.getDureeMinutes());
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(emailApprenant);
-            helper.setSubject("📹 Séance en ligne — " + seance.getFormationTitre()
-                    + " — " + seance.getDateSeance()
-                    .format(DateTimeFormatter.ofPattern("d MMM", Locale.FRENCH)));
-            helper.setText(buildHtml(prenomApprenant, seance, dateFormatee, duree), true);
-            mailSender.send(message);
-            log.info("Email séance envoyé à {}", emailApprenant);
+            outbox.enregistrer(construireInvitation(emailApprenant, prenomApprenant, seance));
+            log.info("Email séance mis en file pour {}", emailApprenant);
         } catch (Exception e) {
             log.error("Erreur envoi email séance : {}", e.getMessage());
         }
     }
 
+    // Diffusion en masse : un seul INSERT batch dans l'outbox pour tout le lot
+    public void envoyerInvitations(List<EmailSortant> invitations) {
+        outbox.enregistrerTous(invitations);
+    }
+
+    public EmailSortant construireInvitation(String emailApprenant, String prenomApprenant,
+                                             SeanceEnLigne seance) {
+        String dateFormatee = seance.getDateSeance()
+                .format(DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'à' HH'h'mm", Locale.FRENCH));
+        String duree = formatDuree(seance.getDureeMinutes());
+
+        return EmailSortant.builder()
+                .destinataire(emailApprenant)
+                .sujet("📹 Séance en ligne — " + seance.getFormationTitre()
+                        + " — " + seance.getDateSeance()
+                        .format(DateTimeFormatter.ofPattern("d MMM", Locale.FRENCH)))
+                .html(buildHtml(prenomApprenant, seance, dateFormatee, duree))
+                .build();
+    }
+
     private String formatDuree(int min) {
         int h = min / 60, m = min % 60;
         if (h > 0 && m > 0) return h + "h" + m + "min";
@@ -1,19 +1,27 @@
 package com.digitalisyours.application.service;
 
-import com.digitalisyours.domain.model.Apprenant;
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.model.Notification;
+import com.digitalisyours.domain.model.ProgressionDiffusionSeance;
 import com.digitalisyours.domain.model.SeanceEnLigne;
 import com.digitalisyours.domain.port.in.SeanceUseCase;
 import com.digitalisyours.domain.port.out.*;
-import com.digitalisyours.infrastructure.persistence.entity.InscriptionEntity;
 import com.digitalisyours.infrastructure.persistence.repository.InscriptionJpaRepository;
 import com.digitalisyours.infrastructure.persistence.repository.UserJpaRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +35,13 @@ public class SeanceService implements SeanceUseCase {
     private final SeanceEmailService emailService;
     private final InscriptionJpaRepository inscriptionJpaRepository;
     private final UserJpaRepository userJpaRepository;
+    private final PlatformTransactionManager transactionManager;
 
     private static final String JITSI_BASE = "https://meet.jit.si/";
+    private static final int TAILLE_LOT = 500;
+
+    private final ExecutorService diffuseur = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, ProgressionDiffusionSeance> diffusions = new ConcurrentHashMap<>();
 
     @Override
     public SeanceEnLigne creerSeance(String emailFormateur, Map<String, Object> payload) {
@@ -75,67 +88,148 @@ public class SeanceService implements SeanceUseCase {
         seance = seanceRepository.save(seance);
         final SeanceEnLigne seanceFinal = seance;
 
-        // 5. Notifier tous les apprenants inscrits à cette formation
-        notifierApprenants(seanceFinal);
+        // 5. Notifier les apprenants inscrits en arrière-plan (progression : getProgressionDiffusion)
+        diffusions.put(seanceFinal.getId(), ProgressionDiffusionSeance.builder()
+                .seanceId(seanceFinal.getId()).enCours(true).dateDebut(LocalDateTime.now()).build());
+        diffuseur.submit(() -> {
+            try {
+                notifierApprenants(seanceFinal);
+            } catch (Exception e) {
+                log.error("Erreur diffusion séance {} : {}", seanceFinal.getId(), e.getMessage(), e);
+                diffusions.computeIfPresent(seanceFinal.getId(), (id, p) ->
+                        etat(p, p.getTraites(), p.getErreurs(), LocalDateTime.now()));
+            }
+        });
 
         return seanceFinal;
     }
 
+    // ══════════════════════════════════════════════════════
+    // DIFFUSION (arrière-plan)
+    // ══════════════════════════════════════════════════════
+
+    /**
+     * Prévient les apprenants payés de la formation, par lots :
+     * notifications et emails (outbox) insérés en batch JDBC, un commit par lot.
+     * L'envoi SMTP lui-même est fait par le dispatcher de l'outbox.
+     */
     private void notifierApprenants(SeanceEnLigne seance) {
-        // Trouver toutes les inscriptions PAYÉES pour cette formation
-        List<InscriptionEntity> inscriptions = inscriptionJpaRepository
-                .findAllPayeesAvecApprenantEtFormation()
-                .stream()
-                .filter(i -> i.getFormation().getId().equals(seance.getFormationId()))
-                .toList();
+        long debut = System.nanoTime();
+
+        // [apprenantId, email, prenom] — seulement cette formation
+        List<Object[]> destinataires = inscriptionJpaRepository
+                .findDestinatairesPayesParFormation(seance.getFormationId());
+
+        ProgressionDiffusionSeance progression = ProgressionDiffusionSeance.builder()
+                .seanceId(seance.getId())
+                .enCours(true)
+                .total(destinataires.size())
+                .dateDebut(LocalDateTime.now())
+                .build();
+        diffusions.put(seance.getId(), progression);
 
         String dateFormatee = seance.getDateSeance()
                 .format(DateTimeFormatter.ofPattern("dd/MM/yyyy 'à' HH'h'mm", java.util.Locale.FRENCH));
+        String titreNotif = "📹 Séance en ligne — " + seance.getFormationTitre();
+        String messageNotif = "Une séance en ligne est planifiée le " + dateFormatee
+                + " pour la formation \"" + seance.getFormationTitre() + "\". "
+                + "Cliquez pour rejoindre : " + seance.getLienJitsi();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int traites = 0, erreurs = 0;
+
+        for (int i = 0; i < destinataires.size(); i += TAILLE_LOT) {
+            List<Object[]> lot = destinataires.subList(i, Math.min(i + TAILLE_LOT, destinataires.size()));
+
+            List<Notification> notifications = new ArrayList<>(lot.size());
+            List<EmailSortant> invitations = new ArrayList<>(lot.size());
+            for (Object[] d : lot) {
+                String emailApprenant = (String) d[1];
+                String prenomApprenant = d[2] != null ? (String) d[2] : "Apprenant";
+
+                notifications.add(Notification.builder()
+                        .userId((Long) d[0])
+                        .type("SEANCE_EN_LIGNE")
+                        .titre(titreNotif)
+                        .message(messageNotif)
+                        .formationId(seance.getFormationId())
+                        .formationTitre(seance.getFormationTitre())
+                        .build());
+                invitations.add(emailService.construireInvitation(emailApprenant, prenomApprenant, seance));
+            }
 
-        for (InscriptionEntity insc : inscriptions) {
             try {
-                String emailApprenant = insc.getApprenant().getEmail();
-                String prenomApprenant = insc.getApprenant().getPrenom() != null
-                        ? insc.getApprenant().getPrenom() : "Apprenant";
-
-                // a) Email
-                emailService.envoyerInvitation(emailApprenant, prenomApprenant, seance);
-
-                // b) Notification in-app
-                com.digitalisyours.infrastructure.persistence.entity.NotificationEntity notif =
-                        com.digitalisyours.infrastructure.persistence.entity.NotificationEntity.builder()
-                                .user(insc.getApprenant())
-                                .type("SEANCE_EN_LIGNE")
-                                .titre("📹 Séance en ligne — " + seance.getFormationTitre())
-                                .message("Une séance en ligne est planifiée le " + dateFormatee
-                                        + " pour la formation \"" + seance.getFormationTitre() + "\". "
-                                        + "Cliquez pour rejoindre : " + seance.getLienJitsi())
-                                .formationId(seance.getFormationId())
-                                .formationTitre(seance.getFormationTitre())
-                                .build();
-
-                // Accéder au NotificationJpaRepository via l'adapter est plus propre
-                // On va utiliser le port directement
-                saveNotificationDirectly(notif);
-
-                log.info("Apprenant notifié : {}", emailApprenant);
+                tx.executeWithoutResult(status -> {
+                    notificationRepository.creerEnLot(notifications);
+                    emailService.envoyerInvitations(invitations);
+                });
+                traites += lot.size();
             } catch (Exception e) {
-                log.error("Erreur notification apprenant {} : {}",
-                        insc.getApprenant().getEmail(), e.getMessage());
+                erreurs += lot.size();
+                log.error("Erreur diffusion séance {} (lot de {}) : {}",
+                        seance.getId(), lot.size(), e.getMessage());
             }
+
+            progression = etat(progression, traites, erreurs, null);
+            diffusions.put(seance.getId(), progression);
         }
 
-        // Mettre à jour notifEnvoyee
-        seance.setNotifEnvoyee(true);
-        seanceRepository.save(seance);
+        // Mettre à jour notifEnvoyee (relecture : la séance a pu être annulée entre-temps)
+        seanceRepository.findById(seance.getId()).ifPresent(s -> {
+            s.setNotifEnvoyee(true);
+            seanceRepository.save(s);
+        });
+
+        diffusions.put(seance.getId(), etat(progression, traites, erreurs, LocalDateTime.now()));
+        log.info("Séance {} : {}/{} apprenants notifiés ({} erreurs) en {} ms",
+                seance.getId(), traites, destinataires.size(), erreurs,
+                (System.nanoTime() - debut) / 1_000_000);
     }
 
-    // Injection directe pour les notifications (évite une dépendance circulaire)
-    private final com.digitalisyours.infrastructure.persistence.repository.NotificationJpaRepository notificationJpaRepository;
+    // Chaque avancement publie une nouvelle instance : le polling ne voit jamais un état partiel
+    private static ProgressionDiffusionSeance etat(ProgressionDiffusionSeance p, int traites,
+                                                   int erreurs, LocalDateTime dateFin) {
+        return ProgressionDiffusionSeance.builder()
+                .seanceId(p.getSeanceId())
+                .enCours(dateFin == null)
+                .total(p.getTotal())
+                .traites(traites)
+                .erreurs(erreurs)
+                .dateDebut(p.getDateDebut())
+                .dateFin(dateFin)
+                .build();
+    }
+
+    @Override
+    public ProgressionDiffusionSeance getProgressionDiffusion(Long seanceId, String emailFormateur) {
+        SeanceEnLigne seance = seanceRepository.findById(seanceId)
+                .orElseThrow(() -> new RuntimeException("Séance non trouvée"));
+        Long formateurId = userJpaRepository.findByEmail(emailFormateur)
+                .orElseThrow(() -> new RuntimeException("Formateur non trouvé"))
+                .getId();
+        if (!formateurId.equals(seance.getFormateurId()))
+            throw new SecurityException("Accès interdit à cette séance");
+
+        ProgressionDiffusionSeance progression = diffusions.get(seanceId);
+        if (progression != null) return progression;
+
+        // Diffusion plus ancienne que la rétention (ou redémarrage) : seul l'état final est connu
+        return ProgressionDiffusionSeance.builder()
+                .seanceId(seanceId)
+                .enCours(!Boolean.TRUE.equals(seance.getNotifEnvoyee()))
+                .build();
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void purgerDiffusionsTerminees() {
+        LocalDateTime limite = LocalDateTime.now().minusHours(24);
+        diffusions.values().removeIf(p ->
+                !p.isEnCours() && p.getDateFin() != null && p.getDateFin().isBefore(limite));
+    }
 
-    private void saveNotificationDirectly(
-            com.digitalisyours.infrastructure.persistence.entity.NotificationEntity notif) {
-        notificationJpaRepository.save(notif);
+    @PreDestroy
+    public void arreter() {
+        diffuseur.shutdown();
     }
 
     @Override
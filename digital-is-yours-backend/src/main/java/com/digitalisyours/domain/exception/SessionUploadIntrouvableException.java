@@ -0,0 +1,11 @@
+package com.digitalisyours.domain.exception;
+
+/**
+ * Session d'upload inconnue, expirée (purgée) ou déjà finalisée.
+ * Le client doit redémarrer l'upload : distincte d'un morceau refusé.
+ */
+public class SessionUploadIntrouvableException extends RuntimeException {
+    public SessionUploadIntrouvableException(String uploadId) {
+        super("Session d'upload introuvable ou expirée : " + uploadId);
+    }
+}
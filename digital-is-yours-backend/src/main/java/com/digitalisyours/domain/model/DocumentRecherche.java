@@ -0,0 +1,69 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class DocumentRecherche {
+    public static final String FORMATION = "FORMATION";
+    public static final String COURS     = "COURS";
+    public static final String QUESTION  = "QUESTION";
+    public static final String REPONSE   = "REPONSE";
+
+    private String type;          // FORMATION | COURS | QUESTION | REPONSE
+    private Long id;
+    private String titre;
+    private String texte;
+    private String statut;
+    private Long formationId;
+    private Long questionId;      // REPONSE : question parente
+
+    public static DocumentRecherche de(Formation f) {
+        return DocumentRecherche.builder()
+                .type(FORMATION).id(f.getId())
+                .titre(f.getTitre())
+                .texte(joindre(f.getDescription(), f.getObjectifsApprentissage(), f.getPourQui(),
+                        f.getCategorieNom(), f.getNiveau()))
+                .statut(f.getStatut())
+                .formationId(f.getId())
+                .build();
+    }
+
+    public static DocumentRecherche de(Cours c) {
+        return DocumentRecherche.builder()
+                .type(COURS).id(c.getId())
+                .titre(c.getTitre())
+                .texte(joindre(c.getDescription(), c.getObjectifs()))
+                .statut(c.getStatut())
+                .formationId(c.getFormationId())
+                .build();
+    }
+
+    public static DocumentRecherche de(QuestionForum q) {
+        return DocumentRecherche.builder()
+                .type(QUESTION).id(q.getId())
+                .titre(q.getTitre())
+                .texte(joindre(q.getContenu(), q.getTags() != null ? String.join(" ", q.getTags()) : null))
+                .statut(q.getStatut())
+                .formationId(q.getFormationId())
+                .build();
+    }
+
+    public static DocumentRecherche deReponse(Long id, Long questionId, Long formationId, String contenu) {
+        return DocumentRecherche.builder()
+                .type(REPONSE).id(id)
+                .texte(contenu)
+                .formationId(formationId)
+                .questionId(questionId)
+                .build();
+    }
+
+    private static String joindre(String... parties) {
+        StringBuilder sb = new StringBuilder();
+        for (String p : parties) {
+            if (p == null || p.isBlank()) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(p);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package com.digitalisyours.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailSortant {
+    private String destinataire;
+    private String sujet;
+    private String html;
+    private String nomExpediteur;      // optionnel, ex. "Digital Is Yours"
+
+    // Pièce jointe optionnelle
+    private String pieceJointeNom;
+    private String pieceJointeType;
+    private byte[] pieceJointe;
+
+    // Objet métier à mettre à jour une fois l'email parti (ex. CERTIFICAT / 12)
+    private String typeReference;
+    private Long referenceId;
+}
@@ -0,0 +1,19 @@
+package com.digitalisyours.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FichierStocke {
+    private Path chemin;
+    private String nomFichier;
+    private long taille;
+    private String sha256;
+}
@@ -0,0 +1,29 @@
+package com.digitalisyours.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobGenerationQuiz {
+    private String id;
+    private String type;            // MiniQuiz / QuizFinal
+    private Long formationId;
+    private Long coursId;           // null pour un Quiz Final
+    private String email;
+    private String statut;          // EN_ATTENTE / EN_COURS / TERMINE / ECHEC
+    private String message;         // erreur si ECHEC
+    private LocalDateTime dateCreation;
+    private LocalDateTime dateFin;
+    private Quiz quiz;              // résultat une fois TERMINE
+
+    public boolean isTermine() {
+        return "TERMINE".equals(statut) || "ECHEC".equals(statut);
+    }
+}
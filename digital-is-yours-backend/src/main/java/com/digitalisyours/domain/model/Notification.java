@@ -6,11 +6,18 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
+    // Types de notifications réservés aux formateurs (masqués côté apprenant)
+    public static final List<String> TYPES_FORMATEUR = List.of(
+            "FORMATION_AFFECTEE", "FORMATION_RETIREE", "FORMATEUR"
+    );
+
     private Long id;
     private Long userId;
     private String type;
@@ -0,0 +1,10 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+import java.util.List;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class PageNotifications {
+    private List<Notification> notifications;
+    private String curseurSuivant;   // null : dernière page
+}
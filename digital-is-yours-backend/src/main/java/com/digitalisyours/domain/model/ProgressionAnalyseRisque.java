@@ -0,0 +1,16 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class ProgressionAnalyseRisque {
+    private boolean enCours;
+    private int total;        // inscriptions à ré-analyser
+    private int ignorees;     // inscriptions inchangées depuis la dernière analyse
+    private int traitees;
+    private int erreurs;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+    private double debitParSeconde;   // inscriptions analysées / s
+}
@@ -0,0 +1,15 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class ProgressionDiffusionSeance {
+    private Long seanceId;
+    private boolean enCours;
+    private int total;         // apprenants à prévenir
+    private int traites;       // notifications créées + emails mis en file
+    private int erreurs;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+}
@@ -0,0 +1,14 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class ProgressionEnvoiCertificats {
+    private boolean enCours;
+    private int total;        // certificats retenus par les filtres
+    private int traites;      // emails mis en file
+    private int erreurs;
+    private LocalDateTime dateDebut;
+    private LocalDateTime dateFin;
+}
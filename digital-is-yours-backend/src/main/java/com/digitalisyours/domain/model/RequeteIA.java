@@ -0,0 +1,14 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+
+/** Appel chat/completions : un message système + un message utilisateur. */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class RequeteIA {
+    private String fournisseur;     // ModeleLangagePort.GROQ | ModeleLangagePort.MISTRAL
+    private String modele;
+    private String systeme;
+    private String prompt;
+    private double temperature;
+    private int    maxTokens;
+}
@@ -0,0 +1,14 @@
+package com.digitalisyours.domain.model;
+
+import lombok.*;
+
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class ResultatRecherche {
+    private String type;
+    private Long id;
+    private Long formationId;
+    private Long questionId;
+    private String titre;         // termes trouvés entourés de <mark>
+    private String extrait;       // passage du texte autour des termes trouvés
+    private double score;
+}
@@ -0,0 +1,29 @@
+package com.digitalisyours.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionUpload {
+    private String id;
+    private Long formationId;
+    private Long coursId;
+    private String email;
+    private String nomFichier;
+    private String contentType;
+    private long tailleTotale;
+    private long offset;
+    private LocalDateTime dateCreation;
+    private LocalDateTime derniereActivite;
+
+    public boolean isComplete() {
+        return offset >= tailleTotale;
+    }
+}
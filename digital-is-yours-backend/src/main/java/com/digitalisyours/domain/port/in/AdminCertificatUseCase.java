@@ -1,9 +1,12 @@
 package com.digitalisyours.domain.port.in;
 
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.ProgressionEnvoiCertificats;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.Map;
 
@@ -19,4 +22,19 @@ public interface AdminCertificatUseCase {
     );
 
     Map<String, Object> getStatsCertificats();
+
+    // ── Traitements groupés (mêmes filtres que la liste) ──────────
+    /** Écrit l'export CSV dans le flux, ligne par ligne (mémoire constante) */
+    void ecrireExportCsv(String formation, String apprenant, LocalDate dateDebut,
+                         LocalDate dateFin, String search, OutputStream out) throws IOException;
+
+    /** Écrit une archive ZIP des PDF dans le flux, au fil de l'eau */
+    void ecrireArchivePdf(String formation, String apprenant, LocalDate dateDebut,
+                          LocalDate dateFin, String search, OutputStream out) throws IOException;
+
+    /** Lance l'envoi groupé en arrière-plan ; refusé si un envoi est déjà en cours */
+    ProgressionEnvoiCertificats lancerEnvoiGroupe(String formation, String apprenant, LocalDate dateDebut,
+                                                  LocalDate dateFin, String search, boolean nonEnvoyesSeulement);
+
+    ProgressionEnvoiCertificats getProgressionEnvoiGroupe();
 }
\ No newline at end of file
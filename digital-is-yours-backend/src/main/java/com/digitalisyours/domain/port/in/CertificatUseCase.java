@@ -1,5 +1,6 @@
 package com.digitalisyours.domain.port.in;
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
 
 import java.util.List;
 
@@ -12,8 +13,8 @@ public interface CertificatUseCase {
     Certificat getCertificatById(Long certificatId, Long apprenantId);
 
     /** Accès authentifié — vérifie que l'apprenant est propriétaire */
-    byte[] downloadCertificatPDF(Long certificatId, Long apprenantId);
+    FichierStocke downloadCertificatPDF(Long certificatId, Long apprenantId);
 
     /** Accès public — QR Code scanné depuis téléphone, pas de vérification ownership */
-    byte[] downloadCertificatPDFPublic(Long certificatId);
+    FichierStocke downloadCertificatPDFPublic(Long certificatId);
 }
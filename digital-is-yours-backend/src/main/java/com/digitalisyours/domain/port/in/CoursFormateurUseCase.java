@@ -1,7 +1,9 @@
 package com.digitalisyours.domain.port.in;
 
 import com.digitalisyours.domain.model.Cours;
+import com.digitalisyours.domain.model.SessionUpload;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -15,6 +17,15 @@ public interface CoursFormateurUseCase {
     Cours ajouterVideoYoutube(Long formationId, Long coursId, String email, String url);
     Cours uploadVideoLocale(Long formationId, Long coursId, String email,
                             String originalFilename, String contentType,
-                            long fileSize, byte[] fileBytes);
+                            long fileSize, InputStream fileContent);
     Cours supprimerVideo(Long formationId, Long coursId, String email);
+
+    // Upload reprenable par morceaux
+    SessionUpload demarrerUploadVideo(Long formationId, Long coursId, String email,
+                                      String originalFilename, String contentType, long fileSize);
+    SessionUpload ecrireMorceauVideo(Long formationId, Long coursId, String email,
+                                     String uploadId, long offset, InputStream data);
+    SessionUpload getUploadVideo(Long formationId, Long coursId, String email, String uploadId);
+    Cours finaliserUploadVideo(Long formationId, Long coursId, String email, String uploadId);
+    void annulerUploadVideo(Long formationId, Long coursId, String email, String uploadId);
 }
@@ -26,4 +26,7 @@ public interface ForumUseCase {
                                               String formationId, String statut,
                                               Pageable pageable);
     long countQuestionsNonRepondues(Long formateurId);
+
+    // Admin
+    void supprimerQuestionAdmin(Long id);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.digitalisyours.domain.port.in;
+
+import com.digitalisyours.domain.model.JobGenerationQuiz;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface GenerationQuizJobUseCase {
+    // ── Soumission (retour immédiat, génération en arrière-plan) ──
+    JobGenerationQuiz soumettreMiniQuiz(Long formationId, Long coursId, String email,
+                                        int nombreQuestions, String difficulte,
+                                        boolean inclureDefinitions, boolean inclureCasPratiques,
+                                        float notePassage, int nombreTentatives);
+
+    JobGenerationQuiz soumettreQuizFinal(Long formationId, String email,
+                                         int nombreQuestions, String difficulte,
+                                         boolean inclureDefinitions, boolean inclureCasPratiques,
+                                         float notePassage, int nombreTentatives,
+                                         int dureeMinutes);
+
+    // ── Suivi ───────────────────────────────────────────────────
+    JobGenerationQuiz getJob(String jobId, String email);
+
+    /** Complétée quand le job passe TERMINE ou ECHEC */
+    CompletableFuture<JobGenerationQuiz> attendreFin(String jobId, String email);
+}
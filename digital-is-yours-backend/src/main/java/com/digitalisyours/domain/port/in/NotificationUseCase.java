@@ -1,12 +1,14 @@
 package com.digitalisyours.domain.port.in;
 
 import com.digitalisyours.domain.model.Notification;
+import com.digitalisyours.domain.model.PageNotifications;
 
 import java.util.List;
 
 public interface NotificationUseCase {
-    List<Notification> getMesNotifications(String email);
-    long getNonLuesCount(String email);
+    List<Notification> getMesNotifications(String email, String role);
+    PageNotifications getPage(String email, String role, String curseur, int limite);
+    long getNonLuesCount(String email, String role);
     void marquerCommentLue(Long notifId, String email);
     void marquerToutesLues(String email);
 }
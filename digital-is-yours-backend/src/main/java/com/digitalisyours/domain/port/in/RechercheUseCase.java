@@ -0,0 +1,9 @@
+package com.digitalisyours.domain.port.in;
+
+import com.digitalisyours.domain.model.ResultatRecherche;
+
+import java.util.List;
+
+public interface RechercheUseCase {
+    List<ResultatRecherche> rechercherCatalogue(String requete, int limite);
+}
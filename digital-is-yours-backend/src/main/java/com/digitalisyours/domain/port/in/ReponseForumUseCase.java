@@ -27,4 +27,7 @@ public interface ReponseForumUseCase {
     // ── NOUVEAU : is typing ────────────────────────────────────────
     void setTyping(Long questionId, String email);
     boolean isTyping(Long questionId);
+
+    // ── Admin : suppression (retire aussi la réponse de l'index) ───
+    void supprimerReponseAdmin(Long reponseId);
 }
\ No newline at end of file
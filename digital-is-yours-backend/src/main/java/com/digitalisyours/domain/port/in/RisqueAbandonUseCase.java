@@ -1,12 +1,23 @@
 package com.digitalisyours.domain.port.in;
 
 import com.digitalisyours.domain.model.AnalyseRisque;
+import com.digitalisyours.domain.model.ProgressionAnalyseRisque;
 import java.util.List;
 
 public interface RisqueAbandonUseCase {
     /** Lance l'analyse pour tous les apprenants inscrits */
     void analyserTousLesApprenants();
 
+    /**
+     * Lance l'analyse globale en arrière-plan ; complete=false ne ré-analyse que les
+     * inscriptions modifiées.
+     * @throws IllegalStateException si une analyse globale est déjà en cours
+     */
+    ProgressionAnalyseRisque lancerAnalyseGlobale(boolean complete);
+
+    /** Avancement de la dernière analyse globale (en cours ou terminée) */
+    ProgressionAnalyseRisque getProgressionAnalyseGlobale();
+
     /** Analyse un apprenant spécifique pour une formation */
     AnalyseRisque analyserApprenant(Long apprenantId, Long formationId);
 
@@ -1,5 +1,6 @@
 package com.digitalisyours.domain.port.in;
 
+import com.digitalisyours.domain.model.ProgressionDiffusionSeance;
 import com.digitalisyours.domain.model.SeanceEnLigne;
 import java.util.List;
 import java.util.Map;
@@ -10,4 +11,5 @@ public interface SeanceUseCase {
     List<SeanceEnLigne> getSeancesApprenant(String emailApprenant);
     SeanceEnLigne annulerSeance(Long seanceId, String emailFormateur);
     void supprimerSeance(Long seanceId, String emailFormateur);
+    ProgressionDiffusionSeance getProgressionDiffusion(Long seanceId, String emailFormateur);
 }
\ No newline at end of file
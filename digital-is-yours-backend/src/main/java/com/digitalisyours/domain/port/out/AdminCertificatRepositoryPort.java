@@ -5,6 +5,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface AdminCertificatRepositoryPort {
 
@@ -17,6 +20,34 @@ public interface AdminCertificatRepositoryPort {
             Pageable pageable
     );
 
+    /**
+     * Parcourt les certificats filtrés en flux (curseur base), sans les charger tous :
+     * chaque certificat (champs de l'export uniquement) est passé au consommateur.
+     */
+    void parcourirPourExport(
+            String formation,
+            String apprenant,
+            LocalDate dateDebut,
+            LocalDate dateFin,
+            String search,
+            Consumer<Certificat> consommateur
+    );
+
+    /**
+     * Lot suivant des certificats filtrés, triés par date de création puis id décroissants,
+     * strictement après (apresDate, apresId) — null pour le premier lot.
+     */
+    List<Certificat> findLotApres(
+            String formation,
+            String apprenant,
+            LocalDate dateDebut,
+            LocalDate dateFin,
+            String search,
+            LocalDateTime apresDate,
+            Long apresId,
+            int taille
+    );
+
     long countThisMonth();
     long countFormationsActives();
     double getTauxReussite();
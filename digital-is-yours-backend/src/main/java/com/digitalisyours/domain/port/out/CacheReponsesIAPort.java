@@ -0,0 +1,15 @@
+package com.digitalisyours.domain.port.out;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+public interface CacheReponsesIAPort {
+    /**
+     * Réponse du modèle pour cette requête (modèle + consignes + prompt, dans un ordre
+     * stable) : depuis le cache si une requête identique a déjà été payée, sinon via {@code appel}.
+     * Un seul appel en vol par requête identique ; une entrée périmée est servie
+     * immédiatement et rafraîchie en arrière-plan. {@code appel} renvoie null en cas
+     * d'échec (rien n'est mis en cache) ; vide si aucune réponse n'est disponible.
+     */
+    Optional<String> getOuAppeler(String requete, Callable<String> appel);
+}
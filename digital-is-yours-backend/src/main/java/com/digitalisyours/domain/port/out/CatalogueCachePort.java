@@ -0,0 +1,9 @@
+package com.digitalisyours.domain.port.out;
+
+public interface CatalogueCachePort {
+    /**
+     * Le catalogue public a changé (formation créée, modifiée, publiée, supprimée,
+     * ou catégorie modifiée) : le snapshot sera reconstruit à la prochaine lecture.
+     */
+    void invalider();
+}
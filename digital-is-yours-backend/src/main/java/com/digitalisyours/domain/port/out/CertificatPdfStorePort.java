@@ -0,0 +1,14 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
+
+import java.io.IOException;
+
+public interface CertificatPdfStorePort {
+    /**
+     * PDF stocké du certificat (chemin + SHA-256 pour l'ETag).
+     * Rendu à la première demande seulement ; des demandes simultanées partagent le même rendu.
+     */
+    FichierStocke obtenir(Certificat certificat) throws IOException;
+}
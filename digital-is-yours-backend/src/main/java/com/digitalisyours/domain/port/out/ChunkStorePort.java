@@ -0,0 +1,35 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.exception.SessionUploadIntrouvableException;
+import com.digitalisyours.domain.model.SessionUpload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+public interface ChunkStorePort {
+    SessionUpload creer(SessionUpload session) throws IOException;
+    Optional<SessionUpload> findById(String uploadId);
+
+    /**
+     * Écrit un morceau à la position {@code offset} (doit être égale à l'offset déjà validé).
+     * @return la session avec le nouvel offset validé
+     * @throws SessionUploadIntrouvableException si la session n'existe pas ou a expiré
+     */
+    SessionUpload ecrireChunk(String uploadId, long offset, InputStream data) throws IOException;
+
+    /**
+     * Déplace le fichier assemblé vers sa destination finale et supprime la session.
+     * @throws IllegalStateException si un morceau est en cours d'écriture ou si l'upload est incomplet
+     * @throws SessionUploadIntrouvableException si la session n'existe pas ou a expiré
+     */
+    void finaliser(String uploadId, Path dossier, String nomFichier) throws IOException;
+
+    /** @throws IllegalStateException si un morceau est en cours d'écriture */
+    void supprimer(String uploadId);
+
+    /** @return le nombre de sessions supprimées */
+    int purgerSessionsInactives(Duration inactivite);
+}
@@ -0,0 +1,21 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.EmailSortant;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface EmailOutboxPort {
+    /**
+     * Enregistre l'email dans la table d'envoi, dans la transaction de l'appelant.
+     * L'envoi SMTP est fait plus tard par le dispatcher (avec reprises).
+     */
+    void enregistrer(EmailSortant email);
+
+    /** Variante lot (INSERT JDBC batch), pour les diffusions à beaucoup de destinataires */
+    void enregistrerTous(List<EmailSortant> emails);
+
+    /** Parmi ces références, celles qui ont déjà un email en file (pas encore envoyé ni abandonné) */
+    Set<Long> findReferencesEnFile(String typeReference, Collection<Long> referenceIds);
+}
@@ -0,0 +1,6 @@
+package com.digitalisyours.domain.port.out;
+
+public interface ExtractionCachePort {
+    /** Oublie le texte extrait d'un document (mémoire + disque) — à appeler quand le fichier change ou disparaît */
+    void invalider(Long documentId);
+}
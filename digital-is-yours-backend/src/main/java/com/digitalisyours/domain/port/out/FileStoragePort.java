@@ -0,0 +1,15 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.FichierStocke;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface FileStoragePort {
+    /**
+     * Copie le flux dans dossier/nomFichier sans le charger en mémoire.
+     * Le fichier final n'apparaît qu'une fois complet (déplacement atomique).
+     */
+    FichierStocke enregistrer(InputStream contenu, Path dossier, String nomFichier) throws IOException;
+}
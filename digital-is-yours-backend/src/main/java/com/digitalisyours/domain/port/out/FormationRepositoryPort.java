@@ -8,6 +8,7 @@ import java.util.Optional;
 
 public interface FormationRepositoryPort {
     List<Formation> findAllWithDetails();
+    List<Formation> findPubliees();
     Optional<Formation> findById(Long id);
     boolean existsById(Long id);
     Formation save(Formation formation);
@@ -33,4 +33,8 @@ public interface ForumRepositoryPort {
                                            String statut, Pageable pageable,
                                            Long formateurId);
     long countNonReponduesByFormateur(Long formateurId);
+
+    // Recherche plein texte (ids classés par l'index de recherche)
+    List<Long> filtrerIds(List<Long> ids, Long formationId, String statut, Long formateurId);
+    List<QuestionForum> findByIds(List<Long> ids, Long userId);
 }
\ No newline at end of file
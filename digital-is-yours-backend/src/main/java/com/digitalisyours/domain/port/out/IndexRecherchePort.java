@@ -0,0 +1,26 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.DocumentRecherche;
+import com.digitalisyours.domain.model.ResultatRecherche;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+public interface IndexRecherchePort {
+    /** Ajoute ou remplace le document (appliqué après commit si une transaction est en cours). */
+    void indexer(DocumentRecherche document);
+
+    /** Retire le document ; une formation emporte ses cours, une question ses réponses. */
+    void supprimer(String type, Long id);
+
+    /** Faux tant que la construction initiale au démarrage n'est pas terminée. */
+    boolean estPret();
+
+    Optional<DocumentRecherche> getDocument(String type, Long id);
+
+    /** Résultats classés par pertinence, termes surlignés. */
+    List<ResultatRecherche> rechercher(String requete, Set<String> types,
+                                       Predicate<DocumentRecherche> filtre, int limite);
+}
@@ -0,0 +1,20 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.RequeteIA;
+
+import java.util.Optional;
+
+public interface ModeleLangagePort {
+    String GROQ    = "groq";
+    String MISTRAL = "mistral";
+
+    /** Vrai si une clé d'API est configurée pour ce fournisseur. */
+    boolean estConfigure(String fournisseur);
+
+    /**
+     * Corps JSON de la réponse (format chat/completions). Vide si le fournisseur
+     * n'est pas configuré, si son disjoncteur est ouvert ou si l'appel échoue après
+     * les nouvelles tentatives : l'appelant bascule alors sur son calcul local.
+     */
+    Optional<String> completer(RequeteIA requete);
+}
@@ -0,0 +1,27 @@
+package com.digitalisyours.domain.port.out;
+
+import com.digitalisyours.domain.model.Apprenant;
+import com.digitalisyours.domain.model.RecommandationIA;
+
+import java.util.List;
+import java.util.Set;
+
+public interface MoteurRecommandationPort {
+    /**
+     * Formations publiées les plus proches du profil de l'apprenant, hors formations
+     * exclues (déjà suivies), triées par score de compatibilité décroissant.
+     */
+    List<RecommandationIA> recommander(Apprenant apprenant, Set<Long> formationsExclues, int limite);
+
+    /** Relit le catalogue publié et remplace le modèle en une fois. */
+    void reconstruire();
+
+    /**
+     * Le catalogue a changé (après commit s'il y a une transaction) : le modèle est
+     * reconstruit à la prochaine recommandation et la génération avance.
+     */
+    void invalider();
+
+    /** Génération du catalogue : un résultat calculé sous une génération antérieure est périmé. */
+    long generation();
+}
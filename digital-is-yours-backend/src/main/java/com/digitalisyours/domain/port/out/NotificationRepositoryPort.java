@@ -2,13 +2,25 @@ package com.digitalisyours.domain.port.out;
 
 import com.digitalisyours.domain.model.Notification;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface NotificationRepositoryPort {
-    List<Notification> findByEmailOrderByDateDesc(String email);
-    long countNonLuesByEmail(String email);
     Optional<Notification> findById(Long id);
     Notification save(Notification notification);
     void marquerToutesLues(String email);
+    void creerEnLot(List<Notification> notifications);
+
+    // ── Boîte de réception (types exclus filtrés en SQL) ──
+    List<Notification> findByEmail(String email, List<String> typesExclus);
+    List<Notification> findPage(String email, List<String> typesExclus,
+                                LocalDateTime avantDate, Long avantId, int limite);
+    long countNonLuesByEmail(String email, List<String> typesExclus);
+    boolean appartientA(Long notifId, String email);
+
+    // ── Flux SSE ──
+    List<Notification> findApres(Long userId, Long apresId, int limite);
+    long findDerniereId(Long userId);
+    long countNonLues(Long userId, List<String> typesExclus);
 }
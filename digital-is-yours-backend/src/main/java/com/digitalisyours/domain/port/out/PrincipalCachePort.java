@@ -0,0 +1,9 @@
+package com.digitalisyours.domain.port.out;
+
+public interface PrincipalCachePort {
+    /**
+     * Oublie le principal mis en cache pour cet email (compte désactivé, supprimé,
+     * rôle ou email modifié) : la requête suivante relit la table users.
+     */
+    void invalider(String email);
+}
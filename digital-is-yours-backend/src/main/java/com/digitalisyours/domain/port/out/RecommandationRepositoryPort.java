@@ -1,10 +1,11 @@
 package com.digitalisyours.domain.port.out;
 
 import com.digitalisyours.domain.model.Apprenant;
-import com.digitalisyours.domain.model.RecommandationIA;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface RecommandationRepositoryPort {
     /**
@@ -13,7 +14,17 @@ public interface RecommandationRepositoryPort {
     Optional<Apprenant> findApprenantByEmail(String email);
 
     /**
-     * Récupère toutes les formations publiées où l'apprenant n'est PAS encore inscrit.
+     * Ids des formations auxquelles l'apprenant est déjà inscrit (payées).
      */
-    List<RecommandationIA> findFormationsDisponibles(String emailApprenant);
+    Set<Long> findFormationsInscrites(String emailApprenant);
+
+    /**
+     * Apprenants actifs ayant renseigné intérêts ou objectifs, les plus récemment connectés d'abord.
+     */
+    List<Apprenant> findApprenantsAvecProfil(int limite);
+
+    /**
+     * Formations payées de tous les apprenants, par id d'apprenant (une seule requête).
+     */
+    Map<Long, Set<Long>> findFormationsInscritesParApprenant();
 }
@@ -9,6 +9,7 @@ public interface ReponseForumRepositoryPort {
 
     ReponsesForum save(ReponsesForum reponse);
     Optional<ReponsesForum> findById(Long id);
+    void deleteById(Long id);
     List<ReponsesForum> findByQuestionId(Long questionId);
     boolean isAuteur(Long reponseId, Long userId);
     boolean isAuteurQuestion(Long questionId, Long userId);
@@ -0,0 +1,4 @@
+package com.digitalisyours.infrastructure.email;
+
+/** Publié par le dispatcher après l'envoi SMTP d'un email portant une référence métier */
+public record EmailEnvoyeEvent(String typeReference, Long referenceId) {}
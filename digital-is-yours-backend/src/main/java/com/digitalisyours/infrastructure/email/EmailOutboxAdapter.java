@@ -0,0 +1,76 @@
+package com.digitalisyours.infrastructure.email;
+
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
+import com.digitalisyours.infrastructure.persistence.entity.EmailOutboxEntity;
+import com.digitalisyours.infrastructure.persistence.repository.EmailOutboxJpaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxAdapter implements EmailOutboxPort {
+    private final EmailOutboxJpaRepository outboxRepo;
+    private final JdbcTemplate             jdbcTemplate;
+
+    private static final String INSERT_EMAIL =
+            "INSERT INTO email_outbox (destinataire, sujet, html, nom_expediteur, piece_jointe_nom, " +
+            "piece_jointe_type, piece_jointe, type_reference, reference_id, statut, tentatives, " +
+            "prochaine_tentative, date_creation) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'EN_ATTENTE', 0, ?, ?)";
+    private static final int TAILLE_BATCH = 500;
+
+    @Override
+    public void enregistrer(EmailSortant email) {
+        EmailOutboxEntity saved = outboxRepo.save(EmailOutboxEntity.builder()
+                .destinataire(email.getDestinataire())
+                .sujet(email.getSujet())
+                .html(email.getHtml())
+                .nomExpediteur(email.getNomExpediteur())
+                .pieceJointeNom(email.getPieceJointeNom())
+                .pieceJointeType(email.getPieceJointeType())
+                .pieceJointe(email.getPieceJointe())
+                .typeReference(email.getTypeReference())
+                .referenceId(email.getReferenceId())
+                .statut("EN_ATTENTE")
+                .tentatives(0)
+                .build());
+        log.debug("Email {} mis en file pour {}", saved.getId(), email.getDestinataire());
+    }
+
+    @Override
+    public void enregistrerTous(List<EmailSortant> emails) {
+        if (emails.isEmpty()) return;
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EMAIL, emails, TAILLE_BATCH, (ps, e) -> {
+            ps.setString(1, e.getDestinataire());
+            ps.setString(2, e.getSujet());
+            ps.setString(3, e.getHtml());
+            ps.setString(4, e.getNomExpediteur());
+            ps.setString(5, e.getPieceJointeNom());
+            ps.setString(6, e.getPieceJointeType());
+            ps.setBytes(7, e.getPieceJointe());
+            ps.setString(8, e.getTypeReference());
+            ps.setObject(9, e.getReferenceId());
+            ps.setTimestamp(10, maintenant);
+            ps.setTimestamp(11, maintenant);
+        });
+        log.debug("{} email(s) mis en file", emails.size());
+    }
+
+    @Override
+    public Set<Long> findReferencesEnFile(String typeReference, Collection<Long> referenceIds) {
+        if (referenceIds.isEmpty()) return Set.of();
+        return new HashSet<>(outboxRepo.findReferencesEnFile(typeReference, referenceIds));
+    }
+}
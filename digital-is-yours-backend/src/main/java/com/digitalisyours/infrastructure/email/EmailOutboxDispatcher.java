@@ -0,0 +1,261 @@
+package com.digitalisyours.infrastructure.email;
+
+import com.digitalisyours.infrastructure.persistence.entity.EmailOutboxEntity;
+import com.digitalisyours.infrastructure.persistence.repository.EmailOutboxJpaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vide la table email_outbox en arrière-plan.
+ *
+ * À chaque tour : réservation d'un lot (marqué d'un jeton propre au tour, relu par ce jeton),
+ * répartition en paquets sur un pool borné,
+ * chaque paquet part sur une seule connexion SMTP (JavaMailSender.send(MimeMessage...)).
+ * Échec → nouvelle tentative avec délai exponentiel, puis ECHEC après maxTentatives.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+    private final EmailOutboxJpaRepository  outboxRepo;
+    private final JavaMailSender            mailSender;
+    private final ApplicationEventPublisher events;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${app.mail.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.mail.outbox.taille-lot:50}")
+    private int tailleLot;
+
+    @Value("${app.mail.outbox.max-tentatives:6}")
+    private int maxTentatives;
+
+    @Value("${app.mail.outbox.delai-initial-secondes:30}")
+    private long delaiInitialSecondes;
+
+    private static final Duration DELAI_MAX       = Duration.ofHours(1);
+    private static final Duration RESERVATION_MAX = Duration.ofMinutes(10);
+
+    private ExecutorService pool;
+
+    // ── Métriques ──
+    private final LongAdder envoyes         = new LongAdder();
+    private final LongAdder echecs          = new LongAdder();
+    private final LongAdder abandonnes      = new LongAdder();
+    private final LongAdder latenceTotaleMs = new LongAdder();   // mise en file → envoi
+    private final LongAdder smtpTotalMs     = new LongAdder();   // durée des envois SMTP
+    private final LongAdder paquets         = new LongAdder();
+
+    @PostConstruct
+    public void demarrer() {
+        pool = Executors.newFixedThreadPool(Math.max(1, workers),
+                Thread.ofPlatform().name("mail-outbox-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void arreter() {
+        pool.shutdown();
+    }
+
+    // ══════════════════════════════════════════════════════
+    // BOUCLE D'ENVOI
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.intervalle-ms:2000}")
+    public void drainer() {
+        LocalDateTime maintenant = LocalDateTime.now();
+
+        List<Long> ids = outboxRepo.findIdsAEnvoyer(maintenant, PageRequest.of(0, tailleLot));
+        if (ids.isEmpty()) return;
+
+        // Relecture par jeton : seules les lignes que CE tour a réellement réservées,
+        // pas celles qu'une autre instance a prises entre la sélection et la réservation
+        String jeton = UUID.randomUUID().toString();
+        if (outboxRepo.reserver(ids, maintenant, jeton) == 0) return;
+
+        List<EmailOutboxEntity> emails = outboxRepo.findReserves(jeton);
+        if (emails.isEmpty()) return;
+
+        // Répartition round-robin : un paquet = une connexion SMTP
+        int n = Math.min(Math.max(1, workers), emails.size());
+        List<List<EmailOutboxEntity>> lots = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) lots.add(new ArrayList<>());
+        for (int i = 0; i < emails.size(); i++) lots.get(i % n).add(emails.get(i));
+
+        List<Future<?>> futures = new ArrayList<>(n);
+        for (List<EmailOutboxEntity> lot : lots) {
+            futures.add(pool.submit(() -> envoyerPaquet(lot)));
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Erreur dispatcher email : {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    private void envoyerPaquet(List<EmailOutboxEntity> paquet) {
+        Map<MimeMessage, EmailOutboxEntity> messages = new LinkedHashMap<>();
+        for (EmailOutboxEntity e : paquet) {
+            try {
+                messages.put(construire(e), e);
+            } catch (Exception ex) {
+                echec(e, ex);
+            }
+        }
+        if (messages.isEmpty()) return;
+
+        Set<MimeMessage> echoues = Collections.newSetFromMap(new IdentityHashMap<>());
+        long debut = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException ex) {
+            if (ex.getFailedMessages().isEmpty()) {
+                echoues.addAll(messages.keySet());
+                messages.values().forEach(e -> echec(e, ex));
+            } else {
+                ex.getFailedMessages().forEach((msg, cause) -> {
+                    EmailOutboxEntity e = messages.get(msg);
+                    if (e != null) {
+                        echoues.add((MimeMessage) msg);
+                        echec(e, cause);
+                    }
+                });
+            }
+        } catch (MailException ex) {
+            echoues.addAll(messages.keySet());
+            messages.values().forEach(e -> echec(e, ex));
+        }
+        smtpTotalMs.add((System.nanoTime() - debut) / 1_000_000);
+        paquets.increment();
+
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<EmailOutboxEntity> reussis = messages.entrySet().stream()
+                .filter(en -> !echoues.contains(en.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (reussis.isEmpty()) return;
+
+        outboxRepo.marquerEnvoyes(reussis.stream().map(EmailOutboxEntity::getId).toList(), maintenant);
+
+        for (EmailOutboxEntity e : reussis) {
+            envoyes.increment();
+            latenceTotaleMs.add(Duration.between(e.getDateCreation(), maintenant).toMillis());
+            log.info("Email envoyé à : {}", e.getDestinataire());
+            if (e.getTypeReference() != null && e.getReferenceId() != null) {
+                try {
+                    events.publishEvent(new EmailEnvoyeEvent(e.getTypeReference(), e.getReferenceId()));
+                } catch (Exception ex) {
+                    log.warn("Suivi de l'email {} ({} {}) non mis à jour : {}",
+                            e.getId(), e.getTypeReference(), e.getReferenceId(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private MimeMessage construire(EmailOutboxEntity e) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        if (e.getNomExpediteur() != null) {
+            helper.setFrom(fromEmail, e.getNomExpediteur());
+        } else {
+            helper.setFrom(fromEmail);
+        }
+        helper.setTo(e.getDestinataire());
+        helper.setSubject(e.getSujet());
+        helper.setText(e.getHtml(), true);
+        if (e.getPieceJointe() != null) {
+            helper.addAttachment(e.getPieceJointeNom(),
+                    new ByteArrayResource(e.getPieceJointe()),
+                    e.getPieceJointeType());
+        }
+        return message;
+    }
+
+    private void echec(EmailOutboxEntity e, Exception cause) {
+        echecs.increment();
+        int tentatives = e.getTentatives() + 1;
+        String statut;
+        LocalDateTime prochaineTentative = e.getProchaineTentative();
+
+        if (tentatives >= maxTentatives) {
+            abandonnes.increment();
+            statut = "ECHEC";
+            log.error("Email {} à {} abandonné après {} tentatives : {}",
+                    e.getId(), e.getDestinataire(), tentatives, cause.getMessage());
+        } else {
+            // 30s, 1min, 2min, 4min… plafonné à 1h
+            long delai = Math.min(delaiInitialSecondes << (tentatives - 1), DELAI_MAX.toSeconds());
+            statut = "EN_ATTENTE";
+            prochaineTentative = LocalDateTime.now().plusSeconds(delai);
+            log.warn("Erreur envoi email à {} (tentative {}/{}, nouvel essai dans {}s) : {}",
+                    e.getDestinataire(), tentatives, maxTentatives, delai, cause.getMessage());
+        }
+        // UPDATE ciblé : un save() de l'entité détachée réécrirait aussi la pièce jointe (LONGBLOB)
+        outboxRepo.marquerEchec(e.getId(), statut, tentatives, tronquer(cause.getMessage()), prochaineTentative);
+    }
+
+    private String tronquer(String message) {
+        if (message == null) return null;
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MAINTENANCE + MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void maintenance() {
+        int liberes = outboxRepo.libererReservationsExpirees(LocalDateTime.now().minus(RESERVATION_MAX));
+        int purges  = outboxRepo.purgerEnvoyes(LocalDateTime.now().minusDays(7));
+        if (liberes > 0 || purges > 0) {
+            log.info("Outbox email : {} réservation(s) libérée(s), {} email(s) envoyé(s) purgé(s)",
+                    liberes, purges);
+        }
+        if (envoyes.sum() + echecs.sum() > 0) {
+            log.info("Outbox email : {}", getStatistiques());
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        long nbEnvoyes = envoyes.sum();
+        long nbPaquets = paquets.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("envoyes",              nbEnvoyes);
+        stats.put("echecs",               echecs.sum());
+        stats.put("abandonnes",           abandonnes.sum());
+        stats.put("enAttente",            outboxRepo.countByStatut("EN_ATTENTE"));
+        stats.put("latenceMoyenneMs",     nbEnvoyes == 0 ? 0 : latenceTotaleMs.sum() / nbEnvoyes);
+        stats.put("smtpMoyenParPaquetMs", nbPaquets == 0 ? 0 : smtpTotalMs.sum() / nbPaquets);
+        return stats;
+    }
+}
@@ -1,23 +1,16 @@
 package com.digitalisyours.infrastructure.email;
 
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
 import com.digitalisyours.domain.port.out.EmailSenderPort;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class EmailSenderAdapter implements EmailSenderPort {
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final EmailOutboxPort outbox;
 
     @Override
     public void sendOtpVerification(String to, String prenom, String otpCode) {
@@ -40,19 +33,15 @@ public class EmailSenderAdapter implements EmailSenderPort {
         sendHtml(to, subject, html);
     }
 
+    // Mise en file (outbox) : l'envoi SMTP ne bloque plus la requête (OTP, inscription).
+    // Insertion dans la transaction de l'appelant : une erreur remonte, l'écriture métier
+    // et son email sont validés ou annulés ensemble (jamais d'OTP enregistré sans email).
     private void sendHtml(String to, String subject, String html) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-            mailSender.send(message);
-            log.info("Email envoyé à : {}", to);
-        } catch (Exception e) {
-            log.error("Erreur envoi email à {} : {}", to, e.getMessage());
-        }
+        outbox.enregistrer(EmailSortant.builder()
+                .destinataire(to)
+                .sujet(subject)
+                .html(html)
+                .build());
     }
 
     private String buildOtpVerificationEmail(String prenom, String code) {
@@ -5,6 +5,8 @@ import com.digitalisyours.infrastructure.persistence.entity.CoursEntity;
 import com.digitalisyours.infrastructure.persistence.entity.DocumentEntity;
 import com.digitalisyours.infrastructure.persistence.repository.CoursJpaRepository;
 import com.digitalisyours.infrastructure.persistence.repository.DocumentJpaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
@@ -22,23 +24,75 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CoursContentExtractor {
+    private static final int MAX_CARACTERES_DOCUMENT  = 3000;
+    private static final int MAX_CARACTERES_FORMATION = 12000;
+    // Texte brut lu au-delà duquel un PDF n'est plus parcouru (les blancs seront compactés ensuite)
+    private static final int MAX_CARACTERES_BRUTS     = 20000;
+
     private final DocumentJpaRepository documentRepository;
     private final CoursJpaRepository coursRepository;
+    private final ExtractionTexteCache extractionCache;
 
     @Value("${app.upload.dir:uploads/videos}")
     private String uploadDir;
 
+    // Budget global d'une extraction, compté depuis la soumission des documents :
+    // un PDF pathologique ne bloque pas la génération du quiz, quel que soit le nombre de documents
+    @Value("${app.ia.extraction.timeout-secondes:20}")
+    private long timeoutSecondes;
+
+    // Au-delà, le document est ignoré sans être ouvert
+    @Value("${app.ia.extraction.taille-max-mo:20}")
+    private long tailleMaxMo;
+
+    @Value("${app.ia.extraction.pages-max:50}")
+    private int pagesMax;
+
+    // Documents en attente d'un thread ; file pleine : le document est ignoré plutôt que d'attendre
+    @Value("${app.ia.extraction.file-max:64}")
+    private int fileMax;
+
+    // Pool CPU borné au nombre de cœurs, réservé au parsing PDFBox / POI
+    private ThreadPoolExecutor extractionPool;
+
+    @PostConstruct
+    void demarrerPool() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        extractionPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fileMax)),
+                Thread.ofPlatform().name("extraction-doc-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * échéance : System.nanoTime() limite, commune à tous les documents d'une même extraction.
+     * resultat null : document refusé (pool saturé), ignoré à l'assemblage.
+     */
+    private record ExtractionEnCours(String titre, Future<String> resultat, long echeance) {}
+
     private final HttpClient httpClient = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(10))
             .followRedirects(HttpClient.Redirect.NORMAL)
@@ -50,13 +104,21 @@ public class CoursContentExtractor {
 
     /**
      * Extrait le texte de tous les documents (PDF, Word .doc et .docx) associés au cours.
-     * Limite chaque document à 3000 caractères pour ne pas surcharger le prompt Groq.
+     * Limite chaque document à MAX_CARACTERES_DOCUMENT caractères pour ne pas surcharger le prompt Groq.
      */
     public String extrairePdfs(Long coursId) {
         List<DocumentEntity> documents = documentRepository.findByCoursId(coursId);
         if (documents.isEmpty()) return "";
 
-        StringBuilder contenu = new StringBuilder();
+        return assembler(coursId, soumettre(coursId, documents, echeance()));
+    }
+
+    /**
+     * Lance l'extraction de chaque document supporté sur le pool dédié.
+     * L'ordre de la liste retournée est celui des documents (résultat déterministe).
+     */
+    private List<ExtractionEnCours> soumettre(Long coursId, List<DocumentEntity> documents, long echeance) {
+        List<ExtractionEnCours> extractions = new ArrayList<>(documents.size());
 
         for (DocumentEntity doc : documents) {
             String type = doc.getTypeFichier();
@@ -68,57 +130,131 @@ public class CoursContentExtractor {
 
             if (!isPdf && !isDocx && !isDoc) continue;
 
+            Path filePath = Paths.get(uploadDir, "documents", coursId.toString(), doc.getUrl());
+            String titre  = doc.getTitre();
+            Long   docId  = doc.getId();
+            Future<String> resultat;
             try {
-                Path filePath = Paths.get(uploadDir, "documents", coursId.toString(), doc.getUrl());
-                String texte = "";
-
-                if (isPdf) {
-                    PDDocument pdDoc = Loader.loadPDF(filePath.toFile());
-                    PDFTextStripper stripper = new PDFTextStripper();
-                    texte = stripper.getText(pdDoc);
-                    pdDoc.close();
-                    log.info("PDF extrait : '{}'", doc.getTitre());
-
-                } else if (isDocx) {
-                    try (FileInputStream fis = new FileInputStream(filePath.toFile());
-                         XWPFDocument xwpf = new XWPFDocument(fis);
-                         XWPFWordExtractor extractor = new XWPFWordExtractor(xwpf)) {
-                        texte = extractor.getText();
-                    }
-                    log.info("Word .docx extrait : '{}'", doc.getTitre());
+                resultat = extractionPool.submit(() ->
+                        extractionCache.getOuExtraire(docId, filePath,
+                                f -> extraireTexte(f, titre, isPdf, isDocx)));
+            } catch (RejectedExecutionException e) {
+                // Pool saturé : le quiz est généré avec les autres documents plutôt que d'attendre
+                log.warn("Extraction du document '{}' (cours {}) ignorée : file d'extraction pleine",
+                        titre, coursId);
+                resultat = null;
+            }
+            extractions.add(new ExtractionEnCours(titre, resultat, echeance));
+        }
+        return extractions;
+    }
 
-                } else {
-                    try (FileInputStream fis = new FileInputStream(filePath.toFile());
-                         HWPFDocument hwpf = new HWPFDocument(fis);
-                         WordExtractor extractor = new WordExtractor(hwpf)) {
-                        texte = extractor.getText();
-                    }
-                    log.info("Word .doc extrait : '{}'", doc.getTitre());
-                }
+    private static void annuler(List<ExtractionEnCours> extractions) {
+        for (ExtractionEnCours e : extractions) {
+            if (e.resultat() != null) e.resultat().cancel(true);
+        }
+    }
+
+    private long echeance() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSecondes);
+    }
 
-                texte = texte.replaceAll("[ \t]+", " ")
-                        .replaceAll("(\r?\n){3,}", "\n\n")
-                        .trim();
+    /** Attend chaque extraction jusqu'à l'échéance commune et concatène dans l'ordre de soumission */
+    private String assembler(Long coursId, List<ExtractionEnCours> extractions) {
+        StringBuilder contenu = new StringBuilder();
+
+        for (ExtractionEnCours extraction : extractions) {
+            if (extraction.resultat() == null) continue;
+            try {
+                // Temps restant, pas un nouveau délai : l'attente totale reste bornée par timeoutSecondes
+                long restant = Math.max(0, extraction.echeance() - System.nanoTime());
+                String texte = extraction.resultat().get(restant, TimeUnit.NANOSECONDS);
 
-                if (texte.length() > 3000) {
-                    texte = texte.substring(0, 3000) + "...";
+                if (texte.length() > MAX_CARACTERES_DOCUMENT) {
+                    texte = texte.substring(0, MAX_CARACTERES_DOCUMENT) + "...";
                 }
 
                 if (!texte.isBlank()) {
-                    contenu.append("--- Document : ").append(doc.getTitre()).append(" ---\n");
+                    contenu.append("--- Document : ").append(extraction.titre()).append(" ---\n");
                     contenu.append(texte).append("\n\n");
-                    log.info("Contenu extrait : '{}' — {} caractères", doc.getTitre(), texte.length());
+                    log.info("Contenu extrait : '{}' — {} caractères", extraction.titre(), texte.length());
                 }
 
+            } catch (TimeoutException e) {
+                extraction.resultat().cancel(true);
+                log.warn("Extraction du document '{}' (cours {}) abandonnée : budget de {}s épuisé",
+                        extraction.titre(), coursId, timeoutSecondes);
+            } catch (CancellationException e) {
+                log.warn("Extraction du document '{}' (cours {}) annulée", extraction.titre(), coursId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                annuler(extractions);
+                break;
             } catch (Exception e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
                 log.warn("Impossible d'extraire le document '{}' (cours {}) : {}",
-                        doc.getTitre(), coursId, e.getMessage());
+                        extraction.titre(), coursId, cause.getMessage());
             }
         }
 
         return contenu.toString().trim();
     }
 
+    /**
+     * Parsing PDFBox / POI d'un fichier — appelé uniquement en cas d'absence dans le cache.
+     *
+     * Le parsing est CPU et ignore l'interruption : un fichier trop lourd est refusé avant
+     * d'être ouvert, et un PDF est lu page par page (arrêt sur annulation, au-delà de
+     * pagesMax ou une fois assez de texte lu) pour qu'un document ne monopolise pas un thread.
+     */
+    private String extraireTexte(Path filePath, String titre, boolean isPdf, boolean isDocx) throws Exception {
+        long taille = Files.size(filePath);
+        if (taille > tailleMaxMo * 1024 * 1024) {
+            throw new IllegalArgumentException("fichier de " + taille / (1024 * 1024)
+                    + " Mo, maximum " + tailleMaxMo + " Mo pour l'extraction");
+        }
+
+        String texte;
+
+        if (isPdf) {
+            StringBuilder pages = new StringBuilder();
+            try (PDDocument pdDoc = Loader.loadPDF(filePath.toFile())) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                int derniere = Math.min(pdDoc.getNumberOfPages(), pagesMax);
+                for (int page = 1; page <= derniere && pages.length() < MAX_CARACTERES_BRUTS; page++) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException("Extraction annulée");
+                    }
+                    stripper.setStartPage(page);
+                    stripper.setEndPage(page);
+                    pages.append(stripper.getText(pdDoc));
+                }
+            }
+            texte = pages.toString();
+            log.info("PDF extrait : '{}'", titre);
+
+        } else if (isDocx) {
+            try (FileInputStream fis = new FileInputStream(filePath.toFile());
+                 XWPFDocument xwpf = new XWPFDocument(fis);
+                 XWPFWordExtractor extractor = new XWPFWordExtractor(xwpf)) {
+                texte = extractor.getText();
+            }
+            log.info("Word .docx extrait : '{}'", titre);
+
+        } else {
+            try (FileInputStream fis = new FileInputStream(filePath.toFile());
+                 HWPFDocument hwpf = new HWPFDocument(fis);
+                 WordExtractor extractor = new WordExtractor(hwpf)) {
+                texte = extractor.getText();
+            }
+            log.info("Word .doc extrait : '{}'", titre);
+        }
+
+        return texte.replaceAll("[ \t]+", " ")
+                .replaceAll("(\r?\n){3,}", "\n\n")
+                .trim();
+    }
+
     // ══════════════════════════════════════════════════════════
     // EXTRACTION TOUS COURS D'UNE FORMATION — pour Quiz Final
     // ══════════════════════════════════════════════════════════
@@ -126,17 +262,41 @@ public class CoursContentExtractor {
     /**
      * Extrait le texte de TOUS les documents (PDF, Word) de TOUS les cours d'une formation.
      * Utilisé pour générer le Quiz Final qui couvre toute la formation.
-     * Limite globale à 12 000 caractères pour ne pas surcharger Groq.
+     * Limite globale à MAX_CARACTERES_FORMATION caractères pour ne pas surcharger Groq.
+     *
+     * Les documents sont soumis cours par cours, avec un cours d'avance : l'extraction du
+     * cours suivant avance pendant l'assemblage du cours courant. Dès que le budget de
+     * caractères est atteint, le cours d'avance est annulé et les suivants ne sont pas soumis.
      */
     public String extraireTousLesCoursDeLaFormation(Long formationId) {
         List<CoursEntity> cours = coursRepository.findByFormationIdOrderByOrdre(formationId);
         if (cours.isEmpty()) return "";
 
+        Map<Long, List<DocumentEntity>> documentsParCours = documentRepository
+                .findByCoursIdIn(cours.stream().map(CoursEntity::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(d -> d.getCours().getId()));
+
+        long echeance = echeance();
         StringBuilder contenuGlobal = new StringBuilder();
         int totalCours = 0;
 
-        for (CoursEntity c : cours) {
-            String contenuCours = extrairePdfs(c.getId());
+        List<ExtractionEnCours> suivant = soumettre(cours.get(0).getId(),
+                documentsParCours.getOrDefault(cours.get(0).getId(), List.of()), echeance);
+
+        for (int i = 0; i < cours.size(); i++) {
+            CoursEntity c = cours.get(i);
+            List<ExtractionEnCours> extractionsCours = suivant;
+            suivant = i + 1 < cours.size()
+                    ? soumettre(cours.get(i + 1).getId(),
+                            documentsParCours.getOrDefault(cours.get(i + 1).getId(), List.of()), echeance)
+                    : List.of();
+
+            String contenuCours = assembler(c.getId(), extractionsCours);
+            if (Thread.currentThread().isInterrupted()) {
+                annuler(suivant);
+                break;
+            }
             if (!contenuCours.isBlank()) {
                 contenuGlobal
                         .append("═══ COURS ").append(++totalCours).append(" : ")
@@ -147,8 +307,9 @@ public class CoursContentExtractor {
                 contenuGlobal.append(contenuCours).append("\n\n");
             }
 
-            // Limiter à 12 000 caractères total pour ne pas surcharger Groq
-            if (contenuGlobal.length() > 12000) {
+            // Budget atteint : inutile d'extraire la suite
+            if (contenuGlobal.length() > MAX_CARACTERES_FORMATION) {
+                annuler(suivant);
                 contenuGlobal.append("... (contenu tronqué pour optimisation IA)");
                 break;
             }
@@ -160,6 +321,11 @@ public class CoursContentExtractor {
         return contenuGlobal.toString().trim();
     }
 
+    @PreDestroy
+    public void arreterPool() {
+        extractionPool.shutdownNow();
+    }
+
     // ══════════════════════════════════════════════════════════
     // EXTRACTION TRANSCRIPTION YOUTUBE
     // ══════════════════════════════════════════════════════════
@@ -195,8 +361,8 @@ public class CoursContentExtractor {
                 return "";
             }
 
-            if (transcription.length() > 3000) {
-                transcription = transcription.substring(0, 3000) + "...";
+            if (transcription.length() > MAX_CARACTERES_DOCUMENT) {
+                transcription = transcription.substring(0, MAX_CARACTERES_DOCUMENT) + "...";
             }
 
             log.info("Transcription YouTube extraite : {} caractères pour la vidéo {}",
@@ -0,0 +1,106 @@
+package com.digitalisyours.infrastructure.ia;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Disjoncteur ("circuit breaker") pour une API externe.
+ *
+ * FERME : les appels passent. Après {@code seuilEchecs} échecs consécutifs il
+ * s'OUVRE : les appels sont refusés sans toucher au réseau pendant {@code pause}.
+ * Ensuite DEMI_OUVERT : un seul appel d'essai ; succès → FERME, échec → OUVERT.
+ * ReentrantLock plutôt que synchronized, comme TokenBucket, pour les threads virtuels.
+ */
+public class Disjoncteur {
+
+    public enum Etat { FERME, OUVERT, DEMI_OUVERT }
+
+    private final int  seuilEchecs;
+    private final long pauseNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Etat    etat = Etat.FERME;
+    private int     echecsConsecutifs;
+    private long    ouvertJusqua;
+    private boolean essaiEnCours;
+    private long    ouvertures;
+
+    public Disjoncteur(int seuilEchecs, long pause, TimeUnit unite) {
+        if (seuilEchecs <= 0 || pause <= 0)
+            throw new IllegalArgumentException("Seuil et pause doivent être positifs");
+        this.seuilEchecs = seuilEchecs;
+        this.pauseNanos  = unite.toNanos(pause);
+    }
+
+    /** Vrai si l'appel peut partir ; chaque autorisation doit finir par succes(), echec() ou liberer(). */
+    public boolean autoriser() {
+        lock.lock();
+        try {
+            if (etat == Etat.FERME) return true;
+            if (etat == Etat.OUVERT) {
+                if (System.nanoTime() - ouvertJusqua < 0) return false;
+                etat = Etat.DEMI_OUVERT;
+                essaiEnCours = false;
+            }
+            if (essaiEnCours) return false;
+            essaiEnCours = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void succes() {
+        lock.lock();
+        try {
+            etat = Etat.FERME;
+            echecsConsecutifs = 0;
+            essaiEnCours = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void echec() {
+        lock.lock();
+        try {
+            echecsConsecutifs++;
+            essaiEnCours = false;
+            if (etat == Etat.DEMI_OUVERT || (etat == Etat.FERME && echecsConsecutifs >= seuilEchecs)) {
+                etat = Etat.OUVERT;
+                ouvertJusqua = System.nanoTime() + pauseNanos;
+                ouvertures++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Appel terminé sans verdict sur la santé de l'API (requête invalide, interruption). */
+    public void liberer() {
+        lock.lock();
+        try {
+            essaiEnCours = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Etat getEtat() {
+        lock.lock();
+        try {
+            return etat;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getOuvertures() {
+        lock.lock();
+        try {
+            return ouvertures;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.digitalisyours.infrastructure.ia;
+
+import com.digitalisyours.domain.port.out.ExtractionCachePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache du texte extrait des documents de cours (PDF, Word).
+ *
+ * Deux niveaux :
+ *  - mémoire : LRU par documentId, validé par taille + date de modification du fichier,
+ *              borné en nombre d'entrées et en caractères cumulés
+ *  - disque  : {uploadDir}/cache/extraction/{documentId}-{sha256}.txt, survit aux redémarrages
+ *
+ * Le SHA-256 du fichier n'est recalculé que si l'entrée mémoire est absente ou périmée ;
+ * PDFBox / POI ne sont appelés qu'en cas d'absence sur les deux niveaux. Les appels
+ * concurrents pour un même document (même version du fichier) partagent une seule
+ * lecture disque / extraction. Une invalidation pendant l'extraction l'emporte :
+ * le résultat est rendu à l'appelant mais n'est pas mis en cache.
+ */
+@Component
+@Slf4j
+public class ExtractionTexteCache implements ExtractionCachePort {
+
+    private static final int    BUFFER_SIZE = 64 * 1024;
+    private static final String ENTETE      = "#duree-ms=";
+
+    @FunctionalInterface
+    public interface Extracteur {
+        String extraire(Path fichier) throws Exception;
+    }
+
+    private record Entree(long taille, long dateModif, String texte, long dureeExtractionMs) {}
+
+    private record EnVol(long taille, long dateModif, CompletableFuture<String> texte) {}
+
+    @Value("${app.upload.dir:uploads/videos}")
+    private String uploadDir;
+
+    private final Map<Long, Entree> memoire = new LinkedHashMap<>(16, 0.75f, true);
+    private final int  tailleMax;
+    private final long caracteresMax;
+    private long caracteresEnMemoire;   // sous verrou memoire
+
+    private final Map<Long, EnVol> enCours = new ConcurrentHashMap<>();
+    // Sérialise publication (disque + mémoire) et invalidation d'un document
+    private final Object publication = new Object();
+
+    private final LongAdder hitsMemoire   = new LongAdder();
+    private final LongAdder hitsDisque    = new LongAdder();
+    private final LongAdder miss          = new LongAdder();
+    private final LongAdder msEconomisees = new LongAdder();
+    private final LongAdder msExtraction  = new LongAdder();
+    private final LongAdder partages      = new LongAdder();
+
+    public ExtractionTexteCache(
+            @Value("${app.ia.extraction-cache.taille-max:256}") int tailleMax,
+            @Value("${app.ia.extraction-cache.caracteres-max:20000000}") long caracteresMax) {
+        this.tailleMax     = tailleMax;
+        this.caracteresMax = caracteresMax;
+    }
+
+    /**
+     * Retourne le texte du document, depuis le cache si le fichier n'a pas changé,
+     * sinon via l'extracteur (résultat mis en cache).
+     */
+    public String getOuExtraire(Long documentId, Path fichier, Extracteur extracteur) throws Exception {
+        BasicFileAttributes attrs = Files.readAttributes(fichier, BasicFileAttributes.class);
+        long taille    = attrs.size();
+        long dateModif = attrs.lastModifiedTime().toMillis();
+
+        // ── 1. Mémoire ──
+        Entree entree;
+        synchronized (memoire) {
+            entree = memoire.get(documentId);
+        }
+        if (entree != null && entree.taille() == taille && entree.dateModif() == dateModif) {
+            hitsMemoire.increment();
+            msEconomisees.add(entree.dureeExtractionMs());
+            return entree.texte();
+        }
+
+        // ── 2. Single-flight : un seul hachage / extraction par version du fichier ──
+        EnVol nouveau  = new EnVol(taille, dateModif, new CompletableFuture<>());
+        EnVol existant = enCours.putIfAbsent(documentId, nouveau);
+        if (existant != null) {
+            if (existant.taille() == taille && existant.dateModif() == dateModif) {
+                partages.increment();
+                return attendre(existant.texte());
+            }
+            // Autre version du fichier en vol : on calcule sans publier
+            return charger(documentId, fichier, taille, dateModif, extracteur, null);
+        }
+
+        try {
+            String texte = charger(documentId, fichier, taille, dateModif, extracteur, nouveau);
+            nouveau.texte().complete(texte);
+            return texte;
+        } catch (Throwable e) {
+            nouveau.texte().completeExceptionally(e);
+            throw e;
+        } finally {
+            enCours.remove(documentId, nouveau);
+        }
+    }
+
+    private String charger(Long documentId, Path fichier, long taille, long dateModif,
+                           Extracteur extracteur, EnVol proprietaire) throws Exception {
+        // ── Disque (adressé par contenu) ──
+        String sha256 = sha256(fichier);
+        Path cible = cacheDir().resolve(documentId + "-" + sha256 + ".txt");
+        if (Files.exists(cible)) {
+            try {
+                Entree lue = lire(cible, taille, dateModif);
+                publier(documentId, proprietaire, () -> mettreEnMemoire(documentId, lue));
+                hitsDisque.increment();
+                msEconomisees.add(lue.dureeExtractionMs());
+                return lue.texte();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Cache d'extraction illisible {} : {}", cible.getFileName(), e.getMessage());
+            }
+        }
+
+        // ── Extraction réelle ──
+        miss.increment();
+        long debut = System.nanoTime();
+        String texte = extracteur.extraire(fichier);
+        long duree = (System.nanoTime() - debut) / 1_000_000;
+        msExtraction.add(duree);
+
+        Entree nouvelle = new Entree(taille, dateModif, texte, duree);
+        publier(documentId, proprietaire, () -> {
+            invaliderDisque(documentId);
+            ecrire(cible, nouvelle);
+            mettreEnMemoire(documentId, nouvelle);
+        });
+        return texte;
+    }
+
+    // Invalidé pendant le calcul (document supprimé ou remplacé) : rien à publier
+    private void publier(Long documentId, EnVol proprietaire, Runnable action) {
+        if (proprietaire == null) return;
+        synchronized (publication) {
+            if (enCours.get(documentId) == proprietaire) {
+                action.run();
+            }
+        }
+    }
+
+    @Override
+    public void invalider(Long documentId) {
+        synchronized (publication) {
+            // L'extraction en vol (s'il y en a une) ne publiera pas son résultat
+            enCours.remove(documentId);
+            synchronized (memoire) {
+                Entree ancienne = memoire.remove(documentId);
+                if (ancienne != null) caracteresEnMemoire -= ancienne.texte().length();
+            }
+            invaliderDisque(documentId);
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        long hm = hitsMemoire.sum(), hd = hitsDisque.sum(), m = miss.sum();
+        long total = hm + hd + m;
+        int entrees;
+        long caracteres;
+        synchronized (memoire) {
+            entrees    = memoire.size();
+            caracteres = caracteresEnMemoire;
+        }
+        return Map.of(
+                "hitsMemoire", hm,
+                "hitsDisque", hd,
+                "miss", m,
+                "ratioHit", total == 0 ? 0.0 : (double) (hm + hd) / total,
+                "msEconomisees", msEconomisees.sum(),
+                "msExtraction", msExtraction.sum(),
+                "extractionsPartagees", partages.sum(),
+                "entreesMemoire", entrees,
+                "caracteresMemoire", caracteres
+        );
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void journaliserStatistiques() {
+        if (hitsMemoire.sum() + hitsDisque.sum() + miss.sum() == 0) return;
+        log.info("Cache extraction documents : {}", getStatistiques());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────
+
+    private Path cacheDir() {
+        return Paths.get(uploadDir, "cache", "extraction");
+    }
+
+    private void mettreEnMemoire(Long documentId, Entree entree) {
+        // Un texte plus gros que tout le budget reste sur disque seulement
+        if (entree.texte().length() > caracteresMax) return;
+        synchronized (memoire) {
+            Entree ancienne = memoire.put(documentId, entree);
+            if (ancienne != null) caracteresEnMemoire -= ancienne.texte().length();
+            caracteresEnMemoire += entree.texte().length();
+
+            Iterator<Entree> plusAnciennes = memoire.values().iterator();
+            while ((memoire.size() > tailleMax || caracteresEnMemoire > caracteresMax)
+                    && plusAnciennes.hasNext()) {
+                caracteresEnMemoire -= plusAnciennes.next().texte().length();
+                plusAnciennes.remove();
+            }
+        }
+    }
+
+    private String attendre(CompletableFuture<String> texte) throws Exception {
+        try {
+            return texte.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception ex) throw ex;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private void invaliderDisque(Long documentId) {
+        Path dir = cacheDir();
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dir, documentId + "-*.txt")) {
+            for (Path f : fichiers) {
+                Files.deleteIfExists(f);
+            }
+        } catch (IOException e) {
+            log.warn("Invalidation du cache d'extraction impossible (document {}) : {}",
+                    documentId, e.getMessage());
+        }
+    }
+
+    private Entree lire(Path fichier, long taille, long dateModif) throws IOException {
+        String contenu = Files.readString(fichier, StandardCharsets.UTF_8);
+        int finEntete = contenu.indexOf('\n');
+        long duree = Long.parseLong(contenu.substring(ENTETE.length(), finEntete));
+        return new Entree(taille, dateModif, contenu.substring(finEntete + 1), duree);
+    }
+
+    private void ecrire(Path cible, Entree entree) {
+        try {
+            Files.createDirectories(cible.getParent());
+            // Nom temporaire unique : deux écritures ne se mélangent jamais
+            Path temp = Files.createTempFile(cible.getParent(), cible.getFileName().toString(), ".tmp");
+            try {
+                Files.writeString(temp, ENTETE + entree.dureeExtractionMs() + "\n" + entree.texte(),
+                        StandardCharsets.UTF_8);
+                try {
+                    Files.move(temp, cible, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, cible, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // Le cache disque est optionnel : l'extraction reste valide
+            log.warn("Écriture du cache d'extraction impossible {} : {}", cible.getFileName(), e.getMessage());
+        }
+    }
+
+    private String sha256(Path fichier) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+        try (InputStream in = Files.newInputStream(fichier)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int lu;
+            while ((lu = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, lu);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
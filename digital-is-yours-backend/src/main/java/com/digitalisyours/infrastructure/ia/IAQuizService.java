@@ -1,18 +1,13 @@
 package com.digitalisyours.infrastructure.ia;
 
-
+import com.digitalisyours.domain.model.RequeteIA;
+import com.digitalisyours.domain.port.out.ModeleLangagePort;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -21,19 +16,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class IAQuizService {
-    @Value("${groq.api.key:}")
-    private String groqApiKey;
-
-    private static final String GROQ_URL   = "https://api.groq.com/openai/v1/chat/completions";
     private static final String GROQ_MODEL = "llama-3.3-70b-versatile";
 
     private final CoursContentExtractor contentExtractor;
+    private final ModeleLangagePort     llm;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
-
     // ── Cache des thèmes déjà couverts par cours/formation ───
     // Clé : "cours-{id}" ou "formation-{id}"
     // Valeur : liste des débuts de questions (premiers 60 chars) des 2 derniers quiz
@@ -82,7 +70,7 @@ public class IAQuizService {
             }
         }
 
-        if (groqApiKey == null || groqApiKey.isBlank()) {
+        if (!llm.estConfigure(ModeleLangagePort.GROQ)) {
             log.warn("Clé Groq manquante — mode simulation activé");
             return genererQuizSimule(coursInfo, nbQuestions, difficulte, inclureDefinitions, inclureCasPratiques, cacheKey);
         }
@@ -106,39 +94,23 @@ public class IAQuizService {
             // maxTokens : ~280 tokens par question, minimum 3000
             int maxTokens = Math.max(3000, nbQEffectif * 280);
 
-            String requestBody = objectMapper.writeValueAsString(Map.of(
-                    "model", GROQ_MODEL,
-                    "messages", List.of(
-                            Map.of("role", "system", "content",
-                                    "Tu es un expert pédagogique. Réponds UNIQUEMENT avec un tableau JSON valide, "
-                                            + "sans markdown, sans texte avant ou après, sans balises ```json."),
-                            Map.of("role", "user", "content", prompt)
-                    ),
-                    "temperature", 1.0,
-                    "max_tokens", maxTokens
-            ));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(GROQ_URL))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + groqApiKey)
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .timeout(Duration.ofSeconds(90))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 429) {
-                log.warn("Quota Groq dépassé (429) — mode simulation activé");
-                return genererQuizSimule(coursInfo, nbQuestions, difficulte, inclureDefinitions, inclureCasPratiques, cacheKey);
-            }
-
-            if (response.statusCode() != 200) {
-                log.error("Erreur API Groq: {} — {}", response.statusCode(), response.body());
+            Optional<String> reponse = llm.completer(RequeteIA.builder()
+                    .fournisseur(ModeleLangagePort.GROQ)
+                    .modele(GROQ_MODEL)
+                    .systeme("Tu es un expert pédagogique. Réponds UNIQUEMENT avec un tableau JSON valide, "
+                            + "sans markdown, sans texte avant ou après, sans balises ```json.")
+                    .prompt(prompt)
+                    .temperature(1.0)
+                    .maxTokens(maxTokens)
+                    .build());
+
+            // Quota épuisé après nouvelles tentatives, disjoncteur ouvert, erreur API
+            if (reponse.isEmpty()) {
+                log.warn("Groq indisponible — mode simulation activé");
                 return genererQuizSimule(coursInfo, nbQuestions, difficulte, inclureDefinitions, inclureCasPratiques, cacheKey);
             }
 
-            List<QuizQuestionIA> questions = parseGroqResponse(response.body());
+            List<QuizQuestionIA> questions = parseGroqResponse(reponse.get());
 
             // Si JSON trop corrompu → fallback simulation
             if (questions.isEmpty()) {
@@ -0,0 +1,361 @@
+package com.digitalisyours.infrastructure.ia;
+
+import com.digitalisyours.domain.model.RequeteIA;
+import com.digitalisyours.domain.port.out.ModeleLangagePort;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Passerelle unique vers les API de modèles de langage (Groq, Mistral).
+ *
+ * Un seul HttpClient HTTP/2 partagé (connexions réutilisées) et, par fournisseur :
+ *  - concurrence bornée (sémaphore) et débit borné (TokenBucket) ;
+ *  - sur 429 / 5xx : nouvelles tentatives avec attente exponentielle, Retry-After
+ *    respecté — un 429 suspend le débit de tout le fournisseur, pas seulement de l'appelant ;
+ *  - disjoncteur : après une série d'échecs, les appels sont refusés sans réseau et
+ *    les appelants passent directement à leur calcul local ;
+ *  - métriques : appels, erreurs, nouvelles tentatives, latence, tokens consommés.
+ *
+ * L'URL de chaque fournisseur est configurable (app.ia.{fournisseur}.url) pour
+ * viser un serveur local simulé.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasserelleLLM implements ModeleLangagePort {
+
+    private static final Map<String, String> URLS = Map.of(
+            GROQ,    "https://api.groq.com/openai/v1/chat/completions",
+            MISTRAL, "https://api.mistral.ai/v1/chat/completions");
+
+    // Génération de quiz (réponses longues) sur Groq, analyses courtes sur Mistral
+    private static final Map<String, Long> TIMEOUTS_MS = Map.of(GROQ, 90_000L, MISTRAL, 45_000L);
+
+    // Offres gratuites : Groq ~30 requêtes/min, Mistral ~1 requête/s
+    private static final Map<String, Double> DEBITS = Map.of(GROQ, 0.5, MISTRAL, 1.0);
+
+    private static final long ATTENTE_BASE_MS = 500;
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${app.ia.tentatives-max:3}")
+    private int tentativesMax;
+
+    // Au-delà, on ne fait pas attendre l'utilisateur : calcul local immédiat
+    @Value("${app.ia.attente-max-ms:20000}")
+    private long attenteMaxMs;
+
+    @Value("${app.ia.connexion-timeout-ms:10000}")
+    private long connexionTimeoutMs;
+
+    @Value("${app.ia.disjoncteur.seuil-echecs:5}")
+    private int seuilEchecs;
+
+    @Value("${app.ia.disjoncteur.pause-ms:60000}")
+    private long pauseDisjoncteurMs;
+
+    private HttpClient httpClient;
+    private final Map<String, Canal> canaux = new LinkedHashMap<>();
+
+    private static final class Canal {
+        final String      nom;
+        final String      cleApi;
+        final URI         url;
+        final Duration    timeout;
+        final Semaphore   slots;
+        final TokenBucket debit;
+        final Disjoncteur disjoncteur;
+
+        // ── Métriques ──
+        final LongAdder appels         = new LongAdder();
+        final LongAdder succes         = new LongAdder();
+        final LongAdder echecs         = new LongAdder();
+        final LongAdder tentatives     = new LongAdder();
+        final LongAdder refus429       = new LongAdder();
+        final LongAdder saturations    = new LongAdder();
+        final LongAdder courtCircuits  = new LongAdder();
+        final LongAdder erreursClient  = new LongAdder();
+        final LongAdder latenceTotale  = new LongAdder();
+        final LongAccumulator latenceMax = new LongAccumulator(Math::max, 0);
+        final LongAdder tokensPrompt   = new LongAdder();
+        final LongAdder tokensReponse  = new LongAdder();
+
+        Canal(String nom, String cleApi, URI url, Duration timeout, Semaphore slots,
+              TokenBucket debit, Disjoncteur disjoncteur) {
+            this.nom = nom;
+            this.cleApi = cleApi;
+            this.url = url;
+            this.timeout = timeout;
+            this.slots = slots;
+            this.debit = debit;
+            this.disjoncteur = disjoncteur;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Un seul client pour tous les appels : connexions HTTP/2 multiplexées et réutilisées
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connexionTimeoutMs))
+                .build();
+
+        for (String f : List.of(GROQ, MISTRAL)) {
+            String prefixe = "app.ia." + f + ".";
+            double debit   = environment.getProperty(prefixe + "appels-par-seconde", Double.class, DEBITS.get(f));
+            Canal canal = new Canal(
+                    f,
+                    environment.getProperty(f + ".api.key", ""),
+                    URI.create(environment.getProperty(prefixe + "url", URLS.get(f))),
+                    Duration.ofMillis(environment.getProperty(prefixe + "timeout-ms", Long.class, TIMEOUTS_MS.get(f))),
+                    new Semaphore(Math.max(1, environment.getProperty(prefixe + "concurrence", Integer.class, 4))),
+                    new TokenBucket(Math.max(1, environment.getProperty(prefixe + "rafale", Long.class, 5L)), debit),
+                    new Disjoncteur(seuilEchecs, pauseDisjoncteurMs, TimeUnit.MILLISECONDS));
+            canaux.put(f, canal);
+
+            if (canal.cleApi.isBlank()) {
+                log.warn("═══ Passerelle IA {} : CLÉ ABSENTE → calculs locaux ═══", f);
+            } else {
+                log.info("═══ Passerelle IA {} ACTIVE — {} ({} appel(s)/s, {} en parallèle) ═══",
+                        f, canal.url.getHost(), debit, canal.slots.availablePermits());
+            }
+        }
+    }
+
+    @Override
+    public boolean estConfigure(String fournisseur) {
+        return !canal(fournisseur).cleApi.isBlank();
+    }
+
+    // ══════════════════════════════════════════════════════
+    // APPEL
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public Optional<String> completer(RequeteIA requete) {
+        Canal canal = canal(requete.getFournisseur());
+        if (canal.cleApi.isBlank()) return Optional.empty();
+
+        if (!canal.disjoncteur.autoriser()) {
+            canal.courtCircuits.increment();
+            log.debug("{} : disjoncteur ouvert → calcul local", canal.nom);
+            return Optional.empty();
+        }
+
+        try {
+            String corps = objectMapper.writeValueAsString(Map.of(
+                    "model", requete.getModele(),
+                    "messages", List.of(
+                            Map.of("role", "system", "content", requete.getSysteme()),
+                            Map.of("role", "user",   "content", requete.getPrompt())
+                    ),
+                    "temperature", requete.getTemperature(),
+                    "max_tokens", requete.getMaxTokens()
+            ));
+
+            for (int tentative = 1; ; tentative++) {
+                if (!canal.debit.tryAcquire(attenteMaxMs, TimeUnit.MILLISECONDS)) {
+                    canal.saturations.increment();
+                    log.warn("{} : débit saturé ou suspendu (Retry-After) → calcul local", canal.nom);
+                    canal.disjoncteur.liberer();
+                    return Optional.empty();
+                }
+
+                HttpResponse<String> reponse;
+                canal.slots.acquire();
+                long debut = System.nanoTime();
+                try {
+                    canal.appels.increment();
+                    reponse = httpClient.send(HttpRequest.newBuilder()
+                                    .uri(canal.url)
+                                    .header("Content-Type", "application/json")
+                                    .header("Authorization", "Bearer " + canal.cleApi)
+                                    .POST(HttpRequest.BodyPublishers.ofString(corps))
+                                    .timeout(canal.timeout)
+                                    .build(),
+                            HttpResponse.BodyHandlers.ofString());
+                } catch (IOException e) {
+                    // Timeout, connexion refusée ou coupée
+                    if (tentative < tentativesMax) {
+                        canal.tentatives.increment();
+                        TimeUnit.MILLISECONDS.sleep(attenteExponentielle(tentative));
+                        continue;
+                    }
+                    log.warn("{} injoignable après {} tentative(s) : {} → calcul local",
+                            canal.nom, tentative, e.getMessage());
+                    return echec(canal);
+                } finally {
+                    canal.slots.release();
+                    long ms = (System.nanoTime() - debut) / 1_000_000;
+                    canal.latenceTotale.add(ms);
+                    canal.latenceMax.accumulate(ms);
+                }
+
+                int code = reponse.statusCode();
+                if (code == 200) {
+                    canal.succes.increment();
+                    compterTokens(canal, reponse.body());
+                    canal.disjoncteur.succes();
+                    return Optional.of(reponse.body());
+                }
+
+                if (code == 429 || code >= 500) {
+                    long attente = retryAfterMs(reponse).orElse(attenteExponentielle(tentative));
+                    if (code == 429) {
+                        canal.refus429.increment();
+                        // Vaut pour tous les appels en cours vers ce fournisseur
+                        canal.debit.suspendre(attente, TimeUnit.MILLISECONDS);
+                    }
+                    if (tentative < tentativesMax && attente <= attenteMaxMs) {
+                        canal.tentatives.increment();
+                        // Après un 429, c'est la suspension du débit qui fait attendre
+                        if (code != 429) TimeUnit.MILLISECONDS.sleep(attente);
+                        continue;
+                    }
+                    log.warn("{} HTTP {} après {} tentative(s) → calcul local", canal.nom, code, tentative);
+                    return echec(canal);
+                }
+
+                if (code == 401 || code == 403) {
+                    log.error("{} : clé refusée (HTTP {}) → calcul local", canal.nom, code);
+                    return echec(canal);
+                }
+
+                // Autre 4xx : requête refusée, réessayer ne changerait rien
+                canal.erreursClient.increment();
+                log.error("{} HTTP {} : {}", canal.nom, code, tronquer(reponse.body()));
+                canal.disjoncteur.liberer();
+                return Optional.empty();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            canal.disjoncteur.liberer();
+            return Optional.empty();
+        } catch (IOException e) {
+            // Sérialisation du corps
+            log.error("{} : requête impossible à construire : {}", canal.nom, e.getMessage());
+            canal.disjoncteur.liberer();
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> echec(Canal canal) {
+        canal.echecs.increment();
+        canal.disjoncteur.echec();
+        if (canal.disjoncteur.getEtat() == Disjoncteur.Etat.OUVERT) {
+            log.warn("{} : disjoncteur ouvert pour {} ms — calculs locaux en attendant",
+                    canal.nom, pauseDisjoncteurMs);
+        }
+        return Optional.empty();
+    }
+
+    private Canal canal(String fournisseur) {
+        Canal canal = canaux.get(fournisseur);
+        if (canal == null) throw new IllegalArgumentException("Fournisseur IA inconnu : " + fournisseur);
+        return canal;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────
+
+    private long attenteExponentielle(int tentative) {
+        long base = ATTENTE_BASE_MS << Math.min(tentative - 1, 10);
+        return Math.min(attenteMaxMs, base + ThreadLocalRandom.current().nextLong(ATTENTE_BASE_MS / 2));
+    }
+
+    // Retry-After : nombre de secondes ou date HTTP
+    private static Optional<Long> retryAfterMs(HttpResponse<?> reponse) {
+        return reponse.headers().firstValue("Retry-After").flatMap(valeur -> {
+            String v = valeur.trim();
+            try {
+                return Optional.of(Math.max(0, (long) (Double.parseDouble(v) * 1000)));
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime date = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME);
+                    return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), date).toMillis()));
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    private void compterTokens(Canal canal, String corps) {
+        try {
+            JsonNode usage = objectMapper.readTree(corps).path("usage");
+            canal.tokensPrompt.add(usage.path("prompt_tokens").asLong(0));
+            canal.tokensReponse.add(usage.path("completion_tokens").asLong(0));
+        } catch (IOException ignored) {
+            // Corps illisible : l'appelant le signalera en le parsant
+        }
+    }
+
+    private static String tronquer(String texte) {
+        return texte == null || texte.length() <= 300 ? texte : texte.substring(0, 300) + "…";
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void journaliser() {
+        canaux.values().forEach(c -> {
+            if (c.appels.sum() + c.courtCircuits.sum() + c.saturations.sum() > 0) {
+                log.info("Passerelle IA {} : {}", c.nom, statistiques(c));
+            }
+        });
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        canaux.forEach((nom, c) -> stats.put(nom, statistiques(c)));
+        return stats;
+    }
+
+    private Map<String, Object> statistiques(Canal c) {
+        long appels = c.appels.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("disjoncteur",       c.disjoncteur.getEtat());
+        stats.put("ouvertures",        c.disjoncteur.getOuvertures());
+        stats.put("appels",            appels);
+        stats.put("succes",            c.succes.sum());
+        stats.put("echecs",            c.echecs.sum());
+        stats.put("nouvellesTentatives", c.tentatives.sum());
+        stats.put("refus429",          c.refus429.sum());
+        stats.put("saturations",       c.saturations.sum());
+        stats.put("courtCircuits",     c.courtCircuits.sum());
+        stats.put("erreursClient",     c.erreursClient.sum());
+        stats.put("latenceMoyenneMs",  appels == 0 ? 0 : c.latenceTotale.sum() / appels);
+        stats.put("latenceMaxMs",      c.latenceMax.get());
+        stats.put("tokensPrompt",      c.tokensPrompt.sum());
+        stats.put("tokensReponse",     c.tokensReponse.sum());
+        return stats;
+    }
+}
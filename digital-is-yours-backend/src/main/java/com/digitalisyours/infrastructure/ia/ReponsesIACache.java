@@ -0,0 +1,256 @@
+package com.digitalisyours.infrastructure.ia;
+
+import com.digitalisyours.domain.port.out.CacheReponsesIAPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des réponses des modèles de langage, adressé par empreinte de la requête.
+ *
+ * La requête est la chaîne fournie par l'appelant : modèle + consignes système
+ * + prompt. Deux profils identiques (mêmes domaines, niveau, heures, même
+ * présélection) produisent la même requête : la réponse n'est payée qu'une fois.
+ *
+ * Deux niveaux, comme ExtractionTexteCache :
+ *  - mémoire : LRU par empreinte SHA-256 de la requête (modèle + consignes + prompt)
+ *  - disque  : {uploadDir}/cache/llm/{sha256}.txt, survit aux redémarrages
+ *
+ * Une entrée fraîche est servie telle quelle ; une entrée périmée (mais pas trop
+ * vieille) est servie immédiatement et rafraîchie en arrière-plan. Les appels
+ * concurrents pour une même empreinte partagent un seul appel en vol.
+ */
+@Component
+@Slf4j
+public class ReponsesIACache implements CacheReponsesIAPort {
+
+    private static final String ENTETE = "#cree-a=";
+
+    private record Entree(String reponse, long creeA) {}
+
+    @Value("${app.upload.dir:uploads/videos}")
+    private String uploadDir;
+
+    @Value("${app.ia.reponses-cache.frais-minutes:1440}")
+    private long fraisMinutes;
+
+    @Value("${app.ia.reponses-cache.perime-max-heures:168}")
+    private long perimeMaxHeures;
+
+    private final Map<String, Entree> memoire;
+    private final Map<String, CompletableFuture<String>> enVol = new ConcurrentHashMap<>();
+    private final ExecutorService rafraichisseur = Executors.newVirtualThreadPerTaskExecutor();
+
+    // ── Métriques ──
+    private final LongAdder hits       = new LongAdder();
+    private final LongAdder hitsDisque = new LongAdder();
+    private final LongAdder perimes    = new LongAdder();
+    private final LongAdder miss       = new LongAdder();
+    private final LongAdder regroupes  = new LongAdder();
+    private final LongAdder appels     = new LongAdder();
+    private final LongAdder echecs     = new LongAdder();
+
+    public ReponsesIACache(@Value("${app.ia.reponses-cache.taille-max:1000}") int tailleMax) {
+        this.memoire = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> eldest) {
+                return size() > tailleMax;
+            }
+        };
+    }
+
+    @Override
+    public Optional<String> getOuAppeler(String requete, Callable<String> appel) {
+        String cle = sha256(requete);
+        Entree entree = lire(cle);
+        long age = entree != null ? System.currentTimeMillis() - entree.creeA() : Long.MAX_VALUE;
+
+        // ── 1. Fraîche ──
+        if (age < TimeUnit.MINUTES.toMillis(fraisMinutes)) {
+            hits.increment();
+            return Optional.of(entree.reponse());
+        }
+
+        // ── 2. Périmée : servie tout de suite, rafraîchie en arrière-plan ──
+        if (age < TimeUnit.HOURS.toMillis(perimeMaxHeures)) {
+            perimes.increment();
+            appelerUneFois(cle, appel, true);
+            return Optional.of(entree.reponse());
+        }
+
+        // ── 3. Absente : appel réel, partagé avec les demandes identiques en cours ──
+        miss.increment();
+        return Optional.ofNullable(appelerUneFois(cle, appel, false).join());
+    }
+
+    private CompletableFuture<String> appelerUneFois(String cle, Callable<String> appel, boolean arrierePlan) {
+        CompletableFuture<String> nouveau = new CompletableFuture<>();
+        CompletableFuture<String> existant = enVol.putIfAbsent(cle, nouveau);
+        if (existant != null) {
+            regroupes.increment();
+            return existant;
+        }
+
+        Runnable tache = () -> {
+            String reponse = null;
+            try {
+                appels.increment();
+                reponse = appel.call();
+                if (reponse != null) {
+                    enregistrer(cle, new Entree(reponse, System.currentTimeMillis()));
+                } else {
+                    echecs.increment();
+                }
+            } catch (Exception e) {
+                echecs.increment();
+                log.warn("Appel au modèle de langage échoué : {}", e.getMessage());
+            } finally {
+                // Jamais d'exception pour les appelants : null = pas de réponse
+                nouveau.complete(reponse);
+                enVol.remove(cle, nouveau);
+            }
+        };
+        if (arrierePlan) {
+            rafraichisseur.submit(tache);
+        } else {
+            tache.run();
+        }
+        return nouveau;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // STOCKAGE
+    // ══════════════════════════════════════════════════════
+
+    private Entree lire(String cle) {
+        Entree entree;
+        synchronized (memoire) {
+            entree = memoire.get(cle);
+        }
+        if (entree != null) return entree;
+
+        Path fichier = cacheDir().resolve(cle + ".txt");
+        if (!Files.exists(fichier)) return null;
+        try {
+            String contenu = Files.readString(fichier, StandardCharsets.UTF_8);
+            int finEntete = contenu.indexOf('\n');
+            entree = new Entree(contenu.substring(finEntete + 1),
+                    Long.parseLong(contenu.substring(ENTETE.length(), finEntete)));
+            synchronized (memoire) {
+                memoire.put(cle, entree);
+            }
+            hitsDisque.increment();
+            return entree;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cache de réponses IA illisible {} : {}", fichier.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void enregistrer(String cle, Entree entree) {
+        synchronized (memoire) {
+            memoire.put(cle, entree);
+        }
+        Path cible = cacheDir().resolve(cle + ".txt");
+        try {
+            Files.createDirectories(cible.getParent());
+            Path temp = cible.resolveSibling(cible.getFileName() + ".tmp");
+            Files.writeString(temp, ENTETE + entree.creeA() + "\n" + entree.reponse(), StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, cible, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, cible, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Le disque est optionnel : la réponse reste en mémoire
+            log.warn("Écriture du cache de réponses IA impossible {} : {}", cible.getFileName(), e.getMessage());
+        }
+    }
+
+    private Path cacheDir() {
+        return Paths.get(uploadDir, "cache", "llm");
+    }
+
+    private static String sha256(String texte) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(texte.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MAINTENANCE + MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void maintenance() {
+        purgerDisque();
+        if (hits.sum() + perimes.sum() + miss.sum() > 0) {
+            log.info("Cache réponses IA : {}", getStatistiques());
+        }
+    }
+
+    // Au-delà de perime-max-heures une entrée n'est plus servie : inutile de la garder
+    private void purgerDisque() {
+        Path dir = cacheDir();
+        if (!Files.isDirectory(dir)) return;
+        long limite = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(perimeMaxHeures);
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dir, "*.txt")) {
+            for (Path f : fichiers) {
+                if (Files.getLastModifiedTime(f).toMillis() < limite) {
+                    Files.deleteIfExists(f);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Purge du cache de réponses IA impossible : {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        int entrees;
+        synchronized (memoire) {
+            entrees = memoire.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits",           hits.sum());
+        stats.put("hitsDisque",     hitsDisque.sum());
+        stats.put("perimesServis",  perimes.sum());
+        stats.put("miss",           miss.sum());
+        stats.put("regroupes",      regroupes.sum());
+        stats.put("appels",         appels.sum());
+        stats.put("echecs",         echecs.sum());
+        stats.put("entreesMemoire", entrees);
+        return stats;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        rafraichisseur.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package com.digitalisyours.infrastructure.ia;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limiteur de débit "token bucket" pour les appels aux API d'IA.
+ *
+ * {@code capacite} jetons au maximum, rechargés à {@code jetonsParSeconde}.
+ * {@link #acquire()} bloque l'appelant jusqu'à ce qu'un jeton soit disponible.
+ * Utilise un ReentrantLock (et non synchronized) pour ne pas épingler
+ * les threads virtuels pendant l'attente.
+ */
+public class TokenBucket {
+
+    private final long   capacite;
+    private final double jetonsParNano;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double jetons;
+    private long   dernierRemplissage;
+
+    public TokenBucket(long capacite, double jetonsParSeconde) {
+        if (capacite <= 0 || jetonsParSeconde <= 0)
+            throw new IllegalArgumentException("Capacité et débit doivent être positifs");
+        this.capacite           = capacite;
+        this.jetonsParNano      = jetonsParSeconde / TimeUnit.SECONDS.toNanos(1);
+        this.jetons             = capacite;
+        this.dernierRemplissage = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long attenteNanos;
+            lock.lock();
+            try {
+                remplir();
+                if (jetons >= 1) {
+                    jetons -= 1;
+                    return;
+                }
+                attenteNanos = (long) Math.ceil((1 - jetons) / jetonsParNano);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(attenteNanos);
+        }
+    }
+
+    /**
+     * Comme {@link #acquire()}, mais renonce immédiatement si le jeton ne sera pas
+     * disponible avant {@code delai} (débit saturé ou API suspendue).
+     */
+    public boolean tryAcquire(long delai, TimeUnit unite) throws InterruptedException {
+        long limite = System.nanoTime() + unite.toNanos(delai);
+        while (true) {
+            long attenteNanos;
+            lock.lock();
+            try {
+                remplir();
+                if (jetons >= 1) {
+                    jetons -= 1;
+                    return true;
+                }
+                attenteNanos = (long) Math.ceil((1 - jetons) / jetonsParNano);
+            } finally {
+                lock.unlock();
+            }
+            if (System.nanoTime() + attenteNanos - limite > 0) return false;
+            TimeUnit.NANOSECONDS.sleep(attenteNanos);
+        }
+    }
+
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            remplir();
+            if (jetons >= 1) {
+                jetons -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aucun jeton pendant {@code duree} (Retry-After d'une API) : le solde passe en
+     * négatif, les appels suivants attendent la fin de la pause puis le débit normal.
+     */
+    public void suspendre(long duree, TimeUnit unite) {
+        lock.lock();
+        try {
+            remplir();
+            jetons = Math.min(jetons, 0) - unite.toNanos(duree) * jetonsParNano;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remplir() {
+        long maintenant = System.nanoTime();
+        jetons = Math.min(capacite, jetons + (maintenant - dernierRemplissage) * jetonsParNano);
+        dernierRemplissage = maintenant;
+    }
+}
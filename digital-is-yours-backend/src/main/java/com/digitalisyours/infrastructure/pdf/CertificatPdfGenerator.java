@@ -1,13 +1,17 @@
 package com.digitalisyours.infrastructure.pdf;
 
 import com.digitalisyours.domain.model.Certificat;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.Encoding;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.springframework.stereotype.Component;
 
@@ -16,8 +20,22 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
-
+import java.util.Map;
+
+/**
+ * Rendu PDF des certificats (A4 paysage).
+ *
+ * Tout ce qui ne dépend pas du certificat (fond, bordures, coins, bandeaux, logo,
+ * libellés fixes) est rendu une seule fois au démarrage dans un gabarit.
+ * Chaque certificat recharge ce gabarit et n'y ajoute que ses textes variables :
+ * le logo n'est plus décodé/ré-encodé et les formes fixes ne sont plus redessinées.
+ *
+ * Les largeurs de glyphes des polices standard sont précalculées (tables immuables,
+ * partagées entre threads) ; les objets PDType1Font restent propres à chaque rendu
+ * car ils gardent des caches internes non synchronisés.
+ */
 @Component
 @Slf4j
 public class CertificatPdfGenerator {
@@ -36,12 +54,172 @@ public class CertificatPdfGenerator {
     private static final float W = PDRectangle.A4.getHeight(); // 841.9
     private static final float H = PDRectangle.A4.getWidth();  // 595.3
 
+    // ── Zone note finale (fond dans le gabarit, valeur par certificat) ──
+    private static final float NOTE_BOX_X = 65, NOTE_BOX_Y = H - 445, NOTE_BOX_W = 130, NOTE_BOX_H = 58;
+
+    /** Police prête pour un rendu : instance PDFBox + largeurs précalculées */
+    private record Police(PDType1Font font, Map<Integer, Float> largeurs) {
+        Police(Standard14Fonts.FontName nom, Map<Integer, Float> largeurs) {
+            this(new PDType1Font(nom), largeurs);
+        }
+    }
+
+    private byte[] gabarit;
+    private Map<Integer, Float> largeursHelvetica;
+    private Map<Integer, Float> largeursHelveticaBold;
+    private Map<Integer, Float> largeursTimesRoman;
+    private Map<Integer, Float> largeursTimesBoldItalic;
+
+    @PostConstruct
+    public void preparer() throws IOException {
+        largeursHelvetica       = chargerLargeurs(Standard14Fonts.FontName.HELVETICA);
+        largeursHelveticaBold   = chargerLargeurs(Standard14Fonts.FontName.HELVETICA_BOLD);
+        largeursTimesRoman      = chargerLargeurs(Standard14Fonts.FontName.TIMES_ROMAN);
+        largeursTimesBoldItalic = chargerLargeurs(Standard14Fonts.FontName.TIMES_BOLD_ITALIC);
+        gabarit = rendreGabarit();
+        log.info("Gabarit certificat prêt ({} octets)", gabarit.length);
+    }
+
+    // ══════════════════════════════════════════════════════
+    // Rendu d'un certificat : gabarit + textes variables
+    // ══════════════════════════════════════════════════════
+
     public byte[] generer(Certificat cert) throws IOException {
 
+        try (PDDocument doc = Loader.loadPDF(gabarit)) {
+            PDPage page = doc.getPage(0);
+
+            Police medFont  = new Police(Standard14Fonts.FontName.HELVETICA,         largeursHelvetica);
+            Police boldMed  = new Police(Standard14Fonts.FontName.HELVETICA_BOLD,    largeursHelveticaBold);
+            Police nameFont = new Police(Standard14Fonts.FontName.TIMES_BOLD_ITALIC, largeursTimesBoldItalic);
+
+            try (PDPageContentStream cs = new PDPageContentStream(
+                    doc, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+
+                // 12. NOM APPRENANT — grand et centré (style image 1 et 2)
+                setFontColor(cs, DARK_TEXT);
+                cs.setFont(nameFont.font(), 42);
+                String nom = cert.getApprenantPrenom() + " " + cert.getApprenantNom();
+                float nw = largeur(nameFont, nom, 42);
+                float nameY = H - 290;
+                cs.beginText();
+                cs.newLineAtOffset((W - nw) / 2f, nameY);
+                cs.showText(nom);
+                cs.endText();
+
+                // Ligne sous le nom (style image 2)
+                cs.setStrokingColor(NAVY);
+                cs.setLineWidth(1.5f);
+                float lineX1 = (W - Math.min(nw + 60, W - 120)) / 2f;
+                float lineX2 = lineX1 + Math.min(nw + 60, W - 120);
+                cs.moveTo(lineX1, nameY - 8);
+                cs.lineTo(lineX2, nameY - 8);
+                cs.stroke();
+
+                // 13. Nom formation en gras + teal
+                setFontColor(cs, TEAL);
+                cs.setFont(boldMed.font(), 13);
+                String formation = cert.getFormationTitre();
+                // Tronquer si trop long
+                if (formation != null && formation.length() > 70)
+                    formation = formation.substring(0, 67) + "...";
+                if (formation != null) {
+                    float fw = largeur(boldMed, formation, 13);
+                    cs.beginText();
+                    cs.newLineAtOffset((W - fw) / 2f, H - 345);
+                    cs.showText(formation);
+                    cs.endText();
+                }
+
+                // Niveau et durée
+                setFontColor(cs, GRAY_TEXT);
+                cs.setFont(medFont.font(), 10);
+                String meta = "Niveau " + nvLabel(cert.getFormationNiveau())
+                        + "   \u2022   Formation certifiante"
+                        + (cert.getFormationDuree() != null ? "   \u2022   " + cert.getFormationDuree() + "h" : "");
+                float mw = largeur(medFont, meta, 10);
+                cs.beginText();
+                cs.newLineAtOffset((W - mw) / 2f, H - 362);
+                cs.showText(meta);
+                cs.endText();
+
+                // 15. Note en grand blanc (sur le fond bleu marine du gabarit)
+                setFontColor(cs, WHITE);
+                cs.setFont(boldMed.font(), 28);
+                String noteStr = String.format("%.0f%%", cert.getNoteFinal() != null ? cert.getNoteFinal() : 0f);
+                float nSw = largeur(boldMed, noteStr, 28);
+                cs.beginText();
+                cs.newLineAtOffset(NOTE_BOX_X + (NOTE_BOX_W - nSw) / 2f, NOTE_BOX_Y + 30);
+                cs.showText(noteStr);
+                cs.endText();
+
+                // Texte attestation à droite de la note
+                setFontColor(cs, GRAY_TEXT);
+                cs.setFont(medFont.font(), 10);
+                float txtX = NOTE_BOX_X + NOTE_BOX_W + 20;
+                float txtMaxW = W - txtX - 70;
+                String[] lignesAttestation = wrapText(
+                        "Ce certificat atteste que " + cert.getApprenantPrenom() + " "
+                                + cert.getApprenantNom() + " a d\u00e9montr\u00e9 les comp\u00e9tences "
+                                + "requises et a compl\u00e9t\u00e9 avec succ\u00e8s l'int\u00e9gralit\u00e9 "
+                                + "du programme sur la plateforme Digital Is Yours.",
+                        medFont, 10, txtMaxW);
+                float lineHt = 15f;
+                float startY = NOTE_BOX_Y + NOTE_BOX_H - 5;
+                for (String ligne : lignesAttestation) {
+                    cs.beginText();
+                    cs.setFont(medFont.font(), 10);
+                    cs.newLineAtOffset(txtX, startY);
+                    cs.showText(ligne);
+                    cs.endText();
+                    startY -= lineHt;
+                }
+
+                // 16. Date de délivrance centre bas
+                cs.setFont(medFont.font(), 9);
+                setFontColor(cs, new Color(180, 180, 200));
+                String dateStr = "D\u00e9livr\u00e9 le " + (cert.getDateCreation() != null
+                        ? cert.getDateCreation().format(
+                        DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.FRENCH))
+                        : "");
+                float dw = largeur(medFont, dateStr, 9);
+                cs.beginText();
+                cs.newLineAtOffset((W - dw) / 2f, 38);
+                cs.showText(dateStr);
+                cs.endText();
+
+                // Numéro certificat droite bas
+                cs.setFont(boldMed.font(), 10);
+                setFontColor(cs, WHITE);
+                String numVal = cert.getNumeroCertificat() != null ? cert.getNumeroCertificat() : "";
+                float nvw = largeur(boldMed, numVal, 10);
+                cs.beginText();
+                cs.newLineAtOffset(W - nvw - 60, 54);
+                cs.showText(numVal);
+                cs.endText();
+
+            } // fin PDPageContentStream
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(64 * 1024);
+            doc.save(baos);
+            return baos.toByteArray();
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // Gabarit : couche statique, rendue une fois
+    // ══════════════════════════════════════════════════════
+
+    private byte[] rendreGabarit() throws IOException {
+
         try (PDDocument doc = new PDDocument()) {
             PDPage page = new PDPage(new PDRectangle(W, H));
             doc.addPage(page);
 
+            Police medFont     = new Police(Standard14Fonts.FontName.HELVETICA,      largeursHelvetica);
+            Police boldMed     = new Police(Standard14Fonts.FontName.HELVETICA_BOLD, largeursHelveticaBold);
+            Police regularFont = new Police(Standard14Fonts.FontName.TIMES_ROMAN,    largeursTimesRoman);
+
             try (PDPageContentStream cs = new PDPageContentStream(
                     doc, page, PDPageContentStream.AppendMode.OVERWRITE, true, true)) {
 
@@ -64,12 +242,11 @@ public class CertificatPdfGenerator {
                 drawRect(cs, 12, H - 94, W - 24, 4, GOLD);
 
                 // 7. Logo PNG dans la bande supérieure
-                drawLogo(doc, cs, cert);
+                drawLogo(doc, cs, boldMed, medFont);
 
                 // 8. "CERTIFICAT OFFICIEL" dans la bande (droite)
-                PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
                 setFontColor(cs, WHITE);
-                cs.setFont(boldFont, 9);
+                cs.setFont(boldMed.font(), 9);
                 float badgeTxt = W - 190;
                 cs.beginText();
                 cs.newLineAtOffset(badgeTxt, H - 52);
@@ -79,11 +256,10 @@ public class CertificatPdfGenerator {
                 drawBorderRect(cs, badgeTxt - 8, H - 64, 180, 20, GOLD, 1f);
 
                 // 9. Titre principal "CERTIFICAT"
-                PDType1Font titleFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
                 setFontColor(cs, NAVY);
-                cs.setFont(titleFont, 52);
+                cs.setFont(boldMed.font(), 52);
                 String titre1 = "CERTIFICAT";
-                float tw1 = titleFont.getStringWidth(titre1) / 1000 * 52;
+                float tw1 = largeur(boldMed, titre1, 52);
                 cs.beginText();
                 cs.newLineAtOffset((W - tw1) / 2f, H - 160);
                 cs.showText(titre1);
@@ -94,87 +270,35 @@ public class CertificatPdfGenerator {
                 float badgeX = (W - badgeW) / 2f;
                 float badgeY = H - 200;
                 drawRect(cs, badgeX, badgeY, badgeW, badgeH2, GOLD);
-                PDType1Font subTitleFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
                 setFontColor(cs, WHITE);
-                cs.setFont(subTitleFont, 13);
+                cs.setFont(boldMed.font(), 13);
                 String sub = "DE R\u00c9USSITE";
-                float sw = subTitleFont.getStringWidth(sub) / 1000 * 13;
+                float sw = largeur(boldMed, sub, 13);
                 cs.beginText();
                 cs.newLineAtOffset((W - sw) / 2f, badgeY + 8);
                 cs.showText(sub);
                 cs.endText();
 
                 // 11. "est décerné avec distinction à"
-                PDType1Font regularFont = new PDType1Font(Standard14Fonts.FontName.TIMES_ROMAN);
                 setFontColor(cs, GRAY_TEXT);
-                cs.setFont(regularFont, 13);
+                cs.setFont(regularFont.font(), 13);
                 String intro = "est d\u00e9cern\u00e9 avec distinction \u00e0";
-                float iw = regularFont.getStringWidth(intro) / 1000 * 13;
+                float iw = largeur(regularFont, intro, 13);
                 cs.beginText();
                 cs.newLineAtOffset((W - iw) / 2f, H - 240);
                 cs.showText(intro);
                 cs.endText();
 
-                // 12. NOM APPRENANT — grand et centré (style image 1 et 2)
-                PDType1Font nameFont = new PDType1Font(Standard14Fonts.FontName.TIMES_BOLD_ITALIC);
-                setFontColor(cs, DARK_TEXT);
-                cs.setFont(nameFont, 42);
-                String nom = cert.getApprenantPrenom() + " " + cert.getApprenantNom();
-                float nw = nameFont.getStringWidth(nom) / 1000 * 42;
-                float nameY = H - 290;
-                cs.beginText();
-                cs.newLineAtOffset((W - nw) / 2f, nameY);
-                cs.showText(nom);
-                cs.endText();
-
-                // Ligne sous le nom (style image 2)
-                cs.setStrokingColor(NAVY);
-                cs.setLineWidth(1.5f);
-                float lineX1 = (W - Math.min(nw + 60, W - 120)) / 2f;
-                float lineX2 = lineX1 + Math.min(nw + 60, W - 120);
-                cs.moveTo(lineX1, nameY - 8);
-                cs.lineTo(lineX2, nameY - 8);
-                cs.stroke();
-
                 // 13. Texte formation
-                PDType1Font medFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
                 setFontColor(cs, GRAY_TEXT);
-                cs.setFont(medFont, 11);
+                cs.setFont(medFont.font(), 11);
                 String ligne1 = "qui a compl\u00e9t\u00e9 avec succ\u00e8s la formation";
-                float l1w = medFont.getStringWidth(ligne1) / 1000 * 11;
+                float l1w = largeur(medFont, ligne1, 11);
                 cs.beginText();
                 cs.newLineAtOffset((W - l1w) / 2f, H - 325);
                 cs.showText(ligne1);
                 cs.endText();
 
-                // Nom formation en gras + teal
-                PDType1Font boldMed = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-                setFontColor(cs, TEAL);
-                cs.setFont(boldMed, 13);
-                String formation = cert.getFormationTitre();
-                // Tronquer si trop long
-                if (formation != null && formation.length() > 70)
-                    formation = formation.substring(0, 67) + "...";
-                if (formation != null) {
-                    float fw = boldMed.getStringWidth(formation) / 1000 * 13;
-                    cs.beginText();
-                    cs.newLineAtOffset((W - fw) / 2f, H - 345);
-                    cs.showText(formation);
-                    cs.endText();
-                }
-
-                // Niveau et durée
-                setFontColor(cs, GRAY_TEXT);
-                cs.setFont(medFont, 10);
-                String meta = "Niveau " + nvLabel(cert.getFormationNiveau())
-                        + "   \u2022   Formation certifiante"
-                        + (cert.getFormationDuree() != null ? "   \u2022   " + cert.getFormationDuree() + "h" : "");
-                float mw = medFont.getStringWidth(meta) / 1000 * 10;
-                cs.beginText();
-                cs.newLineAtOffset((W - mw) / 2f, H - 362);
-                cs.showText(meta);
-                cs.endText();
-
                 // 14. Ligne séparatrice centrale
                 cs.setStrokingColor(new Color(220, 210, 190));
                 cs.setLineWidth(0.8f);
@@ -182,51 +306,17 @@ public class CertificatPdfGenerator {
                 cs.lineTo(W - 60, H - 378);
                 cs.stroke();
 
-                // 15. Zone note finale (gauche) + texte attestation (droite)
-                float noteBoxX = 65, noteBoxY = H - 445, noteBoxW = 130, noteBoxH = 58;
-                // Fond bleu marine pour la note
-                drawRect(cs, noteBoxX, noteBoxY, noteBoxW, noteBoxH, NAVY);
-                // Note en grand blanc
-                PDType1Font bigBold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-                setFontColor(cs, WHITE);
-                cs.setFont(bigBold, 28);
-                String noteStr = String.format("%.0f%%", cert.getNoteFinal() != null ? cert.getNoteFinal() : 0f);
-                float nSw = bigBold.getStringWidth(noteStr) / 1000 * 28;
-                cs.beginText();
-                cs.newLineAtOffset(noteBoxX + (noteBoxW - nSw) / 2f, noteBoxY + 30);
-                cs.showText(noteStr);
-                cs.endText();
+                // 15. Zone note finale : fond bleu marine + libellé
+                drawRect(cs, NOTE_BOX_X, NOTE_BOX_Y, NOTE_BOX_W, NOTE_BOX_H, NAVY);
                 setFontColor(cs, GOLD);
-                cs.setFont(medFont, 9);
+                cs.setFont(medFont.font(), 9);
                 String noteLabel = "NOTE FINALE";
-                float nlw = medFont.getStringWidth(noteLabel) / 1000 * 9;
+                float nlw = largeur(medFont, noteLabel, 9);
                 cs.beginText();
-                cs.newLineAtOffset(noteBoxX + (noteBoxW - nlw) / 2f, noteBoxY + 13);
+                cs.newLineAtOffset(NOTE_BOX_X + (NOTE_BOX_W - nlw) / 2f, NOTE_BOX_Y + 13);
                 cs.showText(noteLabel);
                 cs.endText();
 
-                // Texte attestation à droite de la note
-                setFontColor(cs, GRAY_TEXT);
-                cs.setFont(medFont, 10);
-                float txtX = noteBoxX + noteBoxW + 20;
-                float txtMaxW = W - txtX - 70;
-                String[] lignesAttestation = wrapText(
-                        "Ce certificat atteste que " + cert.getApprenantPrenom() + " "
-                                + cert.getApprenantNom() + " a d\u00e9montr\u00e9 les comp\u00e9tences "
-                                + "requises et a compl\u00e9t\u00e9 avec succ\u00e8s l'int\u00e9gralit\u00e9 "
-                                + "du programme sur la plateforme Digital Is Yours.",
-                        medFont, 10, txtMaxW);
-                float lineHt = 15f;
-                float startY = noteBoxY + noteBoxH - 5;
-                for (String ligne : lignesAttestation) {
-                    cs.beginText();
-                    cs.setFont(medFont, 10);
-                    cs.newLineAtOffset(txtX, startY);
-                    cs.showText(ligne);
-                    cs.endText();
-                    startY -= lineHt;
-                }
-
                 // 16. Bande inférieure bleu marine
                 float footH = 72f;
                 drawRect(cs, 12, 16, W - 24, footH, NAVY);
@@ -234,12 +324,12 @@ public class CertificatPdfGenerator {
 
                 // Signature gauche
                 setFontColor(cs, WHITE);
-                cs.setFont(boldMed, 10);
+                cs.setFont(boldMed.font(), 10);
                 cs.beginText();
                 cs.newLineAtOffset(60, 68);
                 cs.showText("Directeur P\u00e9dagogique");
                 cs.endText();
-                cs.setFont(medFont, 9);
+                cs.setFont(medFont.font(), 9);
                 cs.beginText();
                 cs.newLineAtOffset(60, 54);
                 cs.showText("Digital Is Yours | Acad\u00e9mie en ligne");
@@ -251,40 +341,18 @@ public class CertificatPdfGenerator {
                 cs.lineTo(200, 74);
                 cs.stroke();
 
-                // Date de délivrance centre bas
-                cs.setFont(medFont, 9);
-                setFontColor(cs, new Color(180, 180, 200));
-                String dateStr = "D\u00e9livr\u00e9 le " + (cert.getDateCreation() != null
-                        ? cert.getDateCreation().format(
-                        DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.FRENCH))
-                        : "");
-                float dw = medFont.getStringWidth(dateStr) / 1000 * 9;
-                cs.beginText();
-                cs.newLineAtOffset((W - dw) / 2f, 38);
-                cs.showText(dateStr);
-                cs.endText();
-
-                // Numéro certificat droite bas
-                cs.setFont(boldMed, 9);
+                // Libellé numéro certificat droite bas
+                cs.setFont(boldMed.font(), 9);
                 setFontColor(cs, GOLD);
                 String numLabel = "N\u00b0 DE CERTIFICAT";
-                float nLw = boldMed.getStringWidth(numLabel) / 1000 * 9;
+                float nLw = largeur(boldMed, numLabel, 9);
                 cs.beginText();
                 cs.newLineAtOffset(W - nLw - 60, 68);
                 cs.showText(numLabel);
                 cs.endText();
 
-                cs.setFont(boldMed, 10);
-                setFontColor(cs, WHITE);
-                String numVal = cert.getNumeroCertificat() != null ? cert.getNumeroCertificat() : "";
-                float nvw = boldMed.getStringWidth(numVal) / 1000 * 10;
-                cs.beginText();
-                cs.newLineAtOffset(W - nvw - 60, 54);
-                cs.showText(numVal);
-                cs.endText();
-
                 // Email contact
-                cs.setFont(medFont, 8);
+                cs.setFont(medFont.font(), 8);
                 setFontColor(cs, new Color(160, 160, 180));
                 cs.beginText();
                 cs.newLineAtOffset(W - 200, 26);
@@ -359,10 +427,9 @@ public class CertificatPdfGenerator {
     // ══════════════════════════════════════════════════════
     // Logo PNG (depuis resources)
     // ══════════════════════════════════════════════════════
-    private void drawLogo(PDDocument doc, PDPageContentStream cs, Certificat cert)
+    private void drawLogo(PDDocument doc, PDPageContentStream cs, Police bold, Police regular)
             throws IOException {
-        try {
-            InputStream logoStream = getClass().getResourceAsStream("/static/logo.png");
+        try (InputStream logoStream = getClass().getResourceAsStream("/static/logo.png")) {
             if (logoStream != null) {
                 PDImageXObject logo = PDImageXObject.createFromByteArray(
                         doc, logoStream.readAllBytes(), "logo");
@@ -371,7 +438,7 @@ public class CertificatPdfGenerator {
                 cs.drawImage(logo, 35, H - 82, logoW, logoH);
             } else {
                 // Fallback texte si logo absent
-                PDType1Font fb = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+                PDType1Font fb = bold.font();
                 cs.setFont(fb, 22);
                 cs.setNonStrokingColor(TEAL);
                 cs.beginText();
@@ -384,7 +451,7 @@ public class CertificatPdfGenerator {
                 cs.newLineAtOffset(68, H - 48);
                 cs.showText("DIGITAL");
                 cs.endText();
-                PDType1Font fn = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                PDType1Font fn = regular.font();
                 cs.setNonStrokingColor(new Color(200, 180, 150));
                 cs.setFont(fn, 9);
                 cs.beginText();
@@ -420,8 +487,35 @@ public class CertificatPdfGenerator {
         cs.setNonStrokingColor(c);
     }
 
+    /** Largeur d'un texte via la table précalculée (repli sur PDFBox pour un glyphe inconnu) */
+    private static float largeur(Police police, String texte, float taille) throws IOException {
+        float total = 0;
+        for (int i = 0; i < texte.length(); ) {
+            int cp = texte.codePointAt(i);
+            Float w = police.largeurs().get(cp);
+            if (w == null) return police.font().getStringWidth(texte) / 1000 * taille;
+            total += w;
+            i += Character.charCount(cp);
+        }
+        return total / 1000 * taille;
+    }
+
+    /** Largeurs (unités glyphe /1000) de tous les caractères encodables par la police, par code point */
+    private static Map<Integer, Float> chargerLargeurs(Standard14Fonts.FontName nom) throws IOException {
+        PDType1Font font = new PDType1Font(nom);
+        Encoding encoding = font.getEncoding();
+        GlyphList glyphes = GlyphList.getAdobeGlyphList();
+        Map<Integer, Float> largeurs = new HashMap<>();
+        for (int code = 0; code < 256; code++) {
+            String unicode = glyphes.toUnicode(encoding.getName(code));
+            if (unicode == null || unicode.codePointCount(0, unicode.length()) != 1) continue;
+            largeurs.putIfAbsent(unicode.codePointAt(0), font.getWidth(code));
+        }
+        return Map.copyOf(largeurs);
+    }
+
     /** Découpe un texte long en lignes selon largeur max */
-    private String[] wrapText(String text, PDType1Font font, float fontSize, float maxWidth)
+    private String[] wrapText(String text, Police font, float fontSize, float maxWidth)
             throws IOException {
         String[] words = text.split(" ");
         StringBuilder line = new StringBuilder();
@@ -429,7 +523,7 @@ public class CertificatPdfGenerator {
 
         for (String word : words) {
             String test = line.length() == 0 ? word : line + " " + word;
-            float tw = font.getStringWidth(test) / 1000 * fontSize;
+            float tw = largeur(font, test, fontSize);
             if (tw > maxWidth && line.length() > 0) {
                 lines.add(line.toString());
                 line = new StringBuilder(word);
@@ -0,0 +1,151 @@
+package com.digitalisyours.infrastructure.pdf;
+
+import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
+import com.digitalisyours.domain.port.out.CertificatPdfStorePort;
+import com.digitalisyours.domain.port.out.FileStoragePort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock des PDF de certificats : {storagePath}/cert_{id}.pdf
+ *
+ * Un certificat ne change plus une fois émis : le PDF est rendu une seule fois
+ * (à la génération, ou à la première demande pour les anciens certificats),
+ * puis servi depuis le disque. Des demandes simultanées sur un certificat absent
+ * attendent le même rendu au lieu de lancer chacune PDFBox.
+ *
+ * Le SHA-256 (ETag fort) est gardé en mémoire, validé par taille + date de modification.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CertificatPdfStore implements CertificatPdfStorePort {
+
+    private static final int MAX_EMPREINTES = 10_000;
+    private static final int BUFFER_SIZE    = 64 * 1024;
+
+    private final CertificatPdfGenerator pdfGenerator;
+    private final FileStoragePort        fileStorage;
+
+    @Value("${app.certificats.storage-path:./certificats}")
+    private String storagePath;
+
+    private record Empreinte(long taille, long dateModif, String sha256) {}
+
+    // LRU des SHA-256 connus, pour ne pas relire le fichier à chaque téléchargement
+    private final Map<Long, Empreinte> empreintes = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Empreinte> eldest) {
+                    return size() > MAX_EMPREINTES;
+                }
+            });
+
+    private final Map<Long, CompletableFuture<FichierStocke>> rendusEnCours = new ConcurrentHashMap<>();
+
+    @Override
+    public FichierStocke obtenir(Certificat certificat) throws IOException {
+        Path chemin = cheminPdf(certificat.getId());
+        if (Files.isRegularFile(chemin)) {
+            return decrire(certificat.getId(), chemin);
+        }
+
+        // Single-flight : le premier appelant rend, les autres attendent son résultat
+        CompletableFuture<FichierStocke> nouveau = new CompletableFuture<>();
+        CompletableFuture<FichierStocke> existant = rendusEnCours.putIfAbsent(certificat.getId(), nouveau);
+        if (existant != null) {
+            return attendre(existant);
+        }
+
+        try {
+            FichierStocke fichier = Files.isRegularFile(chemin)
+                    ? decrire(certificat.getId(), chemin)
+                    : rendre(certificat, chemin);
+            nouveau.complete(fichier);
+            return fichier;
+        } catch (IOException | RuntimeException e) {
+            nouveau.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendusEnCours.remove(certificat.getId(), nouveau);
+        }
+    }
+
+    private FichierStocke rendre(Certificat certificat, Path chemin) throws IOException {
+        long debut = System.nanoTime();
+        byte[] pdf = pdfGenerator.generer(certificat);
+        FichierStocke fichier = fileStorage.enregistrer(
+                new ByteArrayInputStream(pdf), chemin.getParent(), chemin.getFileName().toString());
+
+        empreintes.put(certificat.getId(), new Empreinte(fichier.getTaille(),
+                Files.getLastModifiedTime(chemin).toMillis(), fichier.getSha256()));
+        log.info("PDF certificat {} rendu et stocké en {} ms",
+                certificat.getNumeroCertificat(), (System.nanoTime() - debut) / 1_000_000);
+        return fichier;
+    }
+
+    private FichierStocke decrire(Long certificatId, Path chemin) throws IOException {
+        long taille    = Files.size(chemin);
+        long dateModif = Files.getLastModifiedTime(chemin).toMillis();
+
+        Empreinte e = empreintes.get(certificatId);
+        if (e == null || e.taille() != taille || e.dateModif() != dateModif) {
+            e = new Empreinte(taille, dateModif, sha256(chemin));
+            empreintes.put(certificatId, e);
+        }
+        return FichierStocke.builder()
+                .chemin(chemin)
+                .nomFichier(chemin.getFileName().toString())
+                .taille(taille)
+                .sha256(e.sha256())
+                .build();
+    }
+
+    private FichierStocke attendre(CompletableFuture<FichierStocke> rendu) throws IOException {
+        try {
+            return rendu.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw e;
+        }
+    }
+
+    private Path cheminPdf(Long certificatId) {
+        return Paths.get(storagePath).resolve("cert_" + certificatId + ".pdf");
+    }
+
+    private static String sha256(Path fichier) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(fichier), digest)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) != -1) { /* lecture pour le digest */ }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -6,11 +6,16 @@ import com.digitalisyours.infrastructure.persistence.entity.CertificatEntity;
 import com.digitalisyours.infrastructure.persistence.repository.CertificatJpaRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Component
 @RequiredArgsConstructor
@@ -35,6 +40,55 @@ public class AdminCertificatRepositoryAdapter implements AdminCertificatReposito
                 .map(this::toDomain);
     }
 
+    @Override
+    @Transactional(readOnly = true)   // le Stream JPA exige une connexion ouverte jusqu'à la fin
+    public void parcourirPourExport(
+            String formation,
+            String apprenant,
+            LocalDate dateDebut,
+            LocalDate dateFin,
+            String search,
+            Consumer<Certificat> consommateur) {
+
+        LocalDateTime debut = dateDebut != null ? dateDebut.atStartOfDay()              : null;
+        LocalDateTime fin   = dateFin   != null ? dateFin.atTime(23, 59, 59)            : null;
+
+        try (Stream<Object[]> lignes = certificatJpaRepository
+                .streamExportWithFilters(formation, apprenant, search, debut, fin)) {
+            lignes.forEach(r -> consommateur.accept(Certificat.builder()
+                    .apprenantPrenom((String) r[0])
+                    .apprenantNom((String) r[1])
+                    .formationTitre((String) r[2])
+                    .noteFinal((Float) r[3])
+                    .dateCreation((LocalDateTime) r[4])
+                    .numeroCertificat((String) r[5])
+                    .estEnvoye((Boolean) r[6])
+                    .build()));
+        }
+    }
+
+    @Override
+    public List<Certificat> findLotApres(
+            String formation,
+            String apprenant,
+            LocalDate dateDebut,
+            LocalDate dateFin,
+            String search,
+            LocalDateTime apresDate,
+            Long apresId,
+            int taille) {
+
+        LocalDateTime debut = dateDebut != null ? dateDebut.atStartOfDay()              : null;
+        LocalDateTime fin   = dateFin   != null ? dateFin.atTime(23, 59, 59)            : null;
+
+        return certificatJpaRepository
+                .findLotApres(formation, apprenant, search, debut, fin, apresDate, apresId,
+                        PageRequest.of(0, taille))
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
     @Override
     public long countThisMonth() {
         LocalDateTime debut = LocalDate.now().withDayOfMonth(1).atStartOfDay();
@@ -35,6 +35,13 @@ public class FormationRepositoryAdapter implements FormationRepositoryPort {
                 .stream().map(this::toDomain).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Formation> findPubliees() {
+        return formationJpaRepository.findPublieesWithCategorie()
+                .stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<Formation> findById(Long id) {
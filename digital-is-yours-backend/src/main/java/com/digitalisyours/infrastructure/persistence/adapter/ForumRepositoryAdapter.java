@@ -31,8 +31,8 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
     private final ForumVueJpaRepository      vueRepo;
     private final UserJpaRepository          userRepo;
     private final FormationJpaRepository     formationRepo;
-    private final ReponseDocumentJpaRepository  docRepo;
-    private final ReponseReactionJpaRepository  reactionRepo;
+    private final ReponsesForumJpaRepository    reponseRepo;
+    private final ForumThreadLoader             threadLoader;
 
     @PersistenceContext
     private EntityManager em;
@@ -49,9 +49,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
         Page<QuestionForumEntity> page = questionRepo.findWithFilters(
                 search, formationId, statut, pageable);
 
-        List<QuestionForum> list = page.getContent().stream()
-                .map(e -> toDomain(e, userId))
-                .collect(Collectors.toList());
+        List<QuestionForum> list = toDomainPage(page.getContent(), userId);
 
         return new PageImpl<>(list, pageable, page.getTotalElements());
     }
@@ -62,7 +60,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
     @Transactional(readOnly = true)
     public Optional<QuestionForum> findById(Long id, Long userId) {
         return questionRepo.findById(id).map(e -> {
-            em.createQuery(
+            List<ReponsesForumEntity> reponses = em.createQuery(
                             "SELECT DISTINCT r FROM ReponsesForumEntity r " +
                                     "LEFT JOIN FETCH r.auteur " +
                                     "WHERE r.question.id = :id " +
@@ -70,7 +68,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
                             ReponsesForumEntity.class)
                     .setParameter("id", id)
                     .getResultList();
-            return toDomainWithReponses(e, userId);
+            return toDomainWithReponses(e, reponses, userId);
         });
     }
 
@@ -106,7 +104,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
         }
 
         QuestionForumEntity saved = questionRepo.save(entity);
-        return toDomain(saved, q.getAuteurId());
+        return toDomainPage(List.of(saved), q.getAuteurId()).get(0);
     }
 
     @Override
@@ -210,8 +208,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
     @Override
     @Transactional(readOnly = true)
     public List<QuestionForum> findTopByNombreLikes(int limit) {
-        return questionRepo.findTopByLikes(PageRequest.of(0, limit))
-                .stream().map(e -> toDomain(e, null)).collect(Collectors.toList());
+        return toDomainPage(questionRepo.findTopByLikes(PageRequest.of(0, limit)), null);
     }
 
     @Override
@@ -233,9 +230,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
         Page<QuestionForumEntity> page = questionRepo.findByFormateur(
                 formateurId, search, formationId, statut, pageable);
 
-        List<QuestionForum> list = page.getContent().stream()
-                .map(e -> toDomain(e, null))
-                .collect(Collectors.toList());
+        List<QuestionForum> list = toDomainPage(page.getContent(), null);
 
         return new PageImpl<>(list, pageable, page.getTotalElements());
     }
@@ -245,13 +240,63 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
         return questionRepo.countNonReponduesByFormateur(formateurId);
     }
 
+    // ── RECHERCHE ─────────────────────────────────────────────────────────
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> filtrerIds(List<Long> ids, Long formationId, String statut, Long formateurId) {
+        if (ids.isEmpty()) return List.of();
+        return questionRepo.filtrerIds(ids, formationId, statut, formateurId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuestionForum> findByIds(List<Long> ids, Long userId) {
+        if (ids.isEmpty()) return List.of();
+        // IN ne garantit aucun ordre : on rétablit celui demandé (pertinence)
+        Map<Long, QuestionForumEntity> parId = questionRepo.findByIdsWithDetails(ids).stream()
+                .collect(Collectors.toMap(QuestionForumEntity::getId, e -> e));
+        List<QuestionForumEntity> ordonnees = ids.stream()
+                .map(parId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return toDomainPage(ordonnees, userId);
+    }
+
     // ── MAPPING ───────────────────────────────────────────────────────────
 
-    private QuestionForum toDomain(QuestionForumEntity e, Long userId) {
+    /**
+     * Assemble une page de questions en un nombre fixe de requêtes :
+     * likes, "liké par moi" et nombre de réponses sont chargés groupés
+     * pour toute la page (le nombre de vues est déjà une colonne de la question).
+     */
+    private List<QuestionForum> toDomainPage(List<QuestionForumEntity> entities, Long userId) {
+        if (entities.isEmpty()) return new ArrayList<>();
+
+        List<Long> ids = entities.stream().map(QuestionForumEntity::getId).collect(Collectors.toList());
+
+        Map<Long, Long> likes    = toCountMap(likeRepo.countByQuestionIds(ids));
+        Map<Long, Long> reponses = toCountMap(reponseRepo.countByQuestionIds(ids));
+        Set<Long> likees = userId == null
+                ? Set.of()
+                : new HashSet<>(likeRepo.findQuestionIdsLikedByUser(userId, ids));
+
+        return entities.stream()
+                .map(e -> toDomain(e,
+                        likes.getOrDefault(e.getId(), 0L),
+                        likees.contains(e.getId()),
+                        reponses.getOrDefault(e.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put((Long) row[0], (Long) row[1]));
+        return counts;
+    }
+
+    private QuestionForum toDomain(QuestionForumEntity e, long likes, boolean aLike, long nbReponses) {
         UserEntity auteur = e.getAuteur();
-        long    likes = likeRepo.countByQuestionId(e.getId());
-        boolean aLike = userId != null &&
-                likeRepo.existsByUserIdAndQuestionId(userId, e.getId());
 
         return QuestionForum.builder()
                 .id(e.getId())
@@ -264,7 +309,7 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
                 .formationId(e.getFormation() != null ? e.getFormation().getId() : null)
                 .formationTitre(e.getFormation() != null ? e.getFormation().getTitre() : null)
                 .statut(e.getStatut())
-                .nombreReponses(e.getReponses() != null ? e.getReponses().size() : 0)
+                .nombreReponses((int) nbReponses)
                 .nombreVues(e.getNombreVues())
                 .nombreLikes((int) likes)
                 .likeParMoi(aLike)
@@ -273,69 +318,11 @@ public class ForumRepositoryAdapter implements ForumRepositoryPort {
                 .build();
     }
 
-    private QuestionForum toDomainWithReponses(QuestionForumEntity e, Long userId) {
-        QuestionForum q = toDomain(e, userId);
-
-        List<ReponsesForum> reponses = e.getReponses() == null
-                ? new ArrayList<>()
-                : e.getReponses().stream().map(r -> {
-            UserEntity ra = r.getAuteur();
-
-            // ── Likes sur la réponse ──────────────────────────────
-            long    nbLikes  = likeRepo.countByReponseId(r.getId());
-            boolean aLikeRep = userId != null &&
-                    likeRepo.existsByUserIdAndReponseId(userId, r.getId());
-
-            // ── Documents joints ──────────────────────────────────
-            List<Map<String, Object>> docs = docRepo.findByReponseId(r.getId())
-                    .stream()
-                    .map(d -> {
-                        Map<String, Object> m = new LinkedHashMap<>();
-                        m.put("id",          d.getId());
-                        m.put("nomFichier",  d.getNomFichier());
-                        m.put("url",         d.getUrl());
-                        m.put("typeFichier", d.getTypeFichier());
-                        m.put("taille",      d.getTaille());
-                        return m;
-                    })
-                    .collect(Collectors.toList());
-
-            // ── Réactions emoji ───────────────────────────────────
-            Map<String, Long> reactionCounts = new LinkedHashMap<>();
-            reactionCounts.put("👍", 0L);
-            reactionCounts.put("❤️", 0L);
-            reactionCounts.put("🙏", 0L);
-            reactionRepo.countByReponseIdGroupByEmoji(r.getId())
-                    .forEach(row -> reactionCounts.put((String) row[0], (Long) row[1]));
-
-            List<String> mesReactions = userId == null
-                    ? new ArrayList<>()
-                    : reactionRepo.findByReponseId(r.getId()).stream()
-                    .filter(rx -> rx.getUser().getId().equals(userId))
-                    .map(ReponseReactionEntity::getEmoji)
-                    .collect(Collectors.toList());
-
-            return ReponsesForum.builder()
-                    .id(r.getId())
-                    .contenu(r.getContenu())
-                    .auteurId(ra != null ? ra.getId() : null)
-                    .auteurPrenom(ra != null ? ra.getPrenom() : "")
-                    .auteurNom(ra != null ? ra.getNom() : "")
-                    .auteurPhoto(ra != null ? ra.getPhoto() : null)
-                    .auteurRole(ra != null && ra.getRole() != null
-                            ? ra.getRole().name() : "APPRENANT")
-                    .estSolution(r.isEstSolution())
-                    .nombreLikes((int) nbLikes)
-                    .likeParMoi(aLikeRep)
-                    .dateCreation(r.getDateCreation())
-                    .questionId(e.getId())
-                    .documents(docs)
-                    .reactionCounts(reactionCounts)
-                    .mesReactions(mesReactions)
-                    .build();
-        }).collect(Collectors.toList());
-
-        q.setReponses(reponses);
+    private QuestionForum toDomainWithReponses(QuestionForumEntity e,
+                                               List<ReponsesForumEntity> entities,
+                                               Long userId) {
+        QuestionForum q = toDomainPage(List.of(e), userId).get(0);
+        q.setReponses(threadLoader.toDomain(entities, e.getId(), userId));
         return q;
     }
 
@@ -0,0 +1,97 @@
+package com.digitalisyours.infrastructure.persistence.adapter;
+
+import com.digitalisyours.domain.model.ReponsesForum;
+import com.digitalisyours.infrastructure.persistence.entity.ReponsesForumEntity;
+import com.digitalisyours.infrastructure.persistence.entity.UserEntity;
+import com.digitalisyours.infrastructure.persistence.repository.ForumLikeJpaRepository;
+import com.digitalisyours.infrastructure.persistence.repository.ReponseDocumentJpaRepository;
+import com.digitalisyours.infrastructure.persistence.repository.ReponseReactionJpaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Assemble un fil de réponses du forum en un nombre fixe de requêtes
+ * (5 au plus), quel que soit le nombre de réponses : likes, documents
+ * et réactions emoji sont chargés groupés par id de réponse.
+ *
+ * Les entités reçues doivent avoir leur auteur déjà chargé (JOIN FETCH).
+ */
+@Component
+@RequiredArgsConstructor
+public class ForumThreadLoader {
+
+    private final ForumLikeJpaRepository       likeRepo;
+    private final ReponseDocumentJpaRepository docRepo;
+    private final ReponseReactionJpaRepository reactionRepo;
+
+    public List<ReponsesForum> toDomain(List<ReponsesForumEntity> entities, Long questionId, Long userId) {
+        if (entities.isEmpty()) return new ArrayList<>();
+
+        List<Long> ids = entities.stream().map(ReponsesForumEntity::getId).collect(Collectors.toList());
+
+        // ── Likes sur les réponses ────────────────────────────────
+        Map<Long, Long> likes = new HashMap<>();
+        likeRepo.countByReponseIds(ids).forEach(row -> likes.put((Long) row[0], (Long) row[1]));
+        Set<Long> likees = userId == null
+                ? Set.of()
+                : new HashSet<>(likeRepo.findReponseIdsLikedByUser(userId, ids));
+
+        // ── Documents joints ──────────────────────────────────────
+        Map<Long, List<Map<String, Object>>> docs = new HashMap<>();
+        docRepo.findByReponseIdIn(ids).forEach(d -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id",          d.getId());
+            m.put("nomFichier",  d.getNomFichier());
+            m.put("url",         d.getUrl());
+            m.put("typeFichier", d.getTypeFichier());
+            m.put("taille",      d.getTaille());
+            docs.computeIfAbsent(d.getReponse().getId(), k -> new ArrayList<>()).add(m);
+        });
+
+        // ── Réactions emoji ───────────────────────────────────────
+        Map<Long, Map<String, Long>> reactions = new HashMap<>();
+        reactionRepo.countByReponseIdsGroupByEmoji(ids).forEach(row ->
+                reactions.computeIfAbsent((Long) row[0], k -> new HashMap<>())
+                        .put((String) row[1], (Long) row[2]));
+
+        Map<Long, List<String>> mesReactions = new HashMap<>();
+        if (userId != null) {
+            reactionRepo.findEmojisByUserAndReponseIds(userId, ids).forEach(row ->
+                    mesReactions.computeIfAbsent((Long) row[0], k -> new ArrayList<>())
+                            .add((String) row[1]));
+        }
+
+        return entities.stream().map(r -> {
+            UserEntity ra = r.getAuteur();
+
+            Map<String, Long> reactionCounts = new LinkedHashMap<>();
+            reactionCounts.put("👍", 0L);
+            reactionCounts.put("❤️", 0L);
+            reactionCounts.put("🙏", 0L);
+            reactionCounts.putAll(reactions.getOrDefault(r.getId(), Map.of()));
+
+            return ReponsesForum.builder()
+                    .id(r.getId())
+                    .contenu(r.getContenu())
+                    .auteurId(ra != null ? ra.getId() : null)
+                    .auteurPrenom(ra != null ? ra.getPrenom() : "")
+                    .auteurNom(ra != null ? ra.getNom() : "")
+                    .auteurPhoto(ra != null ? ra.getPhoto() : null)
+                    .auteurRole(ra != null && ra.getRole() != null
+                            ? ra.getRole().name() : "APPRENANT")
+                    .estSolution(r.isEstSolution())
+                    .nombreLikes(likes.getOrDefault(r.getId(), 0L).intValue())
+                    .likeParMoi(likees.contains(r.getId()))
+                    .dateCreation(r.getDateCreation())
+                    .questionId(questionId != null ? questionId
+                            : r.getQuestion() != null ? r.getQuestion().getId() : null)
+                    .documents(docs.getOrDefault(r.getId(), new ArrayList<>()))
+                    .reactionCounts(reactionCounts)
+                    .mesReactions(mesReactions.getOrDefault(r.getId(), new ArrayList<>()))
+                    .build();
+        }).collect(Collectors.toList());
+    }
+}
@@ -1,46 +1,26 @@
 package com.digitalisyours.infrastructure.persistence.adapter;
 
 import com.digitalisyours.domain.model.AnalyseRisque;
+import com.digitalisyours.domain.model.RequeteIA;
 import com.digitalisyours.domain.port.out.DeepSeekRisqueAnalysePort;
+import com.digitalisyours.domain.port.out.ModeleLangagePort;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
-import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class MistralRisqueAdapter implements DeepSeekRisqueAnalysePort {
 
-    @Value("${mistral.api.key:}")
-    private String mistralApiKey;
-
-    private static final String MISTRAL_URL   = "https://api.mistral.ai/v1/chat/completions";
     private static final String MISTRAL_MODEL = "mistral-small-latest";
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient   httpClient   = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(30))
-            .build();
-
-    @PostConstruct
-    public void init() {
-        if (mistralApiKey == null || mistralApiKey.isBlank()) {
-            log.warn("═══ MistralRisqueAdapter : CLÉ ABSENTE → fallback local ═══");
-        } else {
-            log.info("═══ MistralRisqueAdapter ACTIF — clé: {}... ═══",
-                    mistralApiKey.substring(0, Math.min(8, mistralApiKey.length())));
-        }
-    }
+    private final ModeleLangagePort llm;
+    private final ObjectMapper      objectMapper = new ObjectMapper();
 
     // ═══════════════════════════════════════════════════════
     // POINT D'ENTRÉE PRINCIPAL
@@ -66,54 +46,33 @@ public class MistralRisqueAdapter implements DeepSeekRisqueAnalysePort {
         log.info("│ Score local : {} → {}", (int) scoreLocal, niveauLocal);
         log.info("└───────────────────────────────────────────────────");
 
-        if (mistralApiKey == null || mistralApiKey.isBlank()) {
-            log.warn("Clé Mistral absente → fallback local");
+        if (!llm.estConfigure(ModeleLangagePort.MISTRAL)) {
+            log.debug("Clé Mistral absente → fallback local");
             return analyseLocaleComplete(ctx, scoreLocal, niveauLocal);
         }
 
         try {
             String prompt = buildPrompt(ctx, niveauLocal, scoreLocal);
-            String body   = objectMapper.writeValueAsString(Map.of(
-                    "model",       MISTRAL_MODEL,
-                    "messages",    List.of(
-                            Map.of("role", "system", "content", buildSystemPrompt()),
-                            Map.of("role", "user",   "content", prompt)
-                    ),
-                    "temperature", 0.4,
-                    "max_tokens",  300
-            ));
 
             log.info("→ Appel Mistral API...");
 
-            HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(MISTRAL_URL))
-                    .header("Content-Type",  "application/json")
-                    .header("Authorization", "Bearer " + mistralApiKey)
-                    .POST(HttpRequest.BodyPublishers.ofString(body))
-                    .timeout(Duration.ofSeconds(45))
-                    .build();
-
-            HttpResponse<String> resp = httpClient.send(req,
-                    HttpResponse.BodyHandlers.ofString());
-
-            log.info("← Mistral HTTP : {}", resp.statusCode());
-
-            if (resp.statusCode() == 429) {
-                log.warn("Quota Mistral dépassé → fallback local");
-                return analyseLocaleComplete(ctx, scoreLocal, niveauLocal);
-            }
-            if (resp.statusCode() == 401) {
-                log.error("Clé Mistral invalide (401) → fallback local");
-                return analyseLocaleComplete(ctx, scoreLocal, niveauLocal);
-            }
-            if (resp.statusCode() != 200) {
-                log.error("Mistral HTTP {} → fallback : {}",
-                        resp.statusCode(), resp.body());
+            Optional<String> reponse = llm.completer(RequeteIA.builder()
+                    .fournisseur(ModeleLangagePort.MISTRAL)
+                    .modele(MISTRAL_MODEL)
+                    .systeme(buildSystemPrompt())
+                    .prompt(prompt)
+                    .temperature(0.4)
+                    .maxTokens(300)
+                    .build());
+
+            // Quota, clé refusée, disjoncteur ouvert… (détail journalisé par la passerelle)
+            if (reponse.isEmpty()) {
+                log.warn("Mistral indisponible → fallback local");
                 return analyseLocaleComplete(ctx, scoreLocal, niveauLocal);
             }
 
             log.info("✓ Mistral succès");
-            return parseMistralResponse(resp.body(), ctx, scoreLocal, niveauLocal);
+            return parseMistralResponse(reponse.get(), ctx, scoreLocal, niveauLocal);
 
         } catch (Exception e) {
             log.error("Erreur Mistral : {} → fallback local", e.getMessage());
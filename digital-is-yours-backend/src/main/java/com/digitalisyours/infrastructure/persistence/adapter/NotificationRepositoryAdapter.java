@@ -4,11 +4,17 @@ package com.digitalisyours.infrastructure.persistence.adapter;
 import com.digitalisyours.domain.model.Notification;
 import com.digitalisyours.domain.port.out.NotificationRepositoryPort;
 import com.digitalisyours.infrastructure.persistence.entity.NotificationEntity;
+import com.digitalisyours.infrastructure.persistence.event.NotificationsCreeesEvent;
 import com.digitalisyours.infrastructure.persistence.repository.NotificationJpaRepository;
 import com.digitalisyours.infrastructure.persistence.repository.UserJpaRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -18,22 +24,14 @@ import java.util.stream.Collectors;
 public class NotificationRepositoryAdapter implements NotificationRepositoryPort {
     private final NotificationJpaRepository notificationJpaRepository;
     private final UserJpaRepository userJpaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher events;
 
-    @Override
-    public List<Notification> findByEmailOrderByDateDesc(String email) {
-        return userJpaRepository.findByEmail(email)
-                .map(user -> notificationJpaRepository
-                        .findByUserOrderByDateCreationDesc(user)
-                        .stream().map(this::toDomain).collect(Collectors.toList()))
-                .orElse(List.of());
-    }
-
-    @Override
-    public long countNonLuesByEmail(String email) {
-        return userJpaRepository.findByEmail(email)
-                .map(notificationJpaRepository::countByUserAndLuFalse)
-                .orElse(0L);
-    }
+    // id en IDENTITY : Hibernate ne regroupe pas ces INSERT, d'où le batch JDBC
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (user_id, type, titre, message, formation_id, formation_titre, lu, date_creation) " +
+            "VALUES (?, ?, ?, ?, ?, ?, false, ?)";
+    private static final int TAILLE_BATCH = 500;
 
     @Override
     public Optional<Notification> findById(Long id) {
@@ -54,6 +52,75 @@ public class NotificationRepositoryAdapter implements NotificationRepositoryPort
                 .ifPresent(notificationJpaRepository::marquerToutesLues);
     }
 
+    @Override
+    public void creerEnLot(List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, notifications, TAILLE_BATCH, (ps, n) -> {
+            ps.setLong(1, n.getUserId());
+            ps.setString(2, n.getType());
+            ps.setString(3, n.getTitre());
+            ps.setString(4, n.getMessage());
+            ps.setObject(5, n.getFormationId());
+            ps.setString(6, n.getFormationTitre());
+            ps.setTimestamp(7, n.getDateCreation() != null
+                    ? Timestamp.valueOf(n.getDateCreation()) : maintenant);
+        });
+        // Insertions JDBC : pas de @PostPersist, on prévient le flux SSE ici
+        events.publishEvent(new NotificationsCreeesEvent(notifications.stream()
+                .map(Notification::getUserId).collect(Collectors.toSet())));
+    }
+
+    @Override
+    public List<Notification> findByEmail(String email, List<String> typesExclus) {
+        return notificationJpaRepository.findToutes(email, exclus(typesExclus))
+                .stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Notification> findPage(String email, List<String> typesExclus,
+                                       LocalDateTime avantDate, Long avantId, int limite) {
+        PageRequest page = PageRequest.of(0, limite);
+        List<NotificationEntity> entities = avantDate == null
+                ? notificationJpaRepository.findPremierePage(email, exclus(typesExclus), page)
+                : notificationJpaRepository.findPageSuivante(email, exclus(typesExclus), avantDate, avantId, page);
+        return entities.stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
+    @Override
+    public long countNonLuesByEmail(String email, List<String> typesExclus) {
+        return notificationJpaRepository.countNonLues(email, exclus(typesExclus));
+    }
+
+    @Override
+    public boolean appartientA(Long notifId, String email) {
+        return notificationJpaRepository.existsByIdAndUser_Email(notifId, email);
+    }
+
+    // NOT IN () est invalide en SQL : valeur neutre quand rien n'est exclu
+    private List<String> exclus(List<String> typesExclus) {
+        return typesExclus.isEmpty() ? List.of("") : typesExclus;
+    }
+
+    @Override
+    public List<Notification> findApres(Long userId, Long apresId, int limite) {
+        return notificationJpaRepository
+                .findByUser_IdAndIdGreaterThanOrderByIdAsc(userId, apresId, PageRequest.of(0, limite))
+                .stream().map(this::toDomain).collect(Collectors.toList());
+    }
+
+    @Override
+    public long findDerniereId(Long userId) {
+        return notificationJpaRepository.findDerniereId(userId);
+    }
+
+    @Override
+    public long countNonLues(Long userId, List<String> typesExclus) {
+        return typesExclus.isEmpty()
+                ? notificationJpaRepository.countByUser_IdAndLuFalse(userId)
+                : notificationJpaRepository.countByUser_IdAndLuFalseAndTypeNotIn(userId, typesExclus);
+    }
+
     private Notification toDomain(NotificationEntity e) {
         return Notification.builder()
                 .id(e.getId())
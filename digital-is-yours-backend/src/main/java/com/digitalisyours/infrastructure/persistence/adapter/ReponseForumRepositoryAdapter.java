@@ -25,6 +25,7 @@ public class ReponseForumRepositoryAdapter implements ReponseForumRepositoryPort
     // ── NOUVEAU : repositories injectés ───────────────────────────
     private final ReponseDocumentJpaRepository   docRepo;
     private final ReponseReactionJpaRepository   reactionRepo;
+    private final ForumThreadLoader              threadLoader;
 
     /**
      * Map en mémoire pour le "is typing".
@@ -74,10 +75,14 @@ public class ReponseForumRepositoryAdapter implements ReponseForumRepositoryPort
 
     @Override
     public List<ReponsesForum> findByQuestionId(Long questionId) {
-        return reponseRepo.findByQuestionIdOrderByDate(questionId)
-                .stream()
-                .map(r -> toDomain(r, null))
-                .collect(Collectors.toList());
+        return threadLoader.toDomain(
+                reponseRepo.findByQuestionIdOrderByDate(questionId), questionId, null);
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long id) {
+        reponseRepo.deleteById(id);
     }
 
     @Override
@@ -255,49 +260,6 @@ public class ReponseForumRepositoryAdapter implements ReponseForumRepositoryPort
      * @param userId userId de l'utilisateur connecté (peut être null)
      */
     private ReponsesForum toDomain(ReponsesForumEntity r, Long userId) {
-        UserEntity a    = r.getAuteur();
-        String     role = (a != null && a.getRole() != null)
-                ? a.getRole().name() : "APPRENANT";
-
-        // Likes
-        long    nbLikes  = likeRepo.countByReponseId(r.getId());
-        boolean aLikeRep = userId != null &&
-                likeRepo.existsByUserIdAndReponseId(userId, r.getId());
-
-        // Documents joints
-        List<Map<String, Object>> docs = docRepo.findByReponseId(r.getId())
-                .stream()
-                .map(d -> {
-                    Map<String, Object> m = new LinkedHashMap<>();
-                    m.put("id",          d.getId());
-                    m.put("nomFichier",  d.getNomFichier());
-                    m.put("url",         d.getUrl());
-                    m.put("typeFichier", d.getTypeFichier());
-                    m.put("taille",      d.getTaille());
-                    return m;
-                })
-                .collect(Collectors.toList());
-
-        // Réactions
-        Map<String, Long> reactionCounts = getReactionCounts(r.getId());
-        List<String>      mesReactions   = getMesReactions(r.getId(), userId);
-
-        return ReponsesForum.builder()
-                .id(r.getId())
-                .contenu(r.getContenu())
-                .auteurId(a != null ? a.getId() : null)
-                .auteurPrenom(a != null ? a.getPrenom() : "")
-                .auteurNom(a != null ? a.getNom()    : "")
-                .auteurPhoto(a != null ? a.getPhoto() : null)
-                .auteurRole(role)
-                .estSolution(r.isEstSolution())
-                .nombreLikes((int) nbLikes)
-                .likeParMoi(aLikeRep)
-                .dateCreation(r.getDateCreation())
-                .questionId(r.getQuestion() != null ? r.getQuestion().getId() : null)
-                .documents(docs)
-                .reactionCounts(reactionCounts)
-                .mesReactions(mesReactions)
-                .build();
+        return threadLoader.toDomain(List.of(r), null, userId).get(0);
     }
 }
\ No newline at end of file
@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "analyses_risque",
         indexes = {
                 @Index(name = "idx_ar_apprenant", columnList = "apprenant_id"),
-                @Index(name = "idx_ar_formation", columnList = "formation_id")
+                @Index(name = "idx_ar_formation", columnList = "formation_id"),
+                // Dernière analyse par inscription (MAX(date_analyse) corrélé)
+                @Index(name = "idx_ar_apprenant_formation_date",
+                        columnList = "apprenant_id, formation_id, date_analyse")
         })
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 public class AnalyseRisqueEntity {
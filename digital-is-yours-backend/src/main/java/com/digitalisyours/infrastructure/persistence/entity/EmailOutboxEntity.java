@@ -0,0 +1,88 @@
+package com.digitalisyours.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox",
+        indexes = {
+                @Index(name = "idx_outbox_statut_tentative", columnList = "statut, prochaine_tentative"),
+                @Index(name = "idx_outbox_jeton", columnList = "jeton_reservation"),
+                @Index(name = "idx_outbox_reference", columnList = "type_reference, reference_id")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinataire;
+
+    @Column(nullable = false, length = 500)
+    private String sujet;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT", nullable = false)
+    private String html;
+
+    @Column(name = "nom_expediteur", length = 100)
+    private String nomExpediteur;
+
+    @Column(name = "piece_jointe_nom")
+    private String pieceJointeNom;
+
+    @Column(name = "piece_jointe_type", length = 100)
+    private String pieceJointeType;
+
+    @Lob
+    @Column(name = "piece_jointe", columnDefinition = "LONGBLOB")
+    private byte[] pieceJointe;
+
+    @Column(name = "type_reference", length = 50)
+    private String typeReference;
+
+    @Column(name = "reference_id")
+    private Long referenceId;
+
+    // EN_ATTENTE / EN_COURS / ENVOYE / ECHEC
+    @Column(nullable = false, length = 20)
+    private String statut;
+
+    @Column(nullable = false)
+    private int tentatives;
+
+    @Column(name = "derniere_erreur", length = 1000)
+    private String derniereErreur;
+
+    @Column(name = "prochaine_tentative", nullable = false)
+    private LocalDateTime prochaineTentative;
+
+    @Column(name = "date_reservation")
+    private LocalDateTime dateReservation;
+
+    // Jeton du tour de dispatcher qui a réservé la ligne (un par instance et par tour)
+    @Column(name = "jeton_reservation", length = 36)
+    private String jetonReservation;
+
+    @Column(name = "date_creation", nullable = false)
+    private LocalDateTime dateCreation;
+
+    @Column(name = "date_envoi")
+    private LocalDateTime dateEnvoi;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.dateCreation       == null) this.dateCreation       = LocalDateTime.now();
+        if (this.prochaineTentative == null) this.prochaineTentative = this.dateCreation;
+        if (this.statut             == null) this.statut             = "EN_ATTENTE";
+    }
+}
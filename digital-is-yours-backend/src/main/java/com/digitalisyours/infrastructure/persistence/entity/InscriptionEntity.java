@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @Table(name = "inscriptions",
         uniqueConstraints = @UniqueConstraint(
                 name = "uk_apprenant_formation",
-                columnNames = {"apprenant_id", "formation_id"}))
+                columnNames = {"apprenant_id", "formation_id"}),
+        indexes = @Index(name = "idx_inscription_formation_paiement",
+                columnList = "formation_id, statut_paiement"))
 @Data
 @Builder
 @NoArgsConstructor
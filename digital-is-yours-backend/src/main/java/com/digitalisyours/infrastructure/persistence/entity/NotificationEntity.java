@@ -1,5 +1,6 @@
 package com.digitalisyours.infrastructure.persistence.entity;
 
+import com.digitalisyours.infrastructure.persistence.event.NotificationEntityListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,7 +10,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        indexes = {
+                // Boîte de réception : WHERE user_id = ? ORDER BY date_creation DESC, id DESC (keyset)
+                @Index(name = "idx_notification_user_date", columnList = "user_id, date_creation, id"),
+                // Compteur des non lues
+                @Index(name = "idx_notification_user_lu", columnList = "user_id, lu")
+        })
+@EntityListeners(NotificationEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -61,10 +61,20 @@ public class ProgressionCoursEntity {
     @Column(name = "date_fin")
     private LocalDateTime dateFin;
 
+    // Horodatage de chaque changement (vidéo/document/quiz) — sert à l'analyse de risque incrémentale
+    @Column(name = "date_modification")
+    private LocalDateTime dateModification;
+
     @PrePersist
     public void prePersist() {
         if (this.dateDebut == null) this.dateDebut = LocalDateTime.now();
         if (this.statut    == null) this.statut    = "A_FAIRE";
+        this.dateModification = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.dateModification = LocalDateTime.now();
     }
 
     /** Recalcule le statut en fonction des 3 conditions */
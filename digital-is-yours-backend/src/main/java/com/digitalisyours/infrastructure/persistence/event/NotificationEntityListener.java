@@ -0,0 +1,24 @@
+package com.digitalisyours.infrastructure.persistence.event;
+
+import com.digitalisyours.infrastructure.persistence.entity.NotificationEntity;
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Signale chaque notification insérée via JPA, quel que soit le service qui la crée
+ * (forum, formations, rappels, risque d'abandon…).
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEntityListener {
+    private final ApplicationEventPublisher events;
+
+    @PostPersist
+    public void apresCreation(NotificationEntity notification) {
+        events.publishEvent(new NotificationsCreeesEvent(Set.of(notification.getUser().getId())));
+    }
+}
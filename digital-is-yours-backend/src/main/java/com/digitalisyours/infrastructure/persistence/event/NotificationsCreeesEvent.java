@@ -0,0 +1,9 @@
+package com.digitalisyours.infrastructure.persistence.event;
+
+import java.util.Set;
+
+/**
+ * Publié à chaque création de notification(s), avec les destinataires concernés.
+ * Consommé après commit par le flux SSE des notifications.
+ */
+public record NotificationsCreeesEvent(Set<Long> userIds) {}
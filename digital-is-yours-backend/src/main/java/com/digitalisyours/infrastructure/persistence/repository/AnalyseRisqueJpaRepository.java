@@ -2,11 +2,14 @@ package com.digitalisyours.infrastructure.persistence.repository;
 
 import com.digitalisyours.infrastructure.persistence.entity.AnalyseRisqueEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,4 +47,22 @@ public interface AnalyseRisqueJpaRepository
             @Param("apprenantId") Long apprenantId,
             @Param("formationId") Long formationId,
             @Param("depuis") LocalDateTime depuis);
+
+    /** Version groupée de l'anti-spam : [apprenantId, formationId] notifiés depuis la date */
+    @Query("SELECT DISTINCT a.apprenantId, a.formationId FROM AnalyseRisqueEntity a " +
+            "WHERE a.notificationEnvoyee = true " +
+            "AND a.dateAnalyse >= :depuis")
+    List<Object[]> findApprenantsNotifiesDepuis(@Param("depuis") LocalDateTime depuis);
+
+    /** Dernière analyse de chaque inscription : [apprenantId, formationId, dateAnalyse, joursInactivite, progression] */
+    @Query("SELECT a.apprenantId, a.formationId, a.dateAnalyse, a.joursInactivite, a.progression " +
+            "FROM AnalyseRisqueEntity a " +
+            "WHERE a.dateAnalyse = (SELECT MAX(b.dateAnalyse) FROM AnalyseRisqueEntity b " +
+            "WHERE b.apprenantId = a.apprenantId AND b.formationId = a.formationId)")
+    List<Object[]> findDernieresAnalyses();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AnalyseRisqueEntity a SET a.emailEnvoye = true WHERE a.id IN :ids")
+    void marquerEmailsEnvoyes(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.digitalisyours.infrastructure.persistence.repository;
 
 import com.digitalisyours.infrastructure.persistence.entity.ApprenantEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +18,14 @@ public interface ApprenantJpaRepository extends JpaRepository<ApprenantEntity, L
 
     boolean existsByEmail(String email);
 
+    // Précalcul des recommandations : comptes actifs ayant renseigné intérêts ou objectifs,
+    // les plus récemment connectés d'abord
+    @Query("SELECT a FROM ApprenantEntity a WHERE a.active = true " +
+            "AND ((a.domainesInteret IS NOT NULL AND a.domainesInteret <> '' AND a.domainesInteret <> '[]') " +
+            "OR (a.objectifsApprentissage IS NOT NULL AND a.objectifsApprentissage <> '')) " +
+            "ORDER BY a.derniereConnexion DESC NULLS LAST")
+    List<ApprenantEntity> findActifsAvecProfil(Pageable pageable);
+
     @Modifying
     @Transactional
     @Query(value = "INSERT IGNORE INTO apprenants (user_id) VALUES (:userId)", nativeQuery = true)
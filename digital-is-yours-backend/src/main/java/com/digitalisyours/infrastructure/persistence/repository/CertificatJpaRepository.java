@@ -5,12 +5,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 public interface CertificatJpaRepository extends JpaRepository<CertificatEntity, Long> {
 
@@ -56,6 +60,49 @@ public interface CertificatJpaRepository extends JpaRepository<CertificatEntity,
             @Param("fin")       LocalDateTime fin,
             Pageable pageable);
 
+    // ── Export CSV : mêmes filtres, colonnes scalaires (rien dans le contexte de persistance) ──
+    // fetchSize = Integer.MIN_VALUE : MySQL Connector/J envoie les lignes une par une (curseur)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly",  value = "true")
+    })
+    @Query("SELECT c.apprenantPrenom, c.apprenantNom, c.formationTitre, c.noteFinal, " +
+            "c.dateCreation, c.numeroCertificat, c.estEnvoye FROM CertificatEntity c WHERE " +
+            "(:formation IS NULL OR LOWER(c.formationTitre) LIKE LOWER(CONCAT('%',:formation,'%'))) AND " +
+            "(:apprenant IS NULL OR LOWER(CONCAT(c.apprenantPrenom,' ',c.apprenantNom)) LIKE LOWER(CONCAT('%',:apprenant,'%'))) AND " +
+            "(:search    IS NULL OR LOWER(c.numeroCertificat) LIKE LOWER(CONCAT('%',:search,'%'))) AND " +
+            "(:debut     IS NULL OR c.dateCreation >= :debut) AND " +
+            "(:fin       IS NULL OR c.dateCreation <= :fin) " +
+            "ORDER BY c.dateCreation DESC")
+    Stream<Object[]> streamExportWithFilters(
+            @Param("formation") String formation,
+            @Param("apprenant") String apprenant,
+            @Param("search")    String search,
+            @Param("debut")     LocalDateTime debut,
+            @Param("fin")       LocalDateTime fin);
+
+    // ── Parcours par lots (archive ZIP, envoi groupé) : keyset sur (dateCreation, id) ──
+    // Reprend strictement après le dernier certificat vu : un certificat créé pendant le
+    // parcours ne décale pas les lots suivants (ni doublon, ni oubli, contrairement à OFFSET)
+    @Query("SELECT c FROM CertificatEntity c WHERE " +
+            "(:formation IS NULL OR LOWER(c.formationTitre) LIKE LOWER(CONCAT('%',:formation,'%'))) AND " +
+            "(:apprenant IS NULL OR LOWER(CONCAT(c.apprenantPrenom,' ',c.apprenantNom)) LIKE LOWER(CONCAT('%',:apprenant,'%'))) AND " +
+            "(:search    IS NULL OR LOWER(c.numeroCertificat) LIKE LOWER(CONCAT('%',:search,'%'))) AND " +
+            "(:debut     IS NULL OR c.dateCreation >= :debut) AND " +
+            "(:fin       IS NULL OR c.dateCreation <= :fin) AND " +
+            "(:apresDate IS NULL OR c.dateCreation < :apresDate " +
+            "   OR (c.dateCreation = :apresDate AND c.id < :apresId)) " +
+            "ORDER BY c.dateCreation DESC, c.id DESC")
+    List<CertificatEntity> findLotApres(
+            @Param("formation") String formation,
+            @Param("apprenant") String apprenant,
+            @Param("search")    String search,
+            @Param("debut")     LocalDateTime debut,
+            @Param("fin")       LocalDateTime fin,
+            @Param("apresDate") LocalDateTime apresDate,
+            @Param("apresId")   Long apresId,
+            Pageable limite);
+
     @Query("SELECT COUNT(c) FROM CertificatEntity c WHERE c.dateCreation >= :debut")
     long countFromDate(@Param("debut") LocalDateTime debut);
 
@@ -18,6 +18,12 @@ public interface ConsulterCoursFormationJpaRepository extends JpaRepository<Cour
             "AND c.statut = 'PUBLIE' " +
             "ORDER BY c.ordre ASC")
     List<CoursEntity> findCoursPubiesByFormationId(@Param("formationId") Long formationId);
+
+    /** Nombre de cours publiés par formation : [formationId, total] */
+    @Query("SELECT c.formation.id, COUNT(c) FROM CoursEntity c " +
+            "WHERE c.statut = 'PUBLIE' " +
+            "GROUP BY c.formation.id")
+    List<Object[]> countCoursPubliesParFormation();
     @Query("SELECT q FROM QuizEntity q WHERE q.type = 'QuizFinal' AND q.formation.id = :formationId")
     Optional<QuizEntity> findQuizFinalByFormationId(@Param("formationId") Long formationId);
 }
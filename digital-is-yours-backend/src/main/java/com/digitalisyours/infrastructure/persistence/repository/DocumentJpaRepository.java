@@ -6,7 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +14,9 @@ public interface DocumentJpaRepository extends JpaRepository<DocumentEntity, Lon
     @Query("SELECT d FROM DocumentEntity d WHERE d.cours.id = :coursId ORDER BY d.dateAjout DESC")
     List<DocumentEntity> findByCoursId(@Param("coursId") Long coursId);
 
+    @Query("SELECT d FROM DocumentEntity d WHERE d.cours.id IN :coursIds ORDER BY d.dateAjout DESC")
+    List<DocumentEntity> findByCoursIdIn(@Param("coursIds") Collection<Long> coursIds);
+
     @Query("SELECT COUNT(d) FROM DocumentEntity d WHERE d.cours.id = :coursId")
     long countByCoursId(@Param("coursId") Long coursId);
 
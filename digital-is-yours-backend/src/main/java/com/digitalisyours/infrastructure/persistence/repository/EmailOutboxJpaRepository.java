@@ -0,0 +1,72 @@
+package com.digitalisyours.infrastructure.persistence.repository;
+
+import com.digitalisyours.infrastructure.persistence.entity.EmailOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxJpaRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    @Query("SELECT e.id FROM EmailOutboxEntity e " +
+            "WHERE e.statut = 'EN_ATTENTE' AND e.prochaineTentative <= :maintenant " +
+            "ORDER BY e.id")
+    List<Long> findIdsAEnvoyer(@Param("maintenant") LocalDateTime maintenant, Pageable page);
+
+    /**
+     * Réserve les emails pour ce tour du dispatcher (seuls ceux encore EN_ATTENTE).
+     * Le jeton identifie le tour : deux instances ne relisent jamais les mêmes lignes.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxEntity e SET e.statut = 'EN_COURS', e.dateReservation = :maintenant, " +
+            "e.jetonReservation = :jeton WHERE e.id IN :ids AND e.statut = 'EN_ATTENTE'")
+    int reserver(@Param("ids") Collection<Long> ids, @Param("maintenant") LocalDateTime maintenant,
+                 @Param("jeton") String jeton);
+
+    @Query("SELECT e FROM EmailOutboxEntity e WHERE e.jetonReservation = :jeton AND e.statut = 'EN_COURS'")
+    List<EmailOutboxEntity> findReserves(@Param("jeton") String jeton);
+
+    /** Échec d'envoi : seules les colonnes de suivi sont réécrites, jamais la pièce jointe */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxEntity e SET e.statut = :statut, e.tentatives = :tentatives, " +
+            "e.derniereErreur = :erreur, e.prochaineTentative = :prochaineTentative, " +
+            "e.jetonReservation = null WHERE e.id = :id")
+    void marquerEchec(@Param("id") Long id, @Param("statut") String statut,
+                      @Param("tentatives") int tentatives, @Param("erreur") String erreur,
+                      @Param("prochaineTentative") LocalDateTime prochaineTentative);
+
+    /** La pièce jointe n'est plus utile une fois l'email parti */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxEntity e SET e.statut = 'ENVOYE', e.dateEnvoi = :date, " +
+            "e.pieceJointe = null, e.derniereErreur = null, e.jetonReservation = null WHERE e.id IN :ids")
+    void marquerEnvoyes(@Param("ids") Collection<Long> ids, @Param("date") LocalDateTime date);
+
+    /** Emails réservés par un dispatcher arrêté en cours de route */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxEntity e SET e.statut = 'EN_ATTENTE', e.jetonReservation = null " +
+            "WHERE e.statut = 'EN_COURS' AND e.dateReservation < :limite")
+    int libererReservationsExpirees(@Param("limite") LocalDateTime limite);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutboxEntity e WHERE e.statut = 'ENVOYE' AND e.dateEnvoi < :limite")
+    int purgerEnvoyes(@Param("limite") LocalDateTime limite);
+
+    @Query("SELECT DISTINCT e.referenceId FROM EmailOutboxEntity e " +
+            "WHERE e.typeReference = :type AND e.referenceId IN :ids AND e.statut IN ('EN_ATTENTE', 'EN_COURS')")
+    List<Long> findReferencesEnFile(@Param("type") String typeReference, @Param("ids") Collection<Long> ids);
+
+    long countByStatut(String statut);
+}
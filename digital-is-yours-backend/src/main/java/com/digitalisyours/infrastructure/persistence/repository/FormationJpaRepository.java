@@ -16,9 +16,16 @@ public interface FormationJpaRepository extends JpaRepository<FormationEntity, L
     @Query("SELECT f FROM FormationEntity f LEFT JOIN FETCH f.categorie LEFT JOIN FETCH f.formateur ORDER BY f.dateCreation DESC")
     List<FormationEntity> findAllWithCategorie();
 
+    // Catalogue public : formations publiées uniquement, filtrées en base
+    @Query("SELECT f FROM FormationEntity f LEFT JOIN FETCH f.categorie LEFT JOIN FETCH f.formateur WHERE f.statut = 'PUBLIE' ORDER BY f.dateCreation DESC")
+    List<FormationEntity> findPublieesWithCategorie();
+
     @Query("SELECT f FROM FormationEntity f LEFT JOIN FETCH f.categorie WHERE f.categorie.id = :catId ORDER BY f.dateCreation DESC")
     List<FormationEntity> findByCategorieWithDetails(@Param("catId") Long catId);
 
+    @Query("SELECT f.id FROM FormationEntity f WHERE f.formateur.id = :formateurId")
+    List<Long> findIdsByFormateurId(@Param("formateurId") Long formateurId);
+
     @Query("SELECT COUNT(f) FROM FormationEntity f")
     long countAll();
 
@@ -32,7 +39,5 @@ public interface FormationJpaRepository extends JpaRepository<FormationEntity, L
     @Transactional
     @Query("UPDATE FormationEntity f SET f.categorie = null WHERE f.categorie.id = :categorieId")
     void detacherCategorie(@Param("categorieId") Long categorieId);
-    @Query("SELECT f FROM FormationEntity f LEFT JOIN FETCH f.categorie WHERE f.statut = 'PUBLIE' ORDER BY f.noteMoyenne DESC NULLS LAST, f.nombreInscrits DESC")
-    List<FormationEntity> findFormationsNonInscrites(@Param("emailApprenant") String emailApprenant);
 }
 
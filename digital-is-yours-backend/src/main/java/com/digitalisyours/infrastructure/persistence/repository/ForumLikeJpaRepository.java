@@ -8,6 +8,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -24,6 +26,16 @@ public interface ForumLikeJpaRepository extends JpaRepository<ForumLikeEntity, L
 
     long countByQuestionId(Long questionId);
 
+    // ── Chargement groupé pour une page de questions ─────────────────────
+    @Query("SELECT l.question.id, COUNT(l) FROM ForumLikeEntity l " +
+            "WHERE l.question.id IN :questionIds GROUP BY l.question.id")
+    List<Object[]> countByQuestionIds(@Param("questionIds") Collection<Long> questionIds);
+
+    @Query("SELECT l.question.id FROM ForumLikeEntity l " +
+            "WHERE l.user.id = :userId AND l.question.id IN :questionIds")
+    List<Long> findQuestionIdsLikedByUser(@Param("userId") Long userId,
+                                          @Param("questionIds") Collection<Long> questionIds);
+
     // ── NOUVEAU : Like sur RÉPONSE ────────────────────────────────────────
     boolean existsByUserIdAndReponseId(Long userId, Long reponseId);
 
@@ -35,4 +47,14 @@ public interface ForumLikeJpaRepository extends JpaRepository<ForumLikeEntity, L
 
     @Query("SELECT COUNT(l) FROM ForumLikeEntity l WHERE l.reponse.id = :reponseId")
     long countByReponseId(@Param("reponseId") Long reponseId);
+
+    // ── Chargement groupé pour un fil de réponses ────────────────────────
+    @Query("SELECT l.reponse.id, COUNT(l) FROM ForumLikeEntity l " +
+            "WHERE l.reponse.id IN :reponseIds GROUP BY l.reponse.id")
+    List<Object[]> countByReponseIds(@Param("reponseIds") Collection<Long> reponseIds);
+
+    @Query("SELECT l.reponse.id FROM ForumLikeEntity l " +
+            "WHERE l.user.id = :userId AND l.reponse.id IN :reponseIds")
+    List<Long> findReponseIdsLikedByUser(@Param("userId") Long userId,
+                                         @Param("reponseIds") Collection<Long> reponseIds);
 }
\ No newline at end of file
@@ -91,5 +91,24 @@ public interface InscriptionJpaRepository extends JpaRepository<InscriptionEntit
             "AND i.statutApprenant != 'CERTIFIE'")  // ← EXCLURE les certifiés
     List<InscriptionEntity> findAllPayeesAvecApprenantEtFormation();
 
+    // Destinataires d'une diffusion (séance en ligne) : [apprenantId, email, prenom]
+    @Query("SELECT a.id, a.email, a.prenom FROM InscriptionEntity i " +
+            "JOIN i.apprenant a " +
+            "WHERE i.formation.id = :formationId " +
+            "AND i.statutPaiement = 'PAYE' " +
+            "AND i.statutApprenant != 'CERTIFIE'")
+    List<Object[]> findDestinatairesPayesParFormation(@Param("formationId") Long formationId);
+
+    // Recommandations : formations déjà payées, à exclure des suggestions
+    @Query("SELECT i.formation.id FROM InscriptionEntity i " +
+            "WHERE i.apprenant.email = :email " +
+            "AND i.statutPaiement = 'PAYE'")
+    List<Long> findFormationIdsPayees(@Param("email") String email);
+
+    // Idem pour tous les apprenants en une requête : [apprenantId, formationId]
+    @Query("SELECT i.apprenant.id, i.formation.id FROM InscriptionEntity i " +
+            "WHERE i.statutPaiement = 'PAYE'")
+    List<Object[]> findPairesApprenantFormationPayees();
+
 
 }
\ No newline at end of file
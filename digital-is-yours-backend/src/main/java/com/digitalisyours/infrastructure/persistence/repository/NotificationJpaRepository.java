@@ -2,6 +2,7 @@ package com.digitalisyours.infrastructure.persistence.repository;
 
 import com.digitalisyours.infrastructure.persistence.entity.NotificationEntity;
 import com.digitalisyours.infrastructure.persistence.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -22,6 +24,47 @@ public interface NotificationJpaRepository extends JpaRepository<NotificationEnt
     // Comptage non lues
     long countByUserAndLuFalse(UserEntity user);
 
+    // ── Boîte de réception paginée (keyset sur date_creation, id) ──
+    // typesExclus ne doit pas être vide (NOT IN ()) : l'adapter passe une valeur neutre
+    @Query("SELECT n FROM NotificationEntity n WHERE n.user.email = :email " +
+           "AND n.type NOT IN :typesExclus " +
+           "ORDER BY n.dateCreation DESC, n.id DESC")
+    List<NotificationEntity> findPremierePage(@Param("email") String email,
+                                              @Param("typesExclus") List<String> typesExclus,
+                                              Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n WHERE n.user.email = :email " +
+           "AND n.type NOT IN :typesExclus " +
+           "AND (n.dateCreation < :date OR (n.dateCreation = :date AND n.id < :id)) " +
+           "ORDER BY n.dateCreation DESC, n.id DESC")
+    List<NotificationEntity> findPageSuivante(@Param("email") String email,
+                                              @Param("typesExclus") List<String> typesExclus,
+                                              @Param("date") LocalDateTime date,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n WHERE n.user.email = :email " +
+           "AND n.type NOT IN :typesExclus " +
+           "ORDER BY n.dateCreation DESC, n.id DESC")
+    List<NotificationEntity> findToutes(@Param("email") String email,
+                                        @Param("typesExclus") List<String> typesExclus);
+
+    @Query("SELECT COUNT(n) FROM NotificationEntity n WHERE n.user.email = :email " +
+           "AND n.lu = false AND n.type NOT IN :typesExclus")
+    long countNonLues(@Param("email") String email, @Param("typesExclus") List<String> typesExclus);
+
+    boolean existsByIdAndUser_Email(Long id, String email);
+
+    // Flux SSE : notifs plus récentes que la dernière reçue par le client
+    List<NotificationEntity> findByUser_IdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(n.id), 0) FROM NotificationEntity n WHERE n.user.id = :userId")
+    long findDerniereId(@Param("userId") Long userId);
+
+    long countByUser_IdAndLuFalse(Long userId);
+
+    long countByUser_IdAndLuFalseAndTypeNotIn(Long userId, List<String> types);
+
     // Marquer toutes les notifs d'un user comme lues
     @Modifying
     @Transactional
@@ -82,4 +82,19 @@ public interface ProgressionCoursJpaRepository extends JpaRepository<Progression
     LocalDateTime findDerniereActiviteParFormation(
             @Param("apprenantId") Long apprenantId,
             @Param("formationId") Long formationId);
+
+    /**
+     * Agrégats de toutes les progressions en une seule requête, pour l'analyse
+     * de risque en lot : [apprenantId, formationId, vidéos vues,
+     * documents ouverts, quiz passés, dernière activité, dernière modification].
+     */
+    @Query("SELECT p.apprenant.id, p.formation.id, " +
+            "SUM(CASE WHEN p.videoVue = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.documentOuvert = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.quizPasse = true THEN 1 ELSE 0 END), " +
+            "MAX(CASE WHEN p.dateFin IS NOT NULL THEN p.dateFin ELSE p.dateDebut END), " +
+            "MAX(p.dateModification) " +
+            "FROM ProgressionCoursEntity p " +
+            "GROUP BY p.apprenant.id, p.formation.id")
+    List<Object[]> agregerParApprenantEtFormation();
 }
\ No newline at end of file
@@ -49,6 +49,25 @@ public interface QuestionForumJpaRepository
             @Param("statut")      String statut,
             Pageable pageable);
 
+    // Recherche plein texte : filtres appliqués aux ids trouvés par l'index (accès par clé primaire)
+    @Query("SELECT q.id FROM QuestionForumEntity q " +
+            "LEFT JOIN q.formation f " +
+            "WHERE q.id IN :ids " +
+            "AND (:formationId IS NULL OR f.id = :formationId) " +
+            "AND (:statut IS NULL OR q.statut = :statut) " +
+            "AND (:formateurId IS NULL OR f.formateur.id = :formateurId)")
+    List<Long> filtrerIds(
+            @Param("ids")         List<Long> ids,
+            @Param("formationId") Long   formationId,
+            @Param("statut")      String statut,
+            @Param("formateurId") Long   formateurId);
+
+    @Query("SELECT q FROM QuestionForumEntity q " +
+            "LEFT JOIN FETCH q.auteur " +
+            "LEFT JOIN FETCH q.formation " +
+            "WHERE q.id IN :ids")
+    List<QuestionForumEntity> findByIdsWithDetails(@Param("ids") List<Long> ids);
+
     @Query("SELECT COUNT(q) FROM QuestionForumEntity q " +
             "LEFT JOIN q.formation f " +
             "WHERE f.formateur.id = :formateurId " +
@@ -2,12 +2,19 @@ package com.digitalisyours.infrastructure.persistence.repository;
 
 import com.digitalisyours.infrastructure.persistence.entity.ReponseDocumentEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReponseDocumentJpaRepository extends JpaRepository<ReponseDocumentEntity, Long> {
     List<ReponseDocumentEntity> findByReponseId(Long reponseId);
+
+    @Query("SELECT d FROM ReponseDocumentEntity d " +
+            "WHERE d.reponse.id IN :reponseIds ORDER BY d.id ASC")
+    List<ReponseDocumentEntity> findByReponseIdIn(@Param("reponseIds") Collection<Long> reponseIds);
     void deleteByReponseId(Long reponseId);
 }
\ No newline at end of file
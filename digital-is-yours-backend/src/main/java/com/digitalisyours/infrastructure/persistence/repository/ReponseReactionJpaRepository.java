@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,4 +30,14 @@ public interface ReponseReactionJpaRepository extends JpaRepository<ReponseReact
     @Query("SELECT r.emoji, COUNT(r) FROM ReponseReactionEntity r " +
             "WHERE r.reponse.id = :reponseId GROUP BY r.emoji")
     List<Object[]> countByReponseIdGroupByEmoji(@Param("reponseId") Long reponseId);
+
+    // ── Chargement groupé pour un fil de réponses ────────────────────────
+    @Query("SELECT r.reponse.id, r.emoji, COUNT(r) FROM ReponseReactionEntity r " +
+            "WHERE r.reponse.id IN :reponseIds GROUP BY r.reponse.id, r.emoji")
+    List<Object[]> countByReponseIdsGroupByEmoji(@Param("reponseIds") Collection<Long> reponseIds);
+
+    @Query("SELECT r.reponse.id, r.emoji FROM ReponseReactionEntity r " +
+            "WHERE r.user.id = :userId AND r.reponse.id IN :reponseIds")
+    List<Object[]> findEmojisByUserAndReponseIds(@Param("userId") Long userId,
+                                                 @Param("reponseIds") Collection<Long> reponseIds);
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,4 +31,8 @@ public interface ReponsesForumJpaRepository
     void marquerToutesNonSolution(@Param("questionId") Long questionId);
 
     long countByQuestionId(Long questionId);
+
+    @Query("SELECT r.question.id, COUNT(r) FROM ReponsesForumEntity r " +
+            "WHERE r.question.id IN :questionIds GROUP BY r.question.id")
+    List<Object[]> countByQuestionIds(@Param("questionIds") Collection<Long> questionIds);
 }
\ No newline at end of file
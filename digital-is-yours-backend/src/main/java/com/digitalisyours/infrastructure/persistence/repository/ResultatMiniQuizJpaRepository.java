@@ -28,6 +28,12 @@ public interface ResultatMiniQuizJpaRepository
             @Param("email") String email,
             @Param("formationId") Long formationId);
 
+    /** Score moyen de chaque apprenant par formation : [email, formationId, moyenne, dernier passage] */
+    @Query("SELECT r.apprenantEmail, r.formationId, AVG(r.score), MAX(r.datePassage) " +
+            "FROM ResultatMiniQuizEntity r " +
+            "GROUP BY r.apprenantEmail, r.formationId")
+    List<Object[]> findScoresMoyensParEmailEtFormation();
+
     @Query("SELECT COUNT(r) FROM ResultatMiniQuizEntity r " +
             "WHERE r.apprenantEmail = :email AND r.formationId = :formationId " +
             "AND r.datePassage >= :since")
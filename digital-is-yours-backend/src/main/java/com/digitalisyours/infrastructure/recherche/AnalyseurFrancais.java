@@ -0,0 +1,85 @@
+package com.digitalisyours.infrastructure.recherche;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage d'un texte français en termes d'index.
+ *
+ * Minuscules, accents retirés (« évaluer » = « evaluer »), élisions (l', d', qu'…)
+ * et mots vides ignorés, puis racinisation légère : pluriels et suffixes courants,
+ * pour que « formations », « formateur » et « former » se rejoignent.
+ * Les positions d'origine sont gardées pour le surlignage.
+ */
+public final class AnalyseurFrancais {
+
+    public record Terme(String terme, int debut, int fin) {}
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern BALISES      = Pattern.compile("<[^>]+>");
+
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "le", "la", "les", "l", "un", "une", "des", "de", "du", "d", "au", "aux",
+            "et", "ou", "ni", "mais", "donc", "car", "or",
+            "a", "en", "dans", "par", "pour", "sur", "sous", "avec", "sans", "chez", "vers", "entre",
+            "ce", "cet", "cette", "ces", "c", "ca", "cela", "ceci",
+            "je", "j", "tu", "il", "elle", "on", "nous", "vous", "ils", "elles", "se", "s", "me", "m", "te", "t",
+            "mon", "ma", "mes", "ton", "ta", "tes", "son", "sa", "ses", "notre", "nos", "votre", "vos", "leur", "leurs",
+            "qui", "que", "qu", "quoi", "dont", "est", "sont", "etre", "ete", "avoir", "ai", "as", "ont",
+            "ne", "n", "pas", "plus", "moins", "tres", "y", "si", "comme", "tout", "tous", "toute", "toutes",
+            "the", "and", "of", "to", "in", "is", "for"
+    );
+
+    // Du plus long au plus court : un seul suffixe retiré par terme
+    private static final String[] SUFFIXES = {
+            "issements", "issement", "ements", "ement", "ations", "ation", "atrices", "atrice",
+            "ateurs", "ateur", "ances", "ance", "ences", "ence", "ismes", "isme", "istes", "iste",
+            "ables", "able", "iques", "ique", "euses", "euse", "eurs", "eur", "ments", "ment",
+            "ites", "ite", "ives", "ive", "ifs", "if", "ees", "ee", "er", "es", "e", "s", "x"
+    };
+
+    private AnalyseurFrancais() {}
+
+    public static String sansBalises(String texte) {
+        return texte == null ? "" : BALISES.matcher(texte).replaceAll(" ");
+    }
+
+    public static List<Terme> analyser(String texte) {
+        List<Terme> termes = new ArrayList<>();
+        if (texte == null || texte.isEmpty()) return termes;
+
+        int n = texte.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(texte.charAt(i))) i++;
+            int debut = i;
+            while (i < n && Character.isLetterOrDigit(texte.charAt(i))) i++;
+            if (i > debut) {
+                String terme = normaliser(texte.substring(debut, i));
+                if (terme != null) termes.add(new Terme(terme, debut, i));
+            }
+        }
+        return termes;
+    }
+
+    /** Terme d'index d'un mot isolé, ou null si c'est un mot vide. */
+    public static String normaliser(String mot) {
+        String t = DIACRITIQUES.matcher(Normalizer.normalize(mot.toLowerCase(), Normalizer.Form.NFD))
+                .replaceAll("");
+        if (t.length() < 2 || MOTS_VIDES.contains(t)) return null;
+        return raciner(t);
+    }
+
+    private static String raciner(String t) {
+        if (Character.isDigit(t.charAt(0))) return t;
+        for (String suffixe : SUFFIXES) {
+            if (t.endsWith(suffixe) && t.length() - suffixe.length() >= 3) {
+                return t.substring(0, t.length() - suffixe.length());
+            }
+        }
+        return t;
+    }
+}
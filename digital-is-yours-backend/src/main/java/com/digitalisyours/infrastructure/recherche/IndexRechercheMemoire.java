@@ -0,0 +1,378 @@
+package com.digitalisyours.infrastructure.recherche;
+
+import com.digitalisyours.domain.model.DocumentRecherche;
+import com.digitalisyours.domain.model.Formation;
+import com.digitalisyours.domain.model.ResultatRecherche;
+import com.digitalisyours.domain.port.out.FormationRepositoryPort;
+import com.digitalisyours.domain.port.out.IndexRecherchePort;
+import com.digitalisyours.infrastructure.recherche.AnalyseurFrancais.Terme;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Index inversé en mémoire : formations, cours, questions et réponses du forum.
+ *
+ * Remplace les LIKE '%…%' (parcours complet de table) par une recherche dont le
+ * coût dépend du nombre de documents contenant les termes, pas de la taille des tables.
+ * Classement BM25 (titre pondéré ×3), préfixe sur le dernier mot pour la saisie en
+ * cours, surlignage des termes trouvés.
+ *
+ * Construit au démarrage depuis la base, puis tenu à jour par les services
+ * (formations, cours, forum) après chaque commit. Instance unique : l'index
+ * n'est pas partagé entre plusieurs nœuds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRechercheMemoire implements IndexRecherchePort {
+    private static final double K1            = 1.2;
+    private static final double B             = 0.75;
+    private static final int    POIDS_TITRE   = 3;
+    private static final int    MAX_PREFIXES  = 50;
+    private static final int    MAX_TEXTE     = 20_000;
+    private static final int    TAILLE_EXTRAIT = 200;
+
+    private final FormationRepositoryPort formationRepository;
+    private final JdbcTemplate            jdbcTemplate;
+
+    private record Doc(DocumentRecherche source, String titre, String texte,
+                       int longueur, Set<String> termes) {}
+
+    // terme → (clé document → poids : 3 × occurrences dans le titre + occurrences dans le texte)
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Doc> documents = new HashMap<>();
+    private final ReadWriteLock    verrou    = new ReentrantReadWriteLock();
+    private long longueurTotale;
+    // Suppressions reçues pendant la construction : la lecture en base a pu les précéder
+    private final Set<String>      supprimes = new HashSet<>();
+
+    private volatile boolean pret;
+
+    // ══════════════════════════════════════════════════════
+    // CONSTRUCTION INITIALE
+    // ══════════════════════════════════════════════════════
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void demarrer() {
+        Thread.ofVirtual().name("index-recherche").start(this::construire);
+    }
+
+    private void construire() {
+        long debut = System.nanoTime();
+        try {
+            for (Formation f : formationRepository.findAllWithDetails()) {
+                indexerSiAbsent(DocumentRecherche.de(f));
+            }
+            jdbcTemplate.query("SELECT id, titre, description, objectifs, statut, formation_id FROM cours", rs -> {
+                indexerSiAbsent(DocumentRecherche.builder()
+                        .type(DocumentRecherche.COURS).id(rs.getLong("id"))
+                        .titre(rs.getString("titre"))
+                        .texte(joindre(rs.getString("description"), rs.getString("objectifs")))
+                        .statut(rs.getString("statut"))
+                        .formationId(rs.getLong("formation_id"))
+                        .build());
+            });
+            jdbcTemplate.query("SELECT id, titre, contenu, tags, statut, formation_id FROM questions_forum", rs -> {
+                indexerSiAbsent(DocumentRecherche.builder()
+                        .type(DocumentRecherche.QUESTION).id(rs.getLong("id"))
+                        .titre(rs.getString("titre"))
+                        .texte(joindre(rs.getString("contenu"), rs.getString("tags")))
+                        .statut(rs.getString("statut"))
+                        .formationId(rs.getObject("formation_id", Long.class))
+                        .build());
+            });
+            jdbcTemplate.query("SELECT r.id, r.contenu, r.question_id, q.formation_id FROM reponses_forum r " +
+                               "JOIN questions_forum q ON q.id = r.question_id", rs -> {
+                indexerSiAbsent(DocumentRecherche.deReponse(rs.getLong("id"), rs.getLong("question_id"),
+                        rs.getObject("formation_id", Long.class), rs.getString("contenu")));
+            });
+            verrou.writeLock().lock();
+            try {
+                pret = true;
+                supprimes.clear();
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            log.info("Index de recherche construit : {} document(s), {} terme(s) en {} ms",
+                    documents.size(), postings.size(), (System.nanoTime() - debut) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Construction de l'index de recherche échouée : {}", e.getMessage(), e);
+        }
+    }
+
+    // Les mises à jour reçues pendant la construction sont plus récentes : on ne les écrase pas,
+    // et on ne ressuscite pas un document (ou l'enfant d'un parent) supprimé entre-temps
+    private void indexerSiAbsent(DocumentRecherche document) {
+        verrou.writeLock().lock();
+        try {
+            String cle = cle(document.getType(), document.getId());
+            String parent = DocumentRecherche.COURS.equals(document.getType())
+                    ? cle(DocumentRecherche.FORMATION, document.getFormationId())
+                    : DocumentRecherche.REPONSE.equals(document.getType())
+                    ? cle(DocumentRecherche.QUESTION, document.getQuestionId()) : null;
+            if (!documents.containsKey(cle) && !supprimes.contains(cle)
+                    && (parent == null || !supprimes.contains(parent))) {
+                ajouter(document);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean estPret() {
+        return pret;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MISES À JOUR
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public void indexer(DocumentRecherche document) {
+        apresCommit(() -> {
+            verrou.writeLock().lock();
+            try {
+                retirer(cle(document.getType(), document.getId()));
+                ajouter(document);
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void supprimer(String type, Long id) {
+        apresCommit(() -> {
+            verrou.writeLock().lock();
+            try {
+                retirer(cle(type, id));
+                if (!pret) supprimes.add(cle(type, id));
+                // Une formation emporte ses cours, une question ses réponses
+                String enfant = DocumentRecherche.FORMATION.equals(type) ? DocumentRecherche.COURS
+                        : DocumentRecherche.QUESTION.equals(type) ? DocumentRecherche.REPONSE : null;
+                if (enfant == null) return;
+                List<String> enfants = documents.values().stream()
+                        .map(Doc::source)
+                        .filter(d -> enfant.equals(d.getType()))
+                        .filter(d -> id.equals(DocumentRecherche.COURS.equals(enfant)
+                                ? d.getFormationId() : d.getQuestionId()))
+                        .map(d -> cle(d.getType(), d.getId()))
+                        .toList();
+                enfants.forEach(this::retirer);
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        });
+    }
+
+    private void apresCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Appelé sous verrou d'écriture
+    private void ajouter(DocumentRecherche source) {
+        String titre = AnalyseurFrancais.sansBalises(source.getTitre());
+        String texte = AnalyseurFrancais.sansBalises(source.getTexte());
+        if (texte.length() > MAX_TEXTE) texte = texte.substring(0, MAX_TEXTE);
+
+        Map<String, Integer> poids = new HashMap<>();
+        List<Terme> termesTitre = AnalyseurFrancais.analyser(titre);
+        List<Terme> termesTexte = AnalyseurFrancais.analyser(texte);
+        termesTitre.forEach(t -> poids.merge(t.terme(), POIDS_TITRE, Integer::sum));
+        termesTexte.forEach(t -> poids.merge(t.terme(), 1, Integer::sum));
+
+        String cle = cle(source.getType(), source.getId());
+        poids.forEach((terme, p) -> postings.computeIfAbsent(terme, k -> new HashMap<>()).put(cle, p));
+
+        int longueur = termesTitre.size() * POIDS_TITRE + termesTexte.size();
+        documents.put(cle, new Doc(source, titre, texte, longueur, poids.keySet()));
+        longueurTotale += longueur;
+    }
+
+    private void retirer(String cle) {
+        Doc ancien = documents.remove(cle);
+        if (ancien == null) return;
+        longueurTotale -= ancien.longueur();
+        for (String terme : ancien.termes()) {
+            Map<String, Integer> docs = postings.get(terme);
+            if (docs == null) continue;
+            docs.remove(cle);
+            if (docs.isEmpty()) postings.remove(terme);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // RECHERCHE
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public Optional<DocumentRecherche> getDocument(String type, Long id) {
+        verrou.readLock().lock();
+        try {
+            return Optional.ofNullable(documents.get(cle(type, id))).map(Doc::source);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ResultatRecherche> rechercher(String requete, Set<String> types,
+                                              Predicate<DocumentRecherche> filtre, int limite) {
+        List<Terme> termesRequete = AnalyseurFrancais.analyser(requete);
+        if (termesRequete.isEmpty() || limite <= 0) return List.of();
+
+        List<String> termes = termesRequete.stream().map(Terme::terme).distinct().toList();
+        // La saisie peut s'arrêter en plein mot : le dernier terme vaut aussi comme préfixe
+        boolean prefixe = requete != null && !requete.isEmpty()
+                && Character.isLetterOrDigit(requete.charAt(requete.length() - 1));
+
+        verrou.readLock().lock();
+        try {
+            int n = documents.size();
+            if (n == 0) return List.of();
+            double longueurMoyenne = Math.max(1.0, (double) longueurTotale / n);
+
+            Map<String, Double>      scores   = new HashMap<>();
+            Map<String, Integer>     couverts = new HashMap<>();
+            Set<String>              trouves  = new HashSet<>();
+
+            for (int i = 0; i < termes.size(); i++) {
+                String terme = termes.get(i);
+                Map<String, Double> variantes = new LinkedHashMap<>();
+                variantes.put(terme, 1.0);
+                if (prefixe && i == termes.size() - 1 && terme.length() >= 3) {
+                    postings.subMap(terme, false, terme + Character.MAX_VALUE, false).keySet().stream()
+                            .limit(MAX_PREFIXES)
+                            .forEach(v -> variantes.put(v, 0.8));
+                }
+
+                Set<String> docsDuTerme = new HashSet<>();
+                for (Map.Entry<String, Double> variante : variantes.entrySet()) {
+                    Map<String, Integer> docs = postings.get(variante.getKey());
+                    if (docs == null) continue;
+                    trouves.add(variante.getKey());
+                    double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                    for (Map.Entry<String, Integer> e : docs.entrySet()) {
+                        Doc doc = documents.get(e.getKey());
+                        if (types != null && !types.contains(doc.source().getType())) continue;
+                        int tf = e.getValue();
+                        double bm25 = idf * tf * (K1 + 1)
+                                / (tf + K1 * (1 - B + B * doc.longueur() / longueurMoyenne));
+                        scores.merge(e.getKey(), bm25 * variante.getValue(), Double::sum);
+                        docsDuTerme.add(e.getKey());
+                    }
+                }
+                docsDuTerme.forEach(cle -> couverts.merge(cle, 1, Integer::sum));
+            }
+
+            // Les documents qui contiennent tous les termes passent devant
+            PriorityQueue<Map.Entry<String, Double>> meilleurs =
+                    new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Double> e : scores.entrySet()) {
+                Doc doc = documents.get(e.getKey());
+                if (filtre != null && !filtre.test(doc.source())) continue;
+                double couverture = (double) couverts.get(e.getKey()) / termes.size();
+                meilleurs.add(Map.entry(e.getKey(), e.getValue() * couverture * couverture));
+                if (meilleurs.size() > limite) meilleurs.poll();
+            }
+
+            List<ResultatRecherche> resultats = new ArrayList<>(meilleurs.size());
+            while (!meilleurs.isEmpty()) {
+                Map.Entry<String, Double> e = meilleurs.poll();
+                resultats.add(resultat(documents.get(e.getKey()), e.getValue(), trouves));
+            }
+            Collections.reverse(resultats);
+            return resultats;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private ResultatRecherche resultat(Doc doc, double score, Set<String> trouves) {
+        DocumentRecherche s = doc.source();
+        return ResultatRecherche.builder()
+                .type(s.getType())
+                .id(s.getId())
+                .formationId(s.getFormationId())
+                .questionId(s.getQuestionId())
+                .titre(surligner(doc.titre(), 0, doc.titre().length(), trouves))
+                .extrait(extrait(doc.texte(), trouves))
+                .score(Math.round(score * 1000) / 1000.0)
+                .build();
+    }
+
+    // ══════════════════════════════════════════════════════
+    // SURLIGNAGE
+    // ══════════════════════════════════════════════════════
+
+    private String extrait(String texte, Set<String> trouves) {
+        if (texte.isEmpty()) return "";
+        int premier = AnalyseurFrancais.analyser(texte).stream()
+                .filter(t -> trouves.contains(t.terme()))
+                .mapToInt(Terme::debut)
+                .findFirst().orElse(0);
+
+        int debut = Math.max(0, premier - TAILLE_EXTRAIT / 4);
+        int fin   = Math.min(texte.length(), debut + TAILLE_EXTRAIT);
+        // Ne pas couper un mot en deux
+        while (debut > 0 && Character.isLetterOrDigit(texte.charAt(debut - 1))) debut--;
+        while (fin < texte.length() && Character.isLetterOrDigit(texte.charAt(fin))) fin++;
+
+        return (debut > 0 ? "… " : "")
+                + surligner(texte, debut, fin, trouves).strip()
+                + (fin < texte.length() ? " …" : "");
+    }
+
+    private String surligner(String texte, int debut, int fin, Set<String> trouves) {
+        if (texte.isEmpty()) return "";
+        String passage = texte.substring(debut, fin);
+        StringBuilder sb = new StringBuilder(passage.length() + 32);
+        int curseur = 0;
+        for (Terme t : AnalyseurFrancais.analyser(passage)) {
+            if (!trouves.contains(t.terme())) continue;
+            sb.append(HtmlUtils.htmlEscape(passage.substring(curseur, t.debut())))
+              .append("<mark>")
+              .append(HtmlUtils.htmlEscape(passage.substring(t.debut(), t.fin())))
+              .append("</mark>");
+            curseur = t.fin();
+        }
+        sb.append(HtmlUtils.htmlEscape(passage.substring(curseur)));
+        return sb.toString().replaceAll("\\s+", " ");
+    }
+
+    // ══════════════════════════════════════════════════════
+    // HELPERS
+    // ══════════════════════════════════════════════════════
+
+    private static String cle(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static String joindre(String a, String b) {
+        if (a == null || a.isBlank()) return b != null ? b : "";
+        if (b == null || b.isBlank()) return a;
+        return a + "\n" + b;
+    }
+}
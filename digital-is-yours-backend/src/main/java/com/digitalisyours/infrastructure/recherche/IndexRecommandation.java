@@ -0,0 +1,390 @@
+package com.digitalisyours.infrastructure.recherche;
+
+import com.digitalisyours.domain.model.Apprenant;
+import com.digitalisyours.domain.model.Formation;
+import com.digitalisyours.domain.model.RecommandationIA;
+import com.digitalisyours.domain.port.out.FormationRepositoryPort;
+import com.digitalisyours.domain.port.out.MoteurRecommandationPort;
+import com.digitalisyours.infrastructure.recherche.AnalyseurFrancais.Terme;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Modèle de recommandation précalculé sur le catalogue publié.
+ *
+ * Chaque formation est réduite à un vecteur TF-IDF normalisé (titre ×3, catégorie ×2,
+ * description, objectifs, public visé) et à des colonnes de caractéristiques :
+ * catégorie, niveau, durée, note. Le modèle est construit hors requête
+ * (reconstruire(), appelé par le précalcul périodique) et remplacé d'un bloc.
+ * Une écriture sur le catalogue (invalider()) le périme : il est reconstruit
+ * à la demande suivante, sans attendre le précalcul.
+ *
+ * À la demande, les domaines d'intérêt et les objectifs de l'apprenant deviennent
+ * des vecteurs creux sur le même vocabulaire. Les produits scalaires sont accumulés
+ * par listes inversées (seules les formations qui partagent un terme sont touchées),
+ * un balayage des colonnes donne le score 0-100 et un tas borné garde le top N.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexRecommandation implements MoteurRecommandationPort {
+    private static final int   POIDS_TITRE     = 3;
+    private static final int   POIDS_CATEGORIE = 2;
+    private static final float POIDS_PREFIXE   = 0.8f;
+    private static final int   MAX_PREFIXES    = 20;
+    // Similarité cosinus à partir de laquelle un critère textuel compte en entier
+    private static final float SEUIL_PLEIN     = 0.25f;
+
+    private static final Map<String, Integer> NIVEAUX = Map.of("DEBUTANT", 1, "INTERMEDIAIRE", 2, "AVANCE", 3);
+
+    private final FormationRepositoryPort formationRepository;
+
+    // terme → formations qui le contiennent + poids TF-IDF normalisé (tableaux parallèles)
+    private record Modele(NavigableMap<String, Integer> vocabulaire, float[] idf,
+                          int[][] postingsFormations, float[][] postingsPoids,
+                          RecommandationIA[] fiches, int[] niveaux, int[] durees, float[] notes,
+                          int[] categories, Map<String, Integer> codesCategories, long generation) {
+        int taille() { return fiches.length; }
+    }
+
+    private volatile Modele modele;
+    private final AtomicLong generation = new AtomicLong();
+
+    // ── Métriques ──
+    private final LongAdder recommandations = new LongAdder();
+    private final LongAdder reconstructions = new LongAdder();
+    private final LongAdder invalidations   = new LongAdder();
+
+    // ══════════════════════════════════════════════════════
+    // CONSTRUCTION
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public synchronized void reconstruire() {
+        long debut = System.nanoTime();
+        // Lue avant le catalogue : une invalidation pendant la lecture périme ce modèle
+        long g = generation.get();
+        List<Formation> formations = formationRepository.findPubliees();
+        int n = formations.size();
+
+        NavigableMap<String, Integer> vocabulaire = new TreeMap<>();
+        Map<String, Integer> codesCategories = new HashMap<>();
+        List<Map<Integer, Integer>> frequences = new ArrayList<>(n);
+        RecommandationIA[] fiches = new RecommandationIA[n];
+        int[]   niveaux    = new int[n];
+        int[]   durees     = new int[n];
+        int[]   categories = new int[n];
+        float[] notes      = new float[n];
+
+        for (int i = 0; i < n; i++) {
+            Formation f = formations.get(i);
+            Map<Integer, Integer> tf = new HashMap<>();
+            compter(f.getTitre(),                  POIDS_TITRE,     vocabulaire, tf);
+            compter(f.getCategorieNom(),           POIDS_CATEGORIE, vocabulaire, tf);
+            compter(f.getDescription(),            1,               vocabulaire, tf);
+            compter(f.getObjectifsApprentissage(), 1,               vocabulaire, tf);
+            compter(f.getPourQui(),                1,               vocabulaire, tf);
+            frequences.add(tf);
+
+            fiches[i]  = fiche(f);
+            niveaux[i] = niveau(f.getNiveau());
+            durees[i]  = f.getDureeEstimee() != null ? f.getDureeEstimee() : -1;
+            notes[i]   = f.getNoteMoyenne() != null ? f.getNoteMoyenne() : 0f;
+            categories[i] = f.getCategorieNom() != null
+                    ? codesCategories.computeIfAbsent(cle(f.getCategorieNom()), k -> codesCategories.size())
+                    : -1;
+        }
+
+        int nbTermes = vocabulaire.size();
+        int[] df = new int[nbTermes];
+        for (Map<Integer, Integer> tf : frequences) {
+            for (Integer t : tf.keySet()) df[t]++;
+        }
+        float[] idf = new float[nbTermes];
+        int[][]   postingsFormations = new int[nbTermes][];
+        float[][] postingsPoids      = new float[nbTermes][];
+        for (int t = 0; t < nbTermes; t++) {
+            idf[t] = (float) Math.log(1 + (double) n / df[t]);
+            postingsFormations[t] = new int[df[t]];
+            postingsPoids[t]      = new float[df[t]];
+        }
+
+        int[] remplis = new int[nbTermes];
+        for (int i = 0; i < n; i++) {
+            Map<Integer, Float> vecteur = new HashMap<>();
+            frequences.get(i).forEach((t, nb) -> vecteur.put(t, (float) (1 + Math.log(nb)) * idf[t]));
+            normaliser(vecteur);
+            for (Map.Entry<Integer, Float> e : vecteur.entrySet()) {
+                int t = e.getKey();
+                postingsFormations[t][remplis[t]] = i;
+                postingsPoids[t][remplis[t]]      = e.getValue();
+                remplis[t]++;
+            }
+        }
+
+        modele = new Modele(vocabulaire, idf, postingsFormations, postingsPoids,
+                fiches, niveaux, durees, notes, categories, codesCategories, g);
+        reconstructions.increment();
+        log.info("Modèle de recommandation construit : {} formation(s), {} terme(s) en {} ms",
+                n, nbTermes, (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    private Modele courant() {
+        Modele m = modele;
+        if (m != null && m.generation() == generation.get()) return m;
+        synchronized (this) {
+            if (modele == null || modele.generation() != generation.get()) reconstruire();
+            return modele;
+        }
+    }
+
+    @Override
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Dans une transaction : reconstruire avant le commit relirait l'ancien catalogue
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    invalidations.increment();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+            invalidations.increment();
+        }
+    }
+
+    @Override
+    public long generation() {
+        return generation.get();
+    }
+
+    private static void compter(String texte, int poids, Map<String, Integer> vocabulaire,
+                                Map<Integer, Integer> tf) {
+        for (Terme t : AnalyseurFrancais.analyser(AnalyseurFrancais.sansBalises(texte))) {
+            Integer id = vocabulaire.computeIfAbsent(t.terme(), k -> vocabulaire.size());
+            tf.merge(id, poids, Integer::sum);
+        }
+    }
+
+    private static RecommandationIA fiche(Formation f) {
+        return RecommandationIA.builder()
+                .formationId(f.getId())
+                .titre(f.getTitre())
+                .niveau(f.getNiveau() != null ? f.getNiveau() : "DEBUTANT")
+                .description(f.getDescription())
+                .imageCouverture(f.getImageCouverture())
+                .categorie(f.getCategorieNom())
+                .dureeEstimee(f.getDureeEstimee())
+                .noteMoyenne(f.getNoteMoyenne())
+                .nombreInscrits(f.getNombreInscrits())
+                .build();
+    }
+
+    // ══════════════════════════════════════════════════════
+    // RECOMMANDATION
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public List<RecommandationIA> recommander(Apprenant apprenant, Set<Long> formationsExclues, int limite) {
+        Modele m = courant();
+        recommandations.increment();
+        int n = m.taille();
+        if (n == 0 || limite <= 0) return new ArrayList<>();
+
+        List<String> domaines = apprenant.getDomainesInteret() != null
+                ? apprenant.getDomainesInteret() : List.of();
+        String  objectifs = apprenant.getObjectifsApprentissage();
+        int     niveau    = niveau(apprenant.getNiveauActuel());
+        Integer heures    = apprenant.getDisponibilitesHeuresParSemaine();
+
+        // Une similarité par domaine : le meilleur domaine explique la recommandation
+        float[][] simDomaines      = new float[domaines.size()][];
+        int[]     categorieDomaine = new int[domaines.size()];
+        for (int d = 0; d < domaines.size(); d++) {
+            simDomaines[d]      = similarites(m, vecteur(m, domaines.get(d)));
+            categorieDomaine[d] = m.codesCategories().getOrDefault(cle(domaines.get(d)), -2);
+        }
+        float[] simObjectifs = objectifs != null && !objectifs.isBlank()
+                ? similarites(m, vecteur(m, objectifs)) : null;
+
+        int[]   interets  = new int[n];
+        int[]   alignes   = new int[n];
+        int[]   domaineRetenu = new int[n];
+        int[]   scores    = new int[n];
+        float[] departage = new float[n];
+
+        Comparator<Integer> plusFaible = Comparator.<Integer>comparingInt(i -> scores[i])
+                .thenComparingDouble(i -> departage[i])
+                .thenComparingDouble(i -> m.notes()[i]);
+        PriorityQueue<Integer> top = new PriorityQueue<>(limite + 1, plusFaible);
+
+        for (int i = 0; i < n; i++) {
+            if (formationsExclues.contains(m.fiches()[i].getFormationId())) continue;
+
+            int interet = 0, domaine = -1;
+            float simD = 0f;
+            for (int d = 0; d < simDomaines.length; d++) {
+                int points = m.categories()[i] >= 0 && m.categories()[i] == categorieDomaine[d]
+                        ? 40 : Math.round(40 * Math.min(1f, simDomaines[d][i] / SEUIL_PLEIN));
+                if (points > interet) {
+                    interet = points;
+                    domaine = d;
+                }
+                simD = Math.max(simD, simDomaines[d][i]);
+            }
+            int aligne = simObjectifs != null
+                    ? Math.round(15 * Math.min(1f, simObjectifs[i] / SEUIL_PLEIN)) : 0;
+            int adequation = m.niveaux()[i] == niveau ? 30 : m.niveaux()[i] <= niveau + 1 ? 15 : 0;
+            int dispo = heures == null || m.durees()[i] < 0 ? 8 : m.durees()[i] <= heures * 4 ? 15 : 0;
+            int bonus = m.notes()[i] >= 4.0f ? 5 : 0;
+
+            interets[i]      = interet;
+            alignes[i]       = aligne;
+            domaineRetenu[i] = domaine;
+            scores[i]        = Math.min(100, interet + aligne + adequation + dispo + bonus);
+            departage[i]     = simD + (simObjectifs != null ? simObjectifs[i] : 0f);
+
+            top.add(i);
+            if (top.size() > limite) top.poll();
+        }
+
+        List<RecommandationIA> resultat = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int i = top.poll();
+            resultat.add(expliquer(m, i, scores[i], interets[i], alignes[i],
+                    domaineRetenu[i] >= 0 ? domaines.get(domaineRetenu[i]) : null, niveau, heures));
+        }
+        Collections.reverse(resultat);
+        return resultat;
+    }
+
+    private RecommandationIA expliquer(Modele m, int i, int score, int interet, int aligne,
+                                       String domaine, int niveau, Integer heures) {
+        List<String> points = new ArrayList<>();
+        if (interet >= 20 && domaine != null) {
+            points.add("Correspond à votre intérêt : " + domaine);
+        }
+        if (m.niveaux()[i] == niveau) {
+            points.add("Niveau adapté : " + niveauLabel(niveau));
+        } else if (m.niveaux()[i] <= niveau + 1) {
+            points.add("Niveau accessible");
+        }
+        if (heures != null && m.durees()[i] >= 0 && m.durees()[i] <= heures * 4) {
+            points.add("Compatible avec vos " + heures + "h/semaine");
+        }
+        if (aligne >= 8) {
+            points.add("Aligné avec vos objectifs");
+        }
+        if (m.notes()[i] >= 4.0f) {
+            points.add("Très bien noté (" + m.notes()[i] + "/5)");
+        }
+
+        String raison = points.isEmpty()
+                ? "Formation disponible dans notre catalogue"
+                : "Cette formation " + (points.size() > 1
+                ? "correspond à plusieurs de vos critères"
+                : points.get(0).toLowerCase());
+
+        RecommandationIA f = m.fiches()[i];
+        return RecommandationIA.builder()
+                .formationId(f.getFormationId()).titre(f.getTitre())
+                .niveau(f.getNiveau()).description(f.getDescription())
+                .imageCouverture(f.getImageCouverture()).categorie(f.getCategorie())
+                .dureeEstimee(f.getDureeEstimee()).noteMoyenne(f.getNoteMoyenne())
+                .nombreInscrits(f.getNombreInscrits())
+                .scoreCompatibilite(score)
+                .raison(raison).pointsForts(String.join(", ", points)).build();
+    }
+
+    // ── Vecteurs ──
+
+    private static Map<Integer, Float> vecteur(Modele m, String texte) {
+        Map<String, Integer> tf = new HashMap<>();
+        for (Terme t : AnalyseurFrancais.analyser(texte)) tf.merge(t.terme(), 1, Integer::sum);
+
+        Map<Integer, Float> vecteur = new HashMap<>();
+        tf.forEach((terme, nb) -> {
+            float poids = (float) (1 + Math.log(nb));
+            Integer id = m.vocabulaire().get(terme);
+            if (id != null) {
+                vecteur.merge(id, poids * m.idf()[id], Float::sum);
+            } else if (terme.length() >= 3) {
+                // Intérêt saisi en abrégé (« dev », « compta ») : termes du catalogue qui le prolongent
+                int k = 0;
+                for (Integer p : m.vocabulaire().subMap(terme, true, terme + Character.MAX_VALUE, false).values()) {
+                    if (k++ >= MAX_PREFIXES) break;
+                    vecteur.merge(p, POIDS_PREFIXE * poids * m.idf()[p], Float::sum);
+                }
+            }
+        });
+        normaliser(vecteur);
+        return vecteur;
+    }
+
+    private static float[] similarites(Modele m, Map<Integer, Float> vecteur) {
+        float[] s = new float[m.taille()];
+        vecteur.forEach((t, w) -> {
+            int[]   formations = m.postingsFormations()[t];
+            float[] poids      = m.postingsPoids()[t];
+            for (int j = 0; j < formations.length; j++) s[formations[j]] += w * poids[j];
+        });
+        return s;
+    }
+
+    private static void normaliser(Map<Integer, Float> vecteur) {
+        double norme = 0;
+        for (float w : vecteur.values()) norme += w * w;
+        if (norme == 0) return;
+        float inverse = (float) (1 / Math.sqrt(norme));
+        vecteur.replaceAll((t, w) -> w * inverse);
+    }
+
+    private static String cle(String nom) {
+        return AnalyseurFrancais.analyser(nom).stream().map(Terme::terme).collect(Collectors.joining(" "));
+    }
+
+    private static int niveau(String niveau) {
+        return niveau != null ? NIVEAUX.getOrDefault(niveau.toUpperCase(), 1) : 1;
+    }
+
+    private static String niveauLabel(int niveau) {
+        return switch (niveau) {
+            case 2  -> "Intermédiaire";
+            case 3  -> "Avancé";
+            default -> "Débutant";
+        };
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void journaliser() {
+        if (recommandations.sum() > 0) {
+            log.info("Modèle de recommandation : {}", getStatistiques());
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Modele m = modele;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("formations",      m != null ? m.taille() : 0);
+        stats.put("termes",          m != null ? m.vocabulaire().size() : 0);
+        stats.put("recommandations", recommandations.sum());
+        stats.put("reconstructions", reconstructions.sum());
+        stats.put("invalidations",   invalidations.sum());
+        return stats;
+    }
+}
@@ -1,18 +1,16 @@
 package com.digitalisyours.infrastructure.scheduler;
 
+import com.digitalisyours.domain.model.EmailSortant;
 import com.digitalisyours.domain.model.SessionCalendrier;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
 import com.digitalisyours.domain.port.out.SessionCalendrierRepositoryPort;
 import com.digitalisyours.infrastructure.persistence.entity.NotificationEntity;
 import com.digitalisyours.infrastructure.persistence.repository.ApprenantJpaRepository;
 import com.digitalisyours.infrastructure.persistence.repository.NotificationJpaRepository;
 import com.digitalisyours.infrastructure.persistence.repository.UserJpaRepository;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -26,13 +24,10 @@ import java.util.List;
 public class RappelSessionScheduler {
     private final SessionCalendrierRepositoryPort sessionRepo;
     private final ApprenantJpaRepository apprenantRepo;
-    private final JavaMailSender mailSender;
+    private final EmailOutboxPort outbox;
     private final NotificationJpaRepository notificationRepo;
     private final UserJpaRepository userRepo;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     @Scheduled(fixedRate = 3600000)
     public void envoyerRappels() {
         LocalDateTime from = LocalDateTime.now().plusHours(23);
@@ -54,16 +49,13 @@ public class RappelSessionScheduler {
                                         s.getTypeSession()
                                 );
 
-                                MimeMessage message = mailSender.createMimeMessage();
-                                MimeMessageHelper helper = new MimeMessageHelper(
-                                        message, true, "UTF-8");
-                                helper.setFrom(fromEmail);
-                                helper.setTo(apprenant.getEmail());
-                                helper.setSubject("Rappel — Session demain : "
-                                        + s.getTitrePersonnalise());
-                                helper.setText(html, true);
-                                mailSender.send(message);
-                                log.info("Rappel HTML envoyé à {} pour session {}",
+                                outbox.enregistrer(EmailSortant.builder()
+                                        .destinataire(apprenant.getEmail())
+                                        .sujet("Rappel — Session demain : "
+                                                + s.getTitrePersonnalise())
+                                        .html(html)
+                                        .build());
+                                log.info("Rappel HTML mis en file pour {} pour session {}",
                                         apprenant.getEmail(), s.getId());
 
                                 userRepo.findByEmail(apprenant.getEmail())
@@ -0,0 +1,36 @@
+package com.digitalisyours.infrastructure.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Pool des tâches @Scheduled.
+ *
+ * Par défaut Spring n'a qu'un thread : le vidage de l'outbox email (toutes les 2 s)
+ * attendrait derrière le pré-calcul des recommandations ou la reconstruction des index.
+ * Les traitements longs (analyse risque) partent sur leur propre exécuteur ; ce pool
+ * ne sert qu'à les déclencher et aux tâches courtes.
+ */
+@Configuration
+public class SchedulerConfig implements SchedulingConfigurer {
+
+    @Value("${app.scheduler.threads:4}")
+    private int threads;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(2, threads));
+        scheduler.setThreadNamePrefix("planif-");
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+}
@@ -0,0 +1,29 @@
+package com.digitalisyours.infrastructure.scheduler;
+
+import com.digitalisyours.domain.port.out.ChunkStorePort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UploadPurgeScheduler {
+    private final ChunkStorePort chunkStore;
+
+    @Value("${app.upload.chunk-ttl-hours:24}")
+    private long ttlHeures;
+
+    // Supprime les uploads vidéo par morceaux abandonnés (aucun morceau reçu depuis ttlHeures)
+    @Scheduled(fixedRate = 3600000)
+    public void purgerUploadsAbandonnes() {
+        int supprimes = chunkStore.purgerSessionsInactives(Duration.ofHours(ttlHeures));
+        if (supprimes > 0) {
+            log.info("{} upload(s) vidéo abandonné(s) supprimé(s)", supprimes);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.digitalisyours.infrastructure.storage;
+
+import com.digitalisyours.domain.exception.SessionUploadIntrouvableException;
+import com.digitalisyours.domain.model.SessionUpload;
+import com.digitalisyours.domain.port.out.ChunkStorePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Stockage disque des uploads vidéo reprenables.
+ *
+ * Chaque session vit dans {uploadDir}/tmp/chunks/{uploadId}/ :
+ *  - data.part          : fichier en cours d'assemblage (écritures positionnelles NIO)
+ *  - session.properties : métadonnées + offset validé (réécrit atomiquement après chaque morceau)
+ *
+ * L'offset n'est avancé qu'après force() du morceau : après un crash ou une coupure,
+ * le client reprend exactement à l'offset renvoyé.
+ */
+@Component
+@Slf4j
+public class DiskChunkStoreAdapter implements ChunkStorePort {
+
+    private static final String DATA_FILE    = "data.part";
+    private static final String SESSION_FILE = "session.properties";
+    private static final int    BUFFER_SIZE  = 64 * 1024;
+
+    @Value("${app.upload.dir:uploads/videos}")
+    private String uploadDir;
+
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public SessionUpload creer(SessionUpload session) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path dir = sessionDir(id);
+        Files.createDirectories(dir);
+        Files.createFile(dir.resolve(DATA_FILE));
+
+        LocalDateTime now = LocalDateTime.now();
+        session.setId(id);
+        session.setOffset(0);
+        session.setDateCreation(now);
+        session.setDerniereActivite(now);
+        sauvegarder(session);
+        return session;
+    }
+
+    @Override
+    public Optional<SessionUpload> findById(String uploadId) {
+        if (!isValidId(uploadId)) return Optional.empty();
+        Path file = sessionDir(uploadId).resolve(SESSION_FILE);
+        if (!Files.exists(file)) return Optional.empty();
+        try {
+            return Optional.of(charger(file));
+        } catch (IOException e) {
+            log.warn("Session d'upload {} illisible : {}", uploadId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public SessionUpload ecrireChunk(String uploadId, long offset, InputStream data) throws IOException {
+        ReentrantLock lock = verrouiller(uploadId);
+        try {
+            SessionUpload session = findById(uploadId)
+                    .orElseThrow(() -> new SessionUploadIntrouvableException(uploadId));
+
+            if (offset != session.getOffset()) {
+                throw new IllegalArgumentException(
+                        "Offset invalide : attendu " + session.getOffset() + ", reçu " + offset);
+            }
+
+            long restant  = session.getTailleTotale() - offset;
+            long position = offset;
+
+            try (InputStream in = data;
+                 FileChannel channel = FileChannel.open(sessionDir(uploadId).resolve(DATA_FILE),
+                         StandardOpenOption.WRITE)) {
+
+                byte[] buffer = new byte[BUFFER_SIZE];
+                ByteBuffer wrap = ByteBuffer.wrap(buffer);
+                int lu;
+                try {
+                    while ((lu = in.read(buffer)) != -1) {
+                        if (lu > restant) {
+                            throw new IllegalArgumentException("Le morceau dépasse la taille annoncée du fichier");
+                        }
+                        wrap.clear().limit(lu);
+                        while (wrap.hasRemaining()) {
+                            position += channel.write(wrap, position);
+                        }
+                        restant -= lu;
+                    }
+                } catch (IOException e) {
+                    // Connexion coupée en plein morceau : on valide ce qui a été reçu
+                    channel.force(false);
+                    session.setOffset(position);
+                    session.setDerniereActivite(LocalDateTime.now());
+                    sauvegarder(session);
+                    throw e;
+                }
+                channel.force(false);
+            }
+
+            session.setOffset(position);
+            session.setDerniereActivite(LocalDateTime.now());
+            sauvegarder(session);
+            return session;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void finaliser(String uploadId, Path dossier, String nomFichier) throws IOException {
+        // Même verrou que ecrireChunk : jamais d'assemblage d'un morceau à moitié écrit
+        ReentrantLock lock = verrouiller(uploadId);
+        try {
+            SessionUpload session = findById(uploadId)
+                    .orElseThrow(() -> new SessionUploadIntrouvableException(uploadId));
+            if (!session.isComplete()) {
+                throw new IllegalStateException("Upload incomplet : " + session.getOffset()
+                        + " / " + session.getTailleTotale() + " octets reçus.");
+            }
+
+            Files.createDirectories(dossier);
+            Path source = sessionDir(uploadId).resolve(DATA_FILE);
+            Path cible  = dossier.resolve(nomFichier);
+            try {
+                Files.move(source, cible, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, cible, StandardCopyOption.REPLACE_EXISTING);
+            }
+            supprimerSession(uploadId, lock);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void supprimer(String uploadId) {
+        if (!isValidId(uploadId)) return;
+        ReentrantLock lock = verrouiller(uploadId);
+        try {
+            supprimerSession(uploadId, lock);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int purgerSessionsInactives(Duration inactivite) {
+        Path root = rootDir();
+        if (!Files.isDirectory(root)) return 0;
+
+        LocalDateTime limite = LocalDateTime.now().minus(inactivite);
+        int supprimees = 0;
+
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+            for (Path dir : dirs) {
+                String id = dir.getFileName().toString();
+                if (!isValidId(id)) continue;
+
+                // Session occupée (morceau ou finalisation en cours) : elle n'est pas abandonnée
+                ReentrantLock lock = locks.computeIfAbsent(id, k -> new ReentrantLock());
+                if (!lock.tryLock()) continue;
+                try {
+                    // Relue sous verrou : un morceau a pu arriver depuis le listing
+                    boolean expiree = findById(id)
+                            .map(s -> s.getDerniereActivite().isBefore(limite))
+                            .orElse(true); // dossier orphelin sans métadonnées
+                    if (expiree) {
+                        supprimerSession(id, lock);
+                        supprimees++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Purge des uploads abandonnés impossible : {}", e.getMessage());
+        }
+        return supprimees;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────
+
+    // Un seul écrivain par session : morceau, finalisation, annulation et purge s'excluent
+    private ReentrantLock verrouiller(String uploadId) {
+        ReentrantLock lock = locks.computeIfAbsent(uploadId, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("Un morceau est déjà en cours d'écriture pour cet upload");
+        }
+        return lock;
+    }
+
+    // Appelé verrou tenu ; un écrivain arrivé après ne trouvera plus la session
+    private void supprimerSession(String uploadId, ReentrantLock lock) {
+        supprimerDossier(sessionDir(uploadId));
+        locks.remove(uploadId, lock);
+    }
+
+    private Path rootDir() {
+        return Paths.get(uploadDir, "tmp", "chunks");
+    }
+
+    private Path sessionDir(String uploadId) {
+        return rootDir().resolve(uploadId);
+    }
+
+    private boolean isValidId(String uploadId) {
+        try {
+            return uploadId != null && UUID.fromString(uploadId).toString().equals(uploadId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void sauvegarder(SessionUpload s) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("id",               s.getId());
+        p.setProperty("formationId",      String.valueOf(s.getFormationId()));
+        p.setProperty("coursId",          String.valueOf(s.getCoursId()));
+        p.setProperty("email",            s.getEmail());
+        p.setProperty("nomFichier",       s.getNomFichier() != null ? s.getNomFichier() : "");
+        p.setProperty("contentType",      s.getContentType());
+        p.setProperty("tailleTotale",     String.valueOf(s.getTailleTotale()));
+        p.setProperty("offset",           String.valueOf(s.getOffset()));
+        p.setProperty("dateCreation",     s.getDateCreation().toString());
+        p.setProperty("derniereActivite", s.getDerniereActivite().toString());
+
+        Path dir  = sessionDir(s.getId());
+        Path temp = dir.resolve(SESSION_FILE + ".tmp");
+        try (Writer w = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            p.store(w, null);
+        }
+        try {
+            Files.move(temp, dir.resolve(SESSION_FILE),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, dir.resolve(SESSION_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private SessionUpload charger(Path file) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(r);
+        }
+        return SessionUpload.builder()
+                .id(p.getProperty("id"))
+                .formationId(Long.valueOf(p.getProperty("formationId")))
+                .coursId(Long.valueOf(p.getProperty("coursId")))
+                .email(p.getProperty("email"))
+                .nomFichier(p.getProperty("nomFichier"))
+                .contentType(p.getProperty("contentType"))
+                .tailleTotale(Long.parseLong(p.getProperty("tailleTotale")))
+                .offset(Long.parseLong(p.getProperty("offset")))
+                .dateCreation(LocalDateTime.parse(p.getProperty("dateCreation")))
+                .derniereActivite(LocalDateTime.parse(p.getProperty("derniereActivite")))
+                .build();
+    }
+
+    private void supprimerDossier(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(path -> {
+                        try { Files.deleteIfExists(path); }
+                        catch (IOException e) {
+                            log.warn("Impossible de supprimer le fichier : {}", path);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Erreur suppression session d'upload {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.digitalisyours.infrastructure.storage;
+
+import com.digitalisyours.domain.model.FichierStocke;
+import com.digitalisyours.domain.port.out.FileStoragePort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Stockage disque en flux continu pour les uploads (vidéos, documents, pièces jointes forum).
+ *
+ * Le contenu est copié par blocs de 64 Ko dans un fichier temporaire du dossier cible,
+ * le SHA-256 est calculé au fil de l'eau, puis le fichier est renommé atomiquement.
+ * La mémoire utilisée reste constante quelle que soit la taille du fichier.
+ */
+@Component
+@Slf4j
+public class LocalFileStorageAdapter implements FileStoragePort {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public FichierStocke enregistrer(InputStream contenu, Path dossier, String nomFichier) throws IOException {
+        Files.createDirectories(dossier);
+        Path cible = dossier.resolve(nomFichier);
+        // Même dossier que la cible → le rename reste sur le même système de fichiers
+        Path temp  = Files.createTempFile(dossier, ".upload-", ".part");
+
+        MessageDigest digest = sha256();
+        long taille = 0;
+
+        try (InputStream in = contenu;
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteBuffer wrap = ByteBuffer.wrap(buffer);
+            int lu;
+            while ((lu = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, lu);
+                wrap.clear().limit(lu);
+                while (wrap.hasRemaining()) out.write(wrap);
+                taille += lu;
+            }
+            out.force(false);
+
+            deplacer(temp, cible);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        log.debug("Fichier stocké {} ({} octets, sha256={})", cible, taille, sha256);
+
+        return FichierStocke.builder()
+                .chemin(cible)
+                .nomFichier(nomFichier)
+                .taille(taille)
+                .sha256(sha256)
+                .build();
+    }
+
+    private void deplacer(Path source, Path cible) throws IOException {
+        try {
+            Files.move(source, cible, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, cible, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.digitalisyours.infrastructure.web.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Réponses asynchrones (StreamingResponseBody) : le délai par défaut du conteneur (30 s)
+ * couperait les exports volumineux (archive ZIP des certificats).
+ * Les SseEmitter gardent leur propre délai.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    @Value("${app.web.async-timeout-ms:1800000}")
+    private long asyncTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+}
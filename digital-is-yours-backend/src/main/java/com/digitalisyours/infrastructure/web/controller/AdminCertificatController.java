@@ -2,6 +2,7 @@ package com.digitalisyours.infrastructure.web.controller;
 
 import com.digitalisyours.application.service.CertificatEmailService;
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.ProgressionEnvoiCertificats;
 import com.digitalisyours.domain.port.in.AdminCertificatUseCase;
 import com.digitalisyours.infrastructure.persistence.repository.CertificatJpaRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,8 +15,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -23,6 +24,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin/certificats")
@@ -119,42 +121,93 @@ public class AdminCertificatController {
     // GET /api/admin/certificats/export  (CSV)
     // ═══════════════════════════════════════════════════════
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportCsv(
+    public ResponseEntity<StreamingResponseBody> exportCsv(
             @RequestParam(required = false) String formation,
             @RequestParam(required = false) String apprenant,
             @RequestParam(required = false) String dateDebut,
             @RequestParam(required = false) String dateFin,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean gzip) {
 
         LocalDate debut = parseDate(dateDebut);
         LocalDate fin   = parseDate(dateFin);
 
-        Pageable all = PageRequest.of(0, Integer.MAX_VALUE,
-                Sort.by(Sort.Direction.DESC, "dateCreation"));
+        // Lignes écrites au fil du curseur base : mémoire constante quel que soit le volume
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gz = new GZIPOutputStream(out, 64 * 1024);
+                adminCertificatUseCase.ecrireExportCsv(formation, apprenant, debut, fin, search, gz);
+                gz.finish();
+            } else {
+                adminCertificatUseCase.ecrireExportCsv(formation, apprenant, debut, fin, search, out);
+            }
+        };
 
-        Page<Certificat> all2 = adminCertificatUseCase
-                .getAllCertificats(formation, apprenant, debut, fin, search, all);
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("Apprenant,Formation,Note (%),Date délivrance,N° Certificat,Envoyé\n");
-        for (Certificat c : all2.getContent()) {
-            sb.append(csv(c.getApprenantPrenom() + " " + c.getApprenantNom())).append(",");
-            sb.append(csv(c.getFormationTitre())).append(",");
-            sb.append(c.getNoteFinal() != null ? String.format("%.0f", c.getNoteFinal()) : "").append(",");
-            sb.append(c.getDateCreation() != null
-                    ? c.getDateCreation().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "").append(",");
-            sb.append(csv(c.getNumeroCertificat())).append(",");
-            sb.append(Boolean.TRUE.equals(c.getEstEnvoye()) ? "Oui" : "Non").append("\n");
-        }
+        String filename = "certificats_" +
+                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) +
+                (gzip ? ".csv.gz" : ".csv");
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip
+                        ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    // ═══════════════════════════════════════════════════════
+    // GET /api/admin/certificats/archive  (ZIP des PDF, en flux)
+    // ═══════════════════════════════════════════════════════
+    @GetMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> exporterArchive(
+            @RequestParam(required = false) String formation,
+            @RequestParam(required = false) String apprenant,
+            @RequestParam(required = false) String dateDebut,
+            @RequestParam(required = false) String dateFin,
+            @RequestParam(required = false) String search) {
+
+        LocalDate debut = parseDate(dateDebut);
+        LocalDate fin   = parseDate(dateFin);
+
+        StreamingResponseBody body = out -> adminCertificatUseCase
+                .ecrireArchivePdf(formation, apprenant, debut, fin, search, out);
 
-        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
         String filename = "certificats_" +
-                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".csv";
+                LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".zip";
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-                .body(bytes);
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    // ═══════════════════════════════════════════════════════
+    // POST /api/admin/certificats/envoyer-emails  (envoi groupé)
+    // ═══════════════════════════════════════════════════════
+    @PostMapping("/envoyer-emails")
+    public ResponseEntity<?> envoyerEmails(
+            @RequestParam(required = false) String formation,
+            @RequestParam(required = false) String apprenant,
+            @RequestParam(required = false) String dateDebut,
+            @RequestParam(required = false) String dateFin,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "true") boolean nonEnvoyesSeulement) {
+        try {
+            ProgressionEnvoiCertificats progression = adminCertificatUseCase.lancerEnvoiGroupe(
+                    formation, apprenant, parseDate(dateDebut), parseDate(dateFin), search,
+                    nonEnvoyesSeulement);
+            return ResponseEntity.accepted().body(progression);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════
+    // GET /api/admin/certificats/envoyer-emails/progression
+    // ═══════════════════════════════════════════════════════
+    @GetMapping("/envoyer-emails/progression")
+    public ResponseEntity<?> getProgressionEnvoi() {
+        return ResponseEntity.ok(adminCertificatUseCase.getProgressionEnvoiGroupe());
     }
 
     // ── Helpers ──────────────────────────────────────────────
@@ -181,9 +234,4 @@ public class AdminCertificatController {
         if (s == null || s.isBlank()) return null;
         try { return LocalDate.parse(s); } catch (DateTimeParseException e) { return null; }
     }
-
-    private String csv(String val) {
-        if (val == null) return "";
-        return "\"" + val.replace("\"", "\"\"") + "\"";
-    }
 }
\ No newline at end of file
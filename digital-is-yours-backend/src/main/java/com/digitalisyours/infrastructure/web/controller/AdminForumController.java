@@ -2,8 +2,8 @@ package com.digitalisyours.infrastructure.web.controller;
 
 import com.digitalisyours.domain.model.QuestionForum;
 import com.digitalisyours.domain.port.in.ForumUseCase;
+import com.digitalisyours.domain.port.in.ReponseForumUseCase;
 import com.digitalisyours.infrastructure.persistence.repository.*;
-import com.digitalisyours.infrastructure.persistence.entity.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
@@ -20,6 +20,7 @@ import java.util.Map;
 public class AdminForumController {
 
     private final ForumUseCase forumUseCase;
+    private final ReponseForumUseCase reponseForumUseCase;
     private final QuestionForumJpaRepository questionRepo;
     private final ReponsesForumJpaRepository reponseRepo;
 
@@ -62,10 +63,7 @@ public class AdminForumController {
     @DeleteMapping("/questions/{id}")
     public ResponseEntity<?> deleteQuestion(@PathVariable Long id) {
         try {
-            QuestionForumEntity q = questionRepo.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Question introuvable"));
-            questionRepo.delete(q);
-            log.info("Admin a supprimé la question forum #{}", id);
+            forumUseCase.supprimerQuestionAdmin(id);
             return ResponseEntity.ok(Map.of("success", true, "message", "Question supprimée"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
@@ -75,19 +73,7 @@ public class AdminForumController {
     @DeleteMapping("/reponses/{id}")
     public ResponseEntity<?> deleteReponse(@PathVariable Long id) {
         try {
-            ReponsesForumEntity r = reponseRepo.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Réponse introuvable"));
-            Long questionId = r.getQuestion().getId();
-            reponseRepo.delete(r);
-            // Mettre à jour le statut de la question si plus de réponses
-            long nbReponses = reponseRepo.countByQuestionId(questionId);
-            if (nbReponses == 0) {
-                questionRepo.findById(questionId).ifPresent(q -> {
-                    q.setStatut("NON_REPONDU");
-                    questionRepo.save(q);
-                });
-            }
-            log.info("Admin a supprimé la réponse forum #{}", id);
+            reponseForumUseCase.supprimerReponseAdmin(id);
             return ResponseEntity.ok(Map.of("success", true, "message", "Réponse supprimée"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
@@ -1,16 +1,20 @@
 package com.digitalisyours.infrastructure.web.controller;
 
 import com.digitalisyours.domain.model.Certificat;
+import com.digitalisyours.domain.model.FichierStocke;
 import com.digitalisyours.domain.port.in.CertificatUseCase;
 import com.digitalisyours.domain.port.in.ProfilApprenantUseCase;
 import com.digitalisyours.application.service.CertificatEmailService;
 import com.digitalisyours.infrastructure.persistence.repository.CertificatJpaRepository;
 import com.digitalisyours.infrastructure.web.security.JwtUtil;
+import com.digitalisyours.infrastructure.web.service.RangeStreamingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
@@ -40,6 +45,8 @@ public class CertificatController {
     private final JwtUtil                   jwtUtil;
     private final CertificatEmailService    certificatEmailService;
     private final CertificatJpaRepository   certificatJpaRepository;
+    private final RangeStreamingService     rangeStreamingService;
+    private final ObjectMapper              objectMapper;
 
     @Value("${app.base-url:http://localhost:4200}")
     private String baseUrl;
@@ -49,12 +56,7 @@ public class CertificatController {
 
     // ── Helpers ───────────────────────────────────────────────────────────────
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -129,42 +131,47 @@ public class CertificatController {
     // Accès PUBLIC — pas de token requis (QR Code depuis téléphone)
     // ═════════════════════════════════════════════════════════════════════════
     @GetMapping("/{id}/download")
-    public ResponseEntity<?> downloadCertificat(
-            @PathVariable Long id, HttpServletRequest request) {
+    public void downloadCertificat(
+            @PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FichierStocke pdf;
+        String disposition;
         try {
             String email = extractEmail(request);
-            byte[] pdfBytes;
-            String filename;
-            String disposition;
 
             if (email != null) {
                 // ── Accès authentifié (depuis l'appli Angular) ────────────────
                 // attachment = téléchargement forcé (comportement normal sur PC)
                 Long apprenantId = getApprenantId(email);
                 Certificat cert  = certificatUseCase.getCertificatById(id, apprenantId);
-                pdfBytes    = certificatUseCase.downloadCertificatPDF(id, apprenantId);
-                filename    = "certificat_"
+                pdf         = certificatUseCase.downloadCertificatPDF(id, apprenantId);
+                String filename = "certificat_"
                         + (cert.getNumeroCertificat() != null
                         ? cert.getNumeroCertificat().replace("#","").replace("-","_")
                         : id)
                         + ".pdf";
                 disposition = "attachment; filename=\"" + filename + "\"";
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
             } else {
                 // ── Accès public (QR Code depuis téléphone) ───────────────────
                 // inline = affichage direct dans le navigateur du téléphone
-                pdfBytes    = certificatUseCase.downloadCertificatPDFPublic(id);
-                filename    = "certificat_" + id + ".pdf";
-                disposition = "inline; filename=\"" + filename + "\"";
+                pdf         = certificatUseCase.downloadCertificatPDFPublic(id);
+                disposition = "inline; filename=\"certificat_" + id + ".pdf\"";
+                // Contenu immuable : les partages répétés sont absorbés par les caches (304 sinon)
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
             }
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition)
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes);
-
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(),
+                    Map.of("message", e.getMessage() != null ? e.getMessage() : "Erreur"));
+            return;
         }
+
+        // Fichier stocké servi sans copie mémoire, ETag fort = SHA-256 du PDF
+        rangeStreamingService.serve(pdf.getChemin(), MediaType.APPLICATION_PDF_VALUE, disposition,
+                "\"" + pdf.getSha256() + "\"", request, response);
     }
 
     // ═════════════════════════════════════════════════════════════════════════
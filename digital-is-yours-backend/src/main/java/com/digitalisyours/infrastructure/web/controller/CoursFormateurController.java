@@ -1,7 +1,9 @@
 package com.digitalisyours.infrastructure.web.controller;
 
 
+import com.digitalisyours.domain.exception.SessionUploadIntrouvableException;
 import com.digitalisyours.domain.model.Cours;
+import com.digitalisyours.domain.model.SessionUpload;
 
 import com.digitalisyours.domain.port.in.CoursFormateurUseCase;
 
@@ -11,12 +13,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import java.util.List;
 import java.util.Map;
@@ -156,13 +160,14 @@ public class CoursFormateurController {
             HttpServletRequest request) {
         String email = extractEmail(request);
         if (email == null) return unauthorized();
-        try {
+        // Le flux est fermé ici même si la validation échoue avant l'écriture
+        try (InputStream contenu = fichier.getInputStream()) {
             Cours cours = coursUseCase.uploadVideoLocale(
                     formationId, coursId, email,
                     fichier.getOriginalFilename(),
                     fichier.getContentType(),
                     fichier.getSize(),
-                    fichier.getBytes()
+                    contenu
             );
             log.info("Formateur {} a uploadé une vidéo pour le cours {}", email, coursId);
             return ResponseEntity.ok(cours);
@@ -192,15 +197,143 @@ public class CoursFormateurController {
         }
     }
 
+    // ── Upload reprenable par morceaux ────────────────────────
+    //
+    // 1. POST   /{coursId}/video/uploads                       { nomFichier, contentType, taille }
+    // 2. PUT    /{coursId}/video/uploads/{uploadId}?offset=N   corps brut (application/octet-stream)
+    // 3. GET    /{coursId}/video/uploads/{uploadId}            → offset validé (reprise après coupure)
+    // 4. POST   /{coursId}/video/uploads/{uploadId}/finaliser  → Cours avec videoType = LOCAL
+
+    @PostMapping("/{coursId}/video/uploads")
+    public ResponseEntity<?> demarrerUploadVideo(
+            @PathVariable Long formationId,
+            @PathVariable Long coursId,
+            @RequestBody Map<String, Object> body,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            Object taille = body.get("taille");
+            SessionUpload session = coursUseCase.demarrerUploadVideo(
+                    formationId, coursId, email,
+                    (String) body.get("nomFichier"),
+                    (String) body.get("contentType"),
+                    taille != null ? Long.parseLong(taille.toString()) : 0L
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(toUploadBody(session));
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping(value = "/{coursId}/video/uploads/{uploadId}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> envoyerMorceauVideo(
+            @PathVariable Long formationId,
+            @PathVariable Long coursId,
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            SessionUpload session = coursUseCase.ecrireMorceauVideo(
+                    formationId, coursId, email, uploadId, offset, request.getInputStream());
+            return ResponseEntity.ok(toUploadBody(session));
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (SessionUploadIntrouvableException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Erreur lecture fichier"));
+        }
+    }
+
+    @GetMapping("/{coursId}/video/uploads/{uploadId}")
+    public ResponseEntity<?> getUploadVideo(
+            @PathVariable Long formationId,
+            @PathVariable Long coursId,
+            @PathVariable String uploadId,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            return ResponseEntity.ok(toUploadBody(
+                    coursUseCase.getUploadVideo(formationId, coursId, email, uploadId)));
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (SessionUploadIntrouvableException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{coursId}/video/uploads/{uploadId}/finaliser")
+    public ResponseEntity<?> finaliserUploadVideo(
+            @PathVariable Long formationId,
+            @PathVariable Long coursId,
+            @PathVariable String uploadId,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            Cours cours = coursUseCase.finaliserUploadVideo(formationId, coursId, email, uploadId);
+            log.info("Formateur {} a finalisé l'upload vidéo {} pour le cours {}", email, uploadId, coursId);
+            return ResponseEntity.ok(cours);
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (SessionUploadIntrouvableException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{coursId}/video/uploads/{uploadId}")
+    public ResponseEntity<?> annulerUploadVideo(
+            @PathVariable Long formationId,
+            @PathVariable Long coursId,
+            @PathVariable String uploadId,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            coursUseCase.annulerUploadVideo(formationId, coursId, email, uploadId);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Upload annulé"));
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (SessionUploadIntrouvableException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ── Helpers ───────────────────────────────────────────────
 
+    private Map<String, Object> toUploadBody(SessionUpload session) {
+        return Map.of(
+                "uploadId",     session.getId(),
+                "offset",       session.getOffset(),
+                "tailleTotale", session.getTailleTotale(),
+                "complete",     session.isComplete()
+        );
+    }
+
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -20,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 
 import java.nio.file.Path;
@@ -63,13 +64,14 @@ public class DocumentController {
             HttpServletRequest request) {
         String email = extractEmail(request);
         if (email == null) return unauthorized();
-        try {
+        // Le flux est fermé ici même si la validation échoue avant l'écriture
+        try (InputStream contenu = fichier.getInputStream()) {
             Document doc = documentUseCase.uploadDocument(
                     formationId, coursId, email,
                     fichier.getOriginalFilename(),
                     fichier.getContentType(),
                     fichier.getSize(),
-                    fichier.getBytes(),
+                    contenu,
                     titre
             );
             log.info("Formateur {} a uploadé le document '{}' pour le cours {}", email, doc.getTitre(), coursId);
@@ -154,12 +156,7 @@ public class DocumentController {
     // ── Helpers ───────────────────────────────────────────────
 
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -242,12 +242,7 @@ public class ForumController {
     // ════════════════════════════════════════════════════════════════
 
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
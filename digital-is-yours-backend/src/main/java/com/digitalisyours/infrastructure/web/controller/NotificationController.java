@@ -1,18 +1,20 @@
 package com.digitalisyours.infrastructure.web.controller;
 
-import com.digitalisyours.domain.model.Notification;
 import com.digitalisyours.domain.port.in.NotificationUseCase;
 
 import com.digitalisyours.infrastructure.web.security.JwtUtil;
+import com.digitalisyours.infrastructure.web.service.NotificationSseService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 @RestController
@@ -23,11 +25,47 @@ import java.util.stream.Collectors;
 public class NotificationController {
     private final NotificationUseCase notificationUseCase;
     private final JwtUtil jwtUtil;
+    private final NotificationSseService sseService;
 
-    // Types de notifications réservés aux formateurs
-    private static final List<String> TYPES_FORMATEUR = List.of(
-            "FORMATION_AFFECTEE", "FORMATION_RETIREE", "FORMATEUR"
-    );
+    @Value("${app.notifications.sse.jeton-duree-ms:60000}")
+    private long jetonDureeMs;
+
+    // Jeton court pour ouvrir le flux : EventSource ne peut pas envoyer l'en-tête Authorization
+    @PostMapping("/flux/jeton")
+    public ResponseEntity<?> jetonFlux(
+            @RequestHeader("Authorization") String authHeader) {
+        String email = extractEmail(authHeader);
+        if (email == null) return unauthorized();
+        return ResponseEntity.ok(Map.of(
+                "jeton", jwtUtil.genererJetonFlux(email, extractRole(authHeader), jetonDureeMs),
+                "dureeMs", jetonDureeMs));
+    }
+
+    // Flux SSE : nouvelles notifications + compteur de non lues, sans polling.
+    // Authentification : ?jeton= (EventSource) ou en-tête Authorization (fetch).
+    // En reconnexion, le navigateur renvoie Last-Event-ID (id de la dernière notification reçue) ;
+    // un client qui rouvre un nouvel EventSource le passe en ?dernierId=.
+    // 401 si le jeton est absent ou expiré : EventSource s'arrête, le client redemande un jeton.
+    @GetMapping(value = "/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> flux(
+            @RequestParam(required = false) String jeton,
+            @RequestParam(value = "dernierId", required = false) Long dernierIdParam,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long dernierId) {
+        String email;
+        String role;
+        Claims claims = jwtUtil.verifierJetonFlux(jeton);
+        if (claims != null) {
+            email = claims.getSubject();
+            role  = claims.get("role", String.class);
+        } else {
+            email = extractEmail(authHeader);
+            role  = extractRole(authHeader);
+        }
+        if (email == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(sseService.abonner(email, role,
+                dernierId != null ? dernierId : dernierIdParam));
+    }
 
     @GetMapping
     public ResponseEntity<?> getMesNotifications(
@@ -36,17 +74,24 @@ public class NotificationController {
         String email = extractEmail(authHeader);
         if (email == null) return unauthorized();
 
-        List<Notification> notifs = notificationUseCase.getMesNotifications(email);
+        // ✅ Si appel depuis /api/apprenant → notifs de type formateur exclues dans la requête
+        return ResponseEntity.ok(notificationUseCase.getMesNotifications(email, extractRole(authHeader)));
+    }
 
-        // ✅ Si appel depuis /api/apprenant → filtrer les notifs de type formateur
-        String role = extractRole(authHeader);
-        if ("APPRENANT".equals(role)) {
-            notifs = notifs.stream()
-                    .filter(n -> !TYPES_FORMATEUR.contains(n.getType()))
-                    .collect(Collectors.toList());
+    // Boîte de réception paginée : ?limite=20 puis ?curseur=<curseurSuivant de la page précédente>
+    @GetMapping("/page")
+    public ResponseEntity<?> getPage(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "20") int limite) {
+        String email = extractEmail(authHeader);
+        if (email == null) return unauthorized();
+        try {
+            return ResponseEntity.ok(notificationUseCase.getPage(
+                    email, extractRole(authHeader), curseur, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
-
-        return ResponseEntity.ok(notifs);
     }
 
     @GetMapping("/count")
@@ -56,17 +101,8 @@ public class NotificationController {
         if (email == null) return unauthorized();
 
         // ✅ Pour un apprenant, compter uniquement ses notifications apprenant
-        String role = extractRole(authHeader);
-        if ("APPRENANT".equals(role)) {
-            List<Notification> notifs = notificationUseCase.getMesNotifications(email);
-            long count = notifs.stream()
-                    .filter(n -> !TYPES_FORMATEUR.contains(n.getType()))
-                    .filter(n -> !n.isLu())
-                    .count();
-            return ResponseEntity.ok(Map.of("count", count));
-        }
-
-        return ResponseEntity.ok(Map.of("count", notificationUseCase.getNonLuesCount(email)));
+        return ResponseEntity.ok(Map.of("count",
+                notificationUseCase.getNonLuesCount(email, extractRole(authHeader))));
     }
 
     @PatchMapping("/{id}/lire")
@@ -76,10 +112,8 @@ public class NotificationController {
         String email = extractEmail(authHeader);
         if (email == null) return unauthorized();
         try {
-            List<Notification> notifs = notificationUseCase.getMesNotifications(email);
-            boolean appartient = notifs.stream().anyMatch(n -> n.getId().equals(id));
-            if (!appartient) return ResponseEntity.notFound().build();
             notificationUseCase.marquerCommentLue(id, email);
+            sseService.rafraichirCompteur(email);
             return ResponseEntity.ok(Map.of("success", true));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -92,6 +126,7 @@ public class NotificationController {
         String email = extractEmail(authHeader);
         if (email == null) return unauthorized();
         notificationUseCase.marquerToutesLues(email);
+        sseService.rafraichirCompteur(email);
         return ResponseEntity.ok(Map.of("success", true,
                 "message", "Toutes les notifications marquées comme lues"));
     }
@@ -99,18 +134,16 @@ public class NotificationController {
     private String extractEmail(String authHeader) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-            String token = authHeader.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
+            // Claims vérifiés une fois par token, puis servis depuis le cache de JwtUtil
+            return jwtUtil.getClaims(authHeader.substring(7)).getSubject();
         } catch (Exception e) { return null; }
     }
 
     private String extractRole(String authHeader) {
         try {
             if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-            String token = authHeader.substring(7);
-            if (!jwtUtil.isValid(token)) return null;
             // Extraire le rôle depuis le token JWT
-            return jwtUtil.extractRole(token);
+            return jwtUtil.getClaims(authHeader.substring(7)).get("role", String.class);
         } catch (Exception e) { return null; }
     }
 
@@ -1,44 +1,54 @@
 package com.digitalisyours.infrastructure.web.controller;
 
-import com.digitalisyours.domain.model.Categorie;
-import com.digitalisyours.domain.model.Formation;
-import com.digitalisyours.domain.port.in.CategorieUseCase;
-import com.digitalisyours.domain.port.in.FormationUseCase;
+import com.digitalisyours.infrastructure.web.service.CataloguePublicService;
+import com.digitalisyours.infrastructure.web.service.CataloguePublicService.Reponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/public")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {"ETag", "X-Total-Count"})
 public class PublicFormationController {
-    private final FormationUseCase formationUseCase;
-    private final CategorieUseCase categorieUseCase;
+    private final CataloguePublicService catalogue;
 
+    // Servi depuis le snapshot en mémoire (JSON déjà sérialisé) ; 304 si l'ETag n'a pas changé.
+    // Filtres optionnels ; pagination si taille est fourni (page à partir de 0, total dans X-Total-Count).
     @GetMapping("/formations")
-    public ResponseEntity<List<Formation>> getFormationsPubliees() {
-        List<Formation> publiees = formationUseCase.getAllFormations()
-                .stream()
-                .filter(f -> "PUBLIE".equals(f.getStatut()))
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(publiees);
+    public ResponseEntity<byte[]> getFormationsPubliees(
+            @RequestParam(required = false) Long categorieId,
+            @RequestParam(required = false) String niveau,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer taille,
+            WebRequest request) {
+        Reponse reponse = catalogue.getFormations(categorieId, niveau, page, taille);
+        if (request.checkNotModified(reponse.etag())) return null;
+        return json(reponse).header("X-Total-Count", String.valueOf(reponse.total()))
+                .body(reponse.json());
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<List<Categorie>> getCategoriesVisibles() {
-        List<Categorie> visibles = categorieUseCase.getAllCategories()
-                .stream()
-                .filter(c -> Boolean.TRUE.equals(c.getVisibleCatalogue()))
-                .sorted(java.util.Comparator.comparing(
-                        c -> c.getOrdreAffichage() != null ? c.getOrdreAffichage() : 0
-                ))
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(visibles);
+    public ResponseEntity<byte[]> getCategoriesVisibles(WebRequest request) {
+        Reponse reponse = catalogue.getCategories();
+        if (request.checkNotModified(reponse.etag())) return null;
+        return json(reponse).body(reponse.json());
+    }
+
+    private ResponseEntity.BodyBuilder json(Reponse reponse) {
+        // Court max-age : une publication apparaît vite, l'ETag évite de renvoyer le corps
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(reponse.etag())
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic());
     }
 }
@@ -1,15 +1,20 @@
 package com.digitalisyours.infrastructure.web.controller;
 
 import com.digitalisyours.domain.model.OptionQuestion;
+import com.digitalisyours.domain.model.JobGenerationQuiz;
 import com.digitalisyours.domain.model.Question;
 import com.digitalisyours.domain.model.Quiz;
 import com.digitalisyours.domain.port.in.QuizFinalFormationUseCase;
+import com.digitalisyours.domain.port.in.GenerationQuizJobUseCase;
 import com.digitalisyours.infrastructure.web.security.JwtUtil;
+import com.digitalisyours.infrastructure.web.service.JobQuizSseService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -24,6 +29,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class QuizFinalFormateurController {
     private final QuizFinalFormationUseCase quizFinalUseCase;
+    private final GenerationQuizJobUseCase jobUseCase;
+    private final JobQuizSseService jobSseService;
     private final JwtUtil jwtUtil;
 
     // ══════════════════════════════════════════════════════
@@ -108,6 +115,73 @@ public class QuizFinalFormateurController {
         }
     }
 
+    // ══════════════════════════════════════════════════════
+    // POST — Générer le quiz final en arrière-plan (job)
+    // ══════════════════════════════════════════════════════
+
+    @PostMapping("/generer-ia/jobs")
+    public ResponseEntity<?> soumettreGeneration(
+            @PathVariable Long formationId,
+            @RequestBody Map<String, Object> payload,
+            HttpServletRequest request) {
+
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+
+        try {
+            int     nbQ          = clamp(getInt(payload,   "nombreQuestions",  20), 5, 50);
+            String  diff         = difficulte(getString(payload, "difficulte", "MOYEN"));
+            boolean inclDef      = getBool(payload, "inclureDefinitions",  true);
+            boolean inclPrat     = getBool(payload, "inclureCasPratiques", true);
+            float   note         = getFloat(payload, "notePassage",        70f);
+            int     tentatives   = getInt(payload,  "nombreTentatives",    3);
+            int     dureeMinutes = getInt(payload,  "dureeMinutes",        45);
+
+            JobGenerationQuiz job = jobUseCase.soumettreQuizFinal(
+                    formationId, email,
+                    nbQ, diff, inclDef, inclPrat, note, tentatives, dureeMinutes
+            );
+            return ResponseEntity.accepted().body(jobSseService.toResponse(job, this::toResponse));
+
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(429).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/generer-ia/jobs/{jobId}")
+    public ResponseEntity<?> getGeneration(
+            @PathVariable String jobId,
+            HttpServletRequest request) {
+
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+
+        try {
+            return ResponseEntity.ok(jobSseService.toResponse(
+                    jobUseCase.getJob(jobId, email), this::toResponse));
+        } catch (SecurityException e) {
+            return forbidden(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Authentification : ?jeton= (jeton de flux, EventSource) ou en-tête Authorization.
+    // 401 si absent ou expiré : le client redemande un jeton ou repasse en polling.
+    @GetMapping(value = "/generer-ia/jobs/{jobId}/evenements", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> suivreGeneration(
+            @PathVariable String jobId,
+            @RequestParam(required = false) String jeton,
+            HttpServletRequest request) {
+        String email = jwtUtil.extractEmailFlux(jeton, request);
+        if (email == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(jobSseService.suivre(jobId, email, this::toResponse));
+    }
+
     // ══════════════════════════════════════════════════════
     // PUT — Modifier une question
     // ══════════════════════════════════════════════════════
@@ -317,12 +391,7 @@ public class QuizFinalFormateurController {
     // ══════════════════════════════════════════════════════
 
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -0,0 +1,25 @@
+package com.digitalisyours.infrastructure.web.controller;
+
+import com.digitalisyours.domain.model.ResultatRecherche;
+import com.digitalisyours.domain.port.in.RechercheUseCase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/public/recherche")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class RechercheController {
+    private final RechercheUseCase rechercheUseCase;
+
+    // Recherche plein texte dans le catalogue (formations + cours publiés), termes surlignés par <mark>
+    @GetMapping
+    public ResponseEntity<List<ResultatRecherche>> rechercher(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(rechercheUseCase.rechercherCatalogue(q, limite));
+    }
+}
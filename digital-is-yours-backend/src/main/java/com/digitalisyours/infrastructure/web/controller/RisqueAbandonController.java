@@ -1,6 +1,7 @@
 package com.digitalisyours.infrastructure.web.controller;
 
 import com.digitalisyours.domain.model.AnalyseRisque;
+import com.digitalisyours.domain.model.ProgressionAnalyseRisque;
 import com.digitalisyours.domain.port.in.RisqueAbandonUseCase;
 import com.digitalisyours.infrastructure.persistence.repository.ApprenantJpaRepository;
 import com.digitalisyours.infrastructure.web.security.JwtUtil;
@@ -77,30 +78,35 @@ public class RisqueAbandonController {
         }
     }
 
-    // ── POST déclencher analyse globale (test) ───────────────
+    // ── POST déclencher analyse globale (asynchrone) ─────────
     @PostMapping("/admin/lancer-analyse")
-    public ResponseEntity<?> lancerAnalyseGlobale() {
+    public ResponseEntity<?> lancerAnalyseGlobale(
+            @RequestParam(defaultValue = "false") boolean complete) {
         try {
-            log.info("Analyse globale déclenchée manuellement");
-            risqueUseCase.analyserTousLesApprenants();
-            return ResponseEntity.ok(Map.of(
+            log.info("Analyse globale déclenchée manuellement (complete={})", complete);
+            ProgressionAnalyseRisque progression = risqueUseCase.lancerAnalyseGlobale(complete);
+            return ResponseEntity.accepted().body(Map.of(
                     "success", true,
-                    "message", "Analyse globale terminée"
+                    "message", "Analyse globale lancée",
+                    "progression", progression
             ));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("message", e.getMessage()));
         }
     }
 
+    // ── GET avancement de l'analyse globale ──────────────────
+    @GetMapping("/admin/progression")
+    public ResponseEntity<?> getProgressionAnalyseGlobale() {
+        return ResponseEntity.ok(risqueUseCase.getProgressionAnalyseGlobale());
+    }
+
     // ── Helpers ──────────────────────────────────────────────
     private String extractEmail(HttpServletRequest req) {
-        try {
-            String auth = req.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(req);
     }
 
     private ResponseEntity<?> unauthorized() {
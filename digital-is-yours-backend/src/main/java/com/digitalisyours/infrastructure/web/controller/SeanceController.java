@@ -44,6 +44,22 @@ public class SeanceController {
         return ResponseEntity.ok(result);
     }
 
+    // Avancement de la diffusion (notifications + emails) lancée à la création
+    @GetMapping("/{id}/diffusion")
+    public ResponseEntity<?> getProgressionDiffusion(
+            @PathVariable Long id,
+            HttpServletRequest request) {
+        String email = extractEmail(request);
+        if (email == null) return unauthorized();
+        try {
+            return ResponseEntity.ok(seanceUseCase.getProgressionDiffusion(id, email));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).body(Map.of("message", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> supprimerSeance(
             @PathVariable Long id,
@@ -92,12 +108,7 @@ public class SeanceController {
     }
 
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -71,13 +71,7 @@ public class SessionCalendrierController {
     }
 
     private String extractEmail(HttpServletRequest req) {
-        try {
-            String auth = req.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token)
-                    ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) { return null; }
+        return jwtUtil.extractEmail(req);
     }
 
     private ResponseEntity<?> unauthorized() {
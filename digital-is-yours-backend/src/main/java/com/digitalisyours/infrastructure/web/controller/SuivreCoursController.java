@@ -3,7 +3,9 @@ package com.digitalisyours.infrastructure.web.controller;
 import com.digitalisyours.domain.model.Document;
 import com.digitalisyours.domain.port.in.SuivreCoursUseCase;
 import com.digitalisyours.infrastructure.web.security.JwtUtil;
+import com.digitalisyours.infrastructure.web.service.RangeStreamingService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,7 +16,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -27,6 +31,7 @@ import java.util.Map;
 public class SuivreCoursController {
     private final SuivreCoursUseCase suivreCoursUseCase;
     private final JwtUtil jwtUtil;
+    private final RangeStreamingService rangeStreamingService;
 
     @Value("${app.upload.dir:uploads/videos}")
     private String uploadDir;
@@ -131,55 +136,56 @@ public class SuivreCoursController {
      * Sécurité : path traversal bloqué sur le filename.
      */
     @GetMapping("/api/apprenant/cours/{coursId}/video/stream/{filename}")
-    public ResponseEntity<Resource> streamVideo(
+    public void streamVideo(
             @PathVariable Long   coursId,
             @PathVariable String filename,
             @RequestParam Long   formationId,
-            HttpServletRequest   request) {
+            HttpServletRequest   request,
+            HttpServletResponse  response) throws IOException {
 
         // Sécurité basique : bloquer path traversal
         if (filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
             log.warn("Tentative de path traversal bloquée : {}", filename);
-            return ResponseEntity.badRequest().build();
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
         String email = extractEmail(request);
-        if (email == null) return ResponseEntity.status(401).build();
+        if (email == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
 
         try {
             // Vérification accès métier
             suivreCoursUseCase.verifierAccesCours(email, formationId, coursId);
         } catch (SecurityException e) {
             log.warn("Accès vidéo refusé pour {} cours={}", email, coursId);
-            return ResponseEntity.status(403).build();
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
         } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        try {
-            Path filePath = Paths.get(uploadDir, "cours", coursId.toString(), filename);
-            Resource resource = new UrlResource(filePath.toUri());
+        Path filePath = Paths.get(uploadDir, "cours", coursId.toString(), filename);
 
-            if (!resource.exists() || !resource.isReadable()) {
-                log.warn("Vidéo introuvable : {}", filePath);
-                return ResponseEntity.notFound().build();
-            }
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            log.warn("Vidéo introuvable : {}", filePath);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            String contentType = detectContentType(filename);
+        String contentType = detectContentType(filename);
 
+        // Chaque seek du lecteur arrive ici avec un Range : ne logguer que l'ouverture
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || range.startsWith("bytes=0-")) {
             log.info("Stream vidéo : apprenant={} cours={} fichier={}", email, coursId, filename);
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + filename + "\"")
-                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
-                    .body(resource);
-
-        } catch (MalformedURLException e) {
-            log.error("URL malformée pour le fichier {} : {}", filename, e.getMessage());
-            return ResponseEntity.badRequest().build();
         }
+
+        rangeStreamingService.serve(filePath, contentType,
+                "inline; filename=\"" + filename + "\"", request, response);
     }
 
     // ════════════════════════════════════════════════════════
@@ -187,14 +193,7 @@ public class SuivreCoursController {
     // ════════════════════════════════════════════════════════
 
     private String extractEmail(HttpServletRequest request) {
-        try {
-            String auth = request.getHeader("Authorization");
-            if (auth == null || !auth.startsWith("Bearer ")) return null;
-            String token = auth.substring(7);
-            return jwtUtil.isValid(token) ? jwtUtil.extractEmail(token) : null;
-        } catch (Exception e) {
-            return null;
-        }
+        return jwtUtil.extractEmail(request);
     }
 
     private ResponseEntity<?> unauthorized() {
@@ -1,23 +1,26 @@
 package com.digitalisyours.infrastructure.web.controller;
 
+import com.digitalisyours.infrastructure.web.service.RangeStreamingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 @RestController
 @RequestMapping("/api/formateur/cours")
 @CrossOrigin(origins = "http://localhost:4200")
+@RequiredArgsConstructor
 @Slf4j
 public class VideoStreamController {
+    private final RangeStreamingService rangeStreamingService;
+
     @Value("${app.upload.dir:uploads/videos}")
     private String uploadDir;
 
@@ -28,37 +31,32 @@ public class VideoStreamController {
      * @param filename Nom du fichier UUID (ex: "550e8400-e29b-41d4-a716-446655440000.mp4")
      */
     @GetMapping("/{coursId}/video/stream/{filename}")
-    public ResponseEntity<Resource> streamVideo(
+    public void streamVideo(
             @PathVariable Long coursId,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         // Sécurité basique : le filename ne doit pas contenir de path traversal
         if (filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
-            return ResponseEntity.badRequest().build();
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
-        try {
-            Path filePath = Paths.get(uploadDir, "cours", coursId.toString(), filename);
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists() || !resource.isReadable()) {
-                log.warn("Fichier vidéo introuvable : {}", filePath);
-                return ResponseEntity.notFound().build();
-            }
+        Path filePath = Paths.get(uploadDir, "cours", coursId.toString(), filename);
 
-            // Détecter le content type selon l'extension
-            String contentType = detectContentType(filename);
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            log.warn("Fichier vidéo introuvable : {}", filePath);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
-                    .body(resource);
+        // Détecter le content type selon l'extension
+        String contentType = detectContentType(filename);
 
-        } catch (MalformedURLException e) {
-            log.error("URL malformée pour le fichier {}: {}", filename, e.getMessage());
-            return ResponseEntity.badRequest().build();
-        }
+        // Range / If-Range / ETag gérés par le service partagé
+        rangeStreamingService.serve(filePath, contentType,
+                "inline; filename=\"" + filename + "\"", request, response);
     }
 
     private String detectContentType(String filename) {
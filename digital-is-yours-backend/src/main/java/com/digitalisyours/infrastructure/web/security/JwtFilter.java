@@ -3,6 +3,9 @@ package com.digitalisyours.infrastructure.web.security;
 
 import com.digitalisyours.infrastructure.persistence.entity.UserEntity;
 import com.digitalisyours.infrastructure.persistence.repository.UserJpaRepository;
+import com.digitalisyours.infrastructure.web.security.PrincipalCache.Principal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -25,6 +29,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserJpaRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -42,22 +47,36 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             final String jwt = authHeader.substring(7);
 
-            // Valide le token d'abord
-            if (!jwtUtil.isValid(jwt)) {
+            // Valide le token d'abord (une seule vérification, claims gardés pour les contrôleurs)
+            final Claims claims;
+            try {
+                claims = jwtUtil.getClaims(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
                 filterChain.doFilter(request, response);
                 return;
             }
+            // Jeton de flux SSE : n'authentifie pas les appels d'API
+            if (claims.get(JwtUtil.CLAIM_USAGE) != null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            request.setAttribute(JwtUtil.ATTRIBUT_CLAIMS, claims);
 
-            final String userEmail = jwtUtil.extractEmail(jwt);
+            final String userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UserEntity userEntity = userRepository.findByEmail(userEmail)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
+                // Cache d'abord : la table users n'est relue qu'à l'expiration ou après invalidation
+                Principal principal = principalCache.get(userEmail);
+                if (principal == null) {
+                    UserEntity userEntity = userRepository.findByEmail(userEmail)
+                            .orElseThrow(() -> new RuntimeException("User not found"));
+                    principal = principalCache.mettreEnCache(userEntity);
+                }
 
                 // ⚠️ VÉRIFICATION DÉSACTIVATION
                 // Le token est valide mais le compte a été désactivé → on bloque
-                if (!userEntity.isActive()) {
+                if (!principal.actif()) {
                     log.warn("Compte désactivé — accès refusé: {}", userEmail);
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.setContentType("application/json;charset=UTF-8");
@@ -67,7 +86,8 @@ public class JwtFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                UserDetails userDetails = userEntity;
+                // Principal léger : l'entité JPA n'est ni gardée en cache ni exposée
+                UserDetails userDetails = new User(principal.email(), "", principal.authorities());
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
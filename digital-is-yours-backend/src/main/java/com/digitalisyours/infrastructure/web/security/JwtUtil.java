@@ -2,27 +2,68 @@ package com.digitalisyours.infrastructure.web.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Génération et vérification des JWT.
+ *
+ * Un même token est présenté à chaque requête (et relu par JwtFilter puis par le
+ * contrôleur) : les claims vérifiés sont gardés en cache jusqu'à l'exp du token,
+ * la signature HMAC n'est donc vérifiée qu'une fois par token.
+ * JwtFilter dépose aussi les claims dans la requête (ATTRIBUT_CLAIMS).
+ */
 @Component
+@Slf4j
 public class JwtUtil {
 
+    public static final String ATTRIBUT_CLAIMS = "jwt.claims";
+
+    // Jeton court réservé au flux SSE (EventSource ne sait pas envoyer Authorization) :
+    // refusé par JwtFilter comme jeton d'API, accepté seulement par verifierJetonFlux
+    public static final String CLAIM_USAGE = "usage";
+    public static final String USAGE_FLUX  = "flux";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long expiration;
 
-    private SecretKey getKey() {
-        byte[] bytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(bytes);
+    @Value("${app.security.jwt-cache.taille-max:10000}")
+    private int tailleMaxCache;
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    private record ClaimsVerifies(Claims claims, long expireA) {}
+
+    private final Map<String, ClaimsVerifies> cache = new ConcurrentHashMap<>();
+
+    // ── Métriques ──
+    private final LongAdder hits   = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        // Clé et parser construits une seule fois (thread-safe)
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser().verifyWith(key).build();
     }
 
     public String generateToken(String email, String role) {
@@ -31,10 +72,32 @@ public class JwtUtil {
                 .claim("role", role)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getKey())
+                .signWith(key)
+                .compact();
+    }
+
+    public String genererJetonFlux(String email, String role, long dureeMs) {
+        return Jwts.builder()
+                .subject(email)
+                .claim("role", role)
+                .claim(CLAIM_USAGE, USAGE_FLUX)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + dureeMs))
+                .signWith(key)
                 .compact();
     }
 
+    /** Claims d'un jeton de flux valide, null s'il est absent, expiré ou d'un autre usage. */
+    public Claims verifierJetonFlux(String jeton) {
+        if (jeton == null || jeton.isBlank()) return null;
+        try {
+            Claims claims = getClaims(jeton);
+            return USAGE_FLUX.equals(claims.get(CLAIM_USAGE, String.class)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String extractEmail(String token) {
         return getClaims(token).getSubject();
     }
@@ -52,11 +115,86 @@ public class JwtUtil {
         }
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Email de l'utilisateur authentifié : claims déposés par JwtFilter,
+     * sinon lecture de l'en-tête Authorization. Null si absent ou invalide.
+     */
+    public String extractEmail(HttpServletRequest request) {
+        Claims claims = getClaims(request);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Email d'un abonné SSE : jeton de flux (?jeton=, seul moyen pour EventSource),
+     * sinon en-tête Authorization. Null si aucun des deux n'est valide.
+     */
+    public String extractEmailFlux(String jeton, HttpServletRequest request) {
+        Claims flux = verifierJetonFlux(jeton);
+        return flux != null ? flux.getSubject() : extractEmail(request);
+    }
+
+    public Claims getClaims(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUT_CLAIMS) instanceof Claims claims) {
+            return claims;
+        }
+        String auth = request.getHeader("Authorization");
+        if (auth == null || !auth.startsWith("Bearer ")) return null;
+        try {
+            Claims claims = getClaims(auth.substring(7));
+            request.setAttribute(ATTRIBUT_CLAIMS, claims);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Claims getClaims(String token) {
+        long maintenant = System.currentTimeMillis();
+        ClaimsVerifies verifies = cache.get(token);
+        if (verifies != null) {
+            if (maintenant < verifies.expireA()) {
+                hits.increment();
+                return verifies.claims();
+            }
+            // Expiré : on laisse le parser lever ExpiredJwtException
+            cache.remove(token, verifies);
+        }
+        misses.increment();
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            if (cache.size() >= tailleMaxCache) {
+                purgerExpires();
+                if (cache.size() >= tailleMaxCache) cache.clear();
+            }
+            cache.put(token, new ClaimsVerifies(claims, exp.getTime()));
+        }
+        return claims;
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MAINTENANCE + MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void maintenance() {
+        purgerExpires();
+        if (hits.sum() + misses.sum() > 0) {
+            log.info("Cache JWT : {}", getStatistiques());
+        }
+    }
+
+    private void purgerExpires() {
+        long maintenant = System.currentTimeMillis();
+        cache.values().removeIf(v -> maintenant >= v.expireA());
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("taille", cache.size());
+        stats.put("hits",   hits.sum());
+        stats.put("misses", misses.sum());
+        return stats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package com.digitalisyours.infrastructure.web.security;
+
+import com.digitalisyours.domain.port.out.PrincipalCachePort;
+import com.digitalisyours.infrastructure.persistence.entity.UserEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des principaux JWT, par email.
+ *
+ * Évite un SELECT sur users à chaque requête authentifiée (dont le polling du
+ * compteur de notifications). Une entrée vit au plus ttl-secondes ; AdminService
+ * l'invalide dès qu'un compte est désactivé, supprimé ou change de rôle / d'email.
+ * Les comptes désactivés sont aussi mis en cache pour refuser sans requête SQL.
+ */
+@Component
+@Slf4j
+public class PrincipalCache implements PrincipalCachePort {
+
+    @Value("${app.security.principal-cache.ttl-secondes:60}")
+    private long ttlSecondes;
+
+    @Value("${app.security.principal-cache.taille-max:10000}")
+    private int tailleMax;
+
+    public record Principal(Long id, String email, boolean actif,
+                            List<GrantedAuthority> authorities, long expireA) {
+        boolean expire(long maintenant) {
+            return maintenant >= expireA;
+        }
+    }
+
+    private final Map<String, Principal> principaux = new ConcurrentHashMap<>();
+
+    // ── Métriques ──
+    private final LongAdder hits      = new LongAdder();
+    private final LongAdder misses    = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public Principal get(String email) {
+        Principal p = principaux.get(email);
+        if (p == null) {
+            misses.increment();
+            return null;
+        }
+        if (p.expire(System.currentTimeMillis())) {
+            principaux.remove(email, p);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return p;
+    }
+
+    public Principal mettreEnCache(UserEntity user) {
+        Collection<? extends GrantedAuthority> roles = user.getAuthorities();
+        Principal p = new Principal(user.getId(), user.getEmail(), user.isActive(),
+                List.copyOf(roles), System.currentTimeMillis() + ttlSecondes * 1000);
+
+        if (principaux.size() >= tailleMax) {
+            purgerExpires();
+            if (principaux.size() >= tailleMax) {
+                // Toujours plein : on repart de zéro plutôt que de dépasser la borne
+                evictions.add(principaux.size());
+                principaux.clear();
+            }
+        }
+        principaux.put(user.getEmail(), p);
+        return p;
+    }
+
+    @Override
+    public void invalider(String email) {
+        if (email != null && principaux.remove(email) != null) {
+            log.debug("Principal invalidé : {}", email);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // MAINTENANCE + MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    @Scheduled(fixedRate = 3600000)
+    public void maintenance() {
+        purgerExpires();
+        if (hits.sum() + misses.sum() > 0) {
+            log.info("Cache principaux JWT : {}", getStatistiques());
+        }
+    }
+
+    private void purgerExpires() {
+        long maintenant = System.currentTimeMillis();
+        int avant = principaux.size();
+        principaux.values().removeIf(p -> p.expire(maintenant));
+        evictions.add(Math.max(0, avant - principaux.size()));
+    }
+
+    public Map<String, Object> getStatistiques() {
+        long nbHits   = hits.sum();
+        long nbMisses = misses.sum();
+        long total    = nbHits + nbMisses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("taille",    principaux.size());
+        stats.put("hits",      nbHits);
+        stats.put("misses",    nbMisses);
+        stats.put("evictions", evictions.sum());
+        stats.put("tauxHit",   total == 0 ? 0.0 : Math.round(nbHits * 1000.0 / total) / 10.0);
+        return stats;
+    }
+}
@@ -1,9 +1,11 @@
 package com.digitalisyours.infrastructure.web.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -35,10 +37,18 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Redispatch asynchrone (SSE) d'une requête déjà autorisée
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/api/apprenant/certificats/*/download").permitAll() // ← AJOUT
                         .requestMatchers("/api/public/portfolio/**").permitAll()
+                        // Flux SSE : authentifié par le jeton de flux (?jeton=), vérifié par le contrôleur
+                        .requestMatchers(HttpMethod.GET,
+                                "/api/formateur/notifications/flux",
+                                "/api/apprenant/notifications/flux",
+                                "/api/formateur/formations/*/cours/*/mini-quiz/generer-ia/jobs/*/evenements",
+                                "/api/formateur/formations/*/quiz-final/generer-ia/jobs/*/evenements").permitAll()
                         .requestMatchers("/api/admin/certificats/**").authenticated()
                         .anyRequest().authenticated()
                 )
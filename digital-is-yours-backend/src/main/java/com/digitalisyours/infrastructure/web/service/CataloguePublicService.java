@@ -0,0 +1,200 @@
+package com.digitalisyours.infrastructure.web.service;
+
+import com.digitalisyours.domain.model.Categorie;
+import com.digitalisyours.domain.model.Formation;
+import com.digitalisyours.domain.port.out.CatalogueCachePort;
+import com.digitalisyours.domain.port.out.CategorieRepositoryPort;
+import com.digitalisyours.domain.port.out.FormationRepositoryPort;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Snapshot en mémoire du catalogue public (formations publiées + catégories visibles).
+ *
+ * Le catalogue est l'endpoint anonyme le plus sollicité et change rarement :
+ * il est lu en base une seule fois, puis servi sous forme de JSON déjà sérialisé
+ * avec un ETag fort. FormationService et CategorieService l'invalident à chaque
+ * modification ; un rafraîchissement périodique reprend les compteurs
+ * (inscrits, notes) mis à jour ailleurs.
+ *
+ * Les variantes filtrées / paginées sont sérialisées à la première demande et
+ * gardées avec le snapshot (LRU bornée), jetées à la reconstruction suivante.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CataloguePublicService implements CatalogueCachePort {
+    private static final int MAX_VARIANTES = 256;
+
+    private final FormationRepositoryPort formationRepository;
+    private final CategorieRepositoryPort categorieRepository;
+    private final ObjectMapper            objectMapper;
+
+    /** Corps JSON prêt à écrire + ETag + nombre total d'éléments (avant pagination). */
+    public record Reponse(byte[] json, String etag, int total) {}
+
+    private record Snapshot(long version, List<Formation> formations, Reponse categories,
+                            Map<String, Reponse> variantes) {}
+
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile Snapshot snapshot;
+
+    // ── Métriques ──
+    private final LongAdder lectures        = new LongAdder();
+    private final LongAdder reconstructions = new LongAdder();
+
+    // ══════════════════════════════════════════════════════
+    // LECTURE
+    // ══════════════════════════════════════════════════════
+
+    public Reponse getFormations(Long categorieId, String niveau, Integer page, Integer taille) {
+        lectures.increment();
+        Snapshot s = courant();
+        String cle = categorieId + "|" + niveau + "|" + page + "|" + taille;
+
+        Reponse reponse = s.variantes().get(cle);
+        if (reponse != null) return reponse;
+
+        List<Formation> filtrees = s.formations().stream()
+                .filter(f -> categorieId == null || categorieId.equals(f.getCategorieId()))
+                .filter(f -> niveau == null || niveau.equalsIgnoreCase(f.getNiveau()))
+                .toList();
+
+        List<Formation> contenu = filtrees;
+        if (taille != null) {
+            int t = Math.max(1, Math.min(taille, 100));
+            int debut = Math.max(0, page != null ? page : 0) * t;
+            contenu = debut >= filtrees.size()
+                    ? List.of()
+                    : filtrees.subList(debut, Math.min(debut + t, filtrees.size()));
+        }
+
+        reponse = serialiser(contenu, filtrees.size());
+        s.variantes().put(cle, reponse);
+        return reponse;
+    }
+
+    public Reponse getCategories() {
+        lectures.increment();
+        return courant().categories();
+    }
+
+    private Snapshot courant() {
+        Snapshot s = snapshot;
+        if (s != null && s.version() == version.get()) return s;
+        synchronized (this) {
+            // Un seul thread reconstruit, les autres réutilisent son résultat
+            s = snapshot;
+            long v = version.get();
+            if (s == null || s.version() != v) {
+                s = construire(v);
+                snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    private Snapshot construire(long v) {
+        long debut = System.nanoTime();
+
+        List<Formation> formations = List.copyOf(formationRepository.findPubliees());
+        List<Categorie> categories = categorieRepository.findAllOrderByOrdre().stream()
+                .filter(c -> Boolean.TRUE.equals(c.getVisibleCatalogue()))
+                .sorted(Comparator.comparing(
+                        c -> c.getOrdreAffichage() != null ? c.getOrdreAffichage() : 0))
+                .toList();
+
+        Map<String, Reponse> variantes = Collections.synchronizedMap(
+                new LinkedHashMap<>(64, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Reponse> eldest) {
+                        return size() > MAX_VARIANTES;
+                    }
+                });
+
+        reconstructions.increment();
+        log.info("Catalogue public reconstruit : {} formation(s), {} catégorie(s) en {} ms",
+                formations.size(), categories.size(), (System.nanoTime() - debut) / 1_000_000);
+        return new Snapshot(v, formations, serialiser(categories, categories.size()), variantes);
+    }
+
+    private Reponse serialiser(List<?> contenu, int total) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(contenu);
+            return new Reponse(json, "\"" + empreinte(json) + "\"", total);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erreur sérialisation du catalogue", e);
+        }
+    }
+
+    private static String empreinte(byte[] json) {
+        try {
+            byte[] sha = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(sha, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // INVALIDATION
+    // ══════════════════════════════════════════════════════
+
+    @Override
+    public void invalider() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Dans une transaction : reconstruire avant le commit relirait l'ancien état
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    // Compteurs (inscrits, note moyenne…) modifiés hors FormationService
+    @Scheduled(fixedRateString = "${app.catalogue.rafraichissement-ms:300000}",
+               initialDelayString = "${app.catalogue.rafraichissement-ms:300000}")
+    public void rafraichir() {
+        if (snapshot != null) version.incrementAndGet();
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void journaliser() {
+        if (lectures.sum() > 0) {
+            log.info("Catalogue public : {}", getStatistiques());
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lectures",        lectures.sum());
+        stats.put("reconstructions", reconstructions.sum());
+        stats.put("formations",      s != null ? s.formations().size() : 0);
+        stats.put("variantes",       s != null ? s.variantes().size() : 0);
+        stats.put("aJour",           s != null && Objects.equals(s.version(), version.get()));
+        return stats;
+    }
+}
@@ -2,26 +2,22 @@ package com.digitalisyours.infrastructure.web.service;
 
 
 
+import com.digitalisyours.domain.model.EmailSortant;
+import com.digitalisyours.domain.port.out.EmailOutboxPort;
 import com.digitalisyours.infrastructure.persistence.EmailVerificationTokenRepository;
 import com.digitalisyours.infrastructure.persistence.entity.EmailVerificationTokenEntity;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private final EmailOutboxPort outbox;
     private final EmailVerificationTokenRepository tokenRepository;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     @Value("${app.base-url:http://localhost:4200}")
     private String baseUrl;
 
@@ -36,15 +32,13 @@ public class EmailService {
             String verificationUrl = "http://localhost:8080/api/auth/verify-email?token=" + token.getToken();
             String htmlContent = buildVerificationEmailHtml(verificationUrl);
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail, "Digital Is Yours");
-            helper.setTo(toEmail);
-            helper.setSubject("Confirmez votre compte Digital Is Yours");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Lien de verification envoye a: {}", toEmail);
+            outbox.enregistrer(EmailSortant.builder()
+                    .destinataire(toEmail)
+                    .nomExpediteur("Digital Is Yours")
+                    .sujet("Confirmez votre compte Digital Is Yours")
+                    .html(htmlContent)
+                    .build());
+            log.info("Lien de verification mis en file pour: {}", toEmail);
 
         } catch (Exception e) {
             log.error("Erreur envoi lien verification: {}", e.getMessage());
@@ -57,15 +51,13 @@ public class EmailService {
         try {
             String htmlContent = buildPasswordResetEmailHtml(code);
 
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail, "Digital Is Yours");
-            helper.setTo(toEmail);
-            helper.setSubject("Code de reinitialisation - Digital Is Yours");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Code reset envoye a: {}", toEmail);
+            outbox.enregistrer(EmailSortant.builder()
+                    .destinataire(toEmail)
+                    .nomExpediteur("Digital Is Yours")
+                    .sujet("Code de reinitialisation - Digital Is Yours")
+                    .html(htmlContent)
+                    .build());
+            log.info("Code reset mis en file pour: {}", toEmail);
 
         } catch (Exception e) {
             log.error("Erreur envoi code reset: {}", e.getMessage());
@@ -0,0 +1,85 @@
+package com.digitalisyours.infrastructure.web.service;
+
+import com.digitalisyours.domain.model.JobGenerationQuiz;
+import com.digitalisyours.domain.model.Quiz;
+import com.digitalisyours.domain.port.in.GenerationQuizJobUseCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Suivi des jobs de génération de quiz, partagé par
+ * MiniQuizFormateurController et QuizFinalFormateurController.
+ *
+ * Flux SSE : un événement "statut" immédiat, puis "termine" (TERMINE ou ECHEC)
+ * et fermeture du flux. Les erreurs d'accès sont envoyées dans un événement "erreur".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobQuizSseService {
+    private static final long SSE_TIMEOUT_MS = 3 * 60 * 1000L;
+
+    private final GenerationQuizJobUseCase jobUseCase;
+
+    public SseEmitter suivre(String jobId, String email,
+                             Function<Quiz, Map<String, Object>> serialiseur) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+
+        if (email == null) {
+            return erreur(emitter, "Non autorisé");
+        }
+
+        try {
+            JobGenerationQuiz job = jobUseCase.getJob(jobId, email);
+            emitter.send(SseEmitter.event().name("statut").data(toResponse(job, serialiseur)));
+
+            jobUseCase.attendreFin(jobId, email).whenComplete((fin, ex) -> {
+                try {
+                    emitter.send(SseEmitter.event().name("termine").data(toResponse(fin, serialiseur)));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    // Client déconnecté entre-temps : le résultat reste disponible en polling
+                    log.debug("Flux SSE du job {} fermé : {}", jobId, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            return erreur(emitter, e.getMessage());
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public Map<String, Object> toResponse(JobGenerationQuiz job,
+                                          Function<Quiz, Map<String, Object>> serialiseur) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId",        job.getId());
+        map.put("type",         job.getType());
+        map.put("statut",       job.getStatut());
+        map.put("message",      job.getMessage());
+        map.put("dateCreation", job.getDateCreation());
+        map.put("dateFin",      job.getDateFin());
+        if (job.getQuiz() != null) {
+            map.put("quiz", serialiseur.apply(job.getQuiz()));
+        }
+        return map;
+    }
+
+    private SseEmitter erreur(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("erreur")
+                    .data(Map.of("message", message != null ? message : "Erreur inattendue")));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+}
@@ -0,0 +1,307 @@
+package com.digitalisyours.infrastructure.web.service;
+
+import com.digitalisyours.domain.model.Notification;
+import com.digitalisyours.domain.model.User;
+import com.digitalisyours.domain.port.out.NotificationRepositoryPort;
+import com.digitalisyours.domain.port.out.UserRepositoryPort;
+import com.digitalisyours.infrastructure.persistence.event.NotificationsCreeesEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flux SSE des notifications, en remplacement du polling de /count.
+ *
+ * Registre en mémoire des abonnés par utilisateur (instance unique). Un client
+ * connecté ne coûte aucune requête tant que rien ne lui arrive : la base n'est lue
+ * qu'à la connexion et quand une notification est créée pour lui (après commit).
+ *
+ * Événements : "notification" (id = id de la notification) puis "compteur".
+ * Reprise : le navigateur renvoie Last-Event-ID en se reconnectant, seules les
+ * notifications plus récentes sont rejouées. EventSource n'envoyant pas d'en-tête
+ * Authorization, le client ouvre le flux avec un jeton court (POST /flux/jeton). Un commentaire part toutes les
+ * heartbeat-ms pour garder la connexion ouverte derrière les proxys.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSseService {
+    private static final int MAX_REJOUEES = 100;
+
+    private final NotificationRepositoryPort notificationRepository;
+    private final UserRepositoryPort         userRepository;
+
+    @Value("${app.notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.notifications.sse.max-abonnes:10000}")
+    private int maxAbonnes;
+
+    @Value("${app.notifications.sse.max-par-utilisateur:5}")
+    private int maxParUtilisateur;
+
+    private record Abonne(SseEmitter emitter, boolean apprenant) {}
+
+    // Connexions d'un utilisateur (onglets) + dernière notification poussée
+    private static final class Groupe {
+        final List<Abonne> abonnes = new CopyOnWriteArrayList<>();
+        String email;
+        long dernierId;
+    }
+
+    private final Map<Long, Groupe>   groupes    = new ConcurrentHashMap<>();
+    private final Map<String, Long>   userIds    = new ConcurrentHashMap<>();
+    private final Set<Long>           aNotifier  = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger       nbAbonnes  = new AtomicInteger();
+    private final ExecutorService     diffuseur  = Executors.newVirtualThreadPerTaskExecutor();
+
+    // ── Métriques ──
+    private final LongAdder poussees  = new LongAdder();
+    private final LongAdder requetes  = new LongAdder();
+    private final LongAdder connexions = new LongAdder();
+
+    // ══════════════════════════════════════════════════════
+    // ABONNEMENT
+    // ══════════════════════════════════════════════════════
+
+    public SseEmitter abonner(String email, String role, Long dernierIdClient) {
+        if (email == null) {
+            return erreur("Non autorisé");
+        }
+        if (nbAbonnes.get() >= maxAbonnes) {
+            return erreur("Trop de connexions ouvertes. Réessayez plus tard.");
+        }
+        Optional<User> user = userRepository.findByEmail(email);
+        if (user.isEmpty()) {
+            return erreur("Utilisateur non trouvé");
+        }
+        Long userId = user.get().getId();
+        boolean apprenant = "APPRENANT".equals(role);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Abonne abonne = new Abonne(emitter, apprenant);
+        while (true) {
+            Groupe groupe = groupes.computeIfAbsent(userId, id -> new Groupe());
+            synchronized (groupe) {
+                // Groupe vidé et retiré entre-temps : on en prend un neuf
+                if (groupes.get(userId) != groupe) continue;
+                inscrire(userId, email, groupe, abonne, dernierIdClient);
+            }
+            return emitter;
+        }
+    }
+
+    private void inscrire(Long userId, String email, Groupe groupe, Abonne abonne, Long dernierIdClient) {
+        if (groupe.abonnes.size() >= maxParUtilisateur) {
+            // Onglet le plus ancien fermé : le navigateur le reconnectera s'il est encore ouvert
+            Abonne ancien = groupe.abonnes.get(0);
+            ancien.emitter().complete();
+            retirer(userId, ancien);
+        }
+        groupe.email = email;
+        groupe.abonnes.add(abonne);
+        nbAbonnes.incrementAndGet();
+        connexions.increment();
+        userIds.put(email, userId);
+
+        SseEmitter emitter = abonne.emitter();
+        emitter.onCompletion(() -> retirer(userId, abonne));
+        emitter.onTimeout(() -> retirer(userId, abonne));
+        emitter.onError(e -> retirer(userId, abonne));
+
+        try {
+            long derniere = notificationRepository.findDerniereId(userId);
+            requetes.increment();
+            if (dernierIdClient != null && dernierIdClient < derniere) {
+                // Reprise : on rejoue ce que le client n'a pas reçu
+                envoyerNotifications(abonne, notificationRepository.findApres(
+                        userId, dernierIdClient, MAX_REJOUEES));
+                requetes.increment();
+            }
+            groupe.dernierId = Math.max(groupe.dernierId, derniere);
+            envoyerCompteur(abonne, compter(userId, abonne.apprenant()));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private SseEmitter erreur(String message) {
+        SseEmitter emitter = new SseEmitter(0L);
+        try {
+            emitter.send(SseEmitter.event().name("erreur").data(Map.of("message", message)));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    private void retirer(Long userId, Abonne abonne) {
+        Groupe groupe = groupes.get(userId);
+        if (groupe == null) return;
+        synchronized (groupe) {
+            if (groupe.abonnes.remove(abonne)) nbAbonnes.decrementAndGet();
+            if (groupe.abonnes.isEmpty() && groupes.remove(userId, groupe)) {
+                userIds.remove(groupe.email, userId);
+            }
+        }
+    }
+
+    // ══════════════════════════════════════════════════════
+    // DIFFUSION
+    // ══════════════════════════════════════════════════════
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void surNotificationsCreees(NotificationsCreeesEvent event) {
+        for (Long userId : event.userIds()) {
+            // Seuls les utilisateurs connectés déclenchent une lecture ; une rafale
+            // de créations pour le même utilisateur est regroupée en une seule
+            if (groupes.containsKey(userId) && aNotifier.add(userId)) {
+                diffuseur.submit(() -> diffuser(userId));
+            }
+        }
+    }
+
+    /** Compteur à jour après une lecture (marquer lue / tout lire). */
+    public void rafraichirCompteur(String email) {
+        Long userId = userIds.get(email);
+        if (userId == null || !groupes.containsKey(userId)) return;
+        diffuseur.submit(() -> {
+            Groupe groupe = groupes.get(userId);
+            if (groupe == null) return;
+            synchronized (groupe) {
+                envoyerCompteurs(userId, groupe);
+            }
+        });
+    }
+
+    private void diffuser(Long userId) {
+        aNotifier.remove(userId);
+        Groupe groupe = groupes.get(userId);
+        if (groupe == null) return;
+
+        synchronized (groupe) {
+            try {
+                List<Notification> nouvelles = notificationRepository.findApres(
+                        userId, groupe.dernierId, MAX_REJOUEES);
+                requetes.increment();
+                if (nouvelles.isEmpty()) return;
+                groupe.dernierId = nouvelles.get(nouvelles.size() - 1).getId();
+
+                for (Abonne abonne : groupe.abonnes) {
+                    try {
+                        envoyerNotifications(abonne, nouvelles);
+                    } catch (IOException | IllegalStateException e) {
+                        retirer(userId, abonne);
+                    }
+                }
+                envoyerCompteurs(userId, groupe);
+            } catch (Exception e) {
+                log.warn("Diffusion SSE des notifications de l'utilisateur {} échouée : {}",
+                        userId, e.getMessage());
+            }
+        }
+    }
+
+    private void envoyerCompteurs(Long userId, Groupe groupe) {
+        // Au plus deux comptages : vue apprenant (types formateur exclus) et vue complète
+        Long compteApprenant = null, compteComplet = null;
+        for (Abonne abonne : groupe.abonnes) {
+            long count;
+            if (abonne.apprenant()) {
+                if (compteApprenant == null) compteApprenant = compter(userId, true);
+                count = compteApprenant;
+            } else {
+                if (compteComplet == null) compteComplet = compter(userId, false);
+                count = compteComplet;
+            }
+            try {
+                envoyerCompteur(abonne, count);
+            } catch (IOException | IllegalStateException e) {
+                retirer(userId, abonne);
+            }
+        }
+    }
+
+    private long compter(Long userId, boolean apprenant) {
+        requetes.increment();
+        return notificationRepository.countNonLues(userId,
+                apprenant ? Notification.TYPES_FORMATEUR : List.of());
+    }
+
+    private void envoyerNotifications(Abonne abonne, List<Notification> notifications) throws IOException {
+        for (Notification n : notifications) {
+            if (abonne.apprenant() && Notification.TYPES_FORMATEUR.contains(n.getType())) continue;
+            abonne.emitter().send(SseEmitter.event()
+                    .id(String.valueOf(n.getId()))
+                    .name("notification")
+                    .data(n));
+            poussees.increment();
+        }
+    }
+
+    private void envoyerCompteur(Abonne abonne, long count) throws IOException {
+        abonne.emitter().send(SseEmitter.event().name("compteur").data(Map.of("count", count)));
+    }
+
+    // ══════════════════════════════════════════════════════
+    // HEARTBEAT + MÉTRIQUES
+    // ══════════════════════════════════════════════════════
+
+    // Le thread du scheduler ne fait que distribuer : un envoi bloqué vers un client lent
+    // n'occupe qu'un thread virtuel du diffuseur
+    @Scheduled(fixedRateString = "${app.notifications.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        groupes.forEach((userId, groupe) -> diffuseur.submit(() -> {
+            for (Abonne abonne : groupe.abonnes) {
+                try {
+                    abonne.emitter().send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    // Client parti sans fermer proprement
+                    retirer(userId, abonne);
+                }
+            }
+        }));
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void journaliser() {
+        if (connexions.sum() > 0) {
+            log.info("Flux SSE notifications : {}", getStatistiques());
+        }
+    }
+
+    public Map<String, Object> getStatistiques() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("abonnes",      nbAbonnes.get());
+        stats.put("utilisateurs", groupes.size());
+        stats.put("connexions",   connexions.sum());
+        stats.put("poussees",     poussees.sum());
+        stats.put("requetes",     requetes.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void arreter() {
+        diffuseur.shutdownNow();
+        groupes.values().forEach(g -> g.abonnes.forEach(a -> a.emitter().complete()));
+    }
+}
@@ -0,0 +1,277 @@
+package com.digitalisyours.infrastructure.web.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service de diffusion de fichiers avec support HTTP Range (RFC 7233).
+ *
+ * Partagé par VideoStreamController (formateur) et SuivreCoursController (apprenant) :
+ *  - 200 complet si pas de Range (ou If-Range périmé)
+ *  - 206 mono-plage avec Content-Range
+ *  - 206 multi-plages en multipart/byteranges
+ *  - 416 si aucune plage satisfaisable
+ *  - 304 si If-None-Match correspond à l'ETag
+ *
+ * Les octets sont envoyés sans copie en mémoire applicative :
+ * sendfile Tomcat quand le connecteur le supporte, sinon FileChannel.transferTo
+ * vers la sortie du servlet.
+ */
+@Service
+@Slf4j
+public class RangeStreamingService {
+
+    // Attributs de requête Tomcat pour le sendfile (NIO / NIO2 / APR)
+    private static final String SENDFILE_SUPPORT  = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START    = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END      = "org.apache.tomcat.sendfile.end";
+
+    // Limite anti-abus : au-delà, on renvoie le fichier complet
+    private static final int MAX_RANGES = 16;
+
+    private record ByteRange(long start, long end) {
+        long length() { return end - start + 1; }
+    }
+
+    /**
+     * Sert le fichier en respectant Range / If-Range / If-None-Match.
+     *
+     * @param file        fichier à servir (doit exister et être lisible)
+     * @param contentType type MIME du fichier
+     * @param disposition valeur complète de Content-Disposition (ou null)
+     */
+    public void serve(Path file, String contentType, String disposition,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(file, contentType, disposition, null, request, response);
+    }
+
+    /**
+     * Variante avec un ETag fourni par l'appelant (ex : SHA-256 du contenu).
+     * Si etag est null, il est dérivé de la taille et de la date de modification.
+     */
+    public void serve(Path file, String contentType, String disposition, String etag,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        long length       = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (etag == null) {
+            etag = buildEtag(length, lastModified);
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        if (disposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+
+        // ── Cache client ──
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && !ifRangeSatisfied(request, etag, lastModified)) {
+            rangeHeader = null;
+        }
+
+        if (rangeHeader == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            writeRange(file, new ByteRange(0, length - 1), length, request, response);
+            return;
+        }
+
+        List<ByteRange> ranges = parseRanges(rangeHeader, length);
+
+        if (ranges == null) {
+            // Syntaxe invalide ou trop de plages → on ignore le Range
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            writeRange(file, new ByteRange(0, length - 1), length, request, response);
+            return;
+        }
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (ranges.size() == 1) {
+            ByteRange r = ranges.get(0);
+            response.setContentType(contentType);
+            response.setContentLengthLong(r.length());
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + r.start() + "-" + r.end() + "/" + length);
+            writeRange(file, r, length, request, response);
+            return;
+        }
+
+        writeMultipart(file, ranges, length, contentType, response);
+    }
+
+    // ════════════════════════════════════════════════════════
+    // ÉCRITURE
+    // ════════════════════════════════════════════════════════
+
+    private void writeRange(Path file, ByteRange range, long length,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (length == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat se charge de l'envoi noyau (sendfile) après le retour du contrôleur
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            transfer(channel, range, out);
+        }
+    }
+
+    private void writeMultipart(Path file, List<ByteRange> ranges, long length,
+                                String contentType, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (ByteRange r : ranges) {
+            byte[] head = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + r.start() + "-" + r.end() + "/" + length
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(head);
+            total += head.length + r.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        total += closing.length;
+        response.setContentLengthLong(total);
+
+        OutputStream os = response.getOutputStream();
+        WritableByteChannel out = Channels.newChannel(os);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                os.write(partHeaders.get(i));
+                transfer(channel, ranges.get(i), out);
+            }
+        }
+        os.write(closing);
+    }
+
+    private void transfer(FileChannel channel, ByteRange range, WritableByteChannel out) throws IOException {
+        long position  = range.start();
+        long remaining = range.length();
+        while (remaining > 0) {
+            long sent = channel.transferTo(position, remaining, out);
+            if (sent <= 0) break;
+            position  += sent;
+            remaining -= sent;
+        }
+    }
+
+    // ════════════════════════════════════════════════════════
+    // PARSING / VALIDATION
+    // ════════════════════════════════════════════════════════
+
+    /**
+     * Parse "bytes=0-499,1000-,-500".
+     *
+     * @return null si l'en-tête est invalide (à ignorer),
+     *         liste vide si aucune plage n'est satisfaisable (→ 416)
+     */
+    private List<ByteRange> parseRanges(String header, long length) {
+        if (!header.startsWith("bytes=")) return null;
+
+        String[] specs = header.substring(6).split(",");
+        if (specs.length > MAX_RANGES) return null;
+
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String raw : specs) {
+            String spec = raw.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) return null;
+
+            String first = spec.substring(0, dash).trim();
+            String last  = spec.substring(dash + 1).trim();
+            long start, end;
+            try {
+                if (first.isEmpty()) {
+                    // Suffixe : les N derniers octets
+                    if (last.isEmpty()) return null;
+                    long suffix = Long.parseLong(last);
+                    if (suffix <= 0) continue;
+                    start = Math.max(0, length - suffix);
+                    end   = length - 1;
+                } else {
+                    start = Long.parseLong(first);
+                    end   = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                    if (end < start) return null;
+                    end = Math.min(end, length - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start >= length || start > end) continue;
+            ranges.add(new ByteRange(start, end));
+        }
+        return ranges;
+    }
+
+    private boolean ifRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range exige une comparaison forte
+            return !ifRange.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && lastModified / 1000 <= date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        if ("*".equals(header.trim())) return true;
+        for (String candidate : header.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private String buildEtag(long length, long lastModified) {
+        return "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+}
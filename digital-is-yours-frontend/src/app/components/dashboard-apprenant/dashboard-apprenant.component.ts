@@ -4,6 +4,8 @@ import { ActivatedRoute, Router } from '@angular/router';
 import { DomSanitizer, SafeResourceUrl } from '@angular/platform-browser';
 import { QuizAntiFraudeService, EtatFraude, NiveauFraude } from '../../services/quiz-anti-fraude.service';
 import { QuizCameraService, EtatCamera, EvenementCamera } from '../../services/quiz-camera.service';
+import { NotificationFluxService, EvenementNotification } from '../../services/notification-flux.service';
+import { Subscription } from 'rxjs';
 
 @Component({
   selector: 'app-dashboard-apprenant',
@@ -240,7 +242,7 @@ documentsError = '';
   ];
 
   private api              = 'http://localhost:8080/api/apprenant';
-  private pollingInterval: any = null;
+  private notifFlux: Subscription | null = null;
 
  constructor(
   private router: Router,
@@ -249,7 +251,8 @@ documentsError = '';
   private cdr: ChangeDetectorRef,
   private sanitizer: DomSanitizer,
   public antiFraude: QuizAntiFraudeService ,
-  public camera: QuizCameraService   // ← AJOUTER (public pour accès template)
+  public camera: QuizCameraService,   // ← AJOUTER (public pour accès template)
+  private notificationFlux: NotificationFluxService
 
 
 ) {}
@@ -272,7 +275,8 @@ documentsError = '';
   } catch(e) {}
 }, { once: true });
   this.loadNotifications();
-  this.pollingInterval = setInterval(() => this.pollNotifCount(), 30000);
+  this.notifFlux = this.notificationFlux.connecter(this.api, token)
+    .subscribe(evt => this.surEvenementNotification(evt));
 
   const tab = this.route.snapshot.queryParamMap.get('tab');
   if (tab === 'mes-formations') {
@@ -545,7 +549,7 @@ estMonAuteur(q: any): boolean {
   if (this.qfFraudeSubscription) {
     this.qfFraudeSubscription.unsubscribe();
   }
-  if (this.pollingInterval) clearInterval(this.pollingInterval);
+  this.notifFlux?.unsubscribe();
   if (this.draftInterval) clearInterval(this.draftInterval);
   if (this.nouvelleReponseInterval) clearInterval(this.nouvelleReponseInterval); // ← AJOUTER
   this.stopDetailPoll();
@@ -1173,23 +1177,17 @@ formatTailleDoc(bytes: number): string {
       });
   }
 
-pollNotifCount() {
-  this.http.get<any>(`${this.api}/notifications/count`, { headers: this.headers() })
-    .subscribe({
-      next: d => {
-        const n = d.count || 0;
-        if (n > this.notifNonLues) {
-          this.playNotifSound();
-          this.notifNonLues = n;       // ← AJOUTER cette ligne
-          this.loadNotifications();
-        } else {
-          this.notifNonLues = n;
-          this.cdr.detectChanges();
-        }
-      },
-      error: () => {}
-    });
-}
+  // Flux SSE : nouvelle notification poussée par le serveur + compteur de non lues à jour
+  surEvenementNotification(evt: EvenementNotification) {
+    if (evt.type === 'notification') {
+      if (this.notifications.some(n => n.id === evt.notification.id)) return;
+      this.notifications = [evt.notification, ...this.notifications];
+      this.playNotifSound();
+    } else {
+      this.notifNonLues = evt.count;
+    }
+    this.cdr.detectChanges();
+  }
 
   toggleNotifPanel(event: Event) {
     event.stopPropagation();
@@ -1323,7 +1321,7 @@ pollNotifCount() {
   // ══════════════════════════════════════════════════════
 
   logout() {
-    if (this.pollingInterval) clearInterval(this.pollingInterval);
+    this.notifFlux?.unsubscribe();
     localStorage.clear();
     this.router.navigate(['/login']);
   }
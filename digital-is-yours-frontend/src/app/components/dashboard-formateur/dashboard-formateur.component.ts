@@ -2,6 +2,9 @@ import { Component, OnInit, OnDestroy, ChangeDetectorRef } from '@angular/core';
 import { Router } from '@angular/router';
 import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { FormBuilder, FormGroup, Validators } from '@angular/forms';
+import { Subscription } from 'rxjs';
+import { NotificationFluxService, EvenementNotification } from '../../services/notification-flux.service';
+import { GenerationQuizJobService } from '../../services/generation-quiz-job.service';
 
 @Component({
   selector: 'app-dashboard-formateur',
@@ -234,13 +237,15 @@ seanceForm = {
   ];
 
   private api = 'http://localhost:8080/api/formateur';
-  private pollingInterval: any = null;
+  private notifFlux: Subscription | null = null;
 
   constructor(
     private router: Router,
     private http: HttpClient,
     private cdr: ChangeDetectorRef,
-    private fb: FormBuilder
+    private fb: FormBuilder,
+    private notificationFlux: NotificationFluxService,
+    private generationQuiz: GenerationQuizJobService
   ) {}
 
   ngOnInit() {
@@ -259,11 +264,12 @@ seanceForm = {
   }, { once: true });
 
   this.loadNotifications();
-  this.pollingInterval = setInterval(() => this.pollNotifCount(), 30000);
+  this.notifFlux = this.notificationFlux.connecter(this.api, token)
+    .subscribe(evt => this.surEvenementNotification(evt));
 }
 
   ngOnDestroy() {
-    if (this.pollingInterval) clearInterval(this.pollingInterval);
+    this.notifFlux?.unsubscribe();
     this.uploadXhr?.abort();
     this.uploadXhr = null;
   }
@@ -999,23 +1005,17 @@ if (section === 'seances') { this.loadSeances(); }
       });
   }
 
- pollNotifCount() {
-  this.http.get<any>(`${this.api}/notifications/count`, { headers: this.headers() })
-    .subscribe({
-      next: d => {
-        const n = d.count || 0;
-        if (n > this.notifNonLues) {
-          this.playNotifSound();   // ← son
-          this.notifNonLues = n;   // ← mettre à jour pour éviter boucle
-          this.loadNotifications();
-        } else {
-          this.notifNonLues = n;
-          this.cdr.detectChanges();
-        }
-      },
-      error: () => {}
-    });
-}
+  // Flux SSE : nouvelle notification poussée par le serveur + compteur de non lues à jour
+  surEvenementNotification(evt: EvenementNotification) {
+    if (evt.type === 'notification') {
+      if (this.notifications.some(n => n.id === evt.notification.id)) return;
+      this.notifications = [evt.notification, ...this.notifications];
+      this.playNotifSound();
+    } else {
+      this.notifNonLues = evt.count;
+    }
+    this.cdr.detectChanges();
+  }
   playNotifSound() {
   try {
     const ctx = new ((window as any).AudioContext || (window as any).webkitAudioContext)();
@@ -1130,7 +1130,9 @@ if (section === 'seances') { this.loadSeances(); }
   generateMiniQuiz() {
     if (!this.currentCoursId || !this.selectedFormation) return;
     this.miniQuizGenerating = true; this.cdr.detectChanges();
-    this.http.post<any>(`${this.api}/formations/${this.selectedFormation.id}/cours/${this.currentCoursId}/mini-quiz/generer-ia`, this.miniQuizParams, { headers: this.headers() })
+    // Génération en arrière-plan (job + SSE) : pas de requête HTTP bloquée pendant l'appel IA
+    this.generationQuiz.generer(this.api, `${this.api}/formations/${this.selectedFormation.id}/cours/${this.currentCoursId}/mini-quiz`,
+        this.miniQuizParams, localStorage.getItem('formateur_token') || '')
       .subscribe({
         next: quiz => {
           this.miniQuizGenerating = false; this.showMiniQuizModal = false;
@@ -1354,7 +1356,8 @@ if (section === 'seances') { this.loadSeances(); }
     if (!this.selectedFormation) return;
     this.quizFinalGenerating = true;
     this.cdr.detectChanges();
-    this.http.post<any>(`${this.api}/formations/${this.selectedFormation.id}/quiz-final/generer-ia`, this.quizFinalParams, { headers: this.headers() })
+    this.generationQuiz.generer(this.api, `${this.api}/formations/${this.selectedFormation.id}/quiz-final`,
+        this.quizFinalParams, localStorage.getItem('formateur_token') || '')
       .subscribe({
         next: quiz => {
           this.quizFinalGenerating = false;
@@ -2071,7 +2074,7 @@ estDansMoinsD24h(dateStr: string): boolean {
          d.getFullYear() === today.getFullYear();
 }
   logout() {
-    if (this.pollingInterval) clearInterval(this.pollingInterval);
+    this.notifFlux?.unsubscribe();
     localStorage.clear();
     this.router.navigate(['/login']);
   }
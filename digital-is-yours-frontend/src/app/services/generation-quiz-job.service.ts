@@ -0,0 +1,101 @@
+import { Injectable, NgZone } from '@angular/core';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { Observable, Subscription } from 'rxjs';
+
+// ── Service ────────────────────────────────────────────────────────
+
+/**
+ * Génération IA d'un quiz en arrière-plan (POST …/generer-ia/jobs), suivie par SSE.
+ *
+ * EventSource ne peut pas envoyer l'en-tête Authorization : on demande un jeton court
+ * (POST /notifications/flux/jeton) puis on ouvre …/generer-ia/jobs/{jobId}/evenements?jeton=…
+ * Si le flux échoue (jeton refusé, proxy qui coupe), on bascule sur le polling du job.
+ * Émet le quiz généré puis se termine ; erreur avec le message du serveur si le job échoue.
+ */
+@Injectable({ providedIn: 'root' })
+export class GenerationQuizJobService {
+
+  private static readonly POLLING_MS = 3000;
+
+  constructor(private http: HttpClient, private zone: NgZone) {}
+
+  /**
+   * @param api    base de l'espace formateur (http://localhost:8080/api/formateur)
+   * @param base   ressource du quiz (…/cours/{id}/mini-quiz ou …/quiz-final)
+   * @param params paramètres de génération
+   * @param token  JWT du formateur connecté
+   */
+  generer(api: string, base: string, params: any, token: string): Observable<any> {
+    return new Observable<any>(observer => {
+      const headers = new HttpHeaders({ Authorization: `Bearer ${token}` });
+      let source: EventSource | null = null;
+      let requete: Subscription | null = null;
+      let relance: any = null;
+      let ferme = false;
+      let repli = false;
+
+      const terminer = (job: any) => {
+        ferme = true;
+        source?.close();
+        this.zone.run(() => {
+          if (job.statut === 'TERMINE') { observer.next(job.quiz); observer.complete(); }
+          else observer.error({ error: { message: job.message || 'Erreur lors de la génération.' } });
+        });
+      };
+
+      const echouer = (err: any) => {
+        ferme = true;
+        source?.close();
+        this.zone.run(() => observer.error(err));
+      };
+
+      // Repli : interrogation du job jusqu'à son terme
+      const sonder = (jobId: string) => {
+        if (ferme) return;
+        requete = this.http.get<any>(`${base}/generer-ia/jobs/${jobId}`, { headers }).subscribe({
+          next: job => {
+            if (job.statut === 'TERMINE' || job.statut === 'ECHEC') terminer(job);
+            else relance = setTimeout(() => sonder(jobId), GenerationQuizJobService.POLLING_MS);
+          },
+          error: err => echouer(err)
+        });
+      };
+
+      const basculer = (jobId: string) => {
+        source?.close();
+        if (repli || ferme) return;
+        repli = true;
+        sonder(jobId);
+      };
+
+      const suivre = (jobId: string) => {
+        requete = this.http.post<{ jeton: string }>(`${api}/notifications/flux/jeton`, {}, { headers }).subscribe({
+          next: r => {
+            if (ferme) return;
+            const url = `${base}/generer-ia/jobs/${jobId}/evenements?jeton=${encodeURIComponent(r.jeton)}`;
+            this.zone.runOutsideAngular(() => {
+              source = new EventSource(url);
+              source.addEventListener('termine', (e: MessageEvent) => terminer(JSON.parse(e.data)));
+              source.addEventListener('erreur', () => this.zone.run(() => basculer(jobId)));
+              // Flux coupé : le job continue côté serveur, on le suit en polling
+              source.onerror = () => this.zone.run(() => basculer(jobId));
+            });
+          },
+          error: () => basculer(jobId)
+        });
+      };
+
+      requete = this.http.post<any>(`${base}/generer-ia/jobs`, params, { headers }).subscribe({
+        next: job => job.statut === 'TERMINE' || job.statut === 'ECHEC' ? terminer(job) : suivre(job.jobId),
+        error: err => echouer(err)
+      });
+
+      return () => {
+        ferme = true;
+        clearTimeout(relance);
+        requete?.unsubscribe();
+        source?.close();
+      };
+    });
+  }
+}
@@ -0,0 +1,101 @@
+import { Injectable, NgZone } from '@angular/core';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { Observable, Subscription } from 'rxjs';
+
+// ── Types exportés ─────────────────────────────────────────────────
+
+export type EvenementNotification =
+  | { type: 'notification'; notification: any }
+  | { type: 'compteur';     count: number };
+
+// ── Service ────────────────────────────────────────────────────────
+
+/**
+ * Flux SSE des notifications (remplace le polling de /notifications/count).
+ *
+ * EventSource ne peut pas envoyer l'en-tête Authorization : on demande d'abord
+ * un jeton court (POST /notifications/flux/jeton) puis on ouvre /notifications/flux?jeton=…
+ * Coupure réseau : le navigateur se reconnecte seul et renvoie Last-Event-ID.
+ * Jeton expiré ou serveur indisponible (EventSource fermé) : nouveau jeton,
+ * reprise à la dernière notification reçue (?dernierId=), délai croissant jusqu'à 1 min.
+ */
+@Injectable({ providedIn: 'root' })
+export class NotificationFluxService {
+
+  private static readonly DELAI_INITIAL_MS = 2000;
+  private static readonly DELAI_MAX_MS     = 60000;
+
+  constructor(private http: HttpClient, private zone: NgZone) {}
+
+  /**
+   * @param api   base de l'espace (http://localhost:8080/api/formateur ou …/api/apprenant)
+   * @param token JWT de l'utilisateur connecté
+   */
+  connecter(api: string, token: string): Observable<EvenementNotification> {
+    return new Observable<EvenementNotification>(observer => {
+      let source: EventSource | null = null;
+      let demandeJeton: Subscription | null = null;
+      let relance: any = null;
+      let dernierId: string | null = null;
+      let delai = NotificationFluxService.DELAI_INITIAL_MS;
+      let ferme = false;
+
+      const emettre = (evt: EvenementNotification) => this.zone.run(() => observer.next(evt));
+
+      const planifier = () => {
+        if (ferme) return;
+        relance = setTimeout(ouvrir, delai);
+        delai = Math.min(delai * 2, NotificationFluxService.DELAI_MAX_MS);
+      };
+
+      const ouvrir = () => {
+        const headers = new HttpHeaders({ Authorization: `Bearer ${token}` });
+        demandeJeton = this.http.post<{ jeton: string }>(`${api}/notifications/flux/jeton`, {}, { headers })
+          .subscribe({
+            next: r => {
+              if (ferme) return;
+              let url = `${api}/notifications/flux?jeton=${encodeURIComponent(r.jeton)}`;
+              if (dernierId) url += `&dernierId=${encodeURIComponent(dernierId)}`;
+
+              // Hors zone Angular : les pings du serveur ne déclenchent pas de détection de changements
+              this.zone.runOutsideAngular(() => {
+                source = new EventSource(url);
+
+                source.addEventListener('notification', (e: MessageEvent) => {
+                  if (e.lastEventId) dernierId = e.lastEventId;
+                  emettre({ type: 'notification', notification: JSON.parse(e.data) });
+                });
+
+                source.addEventListener('compteur', (e: MessageEvent) => {
+                  delai = NotificationFluxService.DELAI_INITIAL_MS;   // flux établi
+                  emettre({ type: 'compteur', count: JSON.parse(e.data).count || 0 });
+                });
+
+                // Refus côté serveur (trop de connexions…) : on rouvre plus tard
+                source.addEventListener('erreur', () => {
+                  source?.close();
+                  planifier();
+                });
+
+                source.onerror = () => {
+                  // CONNECTING : le navigateur gère la reconnexion (Last-Event-ID)
+                  // CLOSED     : réponse refusée (jeton expiré → 401), il faut un nouveau jeton
+                  if (source?.readyState === EventSource.CLOSED) planifier();
+                };
+              });
+            },
+            error: () => planifier()
+          });
+      };
+
+      ouvrir();
+
+      return () => {
+        ferme = true;
+        clearTimeout(relance);
+        demandeJeton?.unsubscribe();
+        source?.close();
+      };
+    });
+  }
+}